@@ -0,0 +1,45 @@
+// k6 run -e BASE_URL=http://localhost:8080 loadtest/rooms-10k.js
+// run once against the default profile and once against SPRING_PROFILES_ACTIVE=reactive
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        search: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '1m', target: 10000 },
+                { duration: '3m', target: 10000 },
+                { duration: '30s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function isoDate(daysAhead) {
+    const date = new Date();
+    date.setUTCDate(date.getUTCDate() + daysAhead);
+    return date.toISOString().substring(0, 10);
+}
+
+export default function () {
+    const start = 1 + Math.floor(Math.random() * 400);
+    const page = Math.floor(Math.random() * 100);
+    const rooms = http.get(`${BASE_URL}/rooms?from=${isoDate(start)}&to=${isoDate(start + 3)}&page=${page}&size=10`);
+    check(rooms, { 'rooms 200': (r) => r.status === 200 });
+
+    if (Math.random() < 0.05) {
+        const booking = http.post(`${BASE_URL}/reservations`, JSON.stringify({
+            roomId: 1 + Math.floor(Math.random() * 20000),
+            startDate: isoDate(start),
+            endDate: isoDate(start + 2),
+        }), { headers: { 'Content-Type': 'application/json' } });
+        check(booking, { 'booking 201 or 409': (r) => r.status === 201 || r.status === 409 });
+    }
+
+    sleep(1);
+}
@@ -1,13 +1,46 @@
 package com.sample.bookingservice;
 
+import com.sample.bookingservice.reactive.ReactiveBookingserviceConfiguration;
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 
-@SpringBootApplication
+import java.util.Arrays;
+
+// @SpringBootApplication spelled out: the reactive stack lives in its own package and only starts with the reactive profile
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class,
+        R2dbcDataAutoConfiguration.class, R2dbcRepositoriesAutoConfiguration.class})
+@ComponentScan(excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.sample\\.bookingservice\\.reactive\\..*")
+})
 public class BookingserviceApplication {
 
+    public static final String REACTIVE_PROFILE = "reactive";
+
     public static void main(String[] args) {
-        SpringApplication.run(BookingserviceApplication.class, args);
+        SpringApplication.run(isReactiveProfileActive(args)
+                ? ReactiveBookingserviceConfiguration.class
+                : BookingserviceApplication.class, args);
+    }
+
+    private static boolean isReactiveProfileActive(final String[] args) {
+        final ConfigurableEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        return Arrays.asList(environment.getActiveProfiles()).contains(REACTIVE_PROFILE);
     }
 
 }
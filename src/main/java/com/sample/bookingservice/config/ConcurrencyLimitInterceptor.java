@@ -0,0 +1,146 @@
+package com.sample.bookingservice.config;
+
+import com.sample.bookingservice.exception.ServiceOverloadedException;
+import com.sample.bookingservice.util.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits requests to {@link ConcurrencyLimited} endpoints while they are under their adaptive limit,
+ * the others are refused before any work is done with a 503 and Retry-After.
+ * Limit, in-flight requests and rejections are published per endpoint as {@code http.server.concurrency.*} metrics.
+ * <p>
+ * An asynchronous request (a streamed body, an emitter) holds its permit until the response is complete. Its async
+ * dispatch is neither admitted nor released again.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+
+    private static final String ADMISSION_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".admission";
+
+    private final ConcurrencyLimitProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    private record Admission(AdaptiveConcurrencyLimiter limiter, long startNanos, int inFlight, AtomicBoolean released) {
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - startNanos, inFlight);
+            }
+        }
+    }
+
+    public ConcurrencyLimitInterceptor(final ConcurrencyLimitProperties properties,
+                                       final ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        properties.getEndpoints().keySet().forEach(this::getLimiter);
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC
+                || request.getAttribute(ADMISSION_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        final ConcurrencyLimited concurrencyLimited = handlerMethod.getMethodAnnotation(ConcurrencyLimited.class);
+        if (concurrencyLimited == null) {
+            return true;
+        }
+
+        final String endpoint = concurrencyLimited.value();
+        final AdaptiveConcurrencyLimiter limiter = getLimiter(endpoint);
+        if (!limiter.tryAcquire()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Rejected {} {}, endpoint {} is at its limit of {}", request.getMethod(),
+                        request.getRequestURI(), endpoint, limiter.getLimit());
+            }
+            throw new ServiceOverloadedException("Too many concurrent requests, retry later",
+                    properties.getEndpoint(endpoint).getRetryAfterSeconds());
+        }
+
+        request.setAttribute(ADMISSION_ATTRIBUTE, new Admission(limiter, System.nanoTime(), limiter.getInFlight(),
+                new AtomicBoolean()));
+        return true;
+    }
+
+    // afterCompletion is skipped when the handler started async processing, the permit goes back once the response
+    // is complete, timed out or failed ones included
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response,
+                                               final Object handler) {
+        if (request.getAttribute(ADMISSION_ATTRIBUTE) instanceof Admission admission) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(final AsyncEvent event) {
+                    admission.release();
+                }
+
+                @Override
+                public void onTimeout(final AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(final AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(final AsyncEvent event) {
+                }
+            });
+        }
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+                                final Object handler, final Exception ex) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return;
+        }
+
+        if (request.getAttribute(ADMISSION_ATTRIBUTE) instanceof Admission admission) {
+            request.removeAttribute(ADMISSION_ATTRIBUTE);
+            admission.release();
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter(final String endpoint) {
+        return limiters.computeIfAbsent(endpoint, this::createLimiter);
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(final String endpoint) {
+        final ConcurrencyLimitProperties.Endpoint limits = properties.getEndpoint(endpoint);
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(limits.getInitialLimit(),
+                limits.getMinLimit(), limits.getMaxLimit());
+
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("endpoint", endpoint).register(registry);
+            Gauge.builder("http.server.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("endpoint", endpoint).register(registry);
+            FunctionCounter.builder("http.server.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("endpoint", endpoint).register(registry);
+        });
+
+        return limiter;
+    }
+}
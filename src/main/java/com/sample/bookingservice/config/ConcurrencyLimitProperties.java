@@ -0,0 +1,27 @@
+package com.sample.bookingservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "concurrency.limits")
+public class ConcurrencyLimitProperties {
+
+    // endpoint name, as in @ConcurrencyLimited, to its limits
+    private Map<String, Endpoint> endpoints = new HashMap<>();
+
+    @Data
+    public static class Endpoint {
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        private int retryAfterSeconds = 1;
+    }
+
+    public Endpoint getEndpoint(final String name) {
+        return endpoints.getOrDefault(name, new Endpoint());
+    }
+}
@@ -0,0 +1,18 @@
+package com.sample.bookingservice.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a controller method behind the adaptive concurrency limit named by {@link #value()},
+ * configured under {@code concurrency.limits.endpoints.<name>}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+    String value();
+}
@@ -0,0 +1,51 @@
+package com.sample.bookingservice.config;
+
+import com.sample.bookingservice.util.ServerTimings;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Charges the time of controller, facade, service and repository calls to the sampled request's
+ * {@link ServerTimings}, requests that aren't sampled only pay for a thread-local lookup.
+ */
+@Aspect
+@Component
+public class ServerTimingAspect {
+
+    @Around("within(com.sample.bookingservice.controller.RoomController) " +
+            "|| within(com.sample.bookingservice.controller.ReservationController)")
+    public Object controller(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTimings.Layer.CONTROLLER);
+    }
+
+    @Around("execution(* com.sample.bookingservice.facade.*Facade+.*(..))")
+    public Object facade(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTimings.Layer.FACADE);
+    }
+
+    @Around("execution(* com.sample.bookingservice.service.*Service+.*(..))")
+    public Object service(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTimings.Layer.SERVICE);
+    }
+
+    @Around("execution(* com.sample.bookingservice.repository.*Repository+.*(..))")
+    public Object repository(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTimings.Layer.REPOSITORY);
+    }
+
+    private Object time(final ProceedingJoinPoint joinPoint, final ServerTimings.Layer layer) throws Throwable {
+        final ServerTimings timings = ServerTimings.current();
+        if (timings == null) {
+            return joinPoint.proceed();
+        }
+
+        final long enteredAt = timings.enter();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timings.exit(layer, enteredAt);
+        }
+    }
+}
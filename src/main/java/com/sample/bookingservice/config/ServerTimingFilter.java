@@ -0,0 +1,64 @@
+package com.sample.bookingservice.config;
+
+import com.sample.bookingservice.util.ServerTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Adds a {@code Server-Timing} header with the per-layer breakdown to a sample of the room and reservation requests.
+ * A sampled response is buffered, so serialization can be timed and the header still be set before the body is sent.
+ * Streaming responses must be listed in {@code server-timing.excluded.paths}, they can't be buffered.
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final double sampleRate;
+    private final List<String> paths;
+    private final List<String> excludedPaths;
+
+    public ServerTimingFilter(@Value("${server-timing.sample.rate}") final double sampleRate,
+                              @Value("${server-timing.paths}") final List<String> paths,
+                              @Value("${server-timing.excluded.paths:}") final List<String> excludedPaths) {
+        this.sampleRate = sampleRate;
+        this.paths = paths;
+        this.excludedPaths = excludedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        return excludedPaths.contains(path) || paths.stream().noneMatch(prefix ->
+                path.equals(prefix) || path.startsWith(prefix + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        final ServerTimings timings = ServerTimings.start();
+        try {
+            filterChain.doFilter(request, buffered);
+        } finally {
+            ServerTimings.clear();
+            buffered.setHeader(SERVER_TIMING, timings.toHeader());
+            buffered.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.sample.bookingservice.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    public WebConfig(final Jackson2ObjectMapperBuilder objectMapperBuilder,
+                     final ConcurrencyLimitInterceptor concurrencyLimitInterceptor) {
+        this.objectMapperBuilder = objectMapperBuilder;
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor);
+    }
+
+    // CBOR is built from the same builder as JSON, so both encodings share modules and date formats
+    @Override
+    public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.factory(new CBORFactory()).build()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.sample.bookingservice.controller;
+
+import com.sample.bookingservice.config.ConcurrencyLimited;
+import com.sample.bookingservice.dto.AvailabilityChangesDto;
+import com.sample.bookingservice.facade.AvailabilityFacade;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping(value = "/availability")
+@RestController
+@Validated
+@Tag(name = "Availability", description = "Endpoints for mirroring room availability")
+public class AvailabilityController {
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityController.class);
+
+    private final AvailabilityFacade availabilityFacade;
+
+    public AvailabilityController(final AvailabilityFacade availabilityFacade) {
+        this.availabilityFacade = availabilityFacade;
+    }
+
+    @Operation(
+            summary = "Get availability changes",
+            description = "Bookings and cancellations committed after the 'since' sequence number, oldest first. " +
+                    "Pass 'next' as 'since' on the following request, right away while 'more' is set. " +
+                    "With 'resync' set the changes are no longer kept: reload availability through /rooms, then follow from 'next'."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved availability changes",
+                    content = @Content(mediaType = MimeTypeUtils.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = AvailabilityChangesDto.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error occurred"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent requests, retry after the Retry-After seconds")
+    })
+    @ConcurrencyLimited("changes")
+    @GetMapping(value = "/changes", produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    public AvailabilityChangesDto getChanges(
+            @Parameter(description = "Sequence number of the last change already applied, 0 to start")
+            @Min(0) @RequestParam(defaultValue = "0") final long since,
+
+            @Parameter(description = "Maximum number of changes to return")
+            @Min(1) @Max(10000) @RequestParam(defaultValue = "1000") final int limit
+    ) {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching availability changes since={}, limit={}", since, limit);
+        }
+
+        final AvailabilityChangesDto changes = availabilityFacade.getChanges(since, limit);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Availability changes: {}, next: {}, resync: {}", changes.getChanges().size(), changes.getNext(),
+                    changes.isResync());
+        }
+
+        return changes;
+    }
+}
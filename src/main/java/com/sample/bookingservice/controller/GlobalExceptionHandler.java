@@ -1,12 +1,19 @@
 package com.sample.bookingservice.controller;
 
+import com.sample.bookingservice.dto.ReservationConflictDto;
 import com.sample.bookingservice.exception.CancelReservationException;
+import com.sample.bookingservice.exception.IdempotencyKeyReuseException;
+import com.sample.bookingservice.exception.ModifyReservationException;
 import com.sample.bookingservice.exception.ReservationNotFoundException;
 import com.sample.bookingservice.exception.RoomAlreadyBookedException;
 import com.sample.bookingservice.exception.RoomNotFoundException;
+import com.sample.bookingservice.exception.RoomRateNotFoundException;
+import com.sample.bookingservice.exception.ServiceOverloadedException;
+import com.sample.bookingservice.exception.WaitlistEntryNotFoundException;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.ValidationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -24,11 +31,17 @@ public class GlobalExceptionHandler {
     }
 
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "409", description = "Room is already booked for the provided dates")
+            @ApiResponse(responseCode = "409", description = "Room is already booked for the provided dates, " +
+                    "other dates for the room and other rooms for the dates are offered instead")
     })
     @ExceptionHandler(RoomAlreadyBookedException.class)
-    public ResponseEntity<String> handleMakeReservationException(final RoomAlreadyBookedException ex) {
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    public ResponseEntity<ReservationConflictDto> handleMakeReservationException(final RoomAlreadyBookedException ex) {
+        ReservationConflictDto conflict = ex.getConflict();
+        if (conflict == null) {
+            conflict = new ReservationConflictDto();
+            conflict.setMessage(ex.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(conflict);
     }
 
     @ApiResponses(value = {
@@ -39,6 +52,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
     }
 
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "409", description = "Unable to modify reservation in its status")
+    })
+    @ExceptionHandler(ModifyReservationException.class)
+    public ResponseEntity<String> handleModifyReservationException(final ModifyReservationException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
     @ApiResponses(value = {
             @ApiResponse(responseCode = "404", description = "Reservation not found")
     })
@@ -54,5 +75,38 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleRoomNotFoundException(final RoomNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
-}
 
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "404", description = "No rate for a night of the stay")
+    })
+    @ExceptionHandler(RoomRateNotFoundException.class)
+    public ResponseEntity<String> handleRoomRateNotFoundException(final RoomRateNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "404", description = "Waitlist entry not found")
+    })
+    @ExceptionHandler(WaitlistEntryNotFoundException.class)
+    public ResponseEntity<String> handleWaitlistEntryNotFoundException(final WaitlistEntryNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "422", description = "Idempotency key was already used for a different request")
+    })
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReuseException(final IdempotencyKeyReuseException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage());
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "503", description = "Too many concurrent requests, retry after the Retry-After seconds")
+    })
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<String> handleServiceOverloadedException(final ServiceOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Integer.toString(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+}
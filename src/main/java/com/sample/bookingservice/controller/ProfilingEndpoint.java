@@ -0,0 +1,61 @@
+package com.sample.bookingservice.controller;
+
+import com.sample.bookingservice.service.ProfileType;
+import com.sample.bookingservice.service.ProfilingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin endpoint under {@code /actuator/profiling}: POST starts a bounded recording, DELETE stops it,
+ * GET {@code /actuator/profiling/{cpu|allocation|lock}?minutes=} returns collapsed stacks for flamegraphs.
+ */
+@Component
+@Endpoint(id = "profiling")
+public class ProfilingEndpoint {
+
+    private final ProfilingService profilingService;
+    private final long defaultDurationSeconds;
+
+    public ProfilingEndpoint(final ProfilingService profilingService,
+                             @Value("${profiling.duration.default.seconds}") final long defaultDurationSeconds) {
+        this.profilingService = profilingService;
+        this.defaultDurationSeconds = defaultDurationSeconds;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        final Instant runningUntil = profilingService.getRunningUntil();
+        final Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", runningUntil != null);
+        status.put("runningUntil", runningUntil);
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable final Long seconds) {
+        profilingService.start(Duration.ofSeconds(seconds == null ? defaultDurationSeconds : seconds));
+        return status();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop() {
+        profilingService.stop();
+        return status();
+    }
+
+    @ReadOperation(produces = "text/plain")
+    public String collapsedStacks(@Selector final ProfileType type, @Nullable final Integer minutes) {
+        return profilingService.getCollapsedStacks(type, minutes == null ? 1 : minutes);
+    }
+}
@@ -1,21 +1,46 @@
 package com.sample.bookingservice.controller;
 
+import com.sample.bookingservice.config.ConcurrencyLimited;
+import com.sample.bookingservice.dto.CancelReservationsDto;
 import com.sample.bookingservice.dto.MakeReservationDto;
+import com.sample.bookingservice.dto.ModifyReservationDto;
 import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.dto.ReservationImportReportDto;
 import com.sample.bookingservice.facade.ReservationFacade;
+import com.sample.bookingservice.facade.ReservationImportFacade;
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.service.ReservationService;
+import com.sample.bookingservice.util.ReservationImportReader;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.ValidationException;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
 
 @Validated
 @RestController
@@ -24,22 +49,40 @@ import org.springframework.web.bind.annotation.*;
 public class ReservationController {
     private static final Logger log = LoggerFactory.getLogger(ReservationController.class);
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ReservationFacade reservationFacade;
+    private final ReservationImportFacade reservationImportFacade;
+    private final long exportTimeout;
 
-    public ReservationController(final ReservationFacade reservationFacade) {
+    public ReservationController(final ReservationFacade reservationFacade,
+                                 final ReservationImportFacade reservationImportFacade,
+                                 @Value("${reservation.export.timeout.ms}") final long exportTimeout) {
         this.reservationFacade = reservationFacade;
+        this.reservationImportFacade = reservationImportFacade;
+        this.exportTimeout = exportTimeout;
     }
 
-    @Operation(summary = "Create a reservation", description = "Create a reservation for a specific room and dates.")
+    @Operation(summary = "Create a reservation", description = "Create a reservation for a specific room and dates. " +
+            "Responds with JSON or, with Accept: application/cbor, CBOR.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Reservation successfully created"),
             @ApiResponse(responseCode = "400", description = "Validation error occurred"),
-            @ApiResponse(responseCode = "409", description = "Room is already booked for the provided dates")
+            @ApiResponse(responseCode = "409", description = "Room is already booked for the provided dates"),
+            @ApiResponse(responseCode = "422", description = "Idempotency key was already used for a different request"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent bookings, retry after the Retry-After seconds")
     })
-    @PostMapping
-    public ResponseEntity<ReservationDto> makeReservation(@Valid @RequestBody final MakeReservationDto makeReservationDto) {
+    @ConcurrencyLimited("booking")
+    @PostMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ReservationDto> makeReservation(
+            @Valid @RequestBody final MakeReservationDto makeReservationDto,
+
+            @Parameter(description = "Client generated key, retries with the same key replay the original reservation")
+            @Size(max = 255) @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey
+    ) {
         final ReservationDto reservationDto = reservationFacade.makeReservation(makeReservationDto.getStartDate(),
-                makeReservationDto.getEndDate(), makeReservationDto.getRoomId());
+                makeReservationDto.getEndDate(), makeReservationDto.getRoomId(), idempotencyKey);
 
         if (log.isDebugEnabled()) {
             log.debug("Made Reservation: {} for MakeReservationDto: {}", reservationDto, makeReservationDto);
@@ -51,12 +94,50 @@ public class ReservationController {
                 .body(reservationDto);
     }
 
+    @Operation(summary = "Get a reservation", description = "Get a reservation of any status by its ID.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation found"),
+            @ApiResponse(responseCode = "404", description = "Reservation not found")
+    })
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ReservationDto getReservation(@Min(1) @PathVariable final long id) {
+        final ReservationDto reservationDto = reservationFacade.getReservation(id);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Found reservation: {}, for id: {}", reservationDto, id);
+        }
+
+        return reservationDto;
+    }
+
+    @Operation(summary = "Get reservations by ID", description = "Get the reservations of up to " +
+            ReservationService.MAX_LOOKUP_IDS + " IDs in one request, ordered by ID. IDs without a reservation are left out.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservations found for the IDs"),
+            @ApiResponse(responseCode = "400", description = "No IDs or too many IDs")
+    })
+    @GetMapping(params = "ids", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public List<ReservationDto> getReservations(
+            @Parameter(description = "Comma separated reservation IDs", required = true)
+            @NotEmpty @Size(max = ReservationService.MAX_LOOKUP_IDS) @RequestParam final List<@NotNull Long> ids
+    ) {
+        final List<ReservationDto> reservations = reservationFacade.getReservations(ids);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} reservations for {} ids", reservations.size(), ids.size());
+        }
+
+        return reservations;
+    }
+
     @Operation(summary = "Cancel a reservation", description = "Cancel an existing reservation by its ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Reservation successfully canceled"),
             @ApiResponse(responseCode = "404", description = "Reservation not found"),
-            @ApiResponse(responseCode = "409", description = "Reservation cannot be canceled due to conflicts")
+            @ApiResponse(responseCode = "409", description = "Reservation cannot be canceled due to conflicts"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent cancellations, retry after the Retry-After seconds")
     })
+    @ConcurrencyLimited("cancel")
     @DeleteMapping(value = "/{id}")
     public ResponseEntity<ReservationDto> cancelReservation(@Min(1) @PathVariable final long id) {
         final ReservationDto cancelledReservation = reservationFacade.cancelReservation(id);
@@ -67,4 +148,141 @@ public class ReservationController {
 
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Modify a reservation", description = "Move a confirmed reservation to other dates and, " +
+            "when 'roomId' is given, to another room in one step. The reservation's current days don't conflict " +
+            "with its new ones, it is never cancelled in between.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation moved"),
+            @ApiResponse(responseCode = "400", description = "Validation error occurred"),
+            @ApiResponse(responseCode = "404", description = "Reservation or room not found"),
+            @ApiResponse(responseCode = "409", description = "The room is already booked for the new dates, " +
+                    "or the reservation is not confirmed"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent bookings, retry after the Retry-After seconds")
+    })
+    @ConcurrencyLimited("booking")
+    @PatchMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ReservationDto modifyReservation(
+            @Min(1) @PathVariable final long id,
+            @Valid @RequestBody final ModifyReservationDto modifyReservationDto
+    ) {
+        final ReservationDto reservationDto = reservationFacade.modifyReservation(modifyReservationDto.getStartDate(),
+                modifyReservationDto.getEndDate(), modifyReservationDto.getRoomId(), id);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Modified reservation: {} for ModifyReservationDto: {}", reservationDto, modifyReservationDto);
+        }
+
+        return reservationDto;
+    }
+
+    @Operation(summary = "Cancel reservations of rooms", description = "Cancel every confirmed reservation of the rooms " +
+            "holding a day between 'startDate' (inclusive) and 'endDate' (exclusive), e.g. when the rooms are out of order. " +
+            "The reservations are cancelled together in one statement. The IDs of the cancelled reservations are " +
+            "streamed back as newline delimited JSON, one ID per line, in ascending order.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservations cancelled, their IDs are streamed"),
+            @ApiResponse(responseCode = "400", description = "Validation error occurred for the rooms or dates"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent cancellations, retry after the Retry-After seconds")
+    })
+    @ConcurrencyLimited("cancel")
+    @PostMapping(value = "/cancellations", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> cancelReservations(
+            @Valid @RequestBody final CancelReservationsDto cancelReservationsDto
+    ) {
+        if (!cancelReservationsDto.getStartDate().isBefore(cancelReservationsDto.getEndDate())) {
+            throw new ValidationException("'startDate' must be before 'endDate'");
+        }
+
+        // cancelled and committed before the response starts, a failure still gets its error status
+        final List<Long> cancelled = reservationFacade.cancelReservations(cancelReservationsDto.getRoomIds(),
+                cancelReservationsDto.getStartDate(), cancelReservationsDto.getEndDate());
+
+        if (log.isDebugEnabled()) {
+            log.debug("Cancelled {} reservations for CancelReservationsDto: {}", cancelled.size(), cancelReservationsDto);
+        }
+
+        final StreamingResponseBody body = outputStream -> {
+            for (final Long id : cancelled) {
+                outputStream.write((id + "\n").getBytes(StandardCharsets.US_ASCII));
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Export reservations", description = "Stream every reservation starting between 'from' (inclusive) " +
+            "and 'to' (exclusive) as newline delimited JSON, one reservation per line, optionally only those in one status. " +
+            "Rows are streamed as they are read, so the export is not limited in size.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservations are streamed"),
+            @ApiResponse(responseCode = "400", description = "Validation error occurred for the date range or status"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent exports, retry after the Retry-After seconds")
+    })
+    @ConcurrencyLimited("export")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportReservations(
+            @Parameter(description = "First start date to export", required = true)
+            @RequestParam final LocalDate from,
+
+            @Parameter(description = "Start date the export ends before", required = true)
+            @RequestParam final LocalDate to,
+
+            @Parameter(description = "Only export reservations in this status")
+            @RequestParam(required = false) final ReservationStatus status,
+
+            final HttpServletResponse response
+    ) {
+        // checked here, once the body is streaming the status can't turn into a 400 anymore
+        if (!from.isBefore(to)) {
+            throw new ValidationException("'from' must be before 'to'");
+        }
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("reservations-" + from + "-" + to + ".ndjson").build().toString());
+
+        // a task rather than a StreamingResponseBody: only the export gets the long timeout, other async requests
+        // keep the container default
+        return new WebAsyncTask<>(exportTimeout, () -> {
+            final long exported = reservationFacade.exportReservations(from, to, status, response.getOutputStream());
+            response.flushBuffer();
+
+            if (log.isDebugEnabled()) {
+                log.debug("Exported {} reservations from={} to={} status={}", exported, from, to, status);
+            }
+            return null;
+        });
+    }
+
+    @Operation(summary = "Import reservations", description = "Book the reservations of a CSV file (header naming the " +
+            "roomId, startDate and endDate columns) or of newline delimited JSON (one booking request per line). " +
+            "Rows are held to the same rules as a single booking and must not conflict with confirmed reservations " +
+            "or earlier rows. Rows are read and booked in batches, the response reports every rejected line.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File imported, rejected lines are listed in the report"),
+            @ApiResponse(responseCode = "400", description = "The CSV header is missing a required column"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent imports, retry after the Retry-After seconds")
+    })
+    @ConcurrencyLimited("import")
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ReservationImportReportDto importReservations(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) final MediaType contentType,
+            final InputStream body
+    ) throws IOException {
+        final ReservationImportReader.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? ReservationImportReader.Format.NDJSON : ReservationImportReader.Format.CSV;
+        final ReservationImportReportDto report = reservationImportFacade.importReservations(body, format);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Imported {} reservations: {}", format, report);
+        }
+
+        return report;
+    }
 }
\ No newline at end of file
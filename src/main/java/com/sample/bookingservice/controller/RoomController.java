@@ -1,7 +1,14 @@
 package com.sample.bookingservice.controller;
 
+import com.sample.bookingservice.config.ConcurrencyLimited;
+import com.sample.bookingservice.dto.PageDto;
+import com.sample.bookingservice.dto.ReservationPageDto;
 import com.sample.bookingservice.dto.RoomDto;
+import com.sample.bookingservice.dto.RoomQuoteDto;
 import com.sample.bookingservice.facade.RoomFacade;
+import com.sample.bookingservice.service.AvailabilityVersionService;
+import com.sample.bookingservice.service.ReservationService;
+import com.sample.bookingservice.service.RoomFilter;
 import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,23 +17,33 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Future;
+import jakarta.validation.ValidationException;
 import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 
 @RequestMapping(value = "/rooms")
 @RestController
@@ -36,44 +53,83 @@ public class RoomController {
     private static final Logger log = LoggerFactory.getLogger(RoomController.class);
 
     private final RoomFacade roomFacade;
+    private final AvailabilityVersionService availabilityVersionService;
 
-    public RoomController(final RoomFacade roomFacade) {
+    public RoomController(final RoomFacade roomFacade, final AvailabilityVersionService availabilityVersionService) {
         this.roomFacade = roomFacade;
+        this.availabilityVersionService = availabilityVersionService;
     }
 
     @Operation(
             summary = "Get available rooms",
-            description = "Retrieve all available rooms for a given date range. Supports pagination using 'page', 'size', and 'sort' query parameters."
+            description = "Retrieve all available rooms for a given date range. Supports pagination using 'page', 'size', and 'sort' query parameters. " +
+                    "Rooms can be filtered by type, minimum capacity, floor and amenities, filtered results are ordered by room ID. " +
+                    "'sort=price' (or 'price,desc') orders by the price of the stay and leaves out rooms without a rate for every night, " +
+                    "it can't be combined with other sort properties. " +
+                    "Responses are JSON or, with Accept: application/cbor, CBOR. " +
+                    "Responses carry an ETag, repeating the request with If-None-Match returns 304 while availability for the dates is unchanged."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved available rooms",
-                    content = @Content(mediaType = MimeTypeUtils.APPLICATION_JSON_VALUE,
-                            schema = @Schema(implementation = PageImpl.class))),
-            @ApiResponse(responseCode = "400", description = "Validation error occurred for the date range"),
-            @ApiResponse(responseCode = "500", description = "Internal server error occurred")
+                    content = {
+                            @Content(mediaType = MimeTypeUtils.APPLICATION_JSON_VALUE, schema = @Schema(implementation = PageDto.class)),
+                            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE, schema = @Schema(implementation = PageDto.class))
+                    }),
+            @ApiResponse(responseCode = "304", description = "Available rooms did not change since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Validation error occurred for the date range or sort"),
+            @ApiResponse(responseCode = "500", description = "Internal server error occurred"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent searches, or availability is still loading " +
+                    "for a search by price, retry after the Retry-After seconds")
     })
-    @GetMapping(produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ConcurrencyLimited("search")
+    @GetMapping(produces = {MimeTypeUtils.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     @ConsistentReservationDateParameters
-    public Page<RoomDto> getAvailableRooms(
+    public PageDto<RoomDto> getAvailableRooms(
             @Parameter(description = "Start date for room availability (must be today or later)", required = true)
             @FutureOrPresent @RequestParam final LocalDate from,
 
             @Parameter(description = "End date for room availability (must be in the future)", required = true)
             @Future @RequestParam final LocalDate to,
 
+            @Parameter(description = "Room type, ignoring case")
+            @Size(max = 40) @RequestParam(required = false) final String type,
+
+            @Parameter(description = "Minimum number of guests")
+            @Min(1) @RequestParam(required = false) final Integer minCapacity,
+
+            @Parameter(description = "Floor")
+            @RequestParam(required = false) final Integer floor,
+
+            @Parameter(description = "Amenities the room must all have, ignoring case")
+            @Size(max = 20) @RequestParam(required = false) final List<@Size(max = 40) String> amenities,
+
             @Parameter(description = "Pagination and sorting parameters (page, size, sort)")
-            @PageableDefault(size = 10, page = 0) Pageable pageable
+            @PageableDefault(size = 10, page = 0) Pageable pageable,
+
+            final WebRequest webRequest,
+            final HttpServletResponse response
     ) {
+        final RoomFilter filter = new RoomFilter(type, minCapacity, floor,
+                amenities == null ? null : new HashSet<>(amenities));
+
         if (log.isDebugEnabled()) {
-            log.debug("Fetching available rooms from={} to={}, pageable: {}", from, to, pageable);
+            log.debug("Fetching available rooms from={} to={}, filter: {}, pageable: {}", from, to, filter, pageable);
         }
 
-        // Simulate fetching paginated data
-        final List<RoomDto> rooms = roomFacade.getAvailableRooms(from, to, pageable)
-                .stream()
-                .toList();
+        // the version has to be read before the rooms, so a concurrent booking can only make the ETag stale, never ahead
+        final String etag = availabilityVersionService.getVersion(from, to) + "-" + Integer.toHexString(
+                Objects.hash(from, to, filter, pageable, webRequest.getHeader(HttpHeaders.ACCEPT)));
+        // JSON and CBOR representations share the URL
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (webRequest.checkNotModified(etag)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Available rooms from={} to={}, pageable: {} not modified, etag: {}", from, to, pageable, etag);
+            }
+            return null;
+        }
 
-        final Page<RoomDto> pagedRooms = new PageImpl<>(rooms, pageable, rooms.size());
+        final List<RoomDto> rooms = roomFacade.getAvailableRooms(from, to, filter, pageable);
+        final PageDto<RoomDto> pagedRooms = PageDto.of(rooms, pageable.getPageNumber(), pageable.getPageSize());
 
         if (log.isDebugEnabled()) {
             log.debug("Available rooms: {}", pagedRooms.getContent());
@@ -81,4 +137,109 @@ public class RoomController {
 
         return pagedRooms;
     }
+
+    @Operation(
+            summary = "Get a price quote",
+            description = "Total of the nightly rates of the room's type for the nights from 'from' to 'to'. " +
+                    "It is computed from rates held in memory, in constant time whatever the length of the stay."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Price of the stay"),
+            @ApiResponse(responseCode = "400", description = "Validation error occurred for the date range"),
+            @ApiResponse(responseCode = "404", description = "Room not found, or a night of the stay has no rate")
+    })
+    @GetMapping(value = "/{id}/quote", produces = {MimeTypeUtils.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @ConsistentReservationDateParameters
+    public RoomQuoteDto getQuote(
+            @Parameter(description = "First night of the stay (must be today or later)", required = true)
+            @FutureOrPresent @RequestParam final LocalDate from,
+
+            @Parameter(description = "Day the stay ends (must be in the future)", required = true)
+            @Future @RequestParam final LocalDate to,
+
+            @Min(1) @PathVariable final Integer id
+    ) {
+        final RoomQuoteDto quote = roomFacade.getQuote(from, to, id);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Quote for room {} from={} to={}: {}", id, from, to, quote);
+        }
+
+        return quote;
+    }
+
+    @Operation(
+            summary = "Stream availability changes",
+            description = "Server-Sent Events for every booking ('change' events with a BOOKED change) and cancellation " +
+                    "(FREED) holding a day in the date range, while the connection stays open. " +
+                    "A 'resync' event means changes may have been missed and the results have to be reloaded."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream of availability changes",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "400", description = "Validation error occurred for the date range"),
+            @ApiResponse(responseCode = "503", description = "Too many open streams, retry after the Retry-After seconds")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ConsistentReservationDateParameters
+    public SseEmitter streamAvailability(
+            @Parameter(description = "Start date of the watched range (must be today or later)", required = true)
+            @FutureOrPresent @RequestParam final LocalDate from,
+
+            @Parameter(description = "End date of the watched range (must be in the future)", required = true)
+            @Future @RequestParam final LocalDate to
+    ) {
+        if (log.isDebugEnabled()) {
+            log.debug("Streaming availability from={} to={}", from, to);
+        }
+
+        return roomFacade.streamAvailability(from, to);
+    }
+
+    @Operation(
+            summary = "Get reservations of a room",
+            description = "Reservations of any status starting between 'from' (inclusive) and 'to' (exclusive), ordered " +
+                    "by start date and ID. Pages are read by key: the next page passes the returned nextStartDate and " +
+                    "nextReservationId as 'afterStartDate' and 'afterId', they are null after the last page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "A page of the room's reservations"),
+            @ApiResponse(responseCode = "400", description = "Validation error occurred for the dates, key or size")
+    })
+    @GetMapping(value = "/{id}/reservations",
+            produces = {MimeTypeUtils.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ReservationPageDto getRoomReservations(
+            @Min(1) @PathVariable final Integer id,
+
+            @Parameter(description = "First start date to read", required = true)
+            @RequestParam final LocalDate from,
+
+            @Parameter(description = "Start date the reservations end before", required = true)
+            @RequestParam final LocalDate to,
+
+            @Parameter(description = "Start date of the last reservation of the previous page")
+            @RequestParam(required = false) final LocalDate afterStartDate,
+
+            @Parameter(description = "ID of the last reservation of the previous page")
+            @RequestParam(required = false) final Long afterId,
+
+            @Parameter(description = "Maximum number of reservations in the page")
+            @Min(1) @Max(ReservationService.MAX_PAGE_SIZE) @RequestParam(defaultValue = "100") final int size
+    ) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("'from' must be before 'to'");
+        }
+        if ((afterStartDate == null) != (afterId == null)) {
+            throw new ValidationException("'afterStartDate' and 'afterId' must be given together");
+        }
+
+        final ReservationPageDto page = roomFacade.getRoomReservations(id, from, to, afterStartDate, afterId, size);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Reservations of room {} from={} to={} after ({}, {}): {}", id, from, to, afterStartDate, afterId,
+                    page);
+        }
+
+        return page;
+    }
 }
\ No newline at end of file
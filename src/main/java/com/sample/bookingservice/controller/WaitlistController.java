@@ -0,0 +1,82 @@
+package com.sample.bookingservice.controller;
+
+import com.sample.bookingservice.config.ConcurrencyLimited;
+import com.sample.bookingservice.dto.MakeReservationDto;
+import com.sample.bookingservice.dto.WaitlistEntryDto;
+import com.sample.bookingservice.facade.WaitlistFacade;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Validated
+@RestController
+@RequestMapping("/waitlist")
+@Tag(name = "Waitlist", description = "Endpoints for waiting on booked rooms")
+public class WaitlistController {
+    private static final Logger log = LoggerFactory.getLogger(WaitlistController.class);
+
+    private final WaitlistFacade waitlistFacade;
+
+    public WaitlistController(final WaitlistFacade waitlistFacade) {
+        this.waitlistFacade = waitlistFacade;
+    }
+
+    @Operation(summary = "Wait for a room", description = "Queue a request for a room and dates that are booked. " +
+            "It is booked as soon as a cancellation frees the dates, earlier entries first. " +
+            "Follow the entry at the Location header instead of retrying the booking.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Entry queued, or already promoted when the dates were free"),
+            @ApiResponse(responseCode = "400", description = "Validation error occurred"),
+            @ApiResponse(responseCode = "404", description = "Room not found"),
+            @ApiResponse(responseCode = "503", description = "Waitlist full or too many concurrent bookings, " +
+                    "retry after the Retry-After seconds")
+    })
+    @ConcurrencyLimited("booking")
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<WaitlistEntryDto> enqueue(@Valid @RequestBody final MakeReservationDto makeReservationDto) {
+        final WaitlistEntryDto entryDto = waitlistFacade.enqueue(makeReservationDto.getStartDate(),
+                makeReservationDto.getEndDate(), makeReservationDto.getRoomId());
+
+        if (log.isDebugEnabled()) {
+            log.debug("Enqueued waitlist entry: {} for MakeReservationDto: {}", entryDto, makeReservationDto);
+        }
+
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/waitlist/" + entryDto.getEntryId())
+                .body(entryDto);
+    }
+
+    @Operation(summary = "Get a waitlist entry", description = "Get a waitlist entry by its ID, " +
+            "with the reservation it became once promoted.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Entry found"),
+            @ApiResponse(responseCode = "404", description = "Entry not found")
+    })
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public WaitlistEntryDto getEntry(@Min(1) @PathVariable final long id) {
+        final WaitlistEntryDto entryDto = waitlistFacade.getEntry(id);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Found waitlist entry: {}, for id: {}", entryDto, id);
+        }
+
+        return entryDto;
+    }
+}
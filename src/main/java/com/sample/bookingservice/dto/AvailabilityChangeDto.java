@@ -0,0 +1,21 @@
+package com.sample.bookingservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class AvailabilityChangeDto {
+    // changelog position, left out on the live stream which isn't sequenced
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long sequence;
+    private Integer roomId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Change change;
+
+    public enum Change {
+        BOOKED, FREED
+    }
+}
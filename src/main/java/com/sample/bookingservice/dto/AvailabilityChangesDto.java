@@ -0,0 +1,19 @@
+package com.sample.bookingservice.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changes after the requested sequence, oldest first. The next request passes {@code next} as {@code since},
+ * right away while {@code more} is set. With {@code resync} set the client has fallen too far behind: it reloads
+ * availability through /rooms and then follows the changes from {@code next}.
+ */
+@Data
+public class AvailabilityChangesDto {
+    private List<AvailabilityChangeDto> changes = new ArrayList<>();
+    private long next;
+    private boolean more;
+    private boolean resync;
+}
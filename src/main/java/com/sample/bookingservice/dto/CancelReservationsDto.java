@@ -0,0 +1,32 @@
+package com.sample.bookingservice.dto;
+
+import com.sample.bookingservice.service.ReservationService;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Rooms taken out of service from {@code startDate} until {@code endDate}, every confirmed reservation of theirs
+ * holding a day in between is cancelled.
+ */
+@Data
+@Validated
+public class CancelReservationsDto {
+    @NotEmpty
+    @Size(max = ReservationService.MAX_CANCEL_ROOMS)
+    private Set<@NotNull @Min(1) Integer> roomIds;
+    @NotNull
+    @FutureOrPresent
+    private LocalDate startDate;
+    @NotNull
+    @Future
+    private LocalDate endDate;
+}
@@ -0,0 +1,11 @@
+package com.sample.bookingservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class DateRangeDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
@@ -0,0 +1,26 @@
+package com.sample.bookingservice.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+
+/**
+ * New dates of a reservation and, when given, its new room. Without a room id the reservation keeps its room.
+ */
+@Data
+@Validated
+public class ModifyReservationDto {
+    @Min(1)
+    private Integer roomId;
+    @NotNull
+    @FutureOrPresent
+    private LocalDate startDate;
+    @NotNull
+    @Future
+    private LocalDate endDate;
+}
@@ -0,0 +1,25 @@
+package com.sample.bookingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page envelope without Spring's PageImpl/Pageable/Sort object graph.
+ * Page numbers are zero-based, fewer elements than size means this is the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDto<T> {
+    private List<T> content;
+    private int number;
+    private int size;
+    private int numberOfElements;
+
+    public static <T> PageDto<T> of(final List<T> content, final int number, final int size) {
+        return new PageDto<>(content, number, size, content.size());
+    }
+}
@@ -0,0 +1,15 @@
+package com.sample.bookingservice.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ReservationConflictDto {
+    private String message;
+    // stays of the requested length in the requested room, nearest to the requested dates first
+    private List<DateRangeDto> alternativeDates = new ArrayList<>();
+    // other rooms free for the requested dates
+    private List<RoomDto> alternativeRooms = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.sample.bookingservice.dto;
+
+import com.sample.bookingservice.service.ReservationImportRejection;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Only the first rejections are listed, {@code rejected} counts all of them.
+ */
+@Data
+public class ReservationImportReportDto {
+    private long rows;
+    private long accepted;
+    private long rejected;
+    private long durationMillis;
+    private double rowsPerSecond;
+    private List<ReservationImportRejection> rejections;
+    private boolean rejectionsTruncated;
+}
@@ -0,0 +1,19 @@
+package com.sample.bookingservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset page of reservations in (startDate, reservationId) order. The next page is requested with
+ * {@code nextStartDate} and {@code nextReservationId} as {@code afterStartDate} and {@code afterId},
+ * both are null once there is nothing more to read.
+ */
+@Data
+public class ReservationPageDto {
+    private List<ReservationDto> content = new ArrayList<>();
+    private LocalDate nextStartDate;
+    private Long nextReservationId;
+}
@@ -2,8 +2,17 @@ package com.sample.bookingservice.dto;
 
 import lombok.Data;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 @Data
 public class RoomDto {
     private Integer roomId;
     private String roomNumber;
+    private String roomType;
+    private Integer capacity;
+    private Integer floor;
+    private List<String> amenities;
+    // total of the nightly rates for the searched dates, null when a night has no rate
+    private BigDecimal stayPrice;
 }
@@ -0,0 +1,19 @@
+package com.sample.bookingservice.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Price of a stay in a room, the total of the nightly rates of its type.
+ */
+@Data
+public class RoomQuoteDto {
+    private Integer roomId;
+    private String roomType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int nights;
+    private BigDecimal total;
+}
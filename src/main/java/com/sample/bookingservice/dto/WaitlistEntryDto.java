@@ -0,0 +1,21 @@
+package com.sample.bookingservice.dto;
+
+import com.sample.bookingservice.model.WaitlistStatus;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * A queued request for a room and dates. Once promoted, {@code reservationId} is the reservation it became.
+ */
+@Data
+public class WaitlistEntryDto {
+    private Long entryId;
+    private Integer roomId;
+    private WaitlistStatus status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long reservationId;
+    private Date createdAt;
+}
@@ -0,0 +1,15 @@
+package com.sample.bookingservice.event;
+
+/**
+ * Changes made by other nodes may have been missed (listener reconnected, message gap detected).
+ * Local caches and indexes have to be rebuilt from the database instead of patched.
+ * <p>
+ * With {@code catchUp} the changes missed are all in the availability changelog after what the caches already hold
+ * (the listener's first connect), so rebuilding what changed since is enough.
+ */
+public record AvailabilityResyncEvent(String reason, boolean catchUp) {
+
+    public AvailabilityResyncEvent(final String reason) {
+        this(reason, false);
+    }
+}
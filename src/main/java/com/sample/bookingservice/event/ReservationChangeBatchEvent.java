@@ -0,0 +1,11 @@
+package com.sample.bookingservice.event;
+
+import java.util.List;
+
+/**
+ * Changes made by one set-based write, published once inside its transaction instead of one
+ * {@link ReservationChangedEvent} per reservation. Listeners apply every change as they would apply the single event,
+ * but can write them to the database in one statement.
+ */
+public record ReservationChangeBatchEvent(List<ReservationChangedEvent> changes) {
+}
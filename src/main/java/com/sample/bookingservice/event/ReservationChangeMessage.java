@@ -0,0 +1,38 @@
+package com.sample.bookingservice.event;
+
+import java.time.LocalDate;
+
+/**
+ * Compact form of a {@link ReservationChangedEvent} exchanged between nodes through Postgres NOTIFY,
+ * e.g. {@code 3f2a9c1e:42:9808:8807:20423:20426:B}. Dates travel as epoch days.
+ * The sequence grows by one per message sent by a node, receivers use it to detect lost messages.
+ */
+public record ReservationChangeMessage(String nodeId, long sequence, ReservationChangedEvent change) {
+
+    private static final String SEPARATOR = ":";
+
+    public String encode() {
+        return String.join(SEPARATOR, nodeId, Long.toString(sequence), Long.toString(change.reservationId()),
+                Integer.toString(change.roomId()), Long.toString(change.startDate().toEpochDay()),
+                Long.toString(change.endDate().toEpochDay()), change.type().getCode());
+    }
+
+    public static ReservationChangeMessage decode(final String payload) {
+        final String[] fields = payload.split(SEPARATOR);
+        if (fields.length != 7) {
+            throw new IllegalArgumentException("Malformed reservation change message: " + payload);
+        }
+
+        final ReservationChangeType type;
+        try {
+            type = ReservationChangeType.ofCode(fields[6]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown reservation change type in message: " + payload, e);
+        }
+
+        return new ReservationChangeMessage(fields[0], Long.parseLong(fields[1]),
+                new ReservationChangedEvent(Long.parseLong(fields[2]), Integer.parseInt(fields[3]),
+                        LocalDate.ofEpochDay(Long.parseLong(fields[4])), LocalDate.ofEpochDay(Long.parseLong(fields[5])),
+                        type));
+    }
+}
@@ -0,0 +1,39 @@
+package com.sample.bookingservice.event;
+
+import java.util.Arrays;
+
+/**
+ * What happened to the days of a reservation. A modified reservation is published as the days it left
+ * ({@link #MOVED_FROM}) and the days it moved to ({@link #MOVED_TO}), so it is never reported as cancelled.
+ */
+public enum ReservationChangeType {
+    BOOKED("B", true),
+    CANCELLED("C", false),
+    MOVED_FROM("F", false),
+    MOVED_TO("T", true);
+
+    // one letter in NOTIFY payloads
+    private final String code;
+    private final boolean holdsDays;
+
+    ReservationChangeType(final String code, final boolean holdsDays) {
+        this.code = code;
+        this.holdsDays = holdsDays;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    // true when the days are now held by the reservation, false when they were freed
+    public boolean holdsDays() {
+        return holdsDays;
+    }
+
+    public static ReservationChangeType ofCode(final String code) {
+        return Arrays.stream(values())
+                .filter(type -> type.code.equals(code))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown reservation change type: " + code));
+    }
+}
@@ -0,0 +1,12 @@
+package com.sample.bookingservice.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published by the reservation write paths inside their transaction.
+ * Listeners that must only see committed changes use {@code @TransactionalEventListener}.
+ * Set-based writes publish a {@link ReservationChangeBatchEvent} instead, listeners have to handle both.
+ */
+public record ReservationChangedEvent(Long reservationId, Integer roomId, LocalDate startDate, LocalDate endDate,
+                                      ReservationChangeType type) {
+}
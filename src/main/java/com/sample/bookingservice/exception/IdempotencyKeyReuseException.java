@@ -0,0 +1,18 @@
+package com.sample.bookingservice.exception;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+
+    public IdempotencyKeyReuseException() {
+    }
+
+    public IdempotencyKeyReuseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public IdempotencyKeyReuseException(Throwable cause) {
+        super(cause);
+    }
+}
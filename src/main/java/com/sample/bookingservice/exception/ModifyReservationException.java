@@ -0,0 +1,18 @@
+package com.sample.bookingservice.exception;
+
+public class ModifyReservationException extends RuntimeException {
+    public ModifyReservationException(String message) {
+        super(message);
+    }
+
+    public ModifyReservationException() {
+    }
+
+    public ModifyReservationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ModifyReservationException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -1,18 +1,33 @@
 package com.sample.bookingservice.exception;
 
+import com.sample.bookingservice.dto.ReservationConflictDto;
+
+// an expected business outcome rather than a fault, so no stack trace is filled in
 public class RoomAlreadyBookedException extends RuntimeException {
+    private ReservationConflictDto conflict;
+
+    public RoomAlreadyBookedException(String message, ReservationConflictDto conflict) {
+        super(message, null, false, false);
+        this.conflict = conflict;
+    }
+
     public RoomAlreadyBookedException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public RoomAlreadyBookedException() {
+        super(null, null, false, false);
     }
 
     public RoomAlreadyBookedException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 
     public RoomAlreadyBookedException(Throwable cause) {
-        super(cause);
+        super(cause == null ? null : cause.toString(), cause, false, false);
+    }
+
+    public ReservationConflictDto getConflict() {
+        return conflict;
     }
-}
\ No newline at end of file
+}
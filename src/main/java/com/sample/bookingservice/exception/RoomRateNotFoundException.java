@@ -0,0 +1,19 @@
+package com.sample.bookingservice.exception;
+
+public class RoomRateNotFoundException extends RuntimeException {
+    public RoomRateNotFoundException(String message) {
+        super(message);
+    }
+
+    public RoomRateNotFoundException() {
+
+    }
+
+    public RoomRateNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public RoomRateNotFoundException(Throwable cause) {
+        super(cause);
+    }
+}
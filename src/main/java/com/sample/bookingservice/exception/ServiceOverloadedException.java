@@ -0,0 +1,29 @@
+package com.sample.bookingservice.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+    private int retryAfterSeconds = 1;
+
+    public ServiceOverloadedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+
+    public ServiceOverloadedException() {
+    }
+
+    public ServiceOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ServiceOverloadedException(Throwable cause) {
+        super(cause);
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.sample.bookingservice.exception;
+
+public class WaitlistEntryNotFoundException extends RuntimeException {
+    public WaitlistEntryNotFoundException(String message) {
+        super(message);
+    }
+
+    public WaitlistEntryNotFoundException() {
+    }
+
+    public WaitlistEntryNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public WaitlistEntryNotFoundException(Throwable cause) {
+        super(cause);
+    }
+}
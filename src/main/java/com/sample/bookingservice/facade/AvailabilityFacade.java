@@ -0,0 +1,11 @@
+package com.sample.bookingservice.facade;
+
+import com.sample.bookingservice.dto.AvailabilityChangesDto;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+public interface AvailabilityFacade {
+    AvailabilityChangesDto getChanges(@Min(0) final long since, @Min(1) @Max(10000) final int limit);
+}
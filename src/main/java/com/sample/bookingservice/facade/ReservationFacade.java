@@ -1,14 +1,22 @@
 package com.sample.bookingservice.facade;
 
 import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.service.ReservationService;
 import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import org.springframework.validation.annotation.Validated;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 
 @Validated
 public interface ReservationFacade {
@@ -16,5 +24,30 @@ public interface ReservationFacade {
     ReservationDto makeReservation(@NotNull @FutureOrPresent final LocalDate startDate, @NotNull @Future final LocalDate endDate,
                                    @NotNull @Min(1) final Integer roomId);
 
+    // idempotencyKey is optional, without it the call behaves as makeReservation(startDate, endDate, roomId)
+    @ConsistentReservationDateParameters
+    ReservationDto makeReservation(@NotNull @FutureOrPresent final LocalDate startDate, @NotNull @Future final LocalDate endDate,
+                                   @NotNull @Min(1) final Integer roomId, @Size(max = 255) final String idempotencyKey);
+
     ReservationDto cancelReservation(@Min(1) final long id);
+
+    // a null roomId keeps the reservation's room
+    @ConsistentReservationDateParameters
+    ReservationDto modifyReservation(@NotNull @FutureOrPresent final LocalDate startDate, @NotNull @Future final LocalDate endDate,
+                                     @Min(1) final Integer roomId, @Min(1) final long id);
+
+    // cancels every confirmed reservation of the rooms holding a day in [from, to), the ids come back in order
+    List<Long> cancelReservations(@NotEmpty @Size(max = ReservationService.MAX_CANCEL_ROOMS)
+                                  final Set<@NotNull Integer> roomIds,
+                                  @NotNull @FutureOrPresent final LocalDate from, @NotNull @Future final LocalDate to);
+
+    // writes reservations starting in [from, to) as newline delimited JSON, the stream is left open
+    long exportReservations(@NotNull final LocalDate from, @NotNull final LocalDate to, final ReservationStatus status,
+                            @NotNull final OutputStream outputStream) throws IOException;
+
+    ReservationDto getReservation(@Min(1) final long id);
+
+    // unknown ids are left out, the rest come back in id order
+    List<ReservationDto> getReservations(@NotEmpty @Size(max = ReservationService.MAX_LOOKUP_IDS)
+                                         final List<@NotNull Long> ids);
 }
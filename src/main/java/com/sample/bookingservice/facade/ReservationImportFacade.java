@@ -0,0 +1,16 @@
+package com.sample.bookingservice.facade;
+
+import com.sample.bookingservice.dto.ReservationImportReportDto;
+import com.sample.bookingservice.util.ReservationImportReader;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Validated
+public interface ReservationImportFacade {
+    // reads and books the stream in batches, a batch commits on its own
+    ReservationImportReportDto importReservations(@NotNull final InputStream inputStream,
+                                                  @NotNull final ReservationImportReader.Format format) throws IOException;
+}
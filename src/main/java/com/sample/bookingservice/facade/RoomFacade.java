@@ -1,12 +1,19 @@
 package com.sample.bookingservice.facade;
 
+import com.sample.bookingservice.dto.ReservationPageDto;
 import com.sample.bookingservice.dto.RoomDto;
+import com.sample.bookingservice.dto.RoomQuoteDto;
+import com.sample.bookingservice.service.ReservationService;
+import com.sample.bookingservice.service.RoomFilter;
 import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.domain.Pageable;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -16,4 +23,24 @@ public interface RoomFacade {
     @ConsistentReservationDateParameters
     List<RoomDto> getAvailableRooms(@NotNull @FutureOrPresent final LocalDate from, @NotNull @Future final LocalDate to,
                                     final Pageable pageable);
+
+    // only rooms with every attribute of the filter
+    @ConsistentReservationDateParameters
+    List<RoomDto> getAvailableRooms(@NotNull @FutureOrPresent final LocalDate from, @NotNull @Future final LocalDate to,
+                                    @NotNull final RoomFilter filter, final Pageable pageable);
+
+    // total of the nightly rates of the room's type for the stay
+    @ConsistentReservationDateParameters
+    RoomQuoteDto getQuote(@NotNull @FutureOrPresent final LocalDate from, @NotNull @Future final LocalDate to,
+                          @NotNull @Min(1) final Integer roomId);
+
+    // pushes every booking and cancellation holding a day in [from, to) until the client goes away or the stream times out
+    @ConsistentReservationDateParameters
+    SseEmitter streamAvailability(@NotNull @FutureOrPresent final LocalDate from, @NotNull @Future final LocalDate to);
+
+    // reservations of any status starting in [from, to), a page after the (afterStartDate, afterId) key
+    ReservationPageDto getRoomReservations(@NotNull @Min(1) final Integer roomId, @NotNull final LocalDate from,
+                                           @NotNull final LocalDate to, final LocalDate afterStartDate,
+                                           final Long afterId,
+                                           @Min(1) @Max(ReservationService.MAX_PAGE_SIZE) final int size);
 }
@@ -0,0 +1,21 @@
+package com.sample.bookingservice.facade;
+
+import com.sample.bookingservice.dto.WaitlistEntryDto;
+import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+
+@Validated
+public interface WaitlistFacade {
+    // the entry comes back promoted when the dates were free already
+    @ConsistentReservationDateParameters
+    WaitlistEntryDto enqueue(@NotNull @FutureOrPresent final LocalDate startDate, @NotNull @Future final LocalDate endDate,
+                             @NotNull @Min(1) final Integer roomId);
+
+    WaitlistEntryDto getEntry(@Min(1) final long id);
+}
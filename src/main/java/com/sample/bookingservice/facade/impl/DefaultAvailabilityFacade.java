@@ -0,0 +1,38 @@
+package com.sample.bookingservice.facade.impl;
+
+import com.sample.bookingservice.dto.AvailabilityChangesDto;
+import com.sample.bookingservice.facade.AvailabilityFacade;
+import com.sample.bookingservice.mapper.AvailabilityChangeMapper;
+import com.sample.bookingservice.service.AvailabilityChangeService;
+import com.sample.bookingservice.service.AvailabilityChanges;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+@Component
+@Validated
+public class DefaultAvailabilityFacade implements AvailabilityFacade {
+    private static final Logger log = LoggerFactory.getLogger(DefaultAvailabilityFacade.class);
+
+    private final AvailabilityChangeService availabilityChangeService;
+
+    public DefaultAvailabilityFacade(final AvailabilityChangeService availabilityChangeService) {
+        this.availabilityChangeService = availabilityChangeService;
+    }
+
+    public AvailabilityChangesDto getChanges(final long since, final int limit) {
+        if (log.isDebugEnabled()) {
+            log.debug("Getting availability changes since: {}, limit: {}", since, limit);
+        }
+
+        final AvailabilityChanges changes = availabilityChangeService.findChanges(since, limit);
+        final AvailabilityChangesDto changesDto = AvailabilityChangeMapper.INSTANCE.toAvailabilityChangesDto(changes);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Availability changes since: {}, mapped to DTO: {}", since, changesDto);
+        }
+
+        return changesDto;
+    }
+}
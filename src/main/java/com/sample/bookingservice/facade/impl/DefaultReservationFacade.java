@@ -1,16 +1,39 @@
 package com.sample.bookingservice.facade.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sample.bookingservice.dto.ReservationConflictDto;
 import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.exception.IdempotencyKeyReuseException;
+import com.sample.bookingservice.exception.RoomAlreadyBookedException;
 import com.sample.bookingservice.facade.ReservationFacade;
+import com.sample.bookingservice.jfr.BookingEvent;
+import com.sample.bookingservice.jfr.BookingOperationEvent;
+import com.sample.bookingservice.jfr.BookingStageEvent;
+import com.sample.bookingservice.mapper.ReservationConflictMapper;
 import com.sample.bookingservice.mapper.ReservationMapper;
 import com.sample.bookingservice.model.Reservation;
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.repository.projection.ReservationExportRow;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.repository.projection.ReservationView;
+import com.sample.bookingservice.service.IdempotencyService;
+import com.sample.bookingservice.service.ReservationAlternatives;
+import com.sample.bookingservice.service.ReservationAlternativesService;
 import com.sample.bookingservice.service.ReservationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 
 @Component
 @Validated
@@ -18,9 +41,22 @@ public class DefaultReservationFacade implements ReservationFacade {
     private static final Logger log = LoggerFactory.getLogger(DefaultReservationFacade.class);
 
     private final ReservationService reservationService;
+    private final IdempotencyService idempotencyService;
+    private final ReservationAlternativesService reservationAlternativesService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter exportWriter;
 
-    public DefaultReservationFacade(final ReservationService reservationService) {
+    public DefaultReservationFacade(final ReservationService reservationService,
+                                    final IdempotencyService idempotencyService,
+                                    final ReservationAlternativesService reservationAlternativesService,
+                                    final ObjectMapper objectMapper) {
         this.reservationService = reservationService;
+        this.idempotencyService = idempotencyService;
+        this.reservationAlternativesService = reservationAlternativesService;
+        this.objectMapper = objectMapper;
+        // the generator flushes when its buffer fills, not once per row
+        this.exportWriter = objectMapper.writerFor(ReservationExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     public ReservationDto makeReservation(final LocalDate startDate, final LocalDate endDate, final Integer roomId) {
@@ -28,27 +64,204 @@ public class DefaultReservationFacade implements ReservationFacade {
             log.debug("Making reservation with startDate: {}, endDate: {}, roomId: {}", startDate, endDate, roomId);
         }
 
-        final Reservation reservation = reservationService.makeReservation(startDate, endDate, roomId);
-        final ReservationDto reservationDto = ReservationMapper.INSTANCE.toReservationDto(reservation);
+        final BookingOperationEvent event = BookingOperationEvent.start(BookingEvent.MAKE_RESERVATION);
+        try {
+            final Reservation reservation = reservationService.makeReservation(startDate, endDate, roomId);
+            final ReservationDto reservationDto = toReservationDto(BookingEvent.MAKE_RESERVATION, reservation);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Made Reservation: {}, mapped to reservation DTO: {}", reservation, reservationDto);
+            }
+
+            event.end(reservation.getReservationId(), roomId, startDate, endDate, BookingEvent.OK);
+            return reservationDto;
+        } catch (RoomAlreadyBookedException e) {
+            event.fail(null, roomId, startDate, endDate, e);
+            throw withAlternatives(e, startDate, endDate, roomId);
+        } catch (RuntimeException e) {
+            event.fail(null, roomId, startDate, endDate, e);
+            throw e;
+        }
+    }
+
+    public ReservationDto makeReservation(final LocalDate startDate, final LocalDate endDate, final Integer roomId,
+                                          final String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return makeReservation(startDate, endDate, roomId);
+        }
 
         if (log.isDebugEnabled()) {
-            log.debug("Made Reservation: {}, mapped to reservation DTO: {}", reservation, reservationDto);
+            log.debug("Making reservation with startDate: {}, endDate: {}, roomId: {}, idempotencyKey: {}",
+                    startDate, endDate, roomId, idempotencyKey);
         }
 
-        return reservationDto;
+        final BookingOperationEvent event = BookingOperationEvent.start(BookingEvent.MAKE_RESERVATION);
+        try {
+            final Reservation reservation = idempotencyService.execute(idempotencyKey, () ->
+                    reservationService.makeReservation(startDate, endDate, roomId, idempotencyKey));
+
+            // a replayed reservation has to belong to the same request, a fresh one always does
+            if (!reservation.getRoom().getRoomId().equals(roomId) || !reservation.getStartDate().equals(startDate)
+                    || !reservation.getEndDate().equals(endDate)) {
+                throw new IdempotencyKeyReuseException("Idempotency key " + idempotencyKey +
+                        " was already used for a different reservation request");
+            }
+
+            final ReservationDto reservationDto = toReservationDto(BookingEvent.MAKE_RESERVATION, reservation);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Made Reservation: {}, mapped to reservation DTO: {}", reservation, reservationDto);
+            }
+
+            event.end(reservation.getReservationId(), roomId, startDate, endDate, BookingEvent.OK);
+            return reservationDto;
+        } catch (RoomAlreadyBookedException e) {
+            event.fail(null, roomId, startDate, endDate, e);
+            throw withAlternatives(e, startDate, endDate, roomId);
+        } catch (RuntimeException e) {
+            event.fail(null, roomId, startDate, endDate, e);
+            throw e;
+        }
     }
 
     public ReservationDto cancelReservation(final long id) {
         if (log.isDebugEnabled()) {
             log.debug("Cancel reservation with id: {}", id);
         }
-        final Reservation reservation = reservationService.cancelReservation(id);
+
+        final BookingOperationEvent event = BookingOperationEvent.start(BookingEvent.CANCEL_RESERVATION);
+        try {
+            final Reservation reservation = reservationService.cancelReservation(id);
+            final ReservationDto reservationDto = toReservationDto(BookingEvent.CANCEL_RESERVATION, reservation);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Cancelled Reservation: {}, mapped to reservation DTO: {}", reservation, reservationDto);
+            }
+
+            event.end(id, roomIdOf(reservation), reservation.getStartDate(), reservation.getEndDate(),
+                    BookingEvent.OK);
+            return reservationDto;
+        } catch (RuntimeException e) {
+            event.fail(id, null, null, null, e);
+            throw e;
+        }
+    }
+
+    public ReservationDto modifyReservation(final LocalDate startDate, final LocalDate endDate, final Integer roomId,
+                                            final long id) {
+        if (log.isDebugEnabled()) {
+            log.debug("Modify reservation with id: {} to startDate: {}, endDate: {}, roomId: {}",
+                    id, startDate, endDate, roomId);
+        }
+
+        final Reservation reservation = reservationService.modifyReservation(startDate, endDate, roomId, id);
         final ReservationDto reservationDto = ReservationMapper.INSTANCE.toReservationDto(reservation);
 
         if (log.isDebugEnabled()) {
-            log.debug("Cancelled Reservation: {}, mapped to reservation DTO: {}", reservation, reservationDto);
+            log.debug("Modified Reservation: {}, mapped to reservation DTO: {}", reservation, reservationDto);
+        }
+
+        return reservationDto;
+    }
+
+    public List<Long> cancelReservations(final Set<Integer> roomIds, final LocalDate from, final LocalDate to) {
+        if (log.isDebugEnabled()) {
+            log.debug("Cancel reservations of rooms: {} from: {} to: {}", roomIds, from, to);
+        }
+
+        final List<ReservationSpan> cancelled = reservationService.cancelReservations(roomIds, from, to);
+        final List<Long> ids = cancelled.stream().map(ReservationSpan::reservationId).sorted().toList();
+
+        if (log.isDebugEnabled()) {
+            log.debug("Cancelled {} reservations of rooms: {} from: {} to: {}", ids.size(), roomIds, from, to);
+        }
+
+        return ids;
+    }
+
+    public ReservationDto getReservation(final long id) {
+        if (log.isDebugEnabled()) {
+            log.debug("Get reservation with id: {}", id);
+        }
+
+        final ReservationView reservation = reservationService.getReservation(id);
+        return ReservationMapper.INSTANCE.toReservationDto(reservation);
+    }
+
+    public List<ReservationDto> getReservations(final List<Long> ids) {
+        if (log.isDebugEnabled()) {
+            log.debug("Get reservations with ids: {}", ids);
+        }
+
+        final List<ReservationView> reservations = reservationService.getReservations(ids);
+        return reservations.stream().map(ReservationMapper.INSTANCE::toReservationDto).toList();
+    }
+
+    // rows are written as they come from the cursor, nothing but the generator buffer is held in memory
+    public long exportReservations(final LocalDate from, final LocalDate to, final ReservationStatus status,
+                                   final OutputStream outputStream) throws IOException {
+        if (log.isDebugEnabled()) {
+            log.debug("Export reservations from: {}, to: {}, status: {}", from, to, status);
+        }
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.setRootValueSeparator(null);
+            final long exported = reservationService.exportReservations(from, to, status, row -> {
+                try {
+                    exportWriter.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (log.isDebugEnabled()) {
+                log.debug("Exported {} reservations from: {}, to: {}, status: {}", exported, from, to, status);
+            }
+
+            return exported;
+        } catch (UncheckedIOException e) {
+            // typically the client went away, the cursor is closed with the transaction
+            throw e.getCause();
         }
+    }
+
+    // looked up once the booking transaction is over; without alternatives the conflict is still reported
+    private RoomAlreadyBookedException withAlternatives(final RoomAlreadyBookedException conflict,
+                                                        final LocalDate startDate, final LocalDate endDate,
+                                                        final Integer roomId) {
+        final BookingStageEvent lookup =
+                BookingStageEvent.start(BookingEvent.MAKE_RESERVATION, BookingStageEvent.ALTERNATIVES);
+        try {
+            final ReservationAlternatives alternatives =
+                    reservationAlternativesService.findAlternatives(startDate, endDate, roomId);
+            final ReservationConflictDto conflictDto =
+                    ReservationConflictMapper.INSTANCE.toReservationConflictDto(conflict.getMessage(), alternatives);
+            lookup.end(roomId, startDate, endDate, BookingEvent.OK);
 
+            if (log.isDebugEnabled()) {
+                log.debug("Room {} already booked from {} to {}, alternatives: {}", roomId, startDate, endDate,
+                        conflictDto);
+            }
+
+            return new RoomAlreadyBookedException(conflict.getMessage(), conflictDto);
+        } catch (RuntimeException e) {
+            lookup.end(roomId, startDate, endDate, e.getClass().getSimpleName());
+            log.warn("Unable to find alternatives for room {} from {} to {}", roomId, startDate, endDate, e);
+            return conflict;
+        }
+    }
+
+    private ReservationDto toReservationDto(final String operation, final Reservation reservation) {
+        final BookingStageEvent mapping = BookingStageEvent.start(operation, BookingStageEvent.MAPPING);
+        final ReservationDto reservationDto = ReservationMapper.INSTANCE.toReservationDto(reservation);
+        mapping.end(roomIdOf(reservation), reservation.getStartDate(), reservation.getEndDate(), BookingEvent.OK);
         return reservationDto;
     }
+
+    // the mapper copes with a reservation without a room, the events have to as well
+    private static Integer roomIdOf(final Reservation reservation) {
+        return reservation.getRoom() == null ? null : reservation.getRoom().getRoomId();
+    }
 }
@@ -0,0 +1,118 @@
+package com.sample.bookingservice.facade.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sample.bookingservice.dto.MakeReservationDto;
+import com.sample.bookingservice.dto.ReservationImportReportDto;
+import com.sample.bookingservice.facade.ReservationImportFacade;
+import com.sample.bookingservice.service.ReservationImportRejection;
+import com.sample.bookingservice.service.ReservationImportRow;
+import com.sample.bookingservice.service.ReservationImportService;
+import com.sample.bookingservice.util.ReservationImportReader;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+@Validated
+public class DefaultReservationImportFacade implements ReservationImportFacade {
+    private static final Logger log = LoggerFactory.getLogger(DefaultReservationImportFacade.class);
+
+    private final ReservationImportService reservationImportService;
+    private final ObjectReader jsonReader;
+    private final int batchSize;
+    private final int maxRejections;
+
+    private final LongAdder acceptedRows = new LongAdder();
+    private final LongAdder rejectedRows = new LongAdder();
+
+    public DefaultReservationImportFacade(final ReservationImportService reservationImportService,
+                                          final ObjectMapper objectMapper,
+                                          @Value("${reservation.import.batch.size}") final int batchSize,
+                                          @Value("${reservation.import.max.rejections}") final int maxRejections,
+                                          final ObjectProvider<MeterRegistry> meterRegistry) {
+        this.reservationImportService = reservationImportService;
+        this.jsonReader = objectMapper.readerFor(MakeReservationDto.class);
+        this.batchSize = batchSize;
+        this.maxRejections = maxRejections;
+        meterRegistry.ifAvailable(registry -> {
+            FunctionCounter.builder("reservations.import.rows", acceptedRows, LongAdder::sum)
+                    .description("Imported rows").tag("outcome", "accepted").register(registry);
+            FunctionCounter.builder("reservations.import.rows", rejectedRows, LongAdder::sum)
+                    .description("Imported rows").tag("outcome", "rejected").register(registry);
+        });
+    }
+
+    public ReservationImportReportDto importReservations(final InputStream inputStream,
+                                                         final ReservationImportReader.Format format) throws IOException {
+        final long startedNanos = System.nanoTime();
+        final ReservationImportReportDto report = new ReservationImportReportDto();
+        report.setRejections(new ArrayList<>());
+
+        final ReservationImportReader reader = new ReservationImportReader(inputStream, format, jsonReader,
+                rejection -> reject(report, rejection));
+        final List<ReservationImportRow> batch = new ArrayList<>(batchSize);
+        ReservationImportRow row;
+        while ((row = reader.next()) != null) {
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                importBatch(report, batch);
+            }
+        }
+        importBatch(report, batch);
+        // parse errors are reported while reading, the rest of a batch's rejections once it is booked
+        report.getRejections().sort(Comparator.comparingLong(ReservationImportRejection::line));
+
+        final long elapsedNanos = Math.max(System.nanoTime() - startedNanos, 1);
+        report.setRows(report.getAccepted() + report.getRejected());
+        report.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        report.setRowsPerSecond(report.getRows() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+
+        log.info("Imported {} reservations, rejected {}, {} rows/s", report.getAccepted(), report.getRejected(),
+                Math.round(report.getRowsPerSecond()));
+
+        return report;
+    }
+
+    private void importBatch(final ReservationImportReportDto report, final List<ReservationImportRow> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        final List<ReservationImportRejection> rejections = reservationImportService.importReservations(batch);
+        final int accepted = batch.size() - rejections.size();
+        report.setAccepted(report.getAccepted() + accepted);
+        acceptedRows.add(accepted);
+        rejections.forEach(rejection -> reject(report, rejection));
+
+        if (log.isDebugEnabled()) {
+            log.debug("Imported batch up to line {}, accepted: {}, rejected: {}",
+                    batch.get(batch.size() - 1).line(), accepted, rejections.size());
+        }
+
+        batch.clear();
+    }
+
+    private void reject(final ReservationImportReportDto report, final ReservationImportRejection rejection) {
+        report.setRejected(report.getRejected() + 1);
+        rejectedRows.increment();
+        if (report.getRejections().size() < maxRejections) {
+            report.getRejections().add(rejection);
+        } else {
+            report.setRejectionsTruncated(true);
+        }
+    }
+}
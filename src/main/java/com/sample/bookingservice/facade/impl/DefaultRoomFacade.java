@@ -1,16 +1,37 @@
 package com.sample.bookingservice.facade.impl;
 
+import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.dto.ReservationPageDto;
 import com.sample.bookingservice.dto.RoomDto;
+import com.sample.bookingservice.dto.RoomQuoteDto;
+import com.sample.bookingservice.event.ReservationChangedEvent;
 import com.sample.bookingservice.facade.RoomFacade;
+import com.sample.bookingservice.jfr.BookingEvent;
+import com.sample.bookingservice.jfr.BookingOperationEvent;
+import com.sample.bookingservice.jfr.BookingStageEvent;
+import com.sample.bookingservice.mapper.AvailabilityChangeMapper;
+import com.sample.bookingservice.mapper.ReservationMapper;
 import com.sample.bookingservice.mapper.RoomMapper;
+import com.sample.bookingservice.mapper.RoomQuoteMapper;
 import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.projection.ReservationView;
+import com.sample.bookingservice.service.AvailabilityListener;
+import com.sample.bookingservice.service.AvailabilityStreamService;
+import com.sample.bookingservice.service.ReservationService;
+import com.sample.bookingservice.service.RoomFilter;
+import com.sample.bookingservice.service.RoomQuote;
+import com.sample.bookingservice.service.RoomRateService;
 import com.sample.bookingservice.service.RoomService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -20,27 +41,142 @@ import java.util.stream.Collectors;
 public class DefaultRoomFacade implements RoomFacade {
     private static final Logger log = LoggerFactory.getLogger(DefaultRoomFacade.class);
 
+    static final String CHANGE_EVENT = "change";
+    static final String RESYNC_EVENT = "resync";
+
     private final RoomService roomService;
+    private final AvailabilityStreamService availabilityStreamService;
+    private final ReservationService reservationService;
+    private final RoomRateService roomRateService;
+    private final long streamTimeout;
 
-    public DefaultRoomFacade(final RoomService roomService) {
+    public DefaultRoomFacade(final RoomService roomService, final AvailabilityStreamService availabilityStreamService,
+                             final ReservationService reservationService, final RoomRateService roomRateService,
+                             @Value("${rooms.stream.timeout.ms}") final long streamTimeout) {
         this.roomService = roomService;
+        this.reservationService = reservationService;
+        this.roomRateService = roomRateService;
+        this.availabilityStreamService = availabilityStreamService;
+        this.streamTimeout = streamTimeout;
     }
 
     public List<RoomDto> getAvailableRooms(final LocalDate from, final LocalDate to, final Pageable pageable) {
+        return getAvailableRooms(from, to, RoomFilter.NONE, pageable);
+    }
+
+    public List<RoomDto> getAvailableRooms(final LocalDate from, final LocalDate to, final RoomFilter filter,
+                                           final Pageable pageable) {
         if (log.isDebugEnabled()) {
-            log.debug("Get available rooms from {} to {} with pageable: {}", from, to, pageable);
+            log.debug("Get available rooms from {} to {} with filter: {}, pageable: {}", from, to, filter, pageable);
         }
 
-        final List<Room> availableRooms = roomService.getAvailableRooms(from, to, pageable);
-        final List<RoomDto> availableRoomsDto = availableRooms
-                .stream()
-                .map(RoomMapper.INSTANCE::roomToRoomDto)
-                .collect(Collectors.toList());
+        final BookingOperationEvent event = BookingOperationEvent.start(BookingEvent.GET_AVAILABLE_ROOMS);
+        try {
+            final List<Room> availableRooms = roomService.getAvailableRooms(from, to, filter, pageable);
+
+            final BookingStageEvent mapping =
+                    BookingStageEvent.start(BookingEvent.GET_AVAILABLE_ROOMS, BookingStageEvent.MAPPING);
+            // prices come from the rates in memory, no query per room
+            final List<RoomDto> availableRoomsDto = availableRooms
+                    .stream()
+                    .map(room -> {
+                        final RoomDto roomDto = RoomMapper.INSTANCE.roomToRoomDto(room);
+                        roomDto.setStayPrice(roomRateService.getStayPrice(from, to, room.getRoomType()).orElse(null));
+                        return roomDto;
+                    })
+                    .collect(Collectors.toList());
+            mapping.end(null, from, to, BookingEvent.OK);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Available rooms: {}, mapped to DTOs: {}", availableRooms, availableRoomsDto);
+            }
+
+            event.end(null, null, from, to, BookingEvent.OK);
+            return availableRoomsDto;
+        } catch (RuntimeException e) {
+            event.fail(null, null, from, to, e);
+            throw e;
+        }
+    }
 
+    public RoomQuoteDto getQuote(final LocalDate from, final LocalDate to, final Integer roomId) {
         if (log.isDebugEnabled()) {
-            log.debug("Available rooms: {}, mapped to DTOs: {}", availableRooms, availableRoomsDto);
+            log.debug("Get quote for room {} from {} to {}", roomId, from, to);
         }
 
-        return availableRoomsDto;
+        final RoomQuote quote = roomRateService.getQuote(from, to, roomId);
+        return RoomQuoteMapper.INSTANCE.toRoomQuoteDto(quote);
+    }
+
+    public SseEmitter streamAvailability(final LocalDate from, final LocalDate to) {
+        if (log.isDebugEnabled()) {
+            log.debug("Stream availability from {} to {}", from, to);
+        }
+
+        final SseEmitter emitter = new SseEmitter(streamTimeout);
+        final AvailabilityListener listener = new AvailabilityListener() {
+            @Override
+            public void onChanges(final List<ReservationChangedEvent> changes) throws IOException {
+                for (final ReservationChangedEvent change : changes) {
+                    send(emitter, SseEmitter.event().name(CHANGE_EVENT)
+                            .data(AvailabilityChangeMapper.INSTANCE.toAvailabilityChangeDto(change),
+                                    MediaType.APPLICATION_JSON));
+                }
+            }
+
+            @Override
+            public void onResync() throws IOException {
+                send(emitter, SseEmitter.event().name(RESYNC_EVENT).data(RESYNC_EVENT));
+            }
+
+            @Override
+            public void onHeartbeat() throws IOException {
+                send(emitter, SseEmitter.event().comment("heartbeat"));
+            }
+
+            @Override
+            public void onDropped() {
+                // the client reconnects and reloads what it missed
+                emitter.complete();
+            }
+        };
+
+        // completion follows timeouts and errors as well
+        emitter.onCompletion(() -> availabilityStreamService.unsubscribe(listener));
+        availabilityStreamService.subscribe(from, to, listener);
+
+        return emitter;
+    }
+
+    public ReservationPageDto getRoomReservations(final Integer roomId, final LocalDate from, final LocalDate to,
+                                                  final LocalDate afterStartDate, final Long afterId, final int size) {
+        if (log.isDebugEnabled()) {
+            log.debug("Get reservations of room {} from {} to {} after ({}, {}), size: {}",
+                    roomId, from, to, afterStartDate, afterId, size);
+        }
+
+        final List<ReservationView> reservations =
+                reservationService.getRoomReservations(roomId, from, to, afterStartDate, afterId, size);
+        final ReservationPageDto page = new ReservationPageDto();
+        page.setContent(reservations.stream().map(ReservationMapper.INSTANCE::toReservationDto).toList());
+
+        // a full page may be followed by more, the key of its last reservation starts the next one
+        if (reservations.size() == size) {
+            final ReservationDto last = page.getContent().get(size - 1);
+            page.setNextStartDate(last.getStartDate());
+            page.setNextReservationId(last.getReservationId());
+        }
+
+        return page;
+    }
+
+    // a failed send ends the response, the completion callback then unsubscribes
+    private static void send(final SseEmitter emitter, final SseEmitter.SseEventBuilder event) throws IOException {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            throw e;
+        }
     }
 }
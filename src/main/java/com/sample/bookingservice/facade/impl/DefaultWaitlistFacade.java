@@ -0,0 +1,49 @@
+package com.sample.bookingservice.facade.impl;
+
+import com.sample.bookingservice.dto.WaitlistEntryDto;
+import com.sample.bookingservice.facade.WaitlistFacade;
+import com.sample.bookingservice.mapper.WaitlistEntryMapper;
+import com.sample.bookingservice.model.WaitlistEntry;
+import com.sample.bookingservice.service.WaitlistService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+
+@Component
+@Validated
+public class DefaultWaitlistFacade implements WaitlistFacade {
+    private static final Logger log = LoggerFactory.getLogger(DefaultWaitlistFacade.class);
+
+    private final WaitlistService waitlistService;
+
+    public DefaultWaitlistFacade(final WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    public WaitlistEntryDto enqueue(final LocalDate startDate, final LocalDate endDate, final Integer roomId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Enqueue startDate: {}, endDate: {}, roomId: {}", startDate, endDate, roomId);
+        }
+
+        final WaitlistEntry entry = waitlistService.enqueue(startDate, endDate, roomId);
+        final WaitlistEntryDto entryDto = WaitlistEntryMapper.INSTANCE.toWaitlistEntryDto(entry);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Enqueued entry: {}, mapped to DTO: {}", entry, entryDto);
+        }
+
+        return entryDto;
+    }
+
+    public WaitlistEntryDto getEntry(final long id) {
+        if (log.isDebugEnabled()) {
+            log.debug("Get waitlist entry with id: {}", id);
+        }
+
+        final WaitlistEntry entry = waitlistService.getEntry(id);
+        return WaitlistEntryMapper.INSTANCE.toWaitlistEntryDto(entry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.sample.bookingservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.time.LocalDate;
+
+/**
+ * Fields shared by the booking service's JFR events. They are only filled in when the event is going to be
+ * recorded, so with recording off an event costs a check of its enabled flag.
+ */
+@Category("Booking Service")
+@StackTrace(false)
+public abstract class BookingEvent extends Event {
+
+    public static final String MAKE_RESERVATION = "makeReservation";
+    public static final String CANCEL_RESERVATION = "cancelReservation";
+    public static final String GET_AVAILABLE_ROOMS = "getAvailableRooms";
+
+    public static final String OK = "OK";
+    public static final String FOUND = "FOUND";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String AVAILABLE = "AVAILABLE";
+    public static final String UNAVAILABLE = "UNAVAILABLE";
+    public static final String VALID = "VALID";
+    public static final String INVALID = "INVALID";
+
+    @Label("Operation")
+    @Description("Service operation the event belongs to, unknown for validation")
+    String operation;
+
+    @Label("Room Id")
+    @Description("0 when not known")
+    int roomId;
+
+    @Label("Start Date")
+    String startDate;
+
+    @Label("End Date")
+    String endDate;
+
+    @Label("Outcome")
+    @Description("Result of the stage or operation, or the simple name of the exception it failed with")
+    String outcome;
+
+    public String getOperation() {
+        return operation;
+    }
+
+    // ends the event and records it if recording is on and it took longer than the configured threshold
+    void complete(final Integer roomId, final LocalDate startDate, final LocalDate endDate, final String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.roomId = roomId == null ? 0 : roomId;
+            this.startDate = startDate == null ? null : startDate.toString();
+            this.endDate = endDate == null ? null : endDate.toString();
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
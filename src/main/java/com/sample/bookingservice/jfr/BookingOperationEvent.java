@@ -0,0 +1,37 @@
+package com.sample.bookingservice.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.time.LocalDate;
+
+/**
+ * A whole booking service operation as seen by the facade, its {@link BookingStageEvent}s run inside it.
+ */
+@Name("com.sample.bookingservice.BookingOperation")
+@Label("Booking Operation")
+public final class BookingOperationEvent extends BookingEvent {
+
+    @Label("Reservation Id")
+    @Description("0 when not known")
+    long reservationId;
+
+    public static BookingOperationEvent start(final String operation) {
+        final BookingOperationEvent event = new BookingOperationEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    public void end(final Long reservationId, final Integer roomId, final LocalDate startDate, final LocalDate endDate,
+                    final String outcome) {
+        this.reservationId = reservationId == null ? 0 : reservationId;
+        complete(roomId, startDate, endDate, outcome);
+    }
+
+    public void fail(final Long reservationId, final Integer roomId, final LocalDate startDate,
+                     final LocalDate endDate, final RuntimeException e) {
+        end(reservationId, roomId, startDate, endDate, e.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,42 @@
+package com.sample.bookingservice.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.time.LocalDate;
+
+/**
+ * One stage of a booking service operation: validation, a query, a write or the mapping to DTOs.
+ */
+@Name("com.sample.bookingservice.BookingStage")
+@Label("Booking Stage")
+public final class BookingStageEvent extends BookingEvent {
+
+    public static final String VALIDATION = "validation";
+    public static final String AVAILABILITY_CHECK = "availabilityCheck";
+    public static final String INSERT = "insert";
+    public static final String RESERVATION_LOOKUP = "reservationLookup";
+    public static final String UPDATE = "update";
+    public static final String SEARCH_QUERY = "searchQuery";
+    public static final String MAPPING = "mapping";
+    public static final String ALTERNATIVES = "alternatives";
+
+    @Label("Stage")
+    String stage;
+
+    public static BookingStageEvent start(final String operation, final String stage) {
+        final BookingStageEvent event = new BookingStageEvent();
+        event.operation = operation;
+        event.stage = stage;
+        event.begin();
+        return event;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void end(final Integer roomId, final LocalDate startDate, final LocalDate endDate, final String outcome) {
+        complete(roomId, startDate, endDate, outcome);
+    }
+}
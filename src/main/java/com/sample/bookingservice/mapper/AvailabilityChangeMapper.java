@@ -0,0 +1,32 @@
+package com.sample.bookingservice.mapper;
+
+import com.sample.bookingservice.dto.AvailabilityChangeDto;
+import com.sample.bookingservice.dto.AvailabilityChangesDto;
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.model.AvailabilityChange;
+import com.sample.bookingservice.service.AvailabilityChanges;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ValueMapping;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface AvailabilityChangeMapper {
+    AvailabilityChangeMapper INSTANCE = Mappers.getMapper(AvailabilityChangeMapper.class);
+
+    AvailabilityChangesDto toAvailabilityChangesDto(final AvailabilityChanges availabilityChanges);
+
+    @Mapping(target = "sequence", source = "changeSeq")
+    @Mapping(target = "change", source = "changeType")
+    AvailabilityChangeDto toAvailabilityChangeDto(final AvailabilityChange availabilityChange);
+
+    @Mapping(target = "sequence", ignore = true)
+    @Mapping(target = "change", source = "type")
+    AvailabilityChangeDto toAvailabilityChangeDto(final ReservationChangedEvent event);
+
+    @ValueMapping(source = "CANCELLED", target = "FREED")
+    @ValueMapping(source = "MOVED_FROM", target = "FREED")
+    @ValueMapping(source = "MOVED_TO", target = "BOOKED")
+    AvailabilityChangeDto.Change toChange(final ReservationChangeType changeType);
+}
@@ -0,0 +1,19 @@
+package com.sample.bookingservice.mapper;
+
+import com.sample.bookingservice.dto.DateRangeDto;
+import com.sample.bookingservice.dto.ReservationConflictDto;
+import com.sample.bookingservice.service.ReservationAlternatives;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+@Mapper(uses = RoomMapper.class)
+public interface ReservationConflictMapper {
+    ReservationConflictMapper INSTANCE = Mappers.getMapper(ReservationConflictMapper.class);
+
+    @Mapping(target = "message", source = "message")
+    @Mapping(target = "alternativeDates", source = "alternatives.dates")
+    @Mapping(target = "alternativeRooms", source = "alternatives.rooms")
+    ReservationConflictDto toReservationConflictDto(final String message, final ReservationAlternatives alternatives);
+    DateRangeDto toDateRangeDto(final ReservationAlternatives.DateRange dateRange);
+}
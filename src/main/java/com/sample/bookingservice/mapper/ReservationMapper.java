@@ -2,7 +2,9 @@ package com.sample.bookingservice.mapper;
 
 import com.sample.bookingservice.dto.ReservationDto;
 import com.sample.bookingservice.model.Reservation;
+import com.sample.bookingservice.repository.projection.ReservationView;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -11,4 +13,13 @@ public interface ReservationMapper {
         
     ReservationDto toReservationDto(final Reservation reservation);
     Reservation toReservation(final ReservationDto reservationDto);
+
+    @Mapping(target = "room.roomId", source = "roomId")
+    @Mapping(target = "room.roomNumber", source = "roomNumber")
+    ReservationDto toReservationDto(final ReservationView reservationView);
+
+    // detached, only the room id and number are set
+    @Mapping(target = "room.roomId", source = "roomId")
+    @Mapping(target = "room.roomNumber", source = "roomNumber")
+    Reservation toReservation(final ReservationView reservationView);
 }
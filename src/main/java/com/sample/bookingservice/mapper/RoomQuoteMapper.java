@@ -0,0 +1,13 @@
+package com.sample.bookingservice.mapper;
+
+import com.sample.bookingservice.dto.RoomQuoteDto;
+import com.sample.bookingservice.service.RoomQuote;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface RoomQuoteMapper {
+    RoomQuoteMapper INSTANCE = Mappers.getMapper(RoomQuoteMapper.class);
+
+    RoomQuoteDto toRoomQuoteDto(final RoomQuote quote);
+}
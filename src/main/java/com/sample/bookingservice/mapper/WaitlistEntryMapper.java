@@ -0,0 +1,13 @@
+package com.sample.bookingservice.mapper;
+
+import com.sample.bookingservice.dto.WaitlistEntryDto;
+import com.sample.bookingservice.model.WaitlistEntry;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface WaitlistEntryMapper {
+    WaitlistEntryMapper INSTANCE = Mappers.getMapper(WaitlistEntryMapper.class);
+
+    WaitlistEntryDto toWaitlistEntryDto(final WaitlistEntry waitlistEntry);
+}
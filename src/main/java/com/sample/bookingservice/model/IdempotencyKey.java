@@ -0,0 +1,25 @@
+package com.sample.bookingservice.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.Date;
+
+@Data
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    @NotNull
+    private Long reservationId;
+
+    @Column(nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    @NotNull
+    private Date createdAt = new Date();
+}
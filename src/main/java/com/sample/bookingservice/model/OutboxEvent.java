@@ -0,0 +1,46 @@
+package com.sample.bookingservice.model;
+
+import com.sample.bookingservice.event.ReservationChangeType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+@Data
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long eventId;
+
+    @Column(nullable = false)
+    @NotNull
+    private Long reservationId;
+
+    @Column(nullable = false)
+    @NotNull
+    private Integer roomId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @NotNull
+    private ReservationChangeType eventType;
+
+    @Column(nullable = false)
+    @Temporal(TemporalType.DATE)
+    @NotNull
+    private LocalDate startDate;
+
+    @Column(nullable = false)
+    @Temporal(TemporalType.DATE)
+    @NotNull
+    private LocalDate endDate;
+
+    @Column(nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    @NotNull
+    private Date createdAt = new Date();
+}
@@ -2,6 +2,10 @@ package com.sample.bookingservice.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.List;
 
 @Data
 @Entity
@@ -13,4 +17,16 @@ public class Room {
 
     @Column(nullable = false)
     private String roomNumber;
+
+    // searchable attributes, a room without one never matches a filter on it
+    @Column(length = 40)
+    private String roomType;
+
+    private Integer capacity;
+
+    private Integer floor;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(columnDefinition = "VARCHAR(40)[]")
+    private List<String> amenities;
 }
@@ -0,0 +1,44 @@
+package com.sample.bookingservice.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+@Data
+@Entity
+@Table(name = "waitlist_entries")
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long entryId;
+
+    @Column(nullable = false)
+    @NotNull
+    private Integer roomId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @NotNull
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    @Column(nullable = false)
+    @Temporal(TemporalType.DATE)
+    @NotNull
+    private LocalDate startDate;
+
+    @Column(nullable = false)
+    @Temporal(TemporalType.DATE)
+    @NotNull
+    private LocalDate endDate;
+
+    // set once the entry was promoted
+    private Long reservationId;
+
+    @Column(nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    @NotNull
+    private Date createdAt = new Date();
+}
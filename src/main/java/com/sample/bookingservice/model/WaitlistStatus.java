@@ -0,0 +1,5 @@
+package com.sample.bookingservice.model;
+
+public enum WaitlistStatus {
+    WAITING, PROMOTED, EXPIRED
+}
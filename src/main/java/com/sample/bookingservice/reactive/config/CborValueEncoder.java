@@ -0,0 +1,35 @@
+package com.sample.bookingservice.reactive.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * {@link Jackson2CborEncoder} refuses any {@link Publisher}, even a single value, so it can't write a response body.
+ * Every endpoint answers with one document (a page or a reservation) so single values are encoded, streams are not.
+ */
+public class CborValueEncoder extends Jackson2CborEncoder {
+
+    public CborValueEncoder(final ObjectMapper cborMapper) {
+        super(cborMapper, MediaType.APPLICATION_CBOR);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(final Publisher<?> inputStream, final DataBufferFactory bufferFactory,
+                                   final ResolvableType elementType, final MimeType mimeType,
+                                   final Map<String, Object> hints) {
+        if (inputStream instanceof Mono<?> mono) {
+            return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+    }
+}
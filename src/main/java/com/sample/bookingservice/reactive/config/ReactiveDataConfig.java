@@ -0,0 +1,39 @@
+package com.sample.bookingservice.reactive.config;
+
+import com.sample.bookingservice.model.ReservationStatus;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+
+import java.util.List;
+
+@Configuration
+public class ReactiveDataConfig {
+
+    // status is stored as its ordinal, the same way the JPA entity maps it
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions() {
+        return R2dbcCustomConversions.of(PostgresDialect.INSTANCE,
+                List.of(new ReservationStatusWritingConverter(), new ReservationStatusReadingConverter()));
+    }
+
+    @WritingConverter
+    static class ReservationStatusWritingConverter implements Converter<ReservationStatus, Short> {
+        @Override
+        public Short convert(final ReservationStatus status) {
+            return (short) status.ordinal();
+        }
+    }
+
+    @ReadingConverter
+    static class ReservationStatusReadingConverter implements Converter<Short, ReservationStatus> {
+        @Override
+        public ReservationStatus convert(final Short ordinal) {
+            return ReservationStatus.values()[ordinal];
+        }
+    }
+}
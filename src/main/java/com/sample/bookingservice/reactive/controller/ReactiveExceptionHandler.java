@@ -0,0 +1,31 @@
+package com.sample.bookingservice.reactive.controller;
+
+import com.sample.bookingservice.exception.CancelReservationException;
+import com.sample.bookingservice.exception.ReservationNotFoundException;
+import com.sample.bookingservice.exception.RoomAlreadyBookedException;
+import com.sample.bookingservice.exception.RoomNotFoundException;
+import jakarta.validation.ValidationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+// same status mapping as GlobalExceptionHandler
+@ControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<String> handleValidationException(final ValidationException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler({RoomAlreadyBookedException.class, CancelReservationException.class})
+    public ResponseEntity<String> handleConflictException(final RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler({ReservationNotFoundException.class, RoomNotFoundException.class})
+    public ResponseEntity<String> handleNotFoundException(final RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+}
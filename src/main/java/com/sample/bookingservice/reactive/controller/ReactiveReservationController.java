@@ -0,0 +1,58 @@
+package com.sample.bookingservice.reactive.controller;
+
+import com.sample.bookingservice.dto.MakeReservationDto;
+import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.reactive.facade.ReactiveReservationFacade;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+// reactive counterpart of ReservationController, same contract
+@Validated
+@RestController
+@RequestMapping("/reservations")
+public class ReactiveReservationController {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveReservationController.class);
+
+    private final ReactiveReservationFacade reservationFacade;
+
+    public ReactiveReservationController(final ReactiveReservationFacade reservationFacade) {
+        this.reservationFacade = reservationFacade;
+    }
+
+    @PostMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public Mono<ResponseEntity<ReservationDto>> makeReservation(@Valid @RequestBody final MakeReservationDto makeReservationDto) {
+        return reservationFacade.makeReservation(makeReservationDto.getStartDate(), makeReservationDto.getEndDate(),
+                        makeReservationDto.getRoomId())
+                .map(reservationDto -> {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Made Reservation: {} for MakeReservationDto: {}", reservationDto, makeReservationDto);
+                    }
+
+                    return ResponseEntity
+                            .status(HttpStatus.CREATED)
+                            .header(HttpHeaders.LOCATION, "/reservations/" + reservationDto.getReservationId())
+                            .body(reservationDto);
+                });
+    }
+
+    @DeleteMapping(value = "/{id}")
+    public Mono<ResponseEntity<Void>> cancelReservation(@Min(1) @PathVariable final long id) {
+        return reservationFacade.cancelReservation(id)
+                .map(cancelledReservation -> {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Cancelled reservation: {}, for id: {}", cancelledReservation, id);
+                    }
+
+                    return ResponseEntity.noContent().build();
+                });
+    }
+}
@@ -0,0 +1,49 @@
+package com.sample.bookingservice.reactive.controller;
+
+import com.sample.bookingservice.dto.PageDto;
+import com.sample.bookingservice.dto.RoomDto;
+import com.sample.bookingservice.reactive.facade.ReactiveRoomFacade;
+import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// reactive counterpart of RoomController, same contract
+@RequestMapping(value = "/rooms")
+@RestController
+@Validated
+public class ReactiveRoomController {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRoomController.class);
+
+    private final ReactiveRoomFacade roomFacade;
+
+    public ReactiveRoomController(final ReactiveRoomFacade roomFacade) {
+        this.roomFacade = roomFacade;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @ConsistentReservationDateParameters
+    public Mono<PageDto<RoomDto>> getAvailableRooms(@FutureOrPresent @RequestParam final LocalDate from,
+                                                    @Future @RequestParam final LocalDate to,
+                                                    @PageableDefault(size = 10, page = 0) final Pageable pageable) {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching available rooms from={} to={}, pageable: {}", from, to, pageable);
+        }
+
+        return roomFacade.getAvailableRooms(from, to, pageable)
+                .collectList()
+                .map(rooms -> PageDto.of(rooms, pageable.getPageNumber(), pageable.getPageSize()));
+    }
+}
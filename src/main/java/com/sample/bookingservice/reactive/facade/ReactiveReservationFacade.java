@@ -0,0 +1,21 @@
+package com.sample.bookingservice.reactive.facade;
+
+import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Validated
+public interface ReactiveReservationFacade {
+    @ConsistentReservationDateParameters
+    Mono<ReservationDto> makeReservation(@NotNull @FutureOrPresent final LocalDate startDate, @NotNull @Future final LocalDate endDate,
+                                         @NotNull @Min(1) final Integer roomId);
+
+    Mono<ReservationDto> cancelReservation(@Min(1) final long id);
+}
@@ -0,0 +1,43 @@
+package com.sample.bookingservice.reactive.facade.impl;
+
+import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.reactive.facade.ReactiveReservationFacade;
+import com.sample.bookingservice.reactive.mapper.ReactiveReservationMapper;
+import com.sample.bookingservice.reactive.service.ReactiveReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Component
+@Validated
+public class DefaultReactiveReservationFacade implements ReactiveReservationFacade {
+    private static final Logger log = LoggerFactory.getLogger(DefaultReactiveReservationFacade.class);
+
+    private final ReactiveReservationService reservationService;
+
+    public DefaultReactiveReservationFacade(final ReactiveReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    public Mono<ReservationDto> makeReservation(final LocalDate startDate, final LocalDate endDate, final Integer roomId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Making reservation with startDate: {}, endDate: {}, roomId: {}", startDate, endDate, roomId);
+        }
+
+        return reservationService.makeReservation(startDate, endDate, roomId)
+                .map(ReactiveReservationMapper.INSTANCE::toReservationDto);
+    }
+
+    public Mono<ReservationDto> cancelReservation(final long id) {
+        if (log.isDebugEnabled()) {
+            log.debug("Cancel reservation with id: {}", id);
+        }
+
+        return reservationService.cancelReservation(id)
+                .map(ReactiveReservationMapper.INSTANCE::toReservationDto);
+    }
+}
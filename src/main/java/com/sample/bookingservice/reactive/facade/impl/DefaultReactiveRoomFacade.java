@@ -0,0 +1,35 @@
+package com.sample.bookingservice.reactive.facade.impl;
+
+import com.sample.bookingservice.dto.RoomDto;
+import com.sample.bookingservice.reactive.facade.ReactiveRoomFacade;
+import com.sample.bookingservice.reactive.mapper.ReactiveRoomMapper;
+import com.sample.bookingservice.reactive.service.ReactiveRoomService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+@Component
+@Validated
+public class DefaultReactiveRoomFacade implements ReactiveRoomFacade {
+    private static final Logger log = LoggerFactory.getLogger(DefaultReactiveRoomFacade.class);
+
+    private final ReactiveRoomService roomService;
+
+    public DefaultReactiveRoomFacade(final ReactiveRoomService roomService) {
+        this.roomService = roomService;
+    }
+
+    public Flux<RoomDto> getAvailableRooms(final LocalDate from, final LocalDate to, final Pageable pageable) {
+        if (log.isDebugEnabled()) {
+            log.debug("Get available rooms from {} to {} with pageable: {}", from, to, pageable);
+        }
+
+        return roomService.getAvailableRooms(from, to, pageable)
+                .map(ReactiveRoomMapper.INSTANCE::roomToRoomDto);
+    }
+}
@@ -0,0 +1,23 @@
+package com.sample.bookingservice.reactive.mapper;
+
+import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.reactive.model.ReactiveReservation;
+import com.sample.bookingservice.reactive.model.ReactiveRoom;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface ReactiveReservationMapper {
+    ReactiveReservationMapper INSTANCE = Mappers.getMapper(ReactiveReservationMapper.class);
+
+    ReservationDto toReservationDto(final ReactiveReservation reservation);
+
+    // the reactive stack reads rooms by id and number only
+    @Mapping(target = "roomType", ignore = true)
+    @Mapping(target = "capacity", ignore = true)
+    @Mapping(target = "floor", ignore = true)
+    @Mapping(target = "amenities", ignore = true)
+    Room toRoom(final ReactiveRoom room);
+}
@@ -0,0 +1,20 @@
+package com.sample.bookingservice.reactive.mapper;
+
+import com.sample.bookingservice.dto.RoomDto;
+import com.sample.bookingservice.reactive.model.ReactiveRoom;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface ReactiveRoomMapper {
+    ReactiveRoomMapper INSTANCE = Mappers.getMapper(ReactiveRoomMapper.class);
+
+    // the reactive stack reads rooms by id and number only, and doesn't price stays
+    @Mapping(target = "roomType", ignore = true)
+    @Mapping(target = "capacity", ignore = true)
+    @Mapping(target = "floor", ignore = true)
+    @Mapping(target = "amenities", ignore = true)
+    @Mapping(target = "stayPrice", ignore = true)
+    RoomDto roomToRoomDto(final ReactiveRoom room);
+}
@@ -0,0 +1,30 @@
+package com.sample.bookingservice.reactive.model;
+
+import com.sample.bookingservice.model.ReservationStatus;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+@Data
+@Table("reservations")
+public class ReactiveReservation {
+    @Id
+    private Long reservationId;
+
+    private Integer roomId;
+
+    // R2DBC has no associations, the room is attached by the service for the response
+    @Transient
+    private ReactiveRoom room;
+
+    private ReservationStatus status = ReservationStatus.INITIAL;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private LocalDate createdAt = LocalDate.now();
+}
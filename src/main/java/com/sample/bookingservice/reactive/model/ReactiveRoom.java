@@ -0,0 +1,14 @@
+package com.sample.bookingservice.reactive.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@Table("rooms")
+public class ReactiveRoom {
+    @Id
+    private Integer roomId;
+
+    private String roomNumber;
+}
@@ -0,0 +1,7 @@
+package com.sample.bookingservice.reactive.repository;
+
+import com.sample.bookingservice.reactive.model.ReactiveReservation;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+public interface ReactiveReservationRepository extends R2dbcRepository<ReactiveReservation, Long> {
+}
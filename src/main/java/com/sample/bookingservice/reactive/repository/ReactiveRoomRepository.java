@@ -0,0 +1,20 @@
+package com.sample.bookingservice.reactive.repository;
+
+import com.sample.bookingservice.reactive.model.ReactiveRoom;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface ReactiveRoomRepository extends R2dbcRepository<ReactiveRoom, Integer>, ReactiveRoomRepositoryCustom {
+
+    // same rule as RoomRepository.isRoomAvailable, status 1 is ReservationStatus.CONFIRMED
+    @Query("SELECT count(*) = 0 FROM reservations r WHERE r.room_id = :roomId " +
+            "AND (r.start_date < :to AND :from < r.end_date) " +
+            "AND r.status = 1")
+    Mono<Boolean> isRoomAvailable(@Param("from") final LocalDate from,
+                                  @Param("to") final LocalDate to,
+                                  @Param("roomId") final Integer roomId);
+}
@@ -0,0 +1,11 @@
+package com.sample.bookingservice.reactive.repository;
+
+import com.sample.bookingservice.reactive.model.ReactiveRoom;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+public interface ReactiveRoomRepositoryCustom {
+    Flux<ReactiveRoom> getAvailableRooms(final LocalDate from, final LocalDate to, final Pageable pageable);
+}
@@ -0,0 +1,63 @@
+package com.sample.bookingservice.reactive.repository;
+
+import com.sample.bookingservice.reactive.model.ReactiveRoom;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ReactiveRoomRepositoryCustomImpl implements ReactiveRoomRepositoryCustom {
+
+    // sortable properties of the /rooms contract and their columns
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "roomId", "room.room_id",
+            "roomNumber", "room.room_number"
+    );
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveRoomRepositoryCustomImpl(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // SQL version of RoomRepository.getAvailableRooms, status 1 is ReservationStatus.CONFIRMED
+    @Override
+    public Flux<ReactiveRoom> getAvailableRooms(final LocalDate from, final LocalDate to, final Pageable pageable) {
+        final String sql = "SELECT room.room_id, room.room_number FROM reservations r JOIN rooms room ON r.room_id = room.room_id " +
+                "WHERE NOT (r.start_date < :to AND :from < r.end_date) " +
+                "AND r.status <> 1" +
+                orderBy(pageable.getSort()) +
+                (pageable.isPaged() ? " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset() : "");
+
+        return databaseClient.sql(sql)
+                .bind("from", from)
+                .bind("to", to)
+                .map((row, metadata) -> {
+                    final ReactiveRoom room = new ReactiveRoom();
+                    room.setRoomId(row.get("room_id", Integer.class));
+                    room.setRoomNumber(row.get("room_number", String.class));
+                    return room;
+                })
+                .all();
+    }
+
+    private static String orderBy(final Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+
+        return sort.stream()
+                .map(order -> {
+                    final String column = SORT_COLUMNS.get(order.getProperty());
+                    if (column == null) {
+                        throw new IllegalArgumentException("Unable to sort rooms by: " + order.getProperty());
+                    }
+                    return column + (order.isAscending() ? " ASC" : " DESC");
+                })
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+    }
+}
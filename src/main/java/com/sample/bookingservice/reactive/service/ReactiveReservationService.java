@@ -0,0 +1,21 @@
+package com.sample.bookingservice.reactive.service;
+
+import com.sample.bookingservice.reactive.model.ReactiveReservation;
+import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Validated
+public interface ReactiveReservationService {
+    @ConsistentReservationDateParameters
+    Mono<ReactiveReservation> makeReservation(@NotNull @FutureOrPresent final LocalDate startDate, @NotNull @Future final LocalDate endDate,
+                                              @NotNull @Min(1) final Integer roomId);
+
+    Mono<ReactiveReservation> cancelReservation(@Min(1) final long id);
+}
@@ -0,0 +1,19 @@
+package com.sample.bookingservice.reactive.service;
+
+import com.sample.bookingservice.reactive.model.ReactiveRoom;
+import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Pageable;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+@Validated
+public interface ReactiveRoomService {
+    @ConsistentReservationDateParameters
+    Flux<ReactiveRoom> getAvailableRooms(@NotNull @FutureOrPresent final LocalDate from, @NotNull @Future final LocalDate to,
+                                         final Pageable pageable);
+}
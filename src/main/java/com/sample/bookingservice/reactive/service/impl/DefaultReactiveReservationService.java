@@ -0,0 +1,106 @@
+package com.sample.bookingservice.reactive.service.impl;
+
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.exception.CancelReservationException;
+import com.sample.bookingservice.exception.ReservationNotFoundException;
+import com.sample.bookingservice.exception.RoomAlreadyBookedException;
+import com.sample.bookingservice.exception.RoomNotFoundException;
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.reactive.model.ReactiveReservation;
+import com.sample.bookingservice.reactive.model.ReactiveRoom;
+import com.sample.bookingservice.reactive.repository.ReactiveReservationRepository;
+import com.sample.bookingservice.reactive.repository.ReactiveRoomRepository;
+import com.sample.bookingservice.reactive.service.ReactiveReservationService;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Service
+@Validated
+public class DefaultReactiveReservationService implements ReactiveReservationService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultReactiveReservationService.class);
+
+    private final ReactiveReservationRepository reservationRepository;
+    private final ReactiveRoomRepository roomRepository;
+    private final ReactiveReservationChangePublisher changePublisher;
+
+    public DefaultReactiveReservationService(final ReactiveReservationRepository reservationRepository,
+                                             final ReactiveRoomRepository roomRepository,
+                                             final ReactiveReservationChangePublisher changePublisher) {
+        this.reservationRepository = reservationRepository;
+        this.roomRepository = roomRepository;
+        this.changePublisher = changePublisher;
+    }
+
+    @Transactional
+    public Mono<ReactiveReservation> makeReservation(final LocalDate startDate, final LocalDate endDate, final Integer roomId) {
+        if (log.isDebugEnabled()) {
+            log.debug("makeReservation with startDate: {}, endDate: {}, roomId: {}", startDate, endDate, roomId);
+        }
+
+        return roomRepository.findById(roomId)
+                .switchIfEmpty(Mono.error(() -> new RoomNotFoundException("Unable to find room with id: " + roomId)))
+                .flatMap(room -> roomRepository.isRoomAvailable(startDate, endDate, roomId)
+                        .flatMap(available -> available
+                                ? save(room, startDate, endDate)
+                                : Mono.error(new RoomAlreadyBookedException("The room is already booked for the provided dates"))));
+    }
+
+    @Transactional
+    public Mono<ReactiveReservation> cancelReservation(final long id) {
+        if (log.isDebugEnabled()) {
+            log.debug("cancelReservation with id: {}", id);
+        }
+
+        return reservationRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ReservationNotFoundException("Unable to find reservation with id " + id)))
+                .flatMap(reservation -> {
+                    // TODO: more fine-grained status transition rules
+                    if (!reservation.getStatus().equals(ReservationStatus.CONFIRMED)) {
+                        return Mono.error(new CancelReservationException("Unable to cancel reservation in status " + reservation.getStatus()));
+                    }
+
+                    if (log.isDebugEnabled()) {
+                        log.debug("cancelReservation reservation: {}", reservation);
+                    }
+
+                    reservation.setStatus(ReservationStatus.CANCELLED);
+                    return reservationRepository.save(reservation)
+                            .flatMap(cancelled -> publish(cancelled, ReservationChangeType.CANCELLED));
+                });
+    }
+
+    private Mono<ReactiveReservation> save(final ReactiveRoom room, final LocalDate startDate, final LocalDate endDate) {
+        final ReactiveReservation reservation = new ReactiveReservation();
+        reservation.setRoomId(room.getRoomId());
+        reservation.setStartDate(startDate);
+        reservation.setEndDate(endDate);
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+
+        if (log.isDebugEnabled()) {
+            log.debug("makeReservation new reservation: {}", reservation);
+        }
+
+        return reservationRepository.save(reservation)
+                .doOnNext(savedReservation -> savedReservation.setRoom(room))
+                .flatMap(savedReservation -> publish(savedReservation, ReservationChangeType.BOOKED));
+    }
+
+    // inside the transaction, like the events of the servlet write paths. A reservation whose room was deleted holds
+    // no days anywhere
+    private Mono<ReactiveReservation> publish(final ReactiveReservation reservation, final ReservationChangeType type) {
+        if (reservation.getRoomId() == null) {
+            return Mono.just(reservation);
+        }
+
+        return changePublisher.publish(new ReservationChangedEvent(reservation.getReservationId(), reservation.getRoomId(),
+                        reservation.getStartDate(), reservation.getEndDate(), type))
+                .thenReturn(reservation);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sample.bookingservice.reactive.service.impl;
+
+import com.sample.bookingservice.reactive.model.ReactiveRoom;
+import com.sample.bookingservice.reactive.repository.ReactiveRoomRepository;
+import com.sample.bookingservice.reactive.service.ReactiveRoomService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+@Service
+@Validated
+public class DefaultReactiveRoomService implements ReactiveRoomService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultReactiveRoomService.class);
+
+    private final ReactiveRoomRepository roomRepository;
+
+    public DefaultReactiveRoomService(final ReactiveRoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    public Flux<ReactiveRoom> getAvailableRooms(final LocalDate from, final LocalDate to, final Pageable pageable) {
+        return roomRepository.getAvailableRooms(from, to, pageable)
+                .doOnNext(room -> {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Available room between {} and {}, for pageable: {}, room: {}", from, to, pageable, room);
+                    }
+                });
+    }
+}
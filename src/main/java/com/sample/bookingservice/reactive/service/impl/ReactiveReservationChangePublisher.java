@@ -0,0 +1,63 @@
+package com.sample.bookingservice.reactive.service.impl;
+
+import com.sample.bookingservice.event.ReservationChangeMessage;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive counterpart of the servlet stack's before-commit listeners ({@code DefaultOutboxService},
+ * {@code ReservationChangeNotifier}): writes the outbox row and notifies the other nodes, on the connection of the
+ * caller's transaction so both commit or roll back with the reservation.
+ * <p>
+ * The reactive stack keeps no index, cache or stream of its own. The servlet nodes apply the notified change as they
+ * do for any other node, and their relay carries the outbox row to the sink and the changelog.
+ */
+@Component
+public class ReactiveReservationChangePublisher {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveReservationChangePublisher.class);
+
+    private final DatabaseClient databaseClient;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ReactiveReservationChangePublisher(final DatabaseClient databaseClient,
+                                              @Value("${reservation.changes.channel}") final String channel) {
+        this.databaseClient = databaseClient;
+        this.channel = channel;
+    }
+
+    public Mono<Void> publish(final ReservationChangedEvent event) {
+        final String sql = "INSERT INTO outbox_events (reservation_id, room_id, event_type, start_date, end_date, created_at) " +
+                "VALUES (:reservationId, :roomId, :eventType, :startDate, :endDate, now())";
+
+        return databaseClient.sql(sql)
+                .bind("reservationId", event.reservationId())
+                .bind("roomId", event.roomId())
+                .bind("eventType", event.type().name())
+                .bind("startDate", event.startDate())
+                .bind("endDate", event.endDate())
+                .then()
+                .then(Mono.defer(() -> {
+                    final String payload = new ReservationChangeMessage(nodeId, sequence.incrementAndGet(), event).encode();
+                    return databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                            .bind("channel", channel)
+                            .bind("payload", payload)
+                            .fetch()
+                            .all()
+                            .then(Mono.fromRunnable(() -> {
+                                if (log.isDebugEnabled()) {
+                                    log.debug("Recorded and notified reservation change: {}", payload);
+                                }
+                            }));
+                }));
+    }
+}
@@ -0,0 +1,32 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.model.AvailabilityChange;
+import com.sample.bookingservice.repository.projection.ChangeSequenceRange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface AvailabilityChangeRepository extends JpaRepository<AvailabilityChange, Long> {
+
+    @Query("SELECT c FROM AvailabilityChange c WHERE c.changeSeq > :since ORDER BY c.changeSeq")
+    List<AvailabilityChange> findChangesAfter(@Param("since") final long since, final Pageable pageable);
+
+    // min and max of the primary key, each read from one end of its index
+    @Query("SELECT new com.sample.bookingservice.repository.projection.ChangeSequenceRange(" +
+            "min(c.changeSeq), max(c.changeSeq)) FROM AvailabilityChange c")
+    ChangeSequenceRange findSequenceRange();
+
+    // rooms touched after the given sequence, read through the primary key from there
+    @Query("SELECT DISTINCT c.roomId FROM AvailabilityChange c WHERE c.changeSeq > :since")
+    List<Integer> findRoomIdsChangedAfter(@Param("since") final long since);
+
+    // the newest changes are always kept, so the latest sequence survives pruning
+    @Modifying
+    @Query(value = "DELETE FROM availability_changes " +
+            "WHERE change_seq <= (SELECT max(change_seq) FROM availability_changes) - :retained", nativeQuery = true)
+    int deleteAllButLatest(@Param("retained") final long retained);
+}
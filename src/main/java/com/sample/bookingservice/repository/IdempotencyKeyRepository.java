@@ -0,0 +1,18 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // plain insert instead of save(): the key is assigned, so save() would merge and select first.
+    // A duplicate key fails on the primary key and rolls back the reservation written in the same transaction
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, reservation_id, created_at) " +
+            "VALUES (:idempotencyKey, :reservationId, now())", nativeQuery = true)
+    void insert(@Param("idempotencyKey") final String idempotencyKey,
+                @Param("reservationId") final Long reservationId);
+}
@@ -0,0 +1,40 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventRepositoryCustom {
+
+    @Modifying
+    @Query(value = "INSERT INTO outbox_events (reservation_id, room_id, event_type, start_date, end_date, created_at) " +
+            "VALUES (:reservationId, :roomId, :eventType, :startDate, :endDate, now())", nativeQuery = true)
+    void insert(@Param("reservationId") final Long reservationId, @Param("roomId") final Integer roomId,
+                @Param("eventType") final String eventType, @Param("startDate") final LocalDate startDate,
+                @Param("endDate") final LocalDate endDate);
+
+    // rooms touched by the changes not relayed yet
+    @Query("SELECT DISTINCT e.roomId FROM OutboxEvent e")
+    List<Integer> findRoomIds();
+
+    // claims and removes the oldest batch in one statement and appends it to the availability changelog. Rows locked by
+    // another relay are skipped instead of waited for, and everything is rolled back with the transaction if the sink fails
+    @Query(value = "WITH claimed AS (DELETE FROM outbox_events WHERE event_id IN (" +
+            "SELECT event_id FROM outbox_events ORDER BY event_id LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *), " +
+            "logged AS (INSERT INTO availability_changes " +
+            "(reservation_id, room_id, change_type, start_date, end_date, created_at) " +
+            "SELECT reservation_id, room_id, event_type, start_date, end_date, created_at FROM claimed " +
+            "ORDER BY event_id) " +
+            "SELECT * FROM claimed", nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("batchSize") final int batchSize);
+
+    // held until the relay transaction ends, so changelog sequences become visible in the order they were taken
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLockRelay(@Param("key") final long key);
+}
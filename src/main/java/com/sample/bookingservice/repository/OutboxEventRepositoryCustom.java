@@ -0,0 +1,10 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.event.ReservationChangedEvent;
+
+import java.util.List;
+
+public interface OutboxEventRepositoryCustom {
+    // one outbox row per event, in one statement
+    void insertAll(final List<ReservationChangedEvent> events);
+}
@@ -0,0 +1,42 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+public class OutboxEventRepositoryCustomImpl implements OutboxEventRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxEventRepositoryCustomImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(final List<ReservationChangedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        final String sql = "INSERT INTO outbox_events (reservation_id, room_id, event_type, start_date, end_date, created_at) " +
+                "SELECT *, now() FROM unnest(?, ?, ?, ?, ?)";
+
+        jdbcTemplate.update(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint",
+                    events.stream().map(ReservationChangedEvent::reservationId).toArray()));
+            statement.setArray(2, connection.createArrayOf("integer",
+                    events.stream().map(ReservationChangedEvent::roomId).toArray()));
+            statement.setArray(3, connection.createArrayOf("varchar",
+                    events.stream().map(event -> event.type().name()).toArray()));
+            statement.setArray(4, connection.createArrayOf("date",
+                    events.stream().map(event -> Date.valueOf(event.startDate())).toArray()));
+            statement.setArray(5, connection.createArrayOf("date",
+                    events.stream().map(event -> Date.valueOf(event.endDate())).toArray()));
+            return statement;
+        });
+    }
+}
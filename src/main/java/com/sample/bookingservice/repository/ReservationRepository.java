@@ -1,7 +1,69 @@
 package com.sample.bookingservice.repository;
 
 import com.sample.bookingservice.model.Reservation;
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.repository.projection.ReservationView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationRepositoryCustom {
+
+    // room is fetched in the same query so the replayed reservation can be mapped and serialized as is
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.room WHERE r.reservationId = " +
+            "(SELECT k.reservationId FROM IdempotencyKey k WHERE k.idempotencyKey = :idempotencyKey)")
+    Optional<Reservation> findByIdempotencyKey(@Param("idempotencyKey") final String idempotencyKey);
+
+    // tells a missing reservation from one in another status once a conditional update touched no row
+    @Query("SELECT r.status FROM Reservation r WHERE r.reservationId = :id")
+    Optional<ReservationStatus> findStatusById(@Param("id") final long id);
+
+    // empty as well for a reservation whose room was deleted
+    @Query("SELECT r.room.roomId FROM Reservation r WHERE r.reservationId = :id")
+    Optional<Integer> findRoomIdById(@Param("id") final long id);
+
+    @Query("SELECT max(r.reservationId) FROM Reservation r")
+    Optional<Long> findMaxReservationId();
+
+    // confirmed reservations still occupying a day after the given one, newer than the given id
+    @Query("SELECT new com.sample.bookingservice.repository.projection.ReservationSpan(" +
+            "r.reservationId, r.room.roomId, r.startDate, r.endDate) FROM Reservation r " +
+            "WHERE r.reservationId > :afterId AND r.endDate > :after AND r.status = ReservationStatus.CONFIRMED")
+    List<ReservationSpan> findConfirmedSpans(@Param("afterId") final long afterId, @Param("after") final LocalDate after);
+
+    // confirmed reservations of the given rooms overlapping [from, to), served by the partial room and dates index
+    @Query("SELECT new com.sample.bookingservice.repository.projection.ReservationSpan(" +
+            "r.reservationId, r.room.roomId, r.startDate, r.endDate) FROM Reservation r " +
+            "WHERE r.room.roomId IN :roomIds AND r.startDate < :to AND :from < r.endDate " +
+            "AND r.status = ReservationStatus.CONFIRMED")
+    List<ReservationSpan> findConfirmedSpans(@Param("roomIds") final Collection<Integer> roomIds,
+                                             @Param("from") final LocalDate from, @Param("to") final LocalDate to);
+
+    // flat rows for the read endpoints, the room number comes from the same query through the rooms primary key
+    @Query("SELECT new com.sample.bookingservice.repository.projection.ReservationView(" +
+            "r.reservationId, room.roomId, room.roomNumber, r.status, r.startDate, r.endDate, r.createdAt) " +
+            "FROM Reservation r LEFT JOIN r.room room WHERE r.reservationId = :id")
+    Optional<ReservationView> findViewById(@Param("id") final long id);
+
+    @Query("SELECT new com.sample.bookingservice.repository.projection.ReservationView(" +
+            "r.reservationId, room.roomId, room.roomNumber, r.status, r.startDate, r.endDate, r.createdAt) " +
+            "FROM Reservation r LEFT JOIN r.room room WHERE r.reservationId IN :ids ORDER BY r.reservationId")
+    List<ReservationView> findViewsByIds(@Param("ids") final Collection<Long> ids);
+
+    // keyset page of the room's reservations starting before :to, after (afterStartDate, afterId) in
+    // (start_date, reservation_id) order, walked through the room and start date index without an offset
+    @Query("SELECT new com.sample.bookingservice.repository.projection.ReservationView(" +
+            "r.reservationId, room.roomId, room.roomNumber, r.status, r.startDate, r.endDate, r.createdAt) " +
+            "FROM Reservation r JOIN r.room room WHERE r.room.roomId = :roomId AND r.startDate < :to " +
+            "AND (r.startDate, r.reservationId) > (:afterStartDate, :afterId) ORDER BY r.startDate, r.reservationId")
+    List<ReservationView> findRoomViews(@Param("roomId") final Integer roomId, @Param("to") final LocalDate to,
+                                        @Param("afterStartDate") final LocalDate afterStartDate,
+                                        @Param("afterId") final long afterId, final Pageable pageable);
 }
@@ -0,0 +1,59 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.repository.projection.ReservationExportRow;
+import com.sample.bookingservice.repository.projection.ReservationMove;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.repository.projection.ReservationView;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface ReservationRepositoryCustom {
+
+    /**
+     * Hands every reservation starting in [from, to), in the given status or any status when it is null, to
+     * {@code consumer} while the rows are read. Rows come in table order. Has to run in a transaction, otherwise the
+     * driver reads the whole result before the first row is handed over.
+     *
+     * @return number of rows handed over
+     */
+    long streamReservations(final LocalDate from, final LocalDate to, final ReservationStatus status,
+                            final Consumer<ReservationExportRow> consumer);
+
+    /**
+     * Inserts a confirmed reservation per span in one statement, the ids of the spans are ignored.
+     *
+     * @return the inserted reservations with their ids
+     */
+    List<ReservationSpan> insertConfirmedReservations(final List<ReservationSpan> spans);
+
+    /**
+     * Cancels the reservation in one statement if it is confirmed. The status check and the update can't be
+     * interleaved by a concurrent cancel, the row lock makes the second one see the cancelled status.
+     *
+     * @return the cancelled reservation, empty when the id is unknown or the reservation is not confirmed
+     */
+    Optional<ReservationView> cancelConfirmedReservation(final long id);
+
+    /**
+     * Cancels every confirmed reservation of the rooms holding a day in [from, to) in one statement.
+     *
+     * @return the cancelled reservations
+     */
+    List<ReservationSpan> cancelConfirmedReservations(final Collection<Integer> roomIds, final LocalDate from,
+                                                      final LocalDate to);
+
+    /**
+     * Moves a confirmed reservation to [from, to) in the given room, or its own room when {@code roomId} is null,
+     * in one statement. The move only happens when the room exists and no other confirmed reservation of it
+     * overlaps the new dates, the reservation's own days don't count as a conflict.
+     *
+     * @return the moved reservation and what it held before, empty when any of the conditions does not hold
+     */
+    Optional<ReservationMove> moveConfirmedReservation(final long id, final Integer roomId, final LocalDate from,
+                                                       final LocalDate to);
+}
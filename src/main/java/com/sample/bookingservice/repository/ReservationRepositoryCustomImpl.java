@@ -0,0 +1,189 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.repository.projection.ReservationExportRow;
+import com.sample.bookingservice.repository.projection.ReservationMove;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.repository.projection.ReservationView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public class ReservationRepositoryCustomImpl implements ReservationRepositoryCustom {
+
+    private static final ReservationStatus[] STATUSES = ReservationStatus.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public ReservationRepositoryCustomImpl(final JdbcTemplate jdbcTemplate,
+                                           @Value("${reservation.export.fetch.size}") final int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    // a forward-only statement with a fetch size makes the Postgres driver read through a cursor, fetchSize rows at
+    // a time, instead of buffering the whole result
+    @Override
+    public long streamReservations(final LocalDate from, final LocalDate to, final ReservationStatus status,
+                                   final Consumer<ReservationExportRow> consumer) {
+        final String sql = "SELECT reservation_id, room_id, status, start_date, end_date, created_at FROM reservations " +
+                "WHERE start_date >= ? AND start_date < ?" +
+                (status != null ? " AND status = ?" : "");
+        final long[] rows = {0};
+
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setDate(1, Date.valueOf(from));
+            statement.setDate(2, Date.valueOf(to));
+            if (status != null) {
+                statement.setInt(3, status.ordinal());
+            }
+            return statement;
+        }, resultSet -> {
+            final int ordinal = resultSet.getInt("status");
+            final ReservationStatus rowStatus = resultSet.wasNull() ? null : STATUSES[ordinal];
+            consumer.accept(new ReservationExportRow(
+                    resultSet.getLong("reservation_id"),
+                    resultSet.getObject("room_id", Integer.class),
+                    rowStatus,
+                    resultSet.getObject("start_date", LocalDate.class),
+                    resultSet.getObject("end_date", LocalDate.class),
+                    resultSet.getObject("created_at", LocalDate.class)));
+            rows[0]++;
+        });
+
+        return rows[0];
+    }
+
+    // the spans travel as three arrays, so the statement and its round trip don't grow with the number of rows
+    @Override
+    public List<ReservationSpan> insertConfirmedReservations(final List<ReservationSpan> spans) {
+        if (spans.isEmpty()) {
+            return List.of();
+        }
+
+        final String sql = "INSERT INTO reservations (room_id, status, start_date, end_date, created_at) " +
+                "SELECT room_id, ?, start_date, end_date, now() FROM unnest(?, ?, ?) AS s(room_id, start_date, end_date) " +
+                "RETURNING reservation_id, room_id, start_date, end_date";
+
+        return jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setInt(1, ReservationStatus.CONFIRMED.ordinal());
+            statement.setArray(2, connection.createArrayOf("integer",
+                    spans.stream().map(ReservationSpan::roomId).toArray()));
+            statement.setArray(3, connection.createArrayOf("date",
+                    spans.stream().map(span -> Date.valueOf(span.startDate())).toArray()));
+            statement.setArray(4, connection.createArrayOf("date",
+                    spans.stream().map(span -> Date.valueOf(span.endDate())).toArray()));
+            return statement;
+        }, (resultSet, rowNum) -> new ReservationSpan(
+                resultSet.getLong("reservation_id"),
+                resultSet.getInt("room_id"),
+                resultSet.getObject("start_date", LocalDate.class),
+                resultSet.getObject("end_date", LocalDate.class)));
+    }
+
+    // the room number is read by the same statement, the cancelled reservation is mapped without another query
+    @Override
+    public Optional<ReservationView> cancelConfirmedReservation(final long id) {
+        final String sql = "UPDATE reservations SET status = ? WHERE reservation_id = ? AND status = ? " +
+                "RETURNING reservation_id, room_id, status, start_date, end_date, created_at, " +
+                "(SELECT room_number FROM rooms WHERE rooms.room_id = reservations.room_id) AS room_number";
+
+        return jdbcTemplate.query(sql, (resultSet, rowNum) -> new ReservationView(
+                        resultSet.getLong("reservation_id"),
+                        resultSet.getObject("room_id", Integer.class),
+                        resultSet.getString("room_number"),
+                        STATUSES[resultSet.getInt("status")],
+                        resultSet.getObject("start_date", LocalDate.class),
+                        resultSet.getObject("end_date", LocalDate.class),
+                        resultSet.getTimestamp("created_at")),
+                ReservationStatus.CANCELLED.ordinal(), id, ReservationStatus.CONFIRMED.ordinal())
+                .stream().findFirst();
+    }
+
+    // the rooms travel as one array and are matched through the confirmed reservations index, whose predicate
+    // only a literal status matches in a generic plan
+    @Override
+    public List<ReservationSpan> cancelConfirmedReservations(final Collection<Integer> roomIds, final LocalDate from,
+                                                             final LocalDate to) {
+        final String sql = "UPDATE reservations SET status = ? " +
+                "WHERE room_id = ANY(?) AND start_date < ? AND end_date > ? " +
+                "AND status = " + ReservationStatus.CONFIRMED.ordinal() + " " +
+                "RETURNING reservation_id, room_id, start_date, end_date";
+
+        return jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setInt(1, ReservationStatus.CANCELLED.ordinal());
+            statement.setArray(2, connection.createArrayOf("integer", roomIds.toArray()));
+            statement.setDate(3, Date.valueOf(to));
+            statement.setDate(4, Date.valueOf(from));
+            return statement;
+        }, (resultSet, rowNum) -> new ReservationSpan(
+                resultSet.getLong("reservation_id"),
+                resultSet.getInt("room_id"),
+                resultSet.getObject("start_date", LocalDate.class),
+                resultSet.getObject("end_date", LocalDate.class)));
+    }
+
+    // the reservation is locked by the sub-select, so the days it held come back as they were when it moved;
+    // the conflict check is the booking's, on the confirmed reservations index
+    @Override
+    public Optional<ReservationMove> moveConfirmedReservation(final long id, final Integer roomId, final LocalDate from,
+                                                              final LocalDate to) {
+        final String sql = "UPDATE reservations r SET room_id = m.room_id, start_date = ?, end_date = ? " +
+                "FROM (SELECT reservation_id, COALESCE(?, room_id) AS room_id, room_id AS previous_room_id, " +
+                "start_date AS previous_start_date, end_date AS previous_end_date FROM reservations " +
+                "WHERE reservation_id = ? AND status = ? FOR UPDATE) m " +
+                "WHERE r.reservation_id = m.reservation_id " +
+                "AND EXISTS (SELECT 1 FROM rooms WHERE rooms.room_id = m.room_id) " +
+                "AND NOT EXISTS (SELECT 1 FROM reservations c WHERE c.room_id = m.room_id AND c.start_date < ? " +
+                "AND c.end_date > ? AND c.status = " + ReservationStatus.CONFIRMED.ordinal() + " " +
+                "AND c.reservation_id <> m.reservation_id) " +
+                "RETURNING r.reservation_id, r.room_id, r.status, r.start_date, r.end_date, r.created_at, " +
+                "(SELECT room_number FROM rooms WHERE rooms.room_id = r.room_id) AS room_number, " +
+                "m.previous_room_id, m.previous_start_date, m.previous_end_date";
+
+        return jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setDate(1, Date.valueOf(from));
+            statement.setDate(2, Date.valueOf(to));
+            if (roomId == null) {
+                statement.setNull(3, Types.INTEGER);
+            } else {
+                statement.setInt(3, roomId);
+            }
+            statement.setLong(4, id);
+            statement.setInt(5, ReservationStatus.CONFIRMED.ordinal());
+            statement.setDate(6, Date.valueOf(to));
+            statement.setDate(7, Date.valueOf(from));
+            return statement;
+        }, (resultSet, rowNum) -> new ReservationMove(
+                new ReservationView(
+                        resultSet.getLong("reservation_id"),
+                        resultSet.getObject("room_id", Integer.class),
+                        resultSet.getString("room_number"),
+                        STATUSES[resultSet.getInt("status")],
+                        resultSet.getObject("start_date", LocalDate.class),
+                        resultSet.getObject("end_date", LocalDate.class),
+                        resultSet.getTimestamp("created_at")),
+                new ReservationSpan(
+                        resultSet.getLong("reservation_id"),
+                        resultSet.getObject("previous_room_id", Integer.class),
+                        resultSet.getObject("previous_start_date", LocalDate.class),
+                        resultSet.getObject("previous_end_date", LocalDate.class))))
+                .stream().findFirst();
+    }
+}
@@ -1,6 +1,8 @@
 package com.sample.bookingservice.repository;
 
 import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.projection.RoomAvailability;
+import com.sample.bookingservice.repository.projection.RoomTypeAssignment;
 import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.FutureOrPresent;
@@ -12,10 +14,12 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Validated
-public interface RoomRepository extends JpaRepository<Room, Integer> {
+public interface RoomRepository extends JpaRepository<Room, Integer>, RoomRepositoryCustom {
 
     // we find reservations that DON'T have date intersection
     @ConsistentReservationDateParameters
@@ -36,4 +40,54 @@ public interface RoomRepository extends JpaRepository<Room, Integer> {
     boolean isRoomAvailable(@NotNull @FutureOrPresent @Param("from") final LocalDate from,
                             @NotNull @Future @Param("to") final LocalDate to,
                             @NotNull @Param("roomId") final Integer roomId);
+
+    // the room and its availability in one round trip, what makeReservation needs before inserting
+    @ConsistentReservationDateParameters
+    @Query("SELECT new com.sample.bookingservice.repository.projection.RoomAvailability(room, " +
+            "NOT EXISTS (SELECT r.reservationId FROM Reservation r WHERE r.room.roomId = room.roomId " +
+            "AND r.startDate < :to AND :from < r.endDate AND r.status = ReservationStatus.CONFIRMED)) " +
+            "FROM Room room WHERE room.roomId = :roomId")
+    Optional<RoomAvailability> findRoomAvailability(@NotNull @FutureOrPresent @Param("from") final LocalDate from,
+                                                    @NotNull @Future @Param("to") final LocalDate to,
+                                                    @NotNull @Param("roomId") final Integer roomId);
+
+    // rooms other than the given one with no confirmed reservation overlapping the dates, what a conflict offers instead
+    @Query("SELECT room FROM Room room WHERE room.roomId <> :roomId " +
+            "AND NOT EXISTS (SELECT r.reservationId FROM Reservation r WHERE r.room.roomId = room.roomId " +
+            "AND r.startDate < :to AND :from < r.endDate AND r.status = ReservationStatus.CONFIRMED) " +
+            "ORDER BY room.roomId")
+    List<Room> findOtherFreeRooms(@NotNull @Param("from") final LocalDate from, @NotNull @Param("to") final LocalDate to,
+                                  @NotNull @Param("roomId") final Integer roomId, final Pageable pageable);
+
+    // free rooms among the ids, in id order; the ids come as one array parameter however many there are.
+    // Status 1 is CONFIRMED, a literal so that generic plans can use the partial index
+    @Query(value = "SELECT * FROM rooms room WHERE room.room_id = ANY(:roomIds) " +
+            "AND NOT EXISTS (SELECT 1 FROM reservations r WHERE r.room_id = room.room_id " +
+            "AND r.start_date < :to AND :from < r.end_date AND r.status = 1) " +
+            "ORDER BY room.room_id", nativeQuery = true)
+    List<Room> findFreeRooms(@NotNull @Param("from") final LocalDate from, @NotNull @Param("to") final LocalDate to,
+                             @NotNull @Param("roomIds") final Integer[] roomIds, final Pageable pageable);
+
+    // every room with no confirmed reservation overlapping the dates, in id order; what a search without filter reads
+    // while the availability index is still loading
+    @Query("SELECT room FROM Room room WHERE NOT EXISTS (SELECT r.reservationId FROM Reservation r " +
+            "WHERE r.room.roomId = room.roomId AND r.startDate < :to AND :from < r.endDate " +
+            "AND r.status = ReservationStatus.CONFIRMED) ORDER BY room.roomId")
+    List<Room> findFreeRooms(@NotNull @Param("from") final LocalDate from, @NotNull @Param("to") final LocalDate to,
+                             final Pageable pageable);
+
+    @Query("SELECT room.roomId FROM Room room WHERE room.roomId IN :roomIds")
+    List<Integer> findExistingRoomIds(@Param("roomIds") final Collection<Integer> roomIds);
+
+    @Query("SELECT new com.sample.bookingservice.repository.projection.RoomTypeAssignment(room.roomId, room.roomType) " +
+            "FROM Room room WHERE room.roomType IS NOT NULL")
+    List<RoomTypeAssignment> findRoomTypes();
+
+    // rooms a rate table filled up to roomId doesn't know yet
+    @Query("SELECT new com.sample.bookingservice.repository.projection.RoomTypeAssignment(room.roomId, room.roomType) " +
+            "FROM Room room WHERE room.roomId > :roomId AND room.roomType IS NOT NULL")
+    List<RoomTypeAssignment> findRoomTypesAfter(@Param("roomId") final int roomId);
+
+    @Query("SELECT max(r.roomId) FROM Room r")
+    Optional<Integer> findMaxRoomId();
 }
@@ -0,0 +1,14 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.repository.projection.RoomTypeRate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RoomRepositoryCustom {
+
+    /**
+     * Rates of every room type for the nights in [from, to), without an entity per row.
+     */
+    List<RoomTypeRate> findRoomTypeRates(final LocalDate from, final LocalDate to);
+}
@@ -0,0 +1,28 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.repository.projection.RoomTypeRate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+public class RoomRepositoryCustomImpl implements RoomRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RoomRepositoryCustomImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<RoomTypeRate> findRoomTypeRates(final LocalDate from, final LocalDate to) {
+        return jdbcTemplate.query("SELECT room_type, stay_date, rate FROM room_type_rates " +
+                        "WHERE stay_date >= ? AND stay_date < ?",
+                (resultSet, row) -> new RoomTypeRate(
+                        resultSet.getString("room_type"),
+                        resultSet.getObject("stay_date", LocalDate.class),
+                        resultSet.getBigDecimal("rate")),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+}
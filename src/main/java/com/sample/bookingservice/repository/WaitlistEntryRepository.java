@@ -0,0 +1,37 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.model.WaitlistEntry;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // only read on start, the waiting entries are held in memory from then on
+    @Query(value = "SELECT * FROM waitlist_entries WHERE status = 'WAITING' AND start_date >= :today " +
+            "ORDER BY entry_id", nativeQuery = true)
+    List<WaitlistEntry> findWaiting(@Param("today") final LocalDate today);
+
+    // the row lock makes a node promoting the same entry wait, it then finds it no longer waiting
+    @Modifying
+    @Query(value = "UPDATE waitlist_entries SET status = 'PROMOTED' WHERE entry_id = :entryId AND status = 'WAITING'",
+            nativeQuery = true)
+    int claim(@Param("entryId") final long entryId);
+
+    @Modifying
+    @Query(value = "UPDATE waitlist_entries SET reservation_id = :reservationId WHERE entry_id = :entryId",
+            nativeQuery = true)
+    void setReservationId(@Param("entryId") final long entryId, @Param("reservationId") final long reservationId);
+
+    // run by every node on its own schedule, outside any other transaction
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE waitlist_entries SET status = 'EXPIRED' WHERE status = 'WAITING' AND start_date < :today",
+            nativeQuery = true)
+    int expireWaiting(@Param("today") final LocalDate today);
+}
@@ -0,0 +1,5 @@
+package com.sample.bookingservice.repository.projection;
+
+// both null while the changelog is empty
+public record ChangeSequenceRange(Long oldest, Long latest) {
+}
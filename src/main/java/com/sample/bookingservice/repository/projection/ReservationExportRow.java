@@ -0,0 +1,12 @@
+package com.sample.bookingservice.repository.projection;
+
+import com.sample.bookingservice.model.ReservationStatus;
+
+import java.time.LocalDate;
+
+/**
+ * One line of the reservation export, read straight from the result set without loading the reservation or its room.
+ */
+public record ReservationExportRow(Long reservationId, Integer roomId, ReservationStatus status, LocalDate startDate,
+                                   LocalDate endDate, LocalDate createdAt) {
+}
@@ -0,0 +1,7 @@
+package com.sample.bookingservice.repository.projection;
+
+/**
+ * A reservation moved to other dates or another room, with the room and days it held before.
+ */
+public record ReservationMove(ReservationView reservation, ReservationSpan previous) {
+}
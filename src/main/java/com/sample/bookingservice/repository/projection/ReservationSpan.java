@@ -0,0 +1,9 @@
+package com.sample.bookingservice.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Days a reservation occupies its room, without loading the reservation or its room.
+ */
+public record ReservationSpan(Long reservationId, Integer roomId, LocalDate startDate, LocalDate endDate) {
+}
@@ -0,0 +1,13 @@
+package com.sample.bookingservice.repository.projection;
+
+import com.sample.bookingservice.model.ReservationStatus;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * A reservation with its room number, read in one row without loading the reservation or its room.
+ */
+public record ReservationView(Long reservationId, Integer roomId, String roomNumber, ReservationStatus status,
+                              LocalDate startDate, LocalDate endDate, Date createdAt) {
+}
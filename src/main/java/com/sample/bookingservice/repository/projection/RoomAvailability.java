@@ -0,0 +1,9 @@
+package com.sample.bookingservice.repository.projection;
+
+import com.sample.bookingservice.model.Room;
+
+/**
+ * A room together with whether it is free for the dates it was looked up for.
+ */
+public record RoomAvailability(Room room, boolean available) {
+}
@@ -0,0 +1,7 @@
+package com.sample.bookingservice.repository.projection;
+
+/**
+ * The type of a room, without loading the room.
+ */
+public record RoomTypeAssignment(Integer roomId, String roomType) {
+}
@@ -0,0 +1,10 @@
+package com.sample.bookingservice.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The rate of a room type for one night.
+ */
+public record RoomTypeRate(String roomType, LocalDate stayDate, BigDecimal rate) {
+}
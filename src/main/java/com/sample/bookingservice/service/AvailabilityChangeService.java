@@ -0,0 +1,21 @@
+package com.sample.bookingservice.service;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+public interface AvailabilityChangeService {
+    /**
+     * Committed bookings and cancellations with a sequence number above {@code since}, oldest first. Asks for a resync
+     * when some of them were pruned already, or when {@code since} is ahead of the changelog.
+     */
+    AvailabilityChanges findChanges(@Min(0) final long since, @Min(1) @Max(10000) final int limit);
+
+    /**
+     * Drops all but the newest retained changes.
+     *
+     * @return number of pruned changes
+     */
+    int prune();
+}
@@ -0,0 +1,12 @@
+package com.sample.bookingservice.service;
+
+import com.sample.bookingservice.model.AvailabilityChange;
+
+import java.util.List;
+
+/**
+ * Changes after a sequence number. {@code next} is the sequence to ask from next time, {@code more} tells that it is
+ * worth asking right away. With {@code resync} set the changes asked for are gone and none are returned.
+ */
+public record AvailabilityChanges(List<AvailabilityChange> changes, long next, boolean more, boolean resync) {
+}
@@ -0,0 +1,29 @@
+package com.sample.bookingservice.service;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Validated
+public interface AvailabilityIndexService {
+    /**
+     * Whether the index has been loaded, callers fall back to the database before that.
+     */
+    boolean isReady();
+
+    /**
+     * Answers from memory whether no committed booking of the room overlaps the dates. The answer errs on the
+     * side of booked: a cancellation lost in a crash keeps its days booked until the index is rebuilt.
+     */
+    boolean isAvailable(@NotNull final Integer roomId, @NotNull final LocalDate from, @NotNull final LocalDate to);
+
+    /**
+     * Ids after {@code afterRoomId}, in order, of at most {@code limit} rooms no committed booking holds on the dates.
+     * The index only knows ids up to the highest room it has seen, some of them may not belong to an existing room.
+     */
+    List<Integer> findFreeRoomIds(@NotNull final LocalDate from, @NotNull final LocalDate to, final int afterRoomId,
+                                  @Min(1) final int limit);
+}
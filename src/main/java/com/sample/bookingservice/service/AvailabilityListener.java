@@ -0,0 +1,24 @@
+package com.sample.bookingservice.service;
+
+import com.sample.bookingservice.event.ReservationChangedEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives the availability changes of a subscription, see {@link AvailabilityStreamService}. Calls for one listener
+ * never overlap and keep commit order. A listener that throws is unsubscribed.
+ */
+public interface AvailabilityListener {
+    // committed changes overlapping the subscribed dates
+    void onChanges(final List<ReservationChangedEvent> changes) throws IOException;
+
+    // changes may have been missed, the subscriber has to reload availability
+    void onResync() throws IOException;
+
+    // nothing changed for a while, keeps idle connections open and finds the dead ones
+    void onHeartbeat() throws IOException;
+
+    // fell behind and was unsubscribed, called last, once the call it may have been stuck in returned
+    void onDropped();
+}
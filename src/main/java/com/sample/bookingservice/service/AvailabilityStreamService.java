@@ -0,0 +1,20 @@
+package com.sample.bookingservice.service;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+
+@Validated
+public interface AvailabilityStreamService {
+    /**
+     * Hands the listener every booking and cancellation committed from now on, by this node or another one,
+     * that holds a day in [from, to).
+     */
+    void subscribe(@NotNull final LocalDate from, @NotNull final LocalDate to,
+                   @NotNull final AvailabilityListener listener);
+
+    void unsubscribe(@NotNull final AvailabilityListener listener);
+
+    int getSubscriberCount();
+}
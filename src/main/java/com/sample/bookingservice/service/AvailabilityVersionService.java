@@ -0,0 +1,22 @@
+package com.sample.bookingservice.service;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+
+@Validated
+public interface AvailabilityVersionService {
+    /**
+     * @return version of availability for the days from (inclusive) to (exclusive), it grows every time
+     * a committed booking or cancellation touches one of these days
+     */
+    long getVersion(@NotNull final LocalDate from, @NotNull final LocalDate to);
+
+    void bump(@NotNull final LocalDate from, @NotNull final LocalDate to);
+
+    /**
+     * Moves every day to a new version, for when the changed days are not known.
+     */
+    void bumpAll();
+}
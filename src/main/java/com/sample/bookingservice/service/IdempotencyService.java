@@ -0,0 +1,20 @@
+package com.sample.bookingservice.service;
+
+import com.sample.bookingservice.model.Reservation;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.function.Supplier;
+
+@Validated
+public interface IdempotencyService {
+    /**
+     * Runs the booking once per idempotency key. A key that was already used returns the stored
+     * reservation without running the booking again, concurrent calls with the same key share one execution.
+     * The booking itself is expected to record the key in its own transaction.
+     */
+    Reservation execute(@NotBlank @Size(max = 255) final String idempotencyKey,
+                        @NotNull final Supplier<Reservation> booking);
+}
@@ -0,0 +1,17 @@
+package com.sample.bookingservice.service;
+
+import com.sample.bookingservice.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events (a broker, a file, memory). Events arrive at least once: a batch is
+ * redelivered when the sink or the relay transaction fails. Throwing keeps the whole batch in the outbox.
+ * <p>
+ * A batch is in {@code eventId} order and one node relays at a time, so the events of one reservation arrive in the
+ * order they were committed. Across reservations ids are not commit order: an event committed late can arrive after
+ * events with higher ids.
+ */
+public interface OutboxEventSink {
+    void publish(final List<OutboxEvent> events);
+}
@@ -0,0 +1,26 @@
+package com.sample.bookingservice.service;
+
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+
+@Validated
+public interface OutboxService {
+    /**
+     * Stores the event in the outbox, within the transaction that changed the reservation.
+     */
+    void record(@NotNull final ReservationChangedEvent event);
+
+    // the events of one set-based write, stored with one statement
+    void recordAll(@NotNull final List<ReservationChangedEvent> events);
+
+    /**
+     * Hands the oldest batch of stored events to the sink, moves them from the outbox to the availability changelog.
+     * Returns 0 without relaying while another node holds the relay.
+     *
+     * @return number of relayed events, a full batch means more may be waiting
+     */
+    int relayBatch();
+}
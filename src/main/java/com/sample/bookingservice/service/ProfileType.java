@@ -0,0 +1,13 @@
+package com.sample.bookingservice.service;
+
+/**
+ * What a profile's stack weights measure.
+ */
+public enum ProfileType {
+    // execution samples
+    CPU,
+    // sampled allocated bytes
+    ALLOCATION,
+    // microseconds spent blocked on monitors or parked
+    LOCK
+}
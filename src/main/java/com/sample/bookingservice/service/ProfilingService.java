@@ -0,0 +1,32 @@
+package com.sample.bookingservice.service;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Validated
+public interface ProfilingService {
+    /**
+     * Starts streaming a JFR recording of execution samples, allocation samples and lock contention into the
+     * per-minute profile ring. The recording stops by itself after {@code duration}, capped by the configured maximum.
+     *
+     * @return false when a recording is already running, it keeps its own end
+     */
+    boolean start(@NotNull final Duration duration);
+
+    void stop();
+
+    /**
+     * @return when the running recording stops, null when none is running
+     */
+    Instant getRunningUntil();
+
+    /**
+     * Collapsed stacks ({@code root;caller;callee weight} per line, heaviest first) recorded in the last
+     * {@code minutes} minutes, ready for flamegraph tools. Minutes beyond the ring's length are gone.
+     */
+    String getCollapsedStacks(@NotNull final ProfileType type, @Positive final int minutes);
+}
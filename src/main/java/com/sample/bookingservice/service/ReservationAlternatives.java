@@ -0,0 +1,12 @@
+package com.sample.bookingservice.service;
+
+import com.sample.bookingservice.model.Room;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record ReservationAlternatives(List<DateRange> dates, List<Room> rooms) {
+
+    public record DateRange(LocalDate startDate, LocalDate endDate) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.sample.bookingservice.service;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+
+@Validated
+public interface ReservationAlternativesService {
+    /**
+     * What to offer instead of a booked room: stays of the same length in the same room, nearest to the requested
+     * dates first, and the first other rooms, in id order, free for the requested dates.
+     */
+    ReservationAlternatives findAlternatives(@NotNull final LocalDate startDate, @NotNull final LocalDate endDate,
+                                             @NotNull final Integer roomId);
+}
@@ -0,0 +1,7 @@
+package com.sample.bookingservice.service;
+
+/**
+ * A line of an import file that was not booked and why.
+ */
+public record ReservationImportRejection(long line, String reason) {
+}
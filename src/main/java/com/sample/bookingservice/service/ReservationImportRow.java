@@ -0,0 +1,9 @@
+package com.sample.bookingservice.service;
+
+import java.time.LocalDate;
+
+/**
+ * A reservation read from an import file, {@code line} is its line in the file for the rejection report.
+ */
+public record ReservationImportRow(long line, Integer roomId, LocalDate startDate, LocalDate endDate) {
+}
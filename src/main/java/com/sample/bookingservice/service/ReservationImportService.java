@@ -0,0 +1,18 @@
+package com.sample.bookingservice.service;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+
+@Validated
+public interface ReservationImportService {
+
+    /**
+     * Books every row that passes the rules of a single booking and conflicts neither with a confirmed reservation
+     * nor with an earlier row, in one transaction.
+     *
+     * @return the rows that were not booked
+     */
+    List<ReservationImportRejection> importReservations(@NotNull final List<ReservationImportRow> rows);
+}
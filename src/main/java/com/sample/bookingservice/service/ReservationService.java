@@ -1,20 +1,70 @@
 package com.sample.bookingservice.service;
 
 import com.sample.bookingservice.model.Reservation;
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.repository.projection.ReservationExportRow;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.repository.projection.ReservationView;
 import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Validated
 public interface ReservationService {
+    int MAX_LOOKUP_IDS = 1000;
+    int MAX_PAGE_SIZE = 1000;
+    int MAX_CANCEL_ROOMS = 1000;
+
     @ConsistentReservationDateParameters
     Reservation makeReservation(@NotNull @FutureOrPresent final LocalDate startDate, @NotNull @Future final LocalDate endDate,
                                 @NotNull @Min(1) final Integer roomId);
 
+    // records the idempotency key in the same transaction as the reservation
+    @ConsistentReservationDateParameters
+    Reservation makeReservation(@NotNull @FutureOrPresent final LocalDate startDate, @NotNull @Future final LocalDate endDate,
+                                @NotNull @Min(1) final Integer roomId, @NotNull @Size(max = 255) final String idempotencyKey);
+
     Reservation cancelReservation(@Min(1) final long id);
+
+    // books the dates of a waitlist entry and marks it promoted in the same transaction, empty when it no longer waits
+    @ConsistentReservationDateParameters
+    Optional<Reservation> promoteWaitlistEntry(@NotNull @FutureOrPresent final LocalDate startDate,
+                                               @NotNull @Future final LocalDate endDate,
+                                               @NotNull @Min(1) final Integer roomId, @Min(1) final long entryId);
+
+    // moves a confirmed reservation to the dates and room, its own room when roomId is null, in one statement
+    @ConsistentReservationDateParameters
+    Reservation modifyReservation(@NotNull @FutureOrPresent final LocalDate startDate, @NotNull @Future final LocalDate endDate,
+                                  @Min(1) final Integer roomId, @Min(1) final long id);
+
+    // every confirmed reservation of the rooms holding a day in [from, to), cancelled in one statement
+    List<ReservationSpan> cancelReservations(@NotEmpty @Size(max = MAX_CANCEL_ROOMS) final Set<@NotNull Integer> roomIds,
+                                             @NotNull @FutureOrPresent final LocalDate from,
+                                             @NotNull @Future final LocalDate to);
+
+    // reservations starting in [from, to) are handed to the consumer while they are read, status null exports all
+    long exportReservations(@NotNull final LocalDate from, @NotNull final LocalDate to, final ReservationStatus status,
+                            @NotNull final Consumer<ReservationExportRow> consumer);
+
+    ReservationView getReservation(@Min(1) final long id);
+
+    // reservations of the ids that exist, in id order
+    List<ReservationView> getReservations(@NotEmpty @Size(max = MAX_LOOKUP_IDS) final List<@NotNull Long> ids);
+
+    // the room's reservations starting in [from, to) after the (afterStartDate, afterId) key, null for the first page
+    List<ReservationView> getRoomReservations(@NotNull @Min(1) final Integer roomId, @NotNull final LocalDate from,
+                                              @NotNull final LocalDate to, final LocalDate afterStartDate,
+                                              final Long afterId, @Min(1) @Max(MAX_PAGE_SIZE) final int limit);
 }
@@ -0,0 +1,14 @@
+package com.sample.bookingservice.service;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.BitSet;
+
+@Validated
+public interface RoomAttributeService {
+    /**
+     * Ids of the rooms with every attribute of the filter, as known at the last refresh of the room attributes.
+     */
+    BitSet findRoomIds(@NotNull final RoomFilter filter);
+}
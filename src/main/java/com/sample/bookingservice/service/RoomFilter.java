@@ -0,0 +1,19 @@
+package com.sample.bookingservice.service;
+
+import java.util.Set;
+
+/**
+ * Attributes a searched room must have, null or empty ones don't filter. Type and amenities match ignoring case.
+ */
+public record RoomFilter(String roomType, Integer minCapacity, Integer floor, Set<String> amenities) {
+
+    public static final RoomFilter NONE = new RoomFilter(null, null, null, Set.of());
+
+    public RoomFilter {
+        amenities = amenities == null ? Set.of() : Set.copyOf(amenities);
+    }
+
+    public boolean isEmpty() {
+        return roomType == null && minCapacity == null && floor == null && amenities.isEmpty();
+    }
+}
@@ -0,0 +1,8 @@
+package com.sample.bookingservice.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record RoomQuote(Integer roomId, String roomType, LocalDate startDate, LocalDate endDate, int nights,
+                        BigDecimal total) {
+}
@@ -0,0 +1,35 @@
+package com.sample.bookingservice.service;
+
+import com.sample.bookingservice.util.DailyRateTable;
+import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Validated
+public interface RoomRateService {
+    /**
+     * Prices a stay from the nightly rates of the room's type, as known at the last refresh of the rates.
+     *
+     * @throws com.sample.bookingservice.exception.RoomNotFoundException when the room does not exist
+     * @throws com.sample.bookingservice.exception.RoomRateNotFoundException when the room has no type or a night of
+     * the stay has no rate
+     */
+    @ConsistentReservationDateParameters
+    RoomQuote getQuote(@NotNull @FutureOrPresent final LocalDate from, @NotNull @Future final LocalDate to,
+                       @NotNull @Min(1) final Integer roomId);
+
+    // total of the nightly rates of the room type for [from, to), empty when the type or a night has no rate
+    Optional<BigDecimal> getStayPrice(@NotNull final LocalDate from, @NotNull final LocalDate to, final String roomType);
+
+    /**
+     * The rates as of the last refresh, with the type of every room, to price many rooms without a lookup each.
+     */
+    DailyRateTable getRates();
+}
@@ -13,7 +13,17 @@ import java.util.List;
 
 @Validated
 public interface RoomService {
+    // sort property of the stay price, ranked in memory from the nightly rates
+    String PRICE_SORT = "price";
+
     @ConsistentReservationDateParameters
     List<Room> getAvailableRooms(@NotNull @FutureOrPresent final LocalDate from, @NotNull @Future final LocalDate to,
                                  final Pageable pageable);
+
+    // rooms with every attribute of the filter, an empty one matches every room, in room id order; sorted by PRICE_SORT
+    // only the rooms with a price for every night, cheapest first or last, then by room id. PRICE_SORT is the only order
+    // then, combined with another one it is a ValidationException, and so is any other sort than by room id
+    @ConsistentReservationDateParameters
+    List<Room> getAvailableRooms(@NotNull @FutureOrPresent final LocalDate from, @NotNull @Future final LocalDate to,
+                                 @NotNull final RoomFilter filter, final Pageable pageable);
 }
@@ -0,0 +1,26 @@
+package com.sample.bookingservice.service;
+
+import com.sample.bookingservice.model.WaitlistEntry;
+import com.sample.bookingservice.validator.ConsistentReservationDateParameters;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+
+@Validated
+public interface WaitlistService {
+    /**
+     * Queues a request for the room and dates. The entry is booked as soon as a cancellation committed by any node
+     * frees its days, older entries first, or right away when they are already free.
+     */
+    @ConsistentReservationDateParameters
+    WaitlistEntry enqueue(@NotNull @FutureOrPresent final LocalDate startDate, @NotNull @Future final LocalDate endDate,
+                          @NotNull @Min(1) final Integer roomId);
+
+    WaitlistEntry getEntry(@Min(1) final long id);
+
+    int getWaitingCount();
+}
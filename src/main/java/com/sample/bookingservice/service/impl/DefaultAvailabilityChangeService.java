@@ -0,0 +1,72 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.model.AvailabilityChange;
+import com.sample.bookingservice.repository.AvailabilityChangeRepository;
+import com.sample.bookingservice.repository.projection.ChangeSequenceRange;
+import com.sample.bookingservice.service.AvailabilityChangeService;
+import com.sample.bookingservice.service.AvailabilityChanges;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+
+@Service
+@Validated
+public class DefaultAvailabilityChangeService implements AvailabilityChangeService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultAvailabilityChangeService.class);
+
+    private final AvailabilityChangeRepository availabilityChangeRepository;
+    private final long retained;
+
+    public DefaultAvailabilityChangeService(final AvailabilityChangeRepository availabilityChangeRepository,
+                                            @Value("${availability.changes.retained}") final long retained) {
+        this.availabilityChangeRepository = availabilityChangeRepository;
+        this.retained = retained;
+    }
+
+    public AvailabilityChanges findChanges(final long since, final int limit) {
+        if (log.isDebugEnabled()) {
+            log.debug("findChanges since: {}, limit: {}", since, limit);
+        }
+
+        // a sequence skipped by a rolled back relay batch right before the oldest change asks for a resync too early,
+        // which costs the client a download but never loses a change
+        final ChangeSequenceRange range = availabilityChangeRepository.findSequenceRange();
+        final long oldest = range.oldest() == null ? 1 : range.oldest();
+        final long latest = range.latest() == null ? 0 : range.latest();
+        if (since < oldest - 1 || since > latest) {
+            if (log.isDebugEnabled()) {
+                log.debug("findChanges since: {} is outside the changelog {} to {}, resync", since, oldest, latest);
+            }
+            return new AvailabilityChanges(List.of(), latest, false, true);
+        }
+
+        final List<AvailabilityChange> changes =
+                availabilityChangeRepository.findChangesAfter(since, PageRequest.of(0, limit));
+        final long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getChangeSeq();
+
+        if (log.isDebugEnabled()) {
+            log.debug("findChanges since: {} found {} changes, next: {}", since, changes.size(), next);
+        }
+
+        return new AvailabilityChanges(changes, next, changes.size() == limit && next < latest, false);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${availability.changes.prune.interval.ms}")
+    public int prune() {
+        final int pruned = availabilityChangeRepository.deleteAllButLatest(retained);
+
+        if (pruned > 0 && log.isDebugEnabled()) {
+            log.debug("Pruned {} availability changes", pruned);
+        }
+
+        return pruned;
+    }
+}
@@ -0,0 +1,447 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.AvailabilityResyncEvent;
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.repository.AvailabilityChangeRepository;
+import com.sample.bookingservice.repository.OutboxEventRepository;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.projection.ChangeSequenceRange;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.service.AvailabilityIndexService;
+import com.sample.bookingservice.util.AvailabilityJournal;
+import com.sample.bookingservice.util.AvailabilitySnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.validation.annotation.Validated;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Keeps booked days in an {@link AvailabilitySnapshot} file and journals every committed change, so a restart maps
+ * the file, replays the journal tail and only reads the reservations created since, instead of all of them.
+ * Cancellations and moves committed while the node was down are found through the availability changelog and the
+ * outbox: the rooms they touched are rebuilt from the database.
+ * <p>
+ * Writes are serialized on this instance, reads go straight to the mapped snapshot. Resyncs rebuild the whole index,
+ * or only the rooms changed since its changelog sequence when catching up, on a background thread. The database is
+ * read without holding the lock.
+ */
+@Service
+@Validated
+public class DefaultAvailabilityIndexService implements AvailabilityIndexService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultAvailabilityIndexService.class);
+
+    private static final String SNAPSHOT_FILE = "availability.snapshot";
+    private static final String JOURNAL_FILE = "availability.journal";
+    // rooms whose reservations are read per query when rebuilding rooms
+    private static final int ROOM_BATCH_SIZE = 1000;
+
+    private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+    private final AvailabilityChangeRepository availabilityChangeRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final Path directory;
+    private final int ringDays;
+    private final long reconcileMargin;
+
+    // changes committed before the index was loaded
+    private final List<ReservationChangedEvent> pendingChanges = new ArrayList<>();
+    private final ExecutorService resyncExecutor;
+
+    // requested before the index was loaded
+    private AvailabilityResyncEvent pendingResync;
+    // waiting to start, later requests are covered by it
+    private AvailabilityResyncEvent queuedResync;
+    // changes applied while a resync reads the database, applied again over what it read
+    private List<ReservationChangedEvent> changesDuringResync;
+
+    private volatile AvailabilitySnapshot snapshot;
+    private AvailabilityJournal journal;
+
+    public DefaultAvailabilityIndexService(final ReservationRepository reservationRepository,
+                                           final RoomRepository roomRepository,
+                                           final AvailabilityChangeRepository availabilityChangeRepository,
+                                           final OutboxEventRepository outboxEventRepository,
+                                           @Value("${availability.index.dir}") final String directory,
+                                           @Value("${reservation.days.ahead.allowed}") final int allowedDaysAhead,
+                                           @Value("${reservation.duration.allowed}") final int allowedReservationDuration,
+                                           @Value("${availability.index.reconcile.margin}") final long reconcileMargin) {
+        this.reservationRepository = reservationRepository;
+        this.roomRepository = roomRepository;
+        this.availabilityChangeRepository = availabilityChangeRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.directory = Path.of(directory);
+        this.ringDays = allowedDaysAhead + allowedReservationDuration + 2;
+        this.reconcileMargin = reconcileMargin;
+        this.resyncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "availability-index-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public boolean isAvailable(final Integer roomId, final LocalDate from, final LocalDate to) {
+        final AvailabilitySnapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Availability index is not loaded yet");
+        }
+
+        return current.isFree(roomId, from.toEpochDay(), to.toEpochDay());
+    }
+
+    public List<Integer> findFreeRoomIds(final LocalDate from, final LocalDate to, final int afterRoomId,
+                                         final int limit) {
+        final AvailabilitySnapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Availability index is not loaded yet");
+        }
+
+        final List<Integer> roomIds = new ArrayList<>(limit);
+        final int roomCapacity = current.getRoomCapacity();
+        for (int roomId = Math.max(afterRoomId + 1, 0); roomId < roomCapacity && roomIds.size() < limit; roomId++) {
+            if (current.isFree(roomId, from.toEpochDay(), to.toEpochDay())) {
+                roomIds.add(roomId);
+            }
+        }
+        return roomIds;
+    }
+
+    // ApplicationStartedEvent listeners run before the application reports itself ready to take traffic
+    @EventListener(ApplicationStartedEvent.class)
+    public synchronized void load() throws IOException {
+        final long started = System.nanoTime();
+        final LocalDate today = LocalDate.now();
+        Files.createDirectories(directory);
+
+        final int roomCapacity = roomRepository.findMaxRoomId().orElse(0) + 1;
+        final AvailabilitySnapshot loaded = AvailabilitySnapshot.open(directory.resolve(SNAPSHOT_FILE), ringDays,
+                roomCapacity, today.toEpochDay());
+        journal = AvailabilityJournal.open(directory.resolve(JOURNAL_FILE));
+
+        // read before the rooms and reservations, a change relayed meanwhile is read again on the next start
+        final ChangeSequenceRange changeRange = availabilityChangeRepository.findSequenceRange();
+
+        // the margins cover changes committed concurrently with newer ones the snapshot or journal already held
+        long reconcileAfterId = 0;
+        if (loaded.isComplete()) {
+            final int replayed = journal.replay(entry -> apply(loaded, entry));
+            loaded.rollTo(today.toEpochDay());
+            log.info("Availability snapshot mapped, {} journal records replayed, high-water reservation id {}",
+                    replayed, loaded.getHighWaterMark());
+
+            final Set<Integer> changedRoomIds = findRoomIdsChangedAfter(changeRange,
+                    Math.max(0, loaded.getChangeSequence() - reconcileMargin));
+            if (changedRoomIds != null) {
+                rebuildRooms(loaded, changedRoomIds, findConfirmedSpans(changedRoomIds, today, loaded.getBaseDay()),
+                        List.of());
+                reconcileAfterId = Math.max(0, loaded.getHighWaterMark() - reconcileMargin);
+                log.info("Availability of {} rooms changed since changelog sequence {} rebuilt from the database",
+                        changedRoomIds.size(), loaded.getChangeSequence());
+            } else {
+                loaded.clear();
+                log.info("Availability changelog pruned past sequence {}, rebuilding from the database",
+                        loaded.getChangeSequence());
+            }
+        } else {
+            journal.truncate();
+            log.info("Availability snapshot missing or incomplete, rebuilding from the database");
+        }
+
+        final long highWaterMark = reservationRepository.findMaxReservationId().orElse(0L);
+        final List<ReservationSpan> spans = reservationRepository.findConfirmedSpans(reconcileAfterId, today);
+        for (final ReservationSpan span : spans) {
+            apply(loaded, new AvailabilityJournal.Entry(span.reservationId(), span.roomId(),
+                    span.startDate().toEpochDay(), span.endDate().toEpochDay(), ReservationChangeType.BOOKED));
+        }
+        loaded.raiseHighWaterMark(highWaterMark);
+        loaded.setChangeSequence(latestOf(changeRange));
+        loaded.markComplete();
+        journal.truncate();
+
+        snapshot = loaded;
+        pendingChanges.forEach(this::record);
+        pendingChanges.clear();
+        if (pendingResync != null) {
+            queueResync(pendingResync);
+            pendingResync = null;
+        }
+
+        log.info("Availability index ready in {} ms, {} reservations reconciled after id {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), spans.size(), reconcileAfterId);
+    }
+
+    // after commit: the journal must never hold a booking that was rolled back.
+    // Changes from other nodes arrive already committed, outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(final ReservationChangedEvent event) {
+        if (snapshot == null) {
+            pendingChanges.add(event);
+            return;
+        }
+
+        record(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanges(final ReservationChangeBatchEvent event) {
+        if (snapshot == null) {
+            pendingChanges.addAll(event.changes());
+            return;
+        }
+
+        event.changes().forEach(this::record);
+    }
+
+    // changes may have been missed, so the days are rebuilt rather than patched
+    @EventListener
+    public synchronized void onResync(final AvailabilityResyncEvent event) {
+        if (snapshot == null) {
+            pendingResync = pendingResync == null || pendingResync.catchUp() ? event : pendingResync;
+            return;
+        }
+
+        queueResync(event);
+    }
+
+    // forced snapshot pages hold every journaled change, so the journal can start over
+    @Scheduled(fixedDelayString = "${availability.index.checkpoint.interval.ms}")
+    public synchronized void checkpoint() throws IOException {
+        if (snapshot == null) {
+            return;
+        }
+
+        // read before forcing, changes relayed but not applied yet stay within the reconcile margin
+        try {
+            snapshot.setChangeSequence(latestOf(availabilityChangeRepository.findSequenceRange()));
+        } catch (DataAccessException e) {
+            log.warn("Unable to read the availability changelog, keeping sequence {}", snapshot.getChangeSequence(), e);
+        }
+        snapshot.rollTo(LocalDate.now().toEpochDay());
+        snapshot.force();
+        journal.truncate();
+
+        if (log.isDebugEnabled()) {
+            log.debug("Availability snapshot checkpoint, high-water reservation id {}", snapshot.getHighWaterMark());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        resyncExecutor.shutdownNow();
+        if (snapshot == null) {
+            return;
+        }
+
+        checkpoint();
+        snapshot.close();
+        journal.close();
+        snapshot = null;
+    }
+
+    private void record(final ReservationChangedEvent event) {
+        final AvailabilityJournal.Entry entry = new AvailabilityJournal.Entry(event.reservationId(), event.roomId(),
+                event.startDate().toEpochDay(), event.endDate().toEpochDay(), event.type());
+        try {
+            journal.append(entry);
+        } catch (IOException e) {
+            log.error("Unable to journal availability change: {}, the next start rebuilds its room from the database", event, e);
+        }
+
+        apply(snapshot, entry);
+        if (changesDuringResync != null) {
+            changesDuringResync.add(event);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Availability index applied change: {}", event);
+        }
+    }
+
+    // a full resync replaces a catch-up still waiting, not the other way round
+    private void queueResync(final AvailabilityResyncEvent event) {
+        if (queuedResync == null) {
+            queuedResync = event;
+            resyncExecutor.execute(this::resync);
+        } else {
+            if (queuedResync.catchUp()) {
+                queuedResync = event;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Availability resync already queued, coalesced: {}", event.reason());
+            }
+        }
+    }
+
+    private void resync() {
+        final AvailabilityResyncEvent event;
+        final long changeSequence;
+        synchronized (this) {
+            // a resync requested from now on may be about changes this one reads too late
+            event = queuedResync;
+            queuedResync = null;
+            if (snapshot == null) {
+                return;
+            }
+            changeSequence = snapshot.getChangeSequence();
+            changesDuringResync = new ArrayList<>();
+        }
+
+        final LocalDate today = LocalDate.now();
+        final ChangeSequenceRange changeRange;
+        final long highWaterMark;
+        final Set<Integer> roomIds;
+        final List<ReservationSpan> spans;
+        try {
+            changeRange = availabilityChangeRepository.findSequenceRange();
+            highWaterMark = reservationRepository.findMaxReservationId().orElse(0L);
+            // null rebuilds every room, also when the changelog no longer reaches back far enough
+            roomIds = event.catchUp()
+                    ? findRoomIdsChangedAfter(changeRange, Math.max(0, changeSequence - reconcileMargin)) : null;
+            spans = roomIds != null ? findConfirmedSpans(roomIds, today, today.toEpochDay())
+                    : reservationRepository.findConfirmedSpans(0, today);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringResync = null;
+            }
+            log.error("Availability index resync failed ({}), the index keeps its days", event.reason(), e);
+            return;
+        }
+
+        synchronized (this) {
+            final List<ReservationChangedEvent> changes = changesDuringResync;
+            changesDuringResync = null;
+            if (snapshot == null) {
+                return;
+            }
+
+            snapshot.rollTo(today.toEpochDay());
+            // already journaled, the database may have been read before they committed
+            rebuildRooms(snapshot, roomIds, spans, changes);
+            snapshot.raiseHighWaterMark(highWaterMark);
+            snapshot.setChangeSequence(latestOf(changeRange));
+
+            log.info("Availability index resynced {} rooms from {} reservations and {} changes meanwhile ({})",
+                    roomIds == null ? "all" : roomIds.size(), spans.size(), changes.size(), event.reason());
+        }
+    }
+
+    // rooms changed after the sequence, relayed to the changelog or still in the outbox. Null when the changelog no
+    // longer reaches back that far
+    private Set<Integer> findRoomIdsChangedAfter(final ChangeSequenceRange changeRange, final long changeSequence) {
+        if (changeRange.oldest() != null && changeRange.oldest() > changeSequence + 1) {
+            return null;
+        }
+
+        final Set<Integer> roomIds = new HashSet<>(outboxEventRepository.findRoomIds());
+        // read after the outbox, a change relayed in between is found here
+        roomIds.addAll(availabilityChangeRepository.findRoomIdsChangedAfter(changeSequence));
+        return roomIds;
+    }
+
+    // confirmed reservations of the rooms, read per batch of rooms
+    private List<ReservationSpan> findConfirmedSpans(final Set<Integer> roomIds, final LocalDate today,
+                                                     final long baseDay) {
+        final LocalDate lastDay = LocalDate.ofEpochDay(baseDay + ringDays);
+        final List<Integer> ids = new ArrayList<>(roomIds);
+        final List<ReservationSpan> spans = new ArrayList<>();
+
+        for (int from = 0; from < ids.size(); from += ROOM_BATCH_SIZE) {
+            spans.addAll(reservationRepository.findConfirmedSpans(
+                    ids.subList(from, Math.min(from + ROOM_BATCH_SIZE, ids.size())), today, lastDay));
+        }
+        return spans;
+    }
+
+    // the rooms' days are rebuilt off to the side and written over them room by room, searches don't take the lock
+    // and must never see a booked room free meanwhile. Null room ids rebuild every room
+    private void rebuildRooms(final AvailabilitySnapshot target, final Set<Integer> roomIds,
+                              final List<ReservationSpan> spans, final List<ReservationChangedEvent> changes) {
+        final Map<Integer, long[]> rebuilt = new HashMap<>();
+        for (final ReservationSpan span : spans) {
+            markDays(target, rebuilt, new AvailabilityJournal.Entry(span.reservationId(), span.roomId(),
+                    span.startDate().toEpochDay(), span.endDate().toEpochDay(), ReservationChangeType.BOOKED));
+        }
+        for (final ReservationChangedEvent change : changes) {
+            // the other rooms are not rebuilt, the change is already applied to them
+            if (roomIds == null || roomIds.contains(change.roomId())) {
+                markDays(target, rebuilt, new AvailabilityJournal.Entry(change.reservationId(), change.roomId(),
+                        change.startDate().toEpochDay(), change.endDate().toEpochDay(), change.type()));
+            }
+        }
+
+        final long[] free = target.newRoomDays();
+        final int roomCapacity = target.getRoomCapacity();
+        final Collection<Integer> rebuiltRoomIds = roomIds != null ? roomIds
+                : IntStream.range(0, roomCapacity).boxed().toList();
+        for (final Integer roomId : rebuiltRoomIds) {
+            // rooms beyond the capacity have no days to free
+            if (roomId < roomCapacity) {
+                target.replaceDays(roomId, rebuilt.getOrDefault(roomId, free));
+            }
+        }
+    }
+
+    private static long latestOf(final ChangeSequenceRange changeRange) {
+        return changeRange.latest() == null ? 0 : changeRange.latest();
+    }
+
+    private void markDays(final AvailabilitySnapshot target, final Map<Integer, long[]> rebuilt,
+                          final AvailabilityJournal.Entry entry) {
+        try {
+            target.ensureCapacity(entry.roomId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        target.markDays(rebuilt.computeIfAbsent(entry.roomId(), roomId -> target.newRoomDays()),
+                entry.startDay(), entry.endDay(), entry.type().holdsDays());
+        if (entry.type().holdsDays()) {
+            target.raiseHighWaterMark(entry.reservationId());
+        }
+    }
+
+    private void apply(final AvailabilitySnapshot target, final AvailabilityJournal.Entry entry) {
+        try {
+            target.ensureCapacity(entry.roomId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (entry.type().holdsDays()) {
+            target.book(entry.roomId(), entry.startDay(), entry.endDay());
+            target.raiseHighWaterMark(entry.reservationId());
+        } else {
+            target.release(entry.roomId(), entry.startDay(), entry.endDay());
+        }
+    }
+}
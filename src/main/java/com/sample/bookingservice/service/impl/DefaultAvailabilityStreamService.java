@@ -0,0 +1,269 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.AvailabilityResyncEvent;
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.exception.ServiceOverloadedException;
+import com.sample.bookingservice.service.AvailabilityListener;
+import com.sample.bookingservice.service.AvailabilityStreamService;
+import com.sample.bookingservice.util.DayRangeIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed changes out to the subscribers of the days they hold. Subscribers hold no thread while idle. Each one
+ * has its own queue, drained on a small pool by one thread at a time, so its calls stay ordered and never overlap, and
+ * a subscriber stuck on a slow client holds one thread rather than the deliveries of others.
+ * <p>
+ * A subscriber is dropped when its queue passes {@code rooms.stream.max.pending} deliveries or a call has been running
+ * for longer than {@code rooms.stream.send.timeout.ms}: it no longer gets anything and its listener is told through
+ * {@link AvailabilityListener#onDropped()} on a delivery thread, once the call it may be stuck in has returned. The
+ * thread that noticed it (a heartbeat, a booking's commit) never waits on the client.
+ */
+@Service
+@Validated
+public class DefaultAvailabilityStreamService implements AvailabilityStreamService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultAvailabilityStreamService.class);
+
+    private final DayRangeIndex<Subscription> index = new DayRangeIndex<>();
+    private final Map<AvailabilityListener, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService deliveryExecutor;
+    private final int maxSubscribers;
+    private final int maxPending;
+    private final long sendTimeoutNanos;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public DefaultAvailabilityStreamService(@Value("${rooms.stream.delivery.threads}") final int deliveryThreads,
+                                            @Value("${rooms.stream.max.subscribers}") final int maxSubscribers,
+                                            @Value("${rooms.stream.max.pending}") final int maxPending,
+                                            @Value("${rooms.stream.send.timeout.ms}") final long sendTimeout,
+                                            final ObjectProvider<MeterRegistry> meterRegistry) {
+        this.maxSubscribers = maxSubscribers;
+        this.maxPending = maxPending;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeout);
+        final AtomicInteger threads = new AtomicInteger();
+        this.deliveryExecutor = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            final Thread thread = new Thread(runnable, "availability-stream-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("rooms.stream.subscribers", subscriptions, Map::size).register(registry);
+            FunctionCounter.builder("rooms.stream.dropped", dropped, AtomicLong::get).register(registry);
+        });
+    }
+
+    public void subscribe(final LocalDate from, final LocalDate to, final AvailabilityListener listener) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new ServiceOverloadedException("Too many availability subscribers");
+        }
+
+        final Subscription subscription = new Subscription(listener, from.toEpochDay(), to.toEpochDay());
+        subscriptions.put(listener, subscription);
+        index.add(subscription.fromDay, subscription.toDay, subscription);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Availability subscriber from: {} to: {}, {} subscribers", from, to, subscriptions.size());
+        }
+    }
+
+    public void unsubscribe(final AvailabilityListener listener) {
+        final Subscription subscription = subscriptions.remove(listener);
+        if (subscription != null) {
+            release(subscription);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    // after commit, subscribers must never see a booking that was rolled back.
+    // Changes from other nodes arrive already committed, outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(final ReservationChangedEvent event) {
+        dispatch(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanges(final ReservationChangeBatchEvent event) {
+        dispatch(event.changes());
+    }
+
+    @EventListener
+    public void onResync(final AvailabilityResyncEvent event) {
+        subscriptions.values().forEach(subscription -> deliver(subscription, AvailabilityListener::onResync));
+    }
+
+    // also finds the subscribers whose send stalled when nothing else is sent to them
+    @Scheduled(fixedDelayString = "${rooms.stream.heartbeat.interval.ms}")
+    public void heartbeat() {
+        subscriptions.values().forEach(subscription -> deliver(subscription, AvailabilityListener::onHeartbeat));
+    }
+
+    @PreDestroy
+    public void close() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    // a batch reaches each subscriber as one call with the changes it cares about
+    private void dispatch(final List<ReservationChangedEvent> changes) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        final Map<Subscription, List<ReservationChangedEvent>> matched = new HashMap<>();
+        for (final ReservationChangedEvent change : changes) {
+            for (final Subscription subscription : index.find(change.startDate().toEpochDay(),
+                    change.endDate().toEpochDay())) {
+                matched.computeIfAbsent(subscription, key -> new ArrayList<>()).add(change);
+            }
+        }
+
+        matched.forEach((subscription, subscriptionChanges) ->
+                deliver(subscription, target -> target.onChanges(subscriptionChanges)));
+
+        if (log.isDebugEnabled()) {
+            log.debug("Availability stream dispatched {} changes to {} subscribers", changes.size(), matched.size());
+        }
+    }
+
+    private void deliver(final Subscription subscription, final Delivery delivery) {
+        if (subscription.closed) {
+            return;
+        }
+        if (subscription.sending && System.nanoTime() - subscription.sendStarted > sendTimeoutNanos) {
+            drop(subscription, "its send timed out");
+            return;
+        }
+        if (subscription.size.incrementAndGet() > maxPending) {
+            drop(subscription, "too many deliveries are pending");
+            return;
+        }
+
+        subscription.pending.add(delivery);
+        schedule(subscription);
+    }
+
+    private void schedule(final Subscription subscription) {
+        if (subscription.scheduled.compareAndSet(false, true)) {
+            try {
+                deliveryExecutor.execute(subscription);
+            } catch (RejectedExecutionException e) {
+                // shutting down
+                unsubscribe(subscription.listener);
+            }
+        }
+    }
+
+    // the client missed changes, ending its stream makes it reconnect and reload
+    private void drop(final Subscription subscription, final String reason) {
+        if (subscriptions.remove(subscription.listener, subscription)) {
+            release(subscription);
+            dropped.incrementAndGet();
+            log.warn("Availability subscriber dropped, {}", reason);
+            // set before scheduling, a run already past its last send still sees it
+            subscription.dropNotice.set(true);
+            schedule(subscription);
+        }
+    }
+
+    private void release(final Subscription subscription) {
+        subscription.closed = true;
+        index.remove(subscription.fromDay, subscription.toDay, subscription);
+        subscription.pending.clear();
+    }
+
+    private final class Subscription implements Runnable {
+        private final AvailabilityListener listener;
+        private final long fromDay;
+        private final long toDay;
+        private final Queue<Delivery> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean dropNotice = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile boolean sending;
+        private volatile long sendStarted;
+
+        private Subscription(final AvailabilityListener listener, final long fromDay, final long toDay) {
+            this.listener = listener;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+        }
+
+        @Override
+        public void run() {
+            Delivery delivery;
+            while (!closed && (delivery = pending.poll()) != null) {
+                size.decrementAndGet();
+                sendStarted = System.nanoTime();
+                sending = true;
+                try {
+                    delivery.deliverTo(listener);
+                } catch (Exception e) {
+                    // typically the client went away
+                    if (log.isDebugEnabled()) {
+                        log.debug("Availability subscriber failed, unsubscribing: {}", e.toString());
+                    }
+                    unsubscribe(listener);
+                } finally {
+                    sending = false;
+                }
+            }
+
+            scheduled.set(false);
+            if (closed) {
+                if (dropNotice.getAndSet(false)) {
+                    notifyDropped();
+                }
+            } else if (!pending.isEmpty()) {
+                // a delivery queued after the last poll but before the flag was cleared
+                schedule(this);
+            }
+        }
+
+        private void notifyDropped() {
+            try {
+                listener.onDropped();
+            } catch (RuntimeException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Availability subscriber failed when dropped: {}", e.toString());
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Delivery {
+        void deliverTo(AvailabilityListener listener) throws Exception;
+    }
+}
@@ -0,0 +1,101 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.AvailabilityResyncEvent;
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.service.AvailabilityVersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+@Validated
+public class DefaultAvailabilityVersionService implements AvailabilityVersionService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultAvailabilityVersionService.class);
+
+    // versions start at boot time in microseconds so they keep growing across restarts
+    private final AtomicLong latestVersion = new AtomicLong(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
+    // latest version per day, indexed by epoch day modulo length. The ring is longer than the bookable
+    // window, so two days sharing a slot are never bookable at the same time and a stale slot only
+    // ever overstates the version of the day reusing it
+    private final AtomicLongArray dayVersions;
+
+    public DefaultAvailabilityVersionService(@Value("${reservation.days.ahead.allowed}") final int allowedDaysAhead,
+                                             @Value("${reservation.duration.allowed}") final int allowedReservationDuration) {
+        this.dayVersions = new AtomicLongArray(allowedDaysAhead + allowedReservationDuration + 2);
+        final long initialVersion = latestVersion.get();
+        for (int i = 0; i < dayVersions.length(); i++) {
+            dayVersions.set(i, initialVersion);
+        }
+    }
+
+    public long getVersion(final LocalDate from, final LocalDate to) {
+        final long fromDay = from.toEpochDay();
+        final long toDay = to.toEpochDay();
+
+        if (toDay - fromDay >= dayVersions.length()) {
+            return latestVersion.get();
+        }
+
+        long version = 0;
+        for (long day = fromDay; day < toDay; day++) {
+            version = Math.max(version, dayVersions.get(slot(day)));
+        }
+        return version;
+    }
+
+    public void bump(final LocalDate from, final LocalDate to) {
+        final long version = latestVersion.incrementAndGet();
+        final long toDay = Math.min(to.toEpochDay(), from.toEpochDay() + dayVersions.length());
+
+        for (long day = from.toEpochDay(); day < toDay; day++) {
+            dayVersions.accumulateAndGet(slot(day), version, Math::max);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Availability version bumped to {} from {} to {}", version, from, to);
+        }
+    }
+
+    public void bumpAll() {
+        final long version = latestVersion.incrementAndGet();
+        for (int i = 0; i < dayVersions.length(); i++) {
+            dayVersions.accumulateAndGet(i, version, Math::max);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Availability version of all days bumped to {}", version);
+        }
+    }
+
+    // runs after commit: bumping earlier could tag a response built from the old state with the new version.
+    // Changes from other nodes arrive already committed, outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(final ReservationChangedEvent event) {
+        bump(event.startDate(), event.endDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanges(final ReservationChangeBatchEvent event) {
+        event.changes().forEach(change -> bump(change.startDate(), change.endDate()));
+    }
+
+    @EventListener
+    public void onResync(final AvailabilityResyncEvent event) {
+        bumpAll();
+    }
+
+    private int slot(final long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) dayVersions.length());
+    }
+}
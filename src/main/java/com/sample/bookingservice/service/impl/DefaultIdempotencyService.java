@@ -0,0 +1,77 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.model.Reservation;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.service.IdempotencyService;
+import com.sample.bookingservice.util.SingleFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Service
+@Validated
+public class DefaultIdempotencyService implements IdempotencyService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultIdempotencyService.class);
+
+    private final ReservationRepository reservationRepository;
+
+    // bounded LRU of recently completed keys, the idempotency_keys table is the source of truth
+    private final Map<String, Reservation> completedReservations;
+    private final SingleFlight<String, Reservation> inFlightReservations = new SingleFlight<>();
+
+    public DefaultIdempotencyService(final ReservationRepository reservationRepository,
+                                     @Value("${idempotency.cache.size}") final int cacheSize) {
+        this.reservationRepository = reservationRepository;
+        this.completedReservations = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Reservation> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public Reservation execute(final String idempotencyKey, final Supplier<Reservation> booking) {
+        final Reservation completed = completedReservations.get(idempotencyKey);
+        if (completed != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Replaying reservation: {} for idempotency key: {}", completed, idempotencyKey);
+            }
+            return completed;
+        }
+
+        return inFlightReservations.execute(idempotencyKey, () -> {
+            final Reservation reservation = findStoredReservation(idempotencyKey)
+                    .orElseGet(() -> book(idempotencyKey, booking));
+            completedReservations.put(idempotencyKey, reservation);
+            return reservation;
+        });
+    }
+
+    private Reservation book(final String idempotencyKey, final Supplier<Reservation> booking) {
+        try {
+            return booking.get();
+        } catch (DataIntegrityViolationException e) {
+            // the same key was stored concurrently, e.g. by another node, replay what it stored
+            return findStoredReservation(idempotencyKey).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<Reservation> findStoredReservation(final String idempotencyKey) {
+        final Optional<Reservation> reservation = reservationRepository.findByIdempotencyKey(idempotencyKey);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Stored reservation: {} for idempotency key: {}", reservation, idempotencyKey);
+        }
+
+        return reservation;
+    }
+}
@@ -0,0 +1,95 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.model.OutboxEvent;
+import com.sample.bookingservice.repository.OutboxEventRepository;
+import com.sample.bookingservice.service.OutboxEventSink;
+import com.sample.bookingservice.service.OutboxService;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@Validated
+public class DefaultOutboxService implements OutboxService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultOutboxService.class);
+
+    // advisory lock key of the relay, any constant shared by the nodes
+    static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventSink outboxEventSink;
+    private final int batchSize;
+
+    public DefaultOutboxService(final OutboxEventRepository outboxEventRepository, final OutboxEventSink outboxEventSink,
+                                @Value("${outbox.relay.batch.size}") final int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxEventSink = outboxEventSink;
+        this.batchSize = batchSize;
+    }
+
+    public void record(final ReservationChangedEvent event) {
+        outboxEventRepository.insert(event.reservationId(), event.roomId(), event.type().name(),
+                event.startDate(), event.endDate());
+
+        if (log.isDebugEnabled()) {
+            log.debug("Outbox recorded event: {}", event);
+        }
+    }
+
+    public void recordAll(final List<ReservationChangedEvent> events) {
+        outboxEventRepository.insertAll(events);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Outbox recorded {} events", events.size());
+        }
+    }
+
+    // before commit, so the outbox row commits or rolls back together with the reservation
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onReservationChanged(final ReservationChangedEvent event) {
+        record(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onReservationChanges(final ReservationChangeBatchEvent event) {
+        recordAll(event.changes());
+    }
+
+    // one node relays at a time: two overlapping relays could commit changelog sequences out of order,
+    // and a delta sync client would skip the lower ones
+    @Transactional
+    public int relayBatch() {
+        if (!outboxEventRepository.tryLockRelay(RELAY_LOCK_KEY)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Outbox relay is running on another node");
+            }
+            return 0;
+        }
+
+        final List<OutboxEvent> events = new ArrayList<>(outboxEventRepository.claimBatch(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // DELETE ... RETURNING gives no order guarantee
+        events.sort(Comparator.comparing(OutboxEvent::getEventId));
+        outboxEventSink.publish(events);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Outbox relayed {} events up to id {}", events.size(), events.get(events.size() - 1).getEventId());
+        }
+
+        return events.size();
+    }
+}
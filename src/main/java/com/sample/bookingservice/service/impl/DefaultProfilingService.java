@@ -0,0 +1,158 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.service.ProfileType;
+import com.sample.bookingservice.service.ProfilingService;
+import com.sample.bookingservice.util.CollapsedStackRing;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Validated
+public class DefaultProfilingService implements ProfilingService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultProfilingService.class);
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+    private static final String THREAD_PARK = "jdk.ThreadPark";
+
+    private final TaskScheduler taskScheduler;
+    private final Duration maxDuration;
+    private final Duration executionSamplePeriod;
+    private final String allocationSampleThrottle;
+    private final Duration lockThreshold;
+    private final Map<ProfileType, CollapsedStackRing> profiles = new EnumMap<>(ProfileType.class);
+
+    private RecordingStream stream;
+    private Instant runningUntil;
+
+    public DefaultProfilingService(final TaskScheduler taskScheduler,
+                                   @Value("${profiling.duration.max.seconds}") final long maxDurationSeconds,
+                                   @Value("${profiling.ring.minutes}") final int ringMinutes,
+                                   @Value("${profiling.ring.max.stacks.per.minute}") final int maxStacksPerMinute,
+                                   @Value("${profiling.execution.sample.period.ms}") final long executionSamplePeriodMillis,
+                                   @Value("${profiling.allocation.sample.throttle}") final String allocationSampleThrottle,
+                                   @Value("${profiling.lock.threshold.ms}") final long lockThresholdMillis) {
+        this.taskScheduler = taskScheduler;
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.executionSamplePeriod = Duration.ofMillis(executionSamplePeriodMillis);
+        this.allocationSampleThrottle = allocationSampleThrottle;
+        this.lockThreshold = Duration.ofMillis(lockThresholdMillis);
+        for (final ProfileType type : ProfileType.values()) {
+            profiles.put(type, new CollapsedStackRing(ringMinutes, maxStacksPerMinute));
+        }
+    }
+
+    public synchronized boolean start(final Duration duration) {
+        if (stream != null) {
+            return false;
+        }
+
+        final RecordingStream recording = new RecordingStream();
+        recording.enable(EXECUTION_SAMPLE).withPeriod(executionSamplePeriod).withStackTrace();
+        recording.enable(ALLOCATION_SAMPLE).with("throttle", allocationSampleThrottle).withStackTrace();
+        recording.enable(MONITOR_ENTER).withThreshold(lockThreshold).withStackTrace();
+        recording.enable(THREAD_PARK).withThreshold(lockThreshold).withStackTrace();
+        // events are folded into the ring as they arrive, the recording itself only needs to hold the current chunk
+        recording.setMaxAge(Duration.ofMinutes(1));
+
+        recording.onEvent(EXECUTION_SAMPLE, event -> record(ProfileType.CPU, event, 1));
+        recording.onEvent(ALLOCATION_SAMPLE, event -> record(ProfileType.ALLOCATION, event, event.getLong("weight")));
+        recording.onEvent(MONITOR_ENTER, event -> record(ProfileType.LOCK, event, event.getDuration().toNanos() / 1000));
+        recording.onEvent(THREAD_PARK, event -> record(ProfileType.LOCK, event, event.getDuration().toNanos() / 1000));
+        recording.startAsync();
+
+        final Duration bounded = duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+        stream = recording;
+        runningUntil = Instant.now().plus(bounded);
+        taskScheduler.schedule(() -> stop(recording), runningUntil);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Profiling started until {}", runningUntil);
+        }
+
+        return true;
+    }
+
+    public synchronized void stop() {
+        if (stream != null) {
+            stop(stream);
+        }
+    }
+
+    public synchronized Instant getRunningUntil() {
+        return runningUntil;
+    }
+
+    public String getCollapsedStacks(final ProfileType type, final int minutes) {
+        final long now = Instant.now().getEpochSecond() / 60;
+        final List<Map.Entry<String, Long>> stacks = profiles.get(type).collapse(now - minutes + 1, now);
+
+        final StringBuilder collapsed = new StringBuilder();
+        for (final Map.Entry<String, Long> stack : stacks) {
+            collapsed.append(stack.getKey()).append(' ').append(stack.getValue()).append('\n');
+        }
+        return collapsed.toString();
+    }
+
+    @PreDestroy
+    public void close() {
+        stop();
+    }
+
+    // a scheduled stop of an earlier recording must not end a later one
+    private synchronized void stop(final RecordingStream recording) {
+        if (stream != recording) {
+            return;
+        }
+
+        recording.close();
+        stream = null;
+        runningUntil = null;
+
+        if (log.isDebugEnabled()) {
+            log.debug("Profiling stopped");
+        }
+    }
+
+    private void record(final ProfileType type, final RecordedEvent event, final long weight) {
+        final RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || weight <= 0) {
+            return;
+        }
+
+        final List<RecordedFrame> frames = stackTrace.getFrames();
+        final StringBuilder stack = new StringBuilder(frames.size() * 48);
+        // JFR lists the top frame first, collapsed stacks start at the root
+        for (int i = frames.size() - 1; i >= 0; i--) {
+            final RecordedFrame frame = frames.get(i);
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            if (!stack.isEmpty()) {
+                stack.append(';');
+            }
+            stack.append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName());
+        }
+        if (stackTrace.isTruncated()) {
+            stack.insert(0, CollapsedStackRing.TRUNCATED + ';');
+        }
+
+        profiles.get(type).add(event.getStartTime().getEpochSecond() / 60, stack.toString(), weight);
+    }
+}
@@ -0,0 +1,145 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.service.AvailabilityIndexService;
+import com.sample.bookingservice.service.ReservationAlternatives;
+import com.sample.bookingservice.service.ReservationAlternativesService;
+import com.sample.bookingservice.util.BookedDateRanges;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Answers from the availability index once it is loaded, then the only statement is the lookup of the candidate
+ * rooms. Before that the same room's reservations and the other free rooms are read with one query each.
+ */
+@Service
+@Validated
+public class DefaultReservationAlternativesService implements ReservationAlternativesService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultReservationAlternativesService.class);
+
+    private final AvailabilityIndexService availabilityIndexService;
+    private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+    private final int allowedDaysAhead;
+    private final int maxDates;
+    private final int maxRooms;
+
+    public DefaultReservationAlternativesService(final AvailabilityIndexService availabilityIndexService,
+                                                 final ReservationRepository reservationRepository,
+                                                 final RoomRepository roomRepository,
+                                                 @Value("${reservation.days.ahead.allowed}") final int allowedDaysAhead,
+                                                 @Value("${reservation.conflict.alternatives.dates}") final int maxDates,
+                                                 @Value("${reservation.conflict.alternatives.rooms}") final int maxRooms) {
+        this.availabilityIndexService = availabilityIndexService;
+        this.reservationRepository = reservationRepository;
+        this.roomRepository = roomRepository;
+        this.allowedDaysAhead = allowedDaysAhead;
+        this.maxDates = maxDates;
+        this.maxRooms = maxRooms;
+    }
+
+    public ReservationAlternatives findAlternatives(final LocalDate startDate, final LocalDate endDate,
+                                                   final Integer roomId) {
+        if (log.isDebugEnabled()) {
+            log.debug("findAlternatives with startDate: {}, endDate: {}, roomId: {}", startDate, endDate, roomId);
+        }
+
+        final boolean indexed = availabilityIndexService.isReady();
+        final ReservationAlternatives alternatives = new ReservationAlternatives(
+                findDates(startDate, endDate, roomId, indexed), findRooms(startDate, endDate, roomId, indexed));
+
+        if (log.isDebugEnabled()) {
+            log.debug("findAlternatives found: {}", alternatives);
+        }
+
+        return alternatives;
+    }
+
+    // moves away from the requested start one day at a time in both directions, earlier first on a tie,
+    // and skips stays overlapping one already offered
+    private List<ReservationAlternatives.DateRange> findDates(final LocalDate startDate, final LocalDate endDate,
+                                                              final Integer roomId, final boolean indexed) {
+        final List<ReservationAlternatives.DateRange> dates = new ArrayList<>(maxDates);
+        if (maxDates == 0) {
+            return dates;
+        }
+
+        final long nights = ChronoUnit.DAYS.between(startDate, endDate);
+        final LocalDate firstStart = LocalDate.now();
+        final LocalDate lastStart = firstStart.plusDays(allowedDaysAhead - nights);
+        final BiPredicate<LocalDate, LocalDate> isFree = indexed
+                ? (from, to) -> availabilityIndexService.isAvailable(roomId, from, to)
+                : bookedRanges(roomId, firstStart, lastStart.plusDays(nights))::isFree;
+
+        final BookedDateRanges offered = new BookedDateRanges();
+        for (int offset = 1; dates.size() < maxDates; offset++) {
+            final LocalDate earlier = startDate.minusDays(offset);
+            final LocalDate later = startDate.plusDays(offset);
+            if (earlier.isBefore(firstStart) && later.isAfter(lastStart)) {
+                break;
+            }
+
+            for (final LocalDate start : List.of(earlier, later)) {
+                final LocalDate end = start.plusDays(nights);
+                if (dates.size() < maxDates && !start.isBefore(firstStart) && !start.isAfter(lastStart)
+                        && offered.isFree(start, end) && isFree.test(start, end)) {
+                    offered.book(start, end);
+                    dates.add(new ReservationAlternatives.DateRange(start, end));
+                }
+            }
+        }
+        return dates;
+    }
+
+    private BookedDateRanges bookedRanges(final Integer roomId, final LocalDate from, final LocalDate to) {
+        final BookedDateRanges booked = new BookedDateRanges();
+        for (final ReservationSpan span : reservationRepository.findConfirmedSpans(List.of(roomId), from, to)) {
+            booked.book(span.startDate(), span.endDate());
+        }
+        return booked;
+    }
+
+    // the index only knows room ids, the candidates are loaded to drop ids without a room; that normally takes one
+    // round, another only follows when ids are missing
+    private List<Room> findRooms(final LocalDate startDate, final LocalDate endDate, final Integer roomId,
+                                 final boolean indexed) {
+        if (maxRooms == 0) {
+            return List.of();
+        }
+        if (!indexed) {
+            return roomRepository.findOtherFreeRooms(startDate, endDate, roomId, PageRequest.of(0, maxRooms));
+        }
+
+        final List<Room> rooms = new ArrayList<>(maxRooms);
+        int afterRoomId = 0;
+        while (rooms.size() < maxRooms) {
+            final List<Integer> candidates = availabilityIndexService.findFreeRoomIds(startDate, endDate, afterRoomId,
+                    maxRooms - rooms.size() + 1);
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            roomRepository.findAllById(candidates.stream().filter(candidate -> !candidate.equals(roomId)).toList())
+                    .stream()
+                    .sorted(Comparator.comparing(Room::getRoomId))
+                    .limit(maxRooms - rooms.size())
+                    .forEach(rooms::add);
+            afterRoomId = candidates.get(candidates.size() - 1);
+        }
+        return rooms;
+    }
+}
@@ -0,0 +1,147 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.service.ReservationImportRejection;
+import com.sample.bookingservice.service.ReservationImportRow;
+import com.sample.bookingservice.service.ReservationImportService;
+import com.sample.bookingservice.service.ReservationService;
+import com.sample.bookingservice.util.BookedDateRanges;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ElementKind;
+import jakarta.validation.Path;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Validated
+public class DefaultReservationImportService implements ReservationImportService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultReservationImportService.class);
+
+    // rows are held to the constraints of a booking made through the API
+    private static final Method MAKE_RESERVATION;
+
+    static {
+        try {
+            MAKE_RESERVATION = ReservationService.class.getMethod("makeReservation",
+                    LocalDate.class, LocalDate.class, Integer.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+    private final ReservationService reservationService;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DefaultReservationImportService(final ReservationRepository reservationRepository,
+                                           final RoomRepository roomRepository,
+                                           final ReservationService reservationService, final Validator validator,
+                                           final ApplicationEventPublisher eventPublisher) {
+        this.reservationRepository = reservationRepository;
+        this.roomRepository = roomRepository;
+        this.reservationService = reservationService;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // two reads for the whole batch, the conflict checks run against the reservations they return
+    @Transactional
+    public List<ReservationImportRejection> importReservations(final List<ReservationImportRow> rows) {
+        final List<ReservationImportRejection> rejections = new ArrayList<>();
+        final List<ReservationImportRow> validRows = new ArrayList<>(rows.size());
+        for (final ReservationImportRow row : rows) {
+            final String violations = validate(row);
+            if (violations == null) {
+                validRows.add(row);
+            } else {
+                rejections.add(new ReservationImportRejection(row.line(), violations));
+            }
+        }
+        if (validRows.isEmpty()) {
+            return rejections;
+        }
+
+        final Set<Integer> roomIds = validRows.stream().map(ReservationImportRow::roomId).collect(Collectors.toSet());
+        final LocalDate from = validRows.stream().map(ReservationImportRow::startDate).min(LocalDate::compareTo).get();
+        final LocalDate to = validRows.stream().map(ReservationImportRow::endDate).max(LocalDate::compareTo).get();
+
+        final Set<Integer> existingRoomIds = new HashSet<>(roomRepository.findExistingRoomIds(roomIds));
+        final Map<Integer, BookedDateRanges> bookedRanges = new HashMap<>();
+        for (final ReservationSpan span : reservationRepository.findConfirmedSpans(roomIds, from, to)) {
+            bookedRanges.computeIfAbsent(span.roomId(), roomId -> new BookedDateRanges())
+                    .book(span.startDate(), span.endDate());
+        }
+
+        // rows accepted earlier in the file count as booked for the ones after them
+        final List<ReservationSpan> accepted = new ArrayList<>(validRows.size());
+        for (final ReservationImportRow row : validRows) {
+            if (!existingRoomIds.contains(row.roomId())) {
+                rejections.add(new ReservationImportRejection(row.line(),
+                        "Unable to find room with id: " + row.roomId()));
+            } else if (!bookedRanges.computeIfAbsent(row.roomId(), roomId -> new BookedDateRanges())
+                    .tryBook(row.startDate(), row.endDate())) {
+                rejections.add(new ReservationImportRejection(row.line(),
+                        "The room is already booked for the provided dates"));
+            } else {
+                accepted.add(new ReservationSpan(null, row.roomId(), row.startDate(), row.endDate()));
+            }
+        }
+
+        final List<ReservationSpan> inserted = reservationRepository.insertConfirmedReservations(accepted);
+        // one event for the batch, so the outbox rows and notifications are written set-based as well
+        eventPublisher.publishEvent(new ReservationChangeBatchEvent(inserted.stream()
+                .map(reservation -> new ReservationChangedEvent(reservation.reservationId(), reservation.roomId(),
+                        reservation.startDate(), reservation.endDate(), ReservationChangeType.BOOKED))
+                .toList()));
+
+        if (log.isDebugEnabled()) {
+            log.debug("importReservations booked {} of {} rows", inserted.size(), rows.size());
+        }
+
+        return rejections;
+    }
+
+    // the violated constraints in one line, null when there are none
+    private String validate(final ReservationImportRow row) {
+        final Set<ConstraintViolation<ReservationService>> violations = validator.forExecutables().validateParameters(
+                reservationService, MAKE_RESERVATION, new Object[]{row.startDate(), row.endDate(), row.roomId()});
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(violation -> describe(violation.getPropertyPath()) + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String describe(final Path path) {
+        Path.Node last = null;
+        for (final Path.Node node : path) {
+            last = node;
+        }
+        return last == null || last.getKind() != ElementKind.PARAMETER ? "" : last.getName() + " ";
+    }
+}
@@ -1,22 +1,50 @@
 package com.sample.bookingservice.service.impl;
 
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
 import com.sample.bookingservice.exception.CancelReservationException;
+import com.sample.bookingservice.exception.ModifyReservationException;
 import com.sample.bookingservice.exception.ReservationNotFoundException;
 import com.sample.bookingservice.exception.RoomAlreadyBookedException;
 import com.sample.bookingservice.exception.RoomNotFoundException;
+import com.sample.bookingservice.jfr.BookingStageEvent;
+import com.sample.bookingservice.mapper.ReservationMapper;
 import com.sample.bookingservice.model.Reservation;
 import com.sample.bookingservice.model.ReservationStatus;
-import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.IdempotencyKeyRepository;
 import com.sample.bookingservice.repository.ReservationRepository;
 import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.WaitlistEntryRepository;
+import com.sample.bookingservice.repository.projection.ReservationExportRow;
+import com.sample.bookingservice.repository.projection.ReservationMove;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.repository.projection.ReservationView;
+import com.sample.bookingservice.repository.projection.RoomAvailability;
 import com.sample.bookingservice.service.ReservationService;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.sample.bookingservice.jfr.BookingEvent.AVAILABLE;
+import static com.sample.bookingservice.jfr.BookingEvent.CANCEL_RESERVATION;
+import static com.sample.bookingservice.jfr.BookingEvent.FOUND;
+import static com.sample.bookingservice.jfr.BookingEvent.MAKE_RESERVATION;
+import static com.sample.bookingservice.jfr.BookingEvent.NOT_FOUND;
+import static com.sample.bookingservice.jfr.BookingEvent.OK;
+import static com.sample.bookingservice.jfr.BookingEvent.UNAVAILABLE;
 
 @Service
 @Validated
@@ -25,10 +53,19 @@ public class DefaultReservationService implements ReservationService {
 
     private final ReservationRepository reservationRepository;
     private final RoomRepository roomRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DefaultReservationService(final ReservationRepository reservationRepository, RoomRepository roomRepository) {
+    public DefaultReservationService(final ReservationRepository reservationRepository, RoomRepository roomRepository,
+                                     final IdempotencyKeyRepository idempotencyKeyRepository,
+                                     final WaitlistEntryRepository waitlistEntryRepository,
+                                     final ApplicationEventPublisher eventPublisher) {
         this.reservationRepository = reservationRepository;
         this.roomRepository = roomRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -37,12 +74,20 @@ public class DefaultReservationService implements ReservationService {
             log.debug("makeReservation with startDate: {}, endDate: {}, roomId: {}", startDate, endDate, roomId);
         }
 
-        final Room room = roomRepository.findById(roomId).orElseThrow(() ->
+        // the room and the conflict check come back from one query
+        final BookingStageEvent availabilityCheck =
+                BookingStageEvent.start(MAKE_RESERVATION, BookingStageEvent.AVAILABILITY_CHECK);
+        final Optional<RoomAvailability> roomAvailability =
+                roomRepository.findRoomAvailability(startDate, endDate, roomId);
+        availabilityCheck.end(roomId, startDate, endDate, roomAvailability.isEmpty() ? NOT_FOUND :
+                roomAvailability.get().available() ? AVAILABLE : UNAVAILABLE);
+
+        final RoomAvailability availability = roomAvailability.orElseThrow(() ->
                 new RoomNotFoundException("Unable to find room with id: " + roomId));
 
-        if (roomRepository.isRoomAvailable(startDate, endDate, roomId)) {
+        if (availability.available()) {
             final Reservation reservation = new Reservation();
-            reservation.setRoom(room);
+            reservation.setRoom(availability.room());
             reservation.setStartDate(startDate);
             reservation.setEndDate(endDate);
             reservation.setStatus(ReservationStatus.CONFIRMED);
@@ -51,31 +96,222 @@ public class DefaultReservationService implements ReservationService {
                 log.debug("makeReservation new reservation: {}", reservation);
             }
 
-            return reservationRepository.save(reservation);
+            final BookingStageEvent insert = BookingStageEvent.start(MAKE_RESERVATION, BookingStageEvent.INSERT);
+            final Reservation savedReservation = reservationRepository.save(reservation);
+            insert.end(roomId, startDate, endDate, OK);
+
+            publishChange(savedReservation, ReservationChangeType.BOOKED);
+            return savedReservation;
         } else {
             throw new RoomAlreadyBookedException("The room is already booked for the provided dates");
         }
     }
 
+    @Transactional
+    public Reservation makeReservation(final LocalDate startDate, final LocalDate endDate, final Integer roomId,
+                                       final String idempotencyKey) {
+        final Reservation reservation = makeReservation(startDate, endDate, roomId);
+        idempotencyKeyRepository.insert(idempotencyKey, reservation.getReservationId());
+
+        if (log.isDebugEnabled()) {
+            log.debug("makeReservation stored idempotency key: {} for reservation: {}", idempotencyKey, reservation);
+        }
+
+        return reservation;
+    }
+
+    @Transactional
+    public Optional<Reservation> promoteWaitlistEntry(final LocalDate startDate, final LocalDate endDate,
+                                                      final Integer roomId, final long entryId) {
+        if (log.isDebugEnabled()) {
+            log.debug("promoteWaitlistEntry entryId: {}, startDate: {}, endDate: {}, roomId: {}",
+                    entryId, startDate, endDate, roomId);
+        }
+
+        // claimed first, a node promoting the same entry waits for the row and then finds it no longer waiting.
+        // A conflicting booking rolls the claim back
+        if (waitlistEntryRepository.claim(entryId) == 0) {
+            return Optional.empty();
+        }
+
+        final Reservation reservation = makeReservation(startDate, endDate, roomId);
+        waitlistEntryRepository.setReservationId(entryId, reservation.getReservationId());
+
+        if (log.isDebugEnabled()) {
+            log.debug("promoteWaitlistEntry promoted entry: {} to reservation: {}", entryId, reservation);
+        }
+
+        return Optional.of(reservation);
+    }
+
     @Transactional
     public Reservation cancelReservation(final long id) {
         if (log.isDebugEnabled()) {
             log.debug("cancelReservation with id: {}", id);
         }
 
-        final Reservation reservation = reservationRepository.findById(id).orElseThrow(() ->
+        // the status check is part of the update, only a failed cancel reads the reservation
+        final BookingStageEvent update = BookingStageEvent.start(CANCEL_RESERVATION, BookingStageEvent.UPDATE);
+        final Optional<ReservationView> cancelled = reservationRepository.cancelConfirmedReservation(id);
+        if (cancelled.isEmpty()) {
+            update.end(null, null, null, NOT_FOUND);
+
+            final BookingStageEvent reservationLookup =
+                    BookingStageEvent.start(CANCEL_RESERVATION, BookingStageEvent.RESERVATION_LOOKUP);
+            final Optional<ReservationStatus> status = reservationRepository.findStatusById(id);
+            if (status.isEmpty()) {
+                reservationLookup.end(null, null, null, NOT_FOUND);
+                throw new ReservationNotFoundException("Unable to find reservation with id " + id);
+            }
+            reservationLookup.end(null, null, null, FOUND);
+
+            // TODO: more fine-grained status transition rules
+            throw new CancelReservationException("Unable to cancel reservation in status " + status.get());
+        }
+
+        final Reservation cancelledReservation = ReservationMapper.INSTANCE.toReservation(cancelled.get());
+        update.end(cancelled.get().roomId(), cancelled.get().startDate(), cancelled.get().endDate(), OK);
+
+        if (log.isDebugEnabled()) {
+            log.debug("cancelReservation cancelled reservation: {}", cancelledReservation);
+        }
+
+        publishChange(cancelledReservation, ReservationChangeType.CANCELLED);
+        return cancelledReservation;
+    }
+
+    @Transactional
+    public Reservation modifyReservation(final LocalDate startDate, final LocalDate endDate, final Integer roomId,
+                                         final long id) {
+        if (log.isDebugEnabled()) {
+            log.debug("modifyReservation id: {} to startDate: {}, endDate: {}, roomId: {}", id, startDate, endDate, roomId);
+        }
+
+        // the status, room and conflict checks are part of the update, only a refused move reads anything
+        final Optional<ReservationMove> move = reservationRepository.moveConfirmedReservation(id, roomId, startDate, endDate);
+        if (move.isEmpty()) {
+            throw refusedModification(startDate, endDate, roomId, id);
+        }
+
+        final ReservationSpan previous = move.get().previous();
+        final Reservation reservation = ReservationMapper.INSTANCE.toReservation(move.get().reservation());
+
+        if (log.isDebugEnabled()) {
+            log.debug("modifyReservation moved reservation from: {} to: {}", previous, reservation);
+        }
+
+        // freeing the previous days first, a move within overlapping days of the same room ends up booked.
+        // A reservation whose room was deleted held no days, only its new ones are published
+        final List<ReservationChangedEvent> changes = new ArrayList<>(2);
+        if (previous.roomId() != null) {
+            changes.add(new ReservationChangedEvent(id, previous.roomId(), previous.startDate(), previous.endDate(),
+                    ReservationChangeType.MOVED_FROM));
+        }
+        if (reservation.getRoom() != null && reservation.getRoom().getRoomId() != null) {
+            changes.add(new ReservationChangedEvent(id, reservation.getRoom().getRoomId(), startDate, endDate,
+                    ReservationChangeType.MOVED_TO));
+        }
+        eventPublisher.publishEvent(new ReservationChangeBatchEvent(changes));
+        return reservation;
+    }
+
+    @Transactional
+    public List<ReservationSpan> cancelReservations(final Set<Integer> roomIds, final LocalDate from,
+                                                   final LocalDate to) {
+        if (log.isDebugEnabled()) {
+            log.debug("cancelReservations roomIds: {}, from: {}, to: {}", roomIds, from, to);
+        }
+
+        if (!from.isBefore(to)) {
+            throw new ValidationException("'from' must be before 'to'");
+        }
+
+        final List<ReservationSpan> cancelled = reservationRepository.cancelConfirmedReservations(roomIds, from, to);
+        // one event for all of them, the outbox rows and notifications are written set-based as well
+        eventPublisher.publishEvent(new ReservationChangeBatchEvent(cancelled.stream()
+                .map(reservation -> new ReservationChangedEvent(reservation.reservationId(), reservation.roomId(),
+                        reservation.startDate(), reservation.endDate(), ReservationChangeType.CANCELLED))
+                .toList()));
+
+        if (log.isDebugEnabled()) {
+            log.debug("cancelReservations cancelled {} reservations of {} rooms", cancelled.size(), roomIds.size());
+        }
+
+        return cancelled;
+    }
+
+    // the transaction keeps the connection out of auto-commit, which the driver needs to read through a cursor
+    @Transactional
+    public long exportReservations(final LocalDate from, final LocalDate to, final ReservationStatus status,
+                                   final Consumer<ReservationExportRow> consumer) {
+        if (log.isDebugEnabled()) {
+            log.debug("exportReservations from: {}, to: {}, status: {}", from, to, status);
+        }
+
+        return reservationRepository.streamReservations(from, to, status, consumer);
+    }
+
+    public ReservationView getReservation(final long id) {
+        if (log.isDebugEnabled()) {
+            log.debug("getReservation with id: {}", id);
+        }
+
+        return reservationRepository.findViewById(id).orElseThrow(() ->
                 new ReservationNotFoundException("Unable to find reservation with id " + id));
+    }
 
-        // TODO: more fine-grained status transition rules
-        if (!reservation.getStatus().equals(ReservationStatus.CONFIRMED)) {
-            throw new CancelReservationException("Unable to cancel reservation in status " + reservation.getStatus());
+    public List<ReservationView> getReservations(final List<Long> ids) {
+        if (log.isDebugEnabled()) {
+            log.debug("getReservations with ids: {}", ids);
         }
 
+        return reservationRepository.findViewsByIds(ids);
+    }
+
+    public List<ReservationView> getRoomReservations(final Integer roomId, final LocalDate from, final LocalDate to,
+                                                     final LocalDate afterStartDate, final Long afterId,
+                                                     final int limit) {
         if (log.isDebugEnabled()) {
-            log.debug("cancelReservation reservation: {}", reservation);
+            log.debug("getRoomReservations roomId: {}, from: {}, to: {}, after: ({}, {}), limit: {}",
+                    roomId, from, to, afterStartDate, afterId, limit);
+        }
+
+        // the first page starts after (from, 0), every reservation id is above 0; a key before from can't go back
+        final boolean firstPage = afterStartDate == null || afterStartDate.isBefore(from);
+        return reservationRepository.findRoomViews(roomId, to, firstPage ? from : afterStartDate,
+                firstPage || afterId == null ? 0 : afterId, PageRequest.of(0, limit));
+    }
+
+    private RuntimeException refusedModification(final LocalDate startDate, final LocalDate endDate,
+                                                 final Integer roomId, final long id) {
+        final Optional<ReservationStatus> status = reservationRepository.findStatusById(id);
+        if (status.isEmpty()) {
+            return new ReservationNotFoundException("Unable to find reservation with id " + id);
+        }
+        if (status.get() != ReservationStatus.CONFIRMED) {
+            return new ModifyReservationException("Unable to modify reservation in status " + status.get());
+        }
+        if (roomId != null && !roomRepository.existsById(roomId)) {
+            return new RoomNotFoundException("Unable to find room with id: " + roomId);
+        }
+        // its room was deleted, there is nothing to stay in without a new one
+        if (roomId == null && reservationRepository.findRoomIdById(id).isEmpty()) {
+            return new ValidationException("Reservation " + id + " has no room anymore, 'roomId' is required");
+        }
+        return new RoomAlreadyBookedException("The room is already booked for the provided dates");
+    }
+
+    // the room of a reservation may have been deleted since, its days are no longer held anywhere
+    private void publishChange(final Reservation reservation, final ReservationChangeType type) {
+        final Integer roomId = reservation.getRoom() == null ? null : reservation.getRoom().getRoomId();
+        if (roomId == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Reservation {} has no room, no change published", reservation.getReservationId());
+            }
+            return;
         }
 
-        reservation.setStatus(ReservationStatus.CANCELLED);
-        return reservationRepository.save(reservation);
+        eventPublisher.publishEvent(new ReservationChangedEvent(reservation.getReservationId(), roomId,
+                reservation.getStartDate(), reservation.getEndDate(), type));
     }
 }
@@ -0,0 +1,74 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.service.RoomAttributeService;
+import com.sample.bookingservice.service.RoomFilter;
+import com.sample.bookingservice.util.RoomAttributeIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Holds the attribute bitmaps of all rooms. Rooms are not changed through this service, so the bitmaps are rebuilt
+ * from the rooms table on start and on an interval, and swapped in whole.
+ */
+@Service
+@Validated
+public class DefaultRoomAttributeService implements RoomAttributeService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultRoomAttributeService.class);
+
+    private final RoomRepository roomRepository;
+
+    // null until the first refresh, the web server takes searches before the started event
+    private volatile RoomAttributeIndex index;
+
+    public DefaultRoomAttributeService(final RoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    public BitSet findRoomIds(final RoomFilter filter) {
+        final BitSet roomIds = loadedIndex().match(filter);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Rooms matching {}: {}", filter, roomIds.cardinality());
+        }
+
+        return roomIds;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    @Scheduled(fixedDelayString = "${rooms.attributes.refresh.interval.ms}",
+            initialDelayString = "${rooms.attributes.refresh.interval.ms}")
+    public synchronized void refresh() {
+        final List<Room> rooms = roomRepository.findAll();
+        final RoomAttributeIndex refreshed = new RoomAttributeIndex();
+        rooms.forEach(refreshed::add);
+        index = refreshed;
+
+        if (log.isDebugEnabled()) {
+            log.debug("Room attributes refreshed for {} rooms", refreshed.size());
+        }
+    }
+
+    private RoomAttributeIndex loadedIndex() {
+        final RoomAttributeIndex current = index;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (index == null) {
+                refresh();
+            }
+            return index;
+        }
+    }
+}
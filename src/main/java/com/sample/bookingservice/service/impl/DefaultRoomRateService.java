@@ -0,0 +1,109 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.exception.RoomNotFoundException;
+import com.sample.bookingservice.exception.RoomRateNotFoundException;
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.projection.RoomTypeAssignment;
+import com.sample.bookingservice.repository.projection.RoomTypeRate;
+import com.sample.bookingservice.service.RoomQuote;
+import com.sample.bookingservice.service.RoomRateService;
+import com.sample.bookingservice.util.DailyRateTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Holds the nightly rates of every room type from today to the last day a stay can end, as prefix sums in a
+ * {@link DailyRateTable}. Rates are not changed through this service, so the table is rebuilt from the rates and rooms
+ * tables on start and on an interval, and swapped in whole; the interval also moves its first day along with the date.
+ */
+@Service
+@Validated
+public class DefaultRoomRateService implements RoomRateService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultRoomRateService.class);
+
+    // rates are stored with two decimals and summed in hundredths
+    private static final int RATE_SCALE = 2;
+
+    private final RoomRepository roomRepository;
+    private final int days;
+
+    // null until the first refresh, the web server takes searches before the started event
+    private volatile DailyRateTable rates;
+
+    public DefaultRoomRateService(final RoomRepository roomRepository,
+                                  @Value("${reservation.days.ahead.allowed}") final int allowedDaysAhead) {
+        this.roomRepository = roomRepository;
+        // one day more covers stays ending on the last allowed day after midnight, until the next refresh
+        this.days = allowedDaysAhead + 1;
+    }
+
+    public RoomQuote getQuote(final LocalDate from, final LocalDate to, final Integer roomId) {
+        final Room room = roomRepository.findById(roomId).orElseThrow(() ->
+                new RoomNotFoundException("Unable to find room with id: " + roomId));
+        final BigDecimal total = getStayPrice(from, to, room.getRoomType()).orElseThrow(() ->
+                new RoomRateNotFoundException("No rate for every night between " + from + " and " + to +
+                        " for room with id: " + roomId));
+
+        if (log.isDebugEnabled()) {
+            log.debug("Room {} of type {} costs {} from {} to {}", roomId, room.getRoomType(), total, from, to);
+        }
+
+        return new RoomQuote(roomId, room.getRoomType(), from, to, (int) (to.toEpochDay() - from.toEpochDay()), total);
+    }
+
+    public Optional<BigDecimal> getStayPrice(final LocalDate from, final LocalDate to, final String roomType) {
+        final long total = getRates().total(roomType, from.toEpochDay(), to.toEpochDay());
+        return total == DailyRateTable.UNPRICED ? Optional.empty() : Optional.of(BigDecimal.valueOf(total, RATE_SCALE));
+    }
+
+    public DailyRateTable getRates() {
+        final DailyRateTable current = rates;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (rates == null) {
+                refresh();
+            }
+            return rates;
+        }
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    @Scheduled(fixedDelayString = "${rooms.rates.refresh.interval.ms}",
+            initialDelayString = "${rooms.rates.refresh.interval.ms}")
+    public synchronized void refresh() {
+        final LocalDate today = LocalDate.now();
+        final List<RoomTypeRate> typeRates = roomRepository.findRoomTypeRates(today, today.plusDays(days));
+        final List<RoomTypeAssignment> roomTypes = roomRepository.findRoomTypes();
+
+        final DailyRateTable refreshed = new DailyRateTable(today.toEpochDay(), days);
+        for (final RoomTypeRate rate : typeRates) {
+            refreshed.setRate(rate.roomType(), rate.stayDate().toEpochDay(),
+                    rate.rate().setScale(RATE_SCALE).unscaledValue().longValueExact());
+        }
+        for (final RoomTypeAssignment room : roomTypes) {
+            refreshed.setRoomType(room.roomId(), room.roomType());
+        }
+        refreshed.complete();
+        rates = refreshed;
+
+        if (log.isDebugEnabled()) {
+            log.debug("Rates refreshed from {}, {} nightly rates, {} rooms with a type", today, typeRates.size(),
+                    roomTypes.size());
+        }
+    }
+}
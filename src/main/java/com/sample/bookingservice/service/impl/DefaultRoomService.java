@@ -1,38 +1,227 @@
 package com.sample.bookingservice.service.impl;
 
+import com.sample.bookingservice.exception.ServiceOverloadedException;
+import com.sample.bookingservice.jfr.BookingEvent;
+import com.sample.bookingservice.jfr.BookingStageEvent;
 import com.sample.bookingservice.model.Room;
 import com.sample.bookingservice.repository.ReservationRepository;
 import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.projection.RoomTypeAssignment;
+import com.sample.bookingservice.service.AvailabilityIndexService;
+import com.sample.bookingservice.service.AvailabilityVersionService;
+import com.sample.bookingservice.service.RoomAttributeService;
+import com.sample.bookingservice.service.RoomFilter;
+import com.sample.bookingservice.service.RoomRateService;
 import com.sample.bookingservice.service.RoomService;
+import com.sample.bookingservice.util.DailyRateTable;
+import com.sample.bookingservice.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Validated
 public class DefaultRoomService implements RoomService {
     private static final Logger log = LoggerFactory.getLogger(DefaultRoomService.class);
+    // the order of every search not sorted by price, the only one a pageable may ask for besides PRICE_SORT
+    private static final String ROOM_ID_SORT = "roomId";
 
     private final ReservationRepository reservationRepository;
     private final RoomRepository roomRepository;
+    private final AvailabilityVersionService availabilityVersionService;
+    private final AvailabilityIndexService availabilityIndexService;
+    private final RoomAttributeService roomAttributeService;
+    private final RoomRateService roomRateService;
 
-    public DefaultRoomService(final ReservationRepository reservationRepository, final RoomRepository roomRepository) {
+    // identical searches in flight at the same time share one query
+    private final SingleFlight<SearchKey, List<Room>> searches = new SingleFlight<>();
+
+    // the availability version is part of the key: a search never joins one started before a booking it must see
+    private record SearchKey(LocalDate from, LocalDate to, RoomFilter filter, Pageable pageable, long version) {
+    }
+
+    private record PricedRoom(int roomId, long total) {
+    }
+
+    public DefaultRoomService(final ReservationRepository reservationRepository, final RoomRepository roomRepository,
+                              final AvailabilityVersionService availabilityVersionService,
+                              final AvailabilityIndexService availabilityIndexService,
+                              final RoomAttributeService roomAttributeService,
+                              final RoomRateService roomRateService,
+                              final ObjectProvider<MeterRegistry> meterRegistry) {
         this.reservationRepository = reservationRepository;
         this.roomRepository = roomRepository;
+        this.availabilityVersionService = availabilityVersionService;
+        this.availabilityIndexService = availabilityIndexService;
+        this.roomAttributeService = roomAttributeService;
+        this.roomRateService = roomRateService;
+        meterRegistry.ifAvailable(registry ->
+                FunctionCounter.builder("rooms.search.coalesced", searches, SingleFlight::getSharedCalls)
+                        .description("Searches answered by an identical search already in flight")
+                        .register(registry));
     }
 
     public List<Room> getAvailableRooms(final LocalDate from, final LocalDate to, final Pageable pageable) {
-        final List<Room> rooms = roomRepository.getAvailableRooms(from, to, pageable);
+        return getAvailableRooms(from, to, RoomFilter.NONE, pageable);
+    }
+
+    public List<Room> getAvailableRooms(final LocalDate from, final LocalDate to, final RoomFilter filter,
+                                        final Pageable pageable) {
+        final BookingStageEvent searchQuery =
+                BookingStageEvent.start(BookingEvent.GET_AVAILABLE_ROOMS, BookingStageEvent.SEARCH_QUERY);
+        final SearchKey key = new SearchKey(from, to, filter, pageable, availabilityVersionService.getVersion(from, to));
+        final Pageable page = pageable == null ? Pageable.unpaged() : pageable;
+        final Sort.Order byPrice = page.getSort().getOrderFor(PRICE_SORT);
+        if (byPrice != null && page.getSort().stream().count() > 1) {
+            throw new ValidationException("'" + PRICE_SORT + "' can't be combined with other sort properties");
+        }
+        if (byPrice == null && !page.getSort().isUnsorted() && !page.getSort().equals(Sort.by(ROOM_ID_SORT))) {
+            throw new ValidationException("Available rooms are in room id order, only '" + PRICE_SORT + "' sorts them");
+        }
+        // shared between callers, so nobody may change it
+        final List<Room> rooms = searches.execute(key, () -> List.copyOf(byPrice != null
+                ? findRoomsByPrice(from, to, filter, page, byPrice.isDescending())
+                : findFreeRooms(from, to, filter, page)));
+        searchQuery.end(null, from, to, BookingEvent.OK);
 
         if (log.isDebugEnabled()) {
-            log.debug("Available rooms between {} and {}, for pageable: {} has size:{}, rooms:{}", from, to, pageable, rooms.size(), rooms);
+            log.debug("Available rooms between {} and {}, for filter: {}, pageable: {} has size:{}, rooms:{}",
+                    from, to, filter, pageable, rooms.size(), rooms);
         }
 
         return rooms;
     }
+
+    // with or without a filter the same rooms are checked the same way, so a filter only narrows the result: the rooms
+    // matching the attribute bitmaps (all of them without a filter), the more filters the fewer. The index answers
+    // without a query, the rooms of the page are then loaded by id
+    private List<Room> findFreeRooms(final LocalDate from, final LocalDate to, final RoomFilter filter,
+                                     final Pageable pageable) {
+        if (!availabilityIndexService.isReady() && filter.isEmpty()) {
+            return roomRepository.findFreeRooms(from, to, pageable);
+        }
+        final BitSet candidates = roomAttributeService.findRoomIds(filter);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        if (!availabilityIndexService.isReady()) {
+            return roomRepository.findFreeRooms(from, to, candidates.stream().boxed().toArray(Integer[]::new),
+                    pageable);
+        }
+
+        final int pageSize = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        final long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        final List<Integer> roomIds = new ArrayList<>();
+        long skipped = 0;
+        for (int roomId = candidates.nextSetBit(0); roomId >= 0 && roomIds.size() < pageSize;
+             roomId = candidates.nextSetBit(roomId + 1)) {
+            if (availabilityIndexService.isAvailable(roomId, from, to) && skipped++ >= offset) {
+                roomIds.add(roomId);
+            }
+        }
+        if (roomIds.isEmpty()) {
+            return List.of();
+        }
+
+        return roomRepository.findAllById(roomIds).stream()
+                .sorted(Comparator.comparing(Room::getRoomId))
+                .toList();
+    }
+
+    // a bounded heap keeps the rooms of the pages up to the requested one, its head the worst of them: a room ranked
+    // after the head is dropped before its availability is checked, and only the kept rooms are ever sorted.
+    // Totals come from prefix sums, one subtraction per room whatever the length of the stay. Rooms typed since the
+    // rates were refreshed are above the table's last room, they are read with their type and priced by it. A room
+    // retyped meanwhile is still priced by its old type until the next refresh
+    private List<Room> findRoomsByPrice(final LocalDate from, final LocalDate to, final RoomFilter filter,
+                                        final Pageable pageable, final boolean descending) {
+        if (!availabilityIndexService.isReady()) {
+            throw new ServiceOverloadedException("Rooms can't be sorted by price until availability is loaded");
+        }
+
+        final DailyRateTable rates = roomRateService.getRates();
+        final BitSet candidates = filter.isEmpty() ? null : roomAttributeService.findRoomIds(filter);
+        final long fromDay = from.toEpochDay();
+        final long toDay = to.toEpochDay();
+        final int kept = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        final Comparator<PricedRoom> ranking = (descending
+                ? Comparator.comparingLong(PricedRoom::total).reversed()
+                : Comparator.comparingLong(PricedRoom::total))
+                .thenComparingInt(PricedRoom::roomId);
+        final PriorityQueue<PricedRoom> best =
+                new PriorityQueue<>(Math.max(Math.min(kept, rates.getLastRoomId() + 1), 1), ranking.reversed());
+
+        for (int roomId = nextRoomId(candidates, 0); roomId >= 0 && roomId <= rates.getLastRoomId();
+             roomId = nextRoomId(candidates, roomId + 1)) {
+            rank(best, kept, ranking, roomId, rates.total(roomId, fromDay, toDay), from, to);
+        }
+        for (final RoomTypeAssignment room : roomRepository.findRoomTypesAfter(rates.getLastRoomId())) {
+            if (candidates == null || candidates.get(room.roomId())) {
+                rank(best, kept, ranking, room.roomId(), rates.total(room.roomType(), fromDay, toDay), from, to);
+            }
+        }
+
+        final List<Integer> roomIds = best.stream()
+                .sorted(ranking)
+                .skip(pageable.getOffset())
+                .map(PricedRoom::roomId)
+                .toList();
+        if (roomIds.isEmpty()) {
+            return List.of();
+        }
+
+        final Map<Integer, Room> rooms = roomRepository.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(Room::getRoomId, Function.identity()));
+        return roomIds.stream()
+                .map(rooms::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void rank(final PriorityQueue<PricedRoom> best, final int kept, final Comparator<PricedRoom> ranking,
+                      final int roomId, final long total, final LocalDate from, final LocalDate to) {
+        if (total == DailyRateTable.UNPRICED) {
+            return;
+        }
+        final PricedRoom room = new PricedRoom(roomId, total);
+        if (best.size() == kept && ranking.compare(room, best.peek()) >= 0) {
+            return;
+        }
+        if (availabilityIndexService.isAvailable(roomId, from, to)) {
+            best.add(room);
+            if (best.size() > kept) {
+                best.poll();
+            }
+        }
+    }
+
+    // every room id when there is no filter
+    private static int nextRoomId(final BitSet candidates, final int fromRoomId) {
+        return candidates == null ? fromRoomId : candidates.nextSetBit(fromRoomId);
+    }
+
+    /**
+     * @return number of searches that were answered by an identical search already in flight
+     */
+    public long getCoalescedSearches() {
+        return searches.getSharedCalls();
+    }
 }
@@ -0,0 +1,215 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.exception.RoomAlreadyBookedException;
+import com.sample.bookingservice.exception.RoomNotFoundException;
+import com.sample.bookingservice.exception.ServiceOverloadedException;
+import com.sample.bookingservice.exception.WaitlistEntryNotFoundException;
+import com.sample.bookingservice.model.Reservation;
+import com.sample.bookingservice.model.WaitlistEntry;
+import com.sample.bookingservice.model.WaitlistStatus;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.WaitlistEntryRepository;
+import com.sample.bookingservice.service.ReservationService;
+import com.sample.bookingservice.service.WaitlistService;
+import com.sample.bookingservice.util.WaitlistIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Keeps the waiting entries in a per-room index, so a cancellation only looks at the entries its days can serve and
+ * never at the waitlist table. Promotions run one at a time off the cancelling thread, each in its own transaction.
+ */
+@Service
+@Validated
+public class DefaultWaitlistService implements WaitlistService {
+    private static final Logger log = LoggerFactory.getLogger(DefaultWaitlistService.class);
+
+    private final WaitlistIndex index = new WaitlistIndex();
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final RoomRepository roomRepository;
+    private final ReservationService reservationService;
+    private final ExecutorService promoter;
+    private final int maxEntries;
+
+    public DefaultWaitlistService(final WaitlistEntryRepository waitlistEntryRepository,
+                                  final RoomRepository roomRepository,
+                                  final ReservationService reservationService,
+                                  @Value("${waitlist.max.entries}") final int maxEntries,
+                                  final ObjectProvider<MeterRegistry> meterRegistry) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.roomRepository = roomRepository;
+        this.reservationService = reservationService;
+        this.maxEntries = maxEntries;
+        this.promoter = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "waitlist-promoter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        meterRegistry.ifAvailable(registry ->
+                Gauge.builder("reservations.waitlist.waiting", index, WaitlistIndex::size).register(registry));
+    }
+
+    public WaitlistEntry enqueue(final LocalDate startDate, final LocalDate endDate, final Integer roomId) {
+        if (log.isDebugEnabled()) {
+            log.debug("enqueue with startDate: {}, endDate: {}, roomId: {}", startDate, endDate, roomId);
+        }
+
+        if (index.size() >= maxEntries) {
+            throw new ServiceOverloadedException("Too many waitlist entries");
+        }
+        if (!roomRepository.existsById(roomId)) {
+            throw new RoomNotFoundException("Unable to find room with id: " + roomId);
+        }
+
+        final WaitlistEntry entry = new WaitlistEntry();
+        entry.setRoomId(roomId);
+        entry.setStartDate(startDate);
+        entry.setEndDate(endDate);
+        final WaitlistEntry savedEntry = waitlistEntryRepository.save(entry);
+
+        final WaitlistIndex.Entry indexed = toIndexEntry(savedEntry);
+        index.add(indexed);
+
+        // a cancellation committed between the refused booking and the enqueue has already been dispatched
+        promote(indexed).ifPresent(reservation -> {
+            savedEntry.setStatus(WaitlistStatus.PROMOTED);
+            savedEntry.setReservationId(reservation.getReservationId());
+        });
+
+        if (log.isDebugEnabled()) {
+            log.debug("enqueue saved entry: {}, {} waiting", savedEntry, index.size());
+        }
+
+        return savedEntry;
+    }
+
+    public WaitlistEntry getEntry(final long id) {
+        return waitlistEntryRepository.findById(id).orElseThrow(() ->
+                new WaitlistEntryNotFoundException("Unable to find waitlist entry with id " + id));
+    }
+
+    public int getWaitingCount() {
+        return index.size();
+    }
+
+    // entries enqueued on other nodes since are held, and promoted, by those nodes
+    @EventListener(ApplicationStartedEvent.class)
+    public void load() {
+        final List<WaitlistEntry> waiting = waitlistEntryRepository.findWaiting(LocalDate.now());
+        waiting.forEach(entry -> index.add(toIndexEntry(entry)));
+        log.info("Waitlist loaded, {} entries waiting", waiting.size());
+    }
+
+    // after commit, a cancellation that was rolled back frees nothing. Changes from other nodes arrive committed,
+    // outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(final ReservationChangedEvent event) {
+        dispatch(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanges(final ReservationChangeBatchEvent event) {
+        dispatch(event.changes());
+    }
+
+    @Scheduled(fixedDelayString = "${waitlist.expiry.interval.ms}")
+    public void expire() {
+        final LocalDate today = LocalDate.now();
+        final int removed = index.removeStartingBefore(today.toEpochDay()).size();
+        final int expired = waitlistEntryRepository.expireWaiting(today);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Waitlist expired {} entries, {} of them held here, {} waiting", expired, removed, index.size());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        promoter.shutdownNow();
+    }
+
+    private void dispatch(final List<ReservationChangedEvent> changes) {
+        final List<ReservationChangedEvent> freed = changes.stream()
+                .filter(change -> !change.type().holdsDays())
+                .toList();
+        if (freed.isEmpty() || index.size() == 0) {
+            return;
+        }
+
+        try {
+            promoter.execute(() -> freed.forEach(this::promoteFreed));
+        } catch (RejectedExecutionException e) {
+            // shutting down, the entries are loaded again on start
+        }
+    }
+
+    private void promoteFreed(final ReservationChangedEvent change) {
+        final List<WaitlistIndex.Entry> candidates = index.find(change.roomId(), change.startDate().toEpochDay(),
+                change.endDate().toEpochDay());
+
+        if (log.isDebugEnabled()) {
+            log.debug("Waitlist candidates for room {} from {} to {}: {}", change.roomId(), change.startDate(),
+                    change.endDate(), candidates.size());
+        }
+
+        // once one is promoted the ones overlapping it are refused by the conflict check and keep waiting
+        candidates.forEach(this::promote);
+    }
+
+    private Optional<Reservation> promote(final WaitlistIndex.Entry entry) {
+        final LocalDate startDate = LocalDate.ofEpochDay(entry.startDay());
+        if (startDate.isBefore(LocalDate.now())) {
+            // marked expired by the next expiry run
+            index.remove(entry);
+            return Optional.empty();
+        }
+
+        try {
+            final Optional<Reservation> reservation = reservationService.promoteWaitlistEntry(startDate,
+                    LocalDate.ofEpochDay(entry.endDay()), entry.roomId(), entry.entryId());
+            // promoted here or by another node
+            index.remove(entry);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Waitlist entry {} promoted to: {}", entry.entryId(), reservation);
+            }
+
+            return reservation;
+        } catch (RoomAlreadyBookedException e) {
+            return Optional.empty();
+        } catch (RoomNotFoundException e) {
+            // the room was deleted, and its entries with it
+            index.remove(entry);
+            return Optional.empty();
+        } catch (RuntimeException e) {
+            log.warn("Unable to promote waitlist entry {}, it keeps waiting", entry.entryId(), e);
+            return Optional.empty();
+        }
+    }
+
+    private static WaitlistIndex.Entry toIndexEntry(final WaitlistEntry entry) {
+        return new WaitlistIndex.Entry(entry.getEntryId(), entry.getRoomId(), entry.getStartDate().toEpochDay(),
+                entry.getEndDate().toEpochDay());
+    }
+}
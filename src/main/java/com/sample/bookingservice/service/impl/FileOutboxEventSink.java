@@ -0,0 +1,45 @@
+package com.sample.bookingservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.bookingservice.model.OutboxEvent;
+import com.sample.bookingservice.service.OutboxEventSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// appends one JSON document per line, one write per batch
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+public class FileOutboxEventSink implements OutboxEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOutboxEventSink(final ObjectMapper objectMapper, @Value("${outbox.sink.file.path}") final String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    public synchronized void publish(final List<OutboxEvent> events) {
+        final StringBuilder lines = new StringBuilder(events.size() * 160);
+        try {
+            for (final OutboxEvent event : events) {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            }
+            try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append outbox events to " + path, e);
+        }
+    }
+}
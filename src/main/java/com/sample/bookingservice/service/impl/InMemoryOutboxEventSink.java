@@ -0,0 +1,44 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.model.OutboxEvent;
+import com.sample.bookingservice.service.OutboxEventSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// keeps the most recent events for tests and local runs, the oldest are dropped once capacity is reached
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxEventSink implements OutboxEventSink {
+    private static final Logger log = LoggerFactory.getLogger(InMemoryOutboxEventSink.class);
+
+    private final BlockingQueue<OutboxEvent> events;
+
+    public InMemoryOutboxEventSink(@Value("${outbox.sink.memory.capacity}") final int capacity) {
+        this.events = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public void publish(final List<OutboxEvent> batch) {
+        for (final OutboxEvent event : batch) {
+            while (!events.offer(event)) {
+                final OutboxEvent dropped = events.poll();
+                if (dropped != null && log.isDebugEnabled()) {
+                    log.debug("In-memory outbox sink full, dropped event: {}", dropped);
+                }
+            }
+        }
+    }
+
+    public List<OutboxEvent> drain() {
+        final List<OutboxEvent> drained = new ArrayList<>(events.size());
+        events.drainTo(drained);
+        return drained;
+    }
+}
@@ -0,0 +1,36 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.service.OutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxService outboxService;
+    private final int batchSize;
+
+    public OutboxRelay(final OutboxService outboxService, @Value("${outbox.relay.batch.size}") final int batchSize) {
+        this.outboxService = outboxService;
+        this.batchSize = batchSize;
+    }
+
+    // keeps draining while batches come back full, each batch commits on its own so a failure only redelivers one
+    @Scheduled(fixedDelayString = "${outbox.relay.interval.ms}")
+    public void relay() {
+        int relayed;
+        long total = 0;
+        do {
+            relayed = outboxService.relayBatch();
+            total += relayed;
+        } while (relayed >= batchSize);
+
+        if (total > 0 && log.isDebugEnabled()) {
+            log.debug("Outbox relay drained {} events", total);
+        }
+    }
+}
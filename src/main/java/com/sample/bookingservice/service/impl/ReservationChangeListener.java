@@ -0,0 +1,182 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.AvailabilityResyncEvent;
+import com.sample.bookingservice.event.ReservationChangeMessage;
+import com.sample.bookingservice.util.SequenceGapDetector;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Applies the reservation changes notified by other nodes to the local caches and indexes.
+ * <p>
+ * Runs on its own thread with its own connection, outside the pool, since LISTEN keeps the connection for good.
+ * Received changes are republished as {@code ReservationChangedEvent}s. Whenever changes may have been missed
+ * (reconnect, a sequence gap) an {@link AvailabilityResyncEvent} is published instead. The first connect only asks
+ * for a catch-up from the availability changelog, what was missed before is there and the caches were just loaded.
+ */
+@Component
+@ConditionalOnProperty(name = "reservation.changes.listener.enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationChangeListener implements SmartLifecycle, Runnable {
+    private static final Logger log = LoggerFactory.getLogger(ReservationChangeListener.class);
+
+    private final JdbcConnectionDetails connectionDetails;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReservationChangeNotifier notifier;
+    private final String channel;
+    private final int pollTimeoutMillis;
+    private final long reconnectDelayMillis;
+    private final SequenceGapDetector gapDetector;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ReservationChangeListener(final JdbcConnectionDetails connectionDetails,
+                                     final ApplicationEventPublisher eventPublisher,
+                                     final ReservationChangeNotifier notifier,
+                                     @Value("${reservation.changes.channel}") final String channel,
+                                     @Value("${reservation.changes.listener.poll.timeout.ms}") final int pollTimeoutMillis,
+                                     @Value("${reservation.changes.listener.reconnect.delay.ms}") final long reconnectDelayMillis,
+                                     @Value("${reservation.changes.gap.timeout.ms}") final long gapTimeoutMillis,
+                                     @Value("${reservation.changes.gap.max.missing}") final int maxMissing) {
+        this.connectionDetails = connectionDetails;
+        this.eventPublisher = eventPublisher;
+        this.notifier = notifier;
+        this.channel = channel;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+        this.gapDetector = new SequenceGapDetector(gapTimeoutMillis, maxMissing);
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        thread = new Thread(this, "reservation-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // waits for the thread to leave its poll, so nothing is published once stop returns
+    @Override
+    public void stop() {
+        final Thread stopping;
+        synchronized (this) {
+            running = false;
+            stopping = thread;
+            thread = null;
+        }
+
+        if (stopping != null) {
+            stopping.interrupt();
+            try {
+                stopping.join(pollTimeoutMillis + reconnectDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void run() {
+        boolean connected = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(connectionDetails.getJdbcUrl(),
+                    connectionDetails.getUsername(), connectionDetails.getPassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                // anything notified while we were not listening is lost
+                if (connected) {
+                    resync("listener reconnected");
+                } else {
+                    connected = true;
+                    publishResync(new AvailabilityResyncEvent("listener connected", true));
+                }
+                listen(connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Reservation change listener lost its connection, reconnecting in {} ms", reconnectDelayMillis, e);
+                    pause();
+                }
+            } catch (RuntimeException e) {
+                log.error("Reservation change listener failed, reconnecting in {} ms", reconnectDelayMillis, e);
+                pause();
+            }
+        }
+    }
+
+    private void listen(final PGConnection connection) throws SQLException {
+        while (running) {
+            final PGNotification[] notifications = connection.getNotifications(pollTimeoutMillis);
+            final long now = System.currentTimeMillis();
+
+            if (notifications != null) {
+                for (final PGNotification notification : notifications) {
+                    if (!running) {
+                        return;
+                    }
+                    try {
+                        apply(ReservationChangeMessage.decode(notification.getParameter()), now);
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Ignoring reservation change notification: {}", notification.getParameter(), e);
+                    }
+                }
+            }
+
+            if (gapDetector.hasExpiredGaps(now)) {
+                resync("reservation change messages missing");
+            }
+        }
+    }
+
+    private void apply(final ReservationChangeMessage message, final long now) {
+        if (notifier.getNodeId().equals(message.nodeId())) {
+            return;
+        }
+
+        if (!gapDetector.received(message.nodeId(), message.sequence(), now)) {
+            resync("too many reservation change messages missing from node " + message.nodeId());
+            return;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Applying reservation change from node {}: {}", message.nodeId(), message.change());
+        }
+        eventPublisher.publishEvent(message.change());
+    }
+
+    private void resync(final String reason) {
+        publishResync(new AvailabilityResyncEvent(reason));
+    }
+
+    private void publishResync(final AvailabilityResyncEvent event) {
+        log.info("Resyncing availability caches: {}", event.reason());
+        gapDetector.reset();
+        eventPublisher.publishEvent(event);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
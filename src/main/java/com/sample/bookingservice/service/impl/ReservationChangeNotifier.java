@@ -0,0 +1,76 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangeMessage;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tells the other nodes about every local booking and cancellation through Postgres NOTIFY.
+ * The notification is issued inside the transaction, Postgres only delivers it if the transaction commits.
+ */
+@Component
+public class ReservationChangeNotifier {
+    private static final Logger log = LoggerFactory.getLogger(ReservationChangeNotifier.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ReservationChangeNotifier(final JdbcTemplate jdbcTemplate,
+                                     @Value("${reservation.changes.channel}") final String channel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.channel = channel;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // changes received from other nodes are republished outside a transaction and so never notified again
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onReservationChanged(final ReservationChangedEvent event) {
+        final String payload = new ReservationChangeMessage(nodeId, sequence.incrementAndGet(), event).encode();
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> {
+        }, channel, payload);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Notified reservation change: {}", payload);
+        }
+    }
+
+    // one round trip for the whole batch, every change still gets its own message and sequence number
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onReservationChanges(final ReservationChangeBatchEvent event) {
+        if (event.changes().isEmpty()) {
+            return;
+        }
+
+        final Object[] payloads = event.changes().stream()
+                .map(change -> new ReservationChangeMessage(nodeId, sequence.incrementAndGet(), change).encode())
+                .toArray();
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(
+                    "SELECT pg_notify(?, payload) FROM unnest(?) AS payload");
+            statement.setString(1, channel);
+            statement.setArray(2, connection.createArrayOf("text", payloads));
+            return statement;
+        }, resultSet -> {
+        });
+
+        if (log.isDebugEnabled()) {
+            log.debug("Notified {} reservation changes", payloads.length);
+        }
+    }
+}
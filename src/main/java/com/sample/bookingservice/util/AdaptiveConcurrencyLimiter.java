@@ -0,0 +1,88 @@
+package com.sample.bookingservice.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows latency, in the style of Netflix's gradient limiter.
+ * <p>
+ * A long-term average of request latency stands for the latency the system has without queueing.
+ * When recent latency rises above it (with some tolerance) the limit shrinks proportionally,
+ * while latency holds the limit grows by about its square root. Requests over the limit are refused at once
+ * instead of queueing behind the ones already waiting on the database.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @return whether the request may proceed, it then has to be ended with {@link #release(long, int)}
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param rttNanos      how long the request took
+     * @param inFlightAtStart requests in flight when it was admitted, including itself
+     */
+    public void release(final long rttNanos, final int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        update(rttNanos, inFlightAtStart);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private synchronized void update(final long rttNanos, final int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        }
+
+        // after a long slow period the average lags behind, let it catch up with recovered latency
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // far below the limit latency says nothing about whether more concurrency would help
+        if (inFlightAtStart * 2 < limit) {
+            return;
+        }
+
+        final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        final double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+}
@@ -0,0 +1,107 @@
+package com.sample.bookingservice.util;
+
+import com.sample.bookingservice.event.ReservationChangeType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the booking and cancel deltas applied to an {@link AvailabilitySnapshot} since its last
+ * checkpoint. Records have a fixed size and a checksum, a torn record at the tail ends the replay and is cut off.
+ * Replaying a record twice is harmless: bits are set or cleared, so only the last record touching a day counts.
+ */
+public class AvailabilityJournal implements Closeable {
+
+    private static final int RECORD_MAGIC = 0x4A524E4C;
+    private static final int RECORD_BYTES = 32;
+    private static final int CHECKSUM_OFFSET = 28;
+
+    private final FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private long position;
+
+    public record Entry(long reservationId, int roomId, long startDay, long endDay, ReservationChangeType type) {
+    }
+
+    private AvailabilityJournal(final FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static AvailabilityJournal open(final Path path) throws IOException {
+        return new AvailabilityJournal(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Hands every valid record to {@code consumer} in append order and positions the journal after the last one.
+     *
+     * @return number of replayed records
+     */
+    public synchronized int replay(final Consumer<Entry> consumer) throws IOException {
+        final ByteBuffer read = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long offset = 0;
+        int replayed = 0;
+
+        while (true) {
+            read.clear();
+            while (read.hasRemaining() && channel.read(read, offset + read.position()) > 0) {
+                // keep reading until the record is complete or the file ends
+            }
+            if (read.hasRemaining() || read.getInt(0) != RECORD_MAGIC || read.getInt(CHECKSUM_OFFSET) != checksum(read)) {
+                break;
+            }
+
+            consumer.accept(new Entry(read.getLong(8), read.getInt(16), read.getInt(20), read.getInt(24),
+                    ReservationChangeType.values()[read.get(4)]));
+            offset += RECORD_BYTES;
+            replayed++;
+        }
+
+        channel.truncate(offset);
+        position = offset;
+        return replayed;
+    }
+
+    public synchronized void append(final Entry entry) throws IOException {
+        record.clear();
+        record.putInt(0, RECORD_MAGIC);
+        record.put(4, (byte) entry.type().ordinal());
+        record.putLong(8, entry.reservationId());
+        record.putInt(16, entry.roomId());
+        record.putInt(20, Math.toIntExact(entry.startDay()));
+        record.putInt(24, Math.toIntExact(entry.endDay()));
+        record.putInt(CHECKSUM_OFFSET, checksum(record));
+
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+    }
+
+    // called once the snapshot holding every appended record has been forced to disk
+    public synchronized void truncate() throws IOException {
+        channel.truncate(0);
+        position = 0;
+    }
+
+    public synchronized long size() {
+        return position;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private static int checksum(final ByteBuffer buffer) {
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, CHECKSUM_OFFSET);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,304 @@
+package com.sample.bookingservice.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Booked days per room kept off-heap in a memory-mapped file, one bit per room and day.
+ * Days live in a ring indexed by epoch day modulo {@code ringDays}, so the file never grows with time,
+ * {@link #rollTo(long)} clears the days that left the window before their slots are reused.
+ * <p>
+ * Bits are updated with atomic bitwise operations, reads are lock-free. Structural changes
+ * (growing, rolling, forcing) are expected to be serialized by the caller.
+ * <p>
+ * Layout: a 64 byte header (magic, format, ring length, room capacity, base day, high-water reservation id, state,
+ * changelog sequence) followed by {@code ceil(ringDays / 64)} little-endian longs per room.
+ */
+public class AvailabilitySnapshot implements Closeable {
+
+    private static final int MAGIC = 0x41564958;
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    private static final int ROOM_CAPACITY_STEP = 1024;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int FORMAT_OFFSET = 4;
+    private static final int RING_DAYS_OFFSET = 8;
+    private static final int ROOM_CAPACITY_OFFSET = 12;
+    private static final int BASE_DAY_OFFSET = 16;
+    private static final int HIGH_WATER_MARK_OFFSET = 24;
+    private static final int STATE_OFFSET = 32;
+    private static final int CHANGE_SEQUENCE_OFFSET = 40;
+
+    private static final int STATE_BUILDING = 0;
+    private static final int STATE_COMPLETE = 1;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final int ringDays;
+    private final int wordsPerRoom;
+
+    private volatile MappedByteBuffer buffer;
+    private volatile int roomCapacity;
+
+    private AvailabilitySnapshot(final FileChannel channel, final int ringDays) {
+        this.channel = channel;
+        this.ringDays = ringDays;
+        this.wordsPerRoom = (ringDays + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * Maps the snapshot at {@code path}. A missing file or one written with another format or ring length is
+     * replaced by an empty snapshot in building state, the caller then fills it and calls {@link #markComplete()}.
+     */
+    public static AvailabilitySnapshot open(final Path path, final int ringDays, final int roomCapacity,
+                                            final long today) throws IOException {
+        final FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final AvailabilitySnapshot snapshot = new AvailabilitySnapshot(channel, ringDays);
+
+        if (!snapshot.mapExisting()) {
+            snapshot.reset(roomCapacity, today);
+        }
+        snapshot.ensureCapacity(roomCapacity - 1);
+
+        return snapshot;
+    }
+
+    public boolean isComplete() {
+        return buffer.getInt(STATE_OFFSET) == STATE_COMPLETE;
+    }
+
+    public void markComplete() {
+        force();
+        buffer.putInt(STATE_OFFSET, STATE_COMPLETE);
+        force();
+    }
+
+    public long getBaseDay() {
+        return buffer.getLong(BASE_DAY_OFFSET);
+    }
+
+    public long getHighWaterMark() {
+        return (long) LONGS.getVolatile(buffer, HIGH_WATER_MARK_OFFSET);
+    }
+
+    public void raiseHighWaterMark(final long reservationId) {
+        long current = getHighWaterMark();
+        while (reservationId > current && !LONGS.compareAndSet(buffer, HIGH_WATER_MARK_OFFSET, current, reservationId)) {
+            current = getHighWaterMark();
+        }
+    }
+
+    // last availability changelog sequence the snapshot is known to hold, the owner decides when it is
+    public long getChangeSequence() {
+        return buffer.getLong(CHANGE_SEQUENCE_OFFSET);
+    }
+
+    public void setChangeSequence(final long changeSequence) {
+        buffer.putLong(CHANGE_SEQUENCE_OFFSET, changeSequence);
+    }
+
+    public int getRoomCapacity() {
+        return roomCapacity;
+    }
+
+    // days outside the ring are ignored, past days are gone and later ones can't be booked yet
+    public void book(final int roomId, final long fromDay, final long toDay) {
+        final long baseDay = getBaseDay();
+        update(roomId, Math.max(fromDay, baseDay), Math.min(toDay, baseDay + ringDays), true);
+    }
+
+    public void release(final int roomId, final long fromDay, final long toDay) {
+        final long baseDay = getBaseDay();
+        update(roomId, Math.max(fromDay, baseDay), Math.min(toDay, baseDay + ringDays), false);
+    }
+
+    // rooms beyond the capacity have never been booked through this snapshot
+    public boolean isFree(final int roomId, final long fromDay, final long toDay) {
+        if (roomId >= roomCapacity) {
+            return true;
+        }
+
+        final MappedByteBuffer words = buffer;
+        final long baseDay = getBaseDay();
+        final long lastDay = Math.min(toDay, baseDay + ringDays);
+        for (long day = Math.max(fromDay, baseDay); day < lastDay; day++) {
+            final int slot = slot(day);
+            final long word = (long) LONGS.getVolatile(words, offset(roomId, slot >>> 6));
+            if ((word & (1L << (slot & 63))) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clears every day before {@code day} still held by the ring and moves the base day forward.
+     */
+    public void rollTo(final long day) {
+        final long baseDay = getBaseDay();
+        if (day <= baseDay) {
+            return;
+        }
+
+        final long toDay = Math.min(day, baseDay + ringDays);
+        for (int roomId = 0; roomId < roomCapacity; roomId++) {
+            update(roomId, baseDay, toDay, false);
+        }
+        buffer.putLong(BASE_DAY_OFFSET, day);
+    }
+
+    // frees every day of every room, the header is kept
+    public void clear() {
+        final MappedByteBuffer words = buffer;
+        for (int offset = HEADER_BYTES; offset < HEADER_BYTES + roomCapacity * wordsPerRoom * Long.BYTES; offset += Long.BYTES) {
+            LONGS.setVolatile(words, offset, 0L);
+        }
+    }
+
+    /**
+     * Days of one room built off to the side, laid out like the room's words in the ring. Filled with
+     * {@link #markDays(long[], long, long, boolean)} and swapped in with {@link #replaceDays(int, long[])}.
+     */
+    public long[] newRoomDays() {
+        return new long[wordsPerRoom];
+    }
+
+    public void markDays(final long[] days, final long fromDay, final long toDay, final boolean booked) {
+        final long baseDay = getBaseDay();
+        final long lastDay = Math.min(toDay, baseDay + ringDays);
+        for (long day = Math.max(fromDay, baseDay); day < lastDay; day++) {
+            final int slot = slot(day);
+            if (booked) {
+                days[slot >>> 6] |= 1L << (slot & 63);
+            } else {
+                days[slot >>> 6] &= ~(1L << (slot & 63));
+            }
+        }
+    }
+
+    // word by word, a reader sees each word either as it was or as rebuilt, never cleared in between
+    public void replaceDays(final int roomId, final long[] days) {
+        final MappedByteBuffer words = buffer;
+        for (int word = 0; word < wordsPerRoom; word++) {
+            LONGS.setVolatile(words, offset(roomId, word), days[word]);
+        }
+    }
+
+    public void ensureCapacity(final int roomId) throws IOException {
+        if (roomId < roomCapacity) {
+            return;
+        }
+
+        final int capacity = (roomId / ROOM_CAPACITY_STEP + 1) * ROOM_CAPACITY_STEP;
+        final long size = HEADER_BYTES + (long) capacity * wordsPerRoom * Long.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Availability snapshot can't hold room id " + roomId);
+        }
+
+        // the mapping is shared, a reader still holding the previous buffer sees the same pages
+        final MappedByteBuffer grown = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        grown.order(ByteOrder.LITTLE_ENDIAN);
+        grown.putInt(ROOM_CAPACITY_OFFSET, capacity);
+        this.buffer = grown;
+        this.roomCapacity = capacity;
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private boolean mapExisting() throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            return false;
+        }
+
+        final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(FORMAT_OFFSET) != FORMAT_VERSION
+                || header.getInt(RING_DAYS_OFFSET) != ringDays) {
+            return false;
+        }
+
+        final int capacity = header.getInt(ROOM_CAPACITY_OFFSET);
+        if (channel.size() < HEADER_BYTES + (long) capacity * wordsPerRoom * Long.BYTES) {
+            return false;
+        }
+
+        this.buffer = header;
+        this.roomCapacity = capacity;
+        return true;
+    }
+
+    private void reset(final int capacity, final long today) throws IOException {
+        channel.truncate(0);
+        final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC_OFFSET, MAGIC);
+        header.putInt(FORMAT_OFFSET, FORMAT_VERSION);
+        header.putInt(RING_DAYS_OFFSET, ringDays);
+        header.putInt(ROOM_CAPACITY_OFFSET, 0);
+        header.putLong(BASE_DAY_OFFSET, today);
+        header.putLong(HIGH_WATER_MARK_OFFSET, 0);
+        header.putInt(STATE_OFFSET, STATE_BUILDING);
+        header.putLong(CHANGE_SEQUENCE_OFFSET, 0);
+
+        this.buffer = header;
+        this.roomCapacity = 0;
+        ensureCapacity(capacity - 1);
+    }
+
+    // one atomic operation per touched word instead of one per day
+    private void update(final int roomId, final long fromDay, final long toDay, final boolean booked) {
+        final MappedByteBuffer words = buffer;
+        int word = -1;
+        long mask = 0;
+
+        for (long day = fromDay; day < toDay; day++) {
+            final int slot = slot(day);
+            if (slot >>> 6 != word) {
+                apply(words, roomId, word, mask, booked);
+                word = slot >>> 6;
+                mask = 0;
+            }
+            mask |= 1L << (slot & 63);
+        }
+        apply(words, roomId, word, mask, booked);
+    }
+
+    private void apply(final MappedByteBuffer words, final int roomId, final int word, final long mask,
+                       final boolean booked) {
+        if (mask == 0) {
+            return;
+        }
+
+        if (booked) {
+            LONGS.getAndBitwiseOr(words, offset(roomId, word), mask);
+        } else {
+            LONGS.getAndBitwiseAnd(words, offset(roomId, word), ~mask);
+        }
+    }
+
+    private int offset(final int roomId, final int word) {
+        return HEADER_BYTES + (roomId * wordsPerRoom + word) * Long.BYTES;
+    }
+
+    private int slot(final long day) {
+        return (int) Math.floorMod(day, (long) ringDays);
+    }
+}
@@ -0,0 +1,63 @@
+package com.sample.bookingservice.util;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Booked days of one room as disjoint [start, end) ranges ordered by start date. Overlapping or touching ranges are
+ * merged when they are added, so a lookup only has to look at the range starting closest before the end date.
+ * Not thread-safe.
+ */
+public class BookedDateRanges {
+
+    private final NavigableMap<LocalDate, LocalDate> ranges = new TreeMap<>();
+
+    // ends grow with starts, the last range starting before endDate is the only one that can reach past startDate
+    public boolean isFree(final LocalDate startDate, final LocalDate endDate) {
+        final Map.Entry<LocalDate, LocalDate> before = ranges.lowerEntry(endDate);
+        return before == null || !before.getValue().isAfter(startDate);
+    }
+
+    /**
+     * Books the range unless any of its days is booked already.
+     *
+     * @return whether the range was free and is booked now
+     */
+    public boolean tryBook(final LocalDate startDate, final LocalDate endDate) {
+        if (!isFree(startDate, endDate)) {
+            return false;
+        }
+        book(startDate, endDate);
+        return true;
+    }
+
+    // existing reservations may overlap each other, they are merged instead of refused
+    public void book(final LocalDate startDate, final LocalDate endDate) {
+        LocalDate start = startDate;
+        LocalDate end = endDate;
+
+        final Map.Entry<LocalDate, LocalDate> floor = ranges.floorEntry(start);
+        if (floor != null && !floor.getValue().isBefore(start)) {
+            start = floor.getKey();
+            end = max(end, floor.getValue());
+        }
+
+        final NavigableMap<LocalDate, LocalDate> covered = ranges.subMap(start, true, end, true);
+        for (final LocalDate coveredEnd : covered.values()) {
+            end = max(end, coveredEnd);
+        }
+        covered.clear();
+
+        ranges.put(start, end);
+    }
+
+    public int size() {
+        return ranges.size();
+    }
+
+    private static LocalDate max(final LocalDate first, final LocalDate second) {
+        return first.isAfter(second) ? first : second;
+    }
+}
@@ -0,0 +1,76 @@
+package com.sample.bookingservice.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weights of collapsed stacks ({@code root;caller;callee}) summed per minute, for the last {@code minutes} minutes.
+ * Buckets are reused in a ring indexed by epoch minute, a bucket holding an older minute is emptied when a later
+ * one lands in its slot. Stacks beyond {@code maxStacksPerMinute} distinct ones in a minute are added up under
+ * {@link #TRUNCATED} so memory stays bounded.
+ */
+public class CollapsedStackRing {
+
+    public static final String TRUNCATED = "[truncated]";
+
+    private final Bucket[] buckets;
+    private final int maxStacksPerMinute;
+
+    private static final class Bucket {
+        private long minute = Long.MIN_VALUE;
+        private final Map<String, Long> weights = new HashMap<>();
+    }
+
+    public CollapsedStackRing(final int minutes, final int maxStacksPerMinute) {
+        this.buckets = new Bucket[minutes];
+        for (int i = 0; i < minutes; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.maxStacksPerMinute = maxStacksPerMinute;
+    }
+
+    public int getMinutes() {
+        return buckets.length;
+    }
+
+    public synchronized void add(final long epochMinute, final String stack, final long weight) {
+        final Bucket bucket = buckets[(int) Math.floorMod(epochMinute, (long) buckets.length)];
+        if (bucket.minute != epochMinute) {
+            // a late event for a minute already dropped from the ring
+            if (bucket.minute > epochMinute) {
+                return;
+            }
+            bucket.minute = epochMinute;
+            bucket.weights.clear();
+        }
+
+        final String key = bucket.weights.size() < maxStacksPerMinute || bucket.weights.containsKey(stack)
+                ? stack : TRUNCATED;
+        bucket.weights.merge(key, weight, Long::sum);
+    }
+
+    /**
+     * Merges the minutes from {@code fromEpochMinute} to {@code toEpochMinute}, both included, heaviest stack first.
+     */
+    public synchronized List<Map.Entry<String, Long>> collapse(final long fromEpochMinute, final long toEpochMinute) {
+        final Map<String, Long> merged = new HashMap<>();
+        for (final Bucket bucket : buckets) {
+            if (bucket.minute >= fromEpochMinute && bucket.minute <= toEpochMinute) {
+                bucket.weights.forEach((stack, weight) -> merged.merge(stack, weight, Long::sum));
+            }
+        }
+
+        final List<Map.Entry<String, Long>> stacks = new ArrayList<>(merged.entrySet());
+        stacks.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return stacks;
+    }
+
+    public synchronized void clear() {
+        for (final Bucket bucket : buckets) {
+            bucket.minute = Long.MIN_VALUE;
+            bucket.weights.clear();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.sample.bookingservice.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Nightly rates per room type over a horizon of days, kept as prefix sums: the total of any stay is the difference of
+ * two entries, however many nights it has. A second prefix array counts the nights without a rate, a stay holding one
+ * has no total. Rooms are mapped to their type by id, so a room's total needs no lookup by name.
+ * <p>
+ * Filled with {@link #setRate} and {@link #setRoomType}, then {@link #complete()} turns the rates into sums and the
+ * table is only read. It is replaced rather than updated.
+ */
+public class DailyRateTable {
+
+    public static final long UNPRICED = -1;
+
+    private final long baseDay;
+    private final int days;
+    private final Map<String, Integer> typeIds = new HashMap<>();
+    // per type id, the nightly rates until complete(), then the sum of the rates of the nights before each day
+    private final List<long[]> sums = new ArrayList<>();
+    // per type id, the number of nights without a rate before each day
+    private final List<int[]> unpriced = new ArrayList<>();
+    // type id + 1 per room id, 0 for a room without a type
+    private int[] roomTypes = new int[0];
+    private int lastRoomId = -1;
+    private boolean complete;
+
+    public DailyRateTable(final long baseDay, final int days) {
+        this.baseDay = baseDay;
+        this.days = days;
+    }
+
+    // rates in the smallest currency unit, nights outside the horizon are ignored
+    public void setRate(final String roomType, final long day, final long rate) {
+        checkNotComplete();
+        if (rate < 0) {
+            throw new IllegalArgumentException("Rate can't be negative: " + rate);
+        }
+        if (day >= baseDay && day < baseDay + days) {
+            sums.get(typeId(roomType))[(int) (day - baseDay)] = rate;
+        }
+    }
+
+    public void setRoomType(final int roomId, final String roomType) {
+        checkNotComplete();
+        if (roomId >= roomTypes.length) {
+            roomTypes = Arrays.copyOf(roomTypes, Math.max(roomId + 1, roomTypes.length * 2));
+        }
+        roomTypes[roomId] = typeId(roomType) + 1;
+        lastRoomId = Math.max(lastRoomId, roomId);
+    }
+
+    public void complete() {
+        for (int type = 0; type < sums.size(); type++) {
+            final long[] rates = sums.get(type);
+            final int[] gaps = unpriced.get(type);
+            long sum = 0;
+            int gap = 0;
+            for (int day = 0; day < days; day++) {
+                final long rate = rates[day];
+                rates[day] = sum;
+                gaps[day] = gap;
+                if (rate == UNPRICED) {
+                    gap++;
+                } else {
+                    sum += rate;
+                }
+            }
+            rates[days] = sum;
+            gaps[days] = gap;
+        }
+        complete = true;
+    }
+
+    /**
+     * @return total of the nights in [fromDay, toDay) for the room, {@link #UNPRICED} when the room has no type or a
+     * night has no rate
+     */
+    public long total(final int roomId, final long fromDay, final long toDay) {
+        if (roomId < 0 || roomId >= roomTypes.length || roomTypes[roomId] == 0) {
+            return UNPRICED;
+        }
+        return totalOfType(roomTypes[roomId] - 1, fromDay, toDay);
+    }
+
+    public long total(final String roomType, final long fromDay, final long toDay) {
+        final Integer type = roomType == null ? null : typeIds.get(normalize(roomType));
+        return type == null ? UNPRICED : totalOfType(type, fromDay, toDay);
+    }
+
+    // highest room id with a type, -1 without any: rooms above it were typed after the table was filled
+    public int getLastRoomId() {
+        return lastRoomId;
+    }
+
+    private long totalOfType(final int type, final long fromDay, final long toDay) {
+        if (!complete) {
+            throw new IllegalStateException("Rate table is not complete yet");
+        }
+        if (fromDay >= toDay || fromDay < baseDay || toDay > baseDay + days) {
+            return UNPRICED;
+        }
+
+        final int from = (int) (fromDay - baseDay);
+        final int to = (int) (toDay - baseDay);
+        final int[] gaps = unpriced.get(type);
+        if (gaps[to] != gaps[from]) {
+            return UNPRICED;
+        }
+        final long[] totals = sums.get(type);
+        return totals[to] - totals[from];
+    }
+
+    private int typeId(final String roomType) {
+        return typeIds.computeIfAbsent(normalize(roomType), key -> {
+            final long[] rates = new long[days + 1];
+            Arrays.fill(rates, UNPRICED);
+            sums.add(rates);
+            unpriced.add(new int[days + 1]);
+            return sums.size() - 1;
+        });
+    }
+
+    private void checkNotComplete() {
+        if (complete) {
+            throw new IllegalStateException("Rate table is complete");
+        }
+    }
+
+    private static String normalize(final String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
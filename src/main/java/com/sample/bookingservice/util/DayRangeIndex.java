@@ -0,0 +1,51 @@
+package com.sample.bookingservice.util;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Subscribers keyed by epoch day: each one is registered under every day of its [from, to) window, so finding the
+ * subscribers a date range touches costs one lookup per day of the range, however many subscribers there are.
+ * Meant for short windows, registration is linear in their length. Thread-safe.
+ */
+public class DayRangeIndex<T> {
+
+    private final ConcurrentHashMap<Long, Set<T>> days = new ConcurrentHashMap<>();
+
+    // compute keeps adding to a day atomic with removing its last subscriber
+    public void add(final long fromDay, final long toDay, final T subscriber) {
+        for (long day = fromDay; day < toDay; day++) {
+            days.compute(day, (key, subscribers) -> {
+                final Set<T> daySubscribers = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+                daySubscribers.add(subscriber);
+                return daySubscribers;
+            });
+        }
+    }
+
+    public void remove(final long fromDay, final long toDay, final T subscriber) {
+        for (long day = fromDay; day < toDay; day++) {
+            days.computeIfPresent(day, (key, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+
+    // subscribers whose window shares at least one day with [fromDay, toDay)
+    public Set<T> find(final long fromDay, final long toDay) {
+        final Set<T> found = new HashSet<>();
+        for (long day = fromDay; day < toDay; day++) {
+            final Set<T> subscribers = days.get(day);
+            if (subscribers != null) {
+                found.addAll(subscribers);
+            }
+        }
+        return found;
+    }
+
+    public int dayCount() {
+        return days.size();
+    }
+}
@@ -0,0 +1,142 @@
+package com.sample.bookingservice.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sample.bookingservice.dto.MakeReservationDto;
+import com.sample.bookingservice.service.ReservationImportRejection;
+import com.sample.bookingservice.service.ReservationImportRow;
+import jakarta.validation.ValidationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Reads reservations from a CSV or newline delimited JSON stream one line at a time, so only the current line is held
+ * in memory. Lines that can't be parsed are handed to the rejection consumer and skipped, blank lines are ignored.
+ * <p>
+ * CSV needs a header naming the {@code roomId}, {@code startDate} and {@code endDate} columns, in any order and next
+ * to other columns. JSON lines carry the fields of a booking request, other fields are ignored.
+ */
+public class ReservationImportReader {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectReader jsonReader;
+    private final Consumer<ReservationImportRejection> rejections;
+
+    private long line;
+    private int roomIdColumn = -1;
+    private int startDateColumn = -1;
+    private int endDateColumn = -1;
+    private int columns;
+
+    /**
+     * @param jsonReader reads a {@link MakeReservationDto} from a line, only used for {@link Format#NDJSON}
+     */
+    public ReservationImportReader(final InputStream inputStream, final Format format, final ObjectReader jsonReader,
+                                   final Consumer<ReservationImportRejection> rejections) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.format = format;
+        this.jsonReader = jsonReader.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.rejections = rejections;
+    }
+
+    /**
+     * @return the next parsed row or null at the end of the stream
+     * @throws ValidationException if the CSV header doesn't name the required columns
+     */
+    public ReservationImportRow next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+
+            if (format == Format.NDJSON) {
+                final ReservationImportRow row = parseJson(text);
+                if (row != null) {
+                    return row;
+                }
+            } else if (columns == 0) {
+                readHeader(text);
+            } else {
+                final ReservationImportRow row = parseCsv(text);
+                if (row != null) {
+                    return row;
+                }
+            }
+        }
+        return null;
+    }
+
+    private ReservationImportRow parseJson(final String text) {
+        try {
+            final MakeReservationDto reservation = jsonReader.readValue(text);
+            return new ReservationImportRow(line, reservation.getRoomId(), reservation.getStartDate(),
+                    reservation.getEndDate());
+        } catch (JsonProcessingException e) {
+            reject("Unable to parse line: " + e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private void readHeader(final String text) {
+        final String[] names = text.split(",", -1);
+        for (int column = 0; column < names.length; column++) {
+            switch (unquote(names[column]).toLowerCase(Locale.ROOT)) {
+                case "roomid" -> roomIdColumn = column;
+                case "startdate" -> startDateColumn = column;
+                case "enddate" -> endDateColumn = column;
+                default -> {
+                    // other columns are carried along and ignored
+                }
+            }
+        }
+
+        if (roomIdColumn < 0 || startDateColumn < 0 || endDateColumn < 0) {
+            throw new ValidationException("CSV header has to name the roomId, startDate and endDate columns");
+        }
+        columns = names.length;
+    }
+
+    private ReservationImportRow parseCsv(final String text) {
+        final String[] values = text.split(",", -1);
+        if (values.length != columns) {
+            reject("Expected " + columns + " columns but found " + values.length);
+            return null;
+        }
+
+        try {
+            return new ReservationImportRow(line,
+                    Integer.valueOf(unquote(values[roomIdColumn])),
+                    LocalDate.parse(unquote(values[startDateColumn])),
+                    LocalDate.parse(unquote(values[endDateColumn])));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            reject("Unable to parse line: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void reject(final String reason) {
+        rejections.accept(new ReservationImportRejection(line, reason));
+    }
+
+    private static String unquote(final String value) {
+        final String trimmed = value.trim();
+        return trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")
+                ? trimmed.substring(1, trimmed.length() - 1).trim() : trimmed;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sample.bookingservice.util;
+
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.service.RoomFilter;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One bitmap of room ids per attribute value. A filter is the intersection of the bitmaps of its values, a word of
+ * 64 rooms per operation, so every added filter shrinks the candidates an availability check has to look at.
+ * Built once with {@link #add(Room)} and then only read, it is replaced rather than updated.
+ */
+public class RoomAttributeIndex {
+
+    private final BitSet rooms = new BitSet();
+    private final Map<String, BitSet> roomTypes = new HashMap<>();
+    // by exact capacity, a minimum capacity is the union of the capacities from it up
+    private final TreeMap<Integer, BitSet> capacities = new TreeMap<>();
+    private final Map<Integer, BitSet> floors = new HashMap<>();
+    private final Map<String, BitSet> amenities = new HashMap<>();
+
+    public void add(final Room room) {
+        final int roomId = room.getRoomId();
+        rooms.set(roomId);
+        if (room.getRoomType() != null) {
+            roomTypes.computeIfAbsent(normalize(room.getRoomType()), key -> new BitSet()).set(roomId);
+        }
+        if (room.getCapacity() != null) {
+            capacities.computeIfAbsent(room.getCapacity(), key -> new BitSet()).set(roomId);
+        }
+        if (room.getFloor() != null) {
+            floors.computeIfAbsent(room.getFloor(), key -> new BitSet()).set(roomId);
+        }
+        if (room.getAmenities() != null) {
+            for (final String amenity : room.getAmenities()) {
+                amenities.computeIfAbsent(normalize(amenity), key -> new BitSet()).set(roomId);
+            }
+        }
+    }
+
+    // a new bitmap the caller may change
+    public BitSet match(final RoomFilter filter) {
+        final BitSet matched = (BitSet) rooms.clone();
+        if (filter.roomType() != null) {
+            intersect(matched, roomTypes.get(normalize(filter.roomType())));
+        }
+        if (filter.floor() != null) {
+            intersect(matched, floors.get(filter.floor()));
+        }
+        for (final String amenity : filter.amenities()) {
+            intersect(matched, amenities.get(normalize(amenity)));
+        }
+        if (filter.minCapacity() != null && !matched.isEmpty()) {
+            final BitSet large = new BitSet();
+            capacities.tailMap(filter.minCapacity(), true).values().forEach(large::or);
+            matched.and(large);
+        }
+        return matched;
+    }
+
+    public int size() {
+        return rooms.cardinality();
+    }
+
+    private static void intersect(final BitSet matched, final BitSet value) {
+        if (value == null) {
+            matched.clear();
+        } else {
+            matched.and(value);
+        }
+    }
+
+    private static String normalize(final String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
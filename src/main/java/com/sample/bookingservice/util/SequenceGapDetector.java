@@ -0,0 +1,81 @@
+package com.sample.bookingservice.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Tracks the sequence numbers received from each sender and reports lost ones.
+ * Senders number messages when their transaction writes them, but deliver them in commit order,
+ * so a missing number is only a gap once it hasn't shown up for {@code gapTimeoutMillis}.
+ * A sender's first message sets its starting point, nothing before it is expected.
+ * <p>
+ * Not thread safe, meant to be owned by the single listener thread.
+ */
+public class SequenceGapDetector {
+
+    private final long gapTimeoutMillis;
+    private final int maxMissing;
+    private final Map<String, Sender> senders = new HashMap<>();
+
+    private static final class Sender {
+        private long highest;
+        // missing sequence -> when it was first missed
+        private final NavigableMap<Long, Long> missing = new TreeMap<>();
+    }
+
+    public SequenceGapDetector(final long gapTimeoutMillis, final int maxMissing) {
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.maxMissing = maxMissing;
+    }
+
+    /**
+     * @return false when so many messages are missing from the sender that waiting for them is pointless
+     */
+    public boolean received(final String senderId, final long sequence, final long nowMillis) {
+        final Sender sender = senders.get(senderId);
+        if (sender == null) {
+            final Sender first = new Sender();
+            first.highest = sequence;
+            senders.put(senderId, first);
+            return true;
+        }
+
+        if (sequence <= sender.highest) {
+            sender.missing.remove(sequence);
+            return true;
+        }
+
+        if (sequence - sender.highest - 1 + sender.missing.size() > maxMissing) {
+            sender.highest = sequence;
+            sender.missing.clear();
+            return false;
+        }
+
+        for (long skipped = sender.highest + 1; skipped < sequence; skipped++) {
+            sender.missing.put(skipped, nowMillis);
+        }
+        sender.highest = sequence;
+        return true;
+    }
+
+    /**
+     * @return whether any sender has a message missing for longer than the timeout, those are forgotten
+     */
+    public boolean hasExpiredGaps(final long nowMillis) {
+        boolean expired = false;
+        for (final Sender sender : senders.values()) {
+            if (sender.missing.values().stream().anyMatch(missedAt -> nowMillis - missedAt >= gapTimeoutMillis)) {
+                sender.missing.clear();
+                expired = true;
+            }
+        }
+        return expired;
+    }
+
+    // after a resync everything sent so far is accounted for
+    public void reset() {
+        senders.clear();
+    }
+}
@@ -0,0 +1,97 @@
+package com.sample.bookingservice.util;
+
+import java.util.Locale;
+
+/**
+ * Time spent by one request in each layer, bound to the request's thread while it is handled. Layers nest
+ * (the controller calls the facade, which calls the service...), each one is charged only its own time so the
+ * layers add up to the request total.
+ */
+public final class ServerTimings {
+
+    public enum Layer {
+        CONTROLLER, FACADE, SERVICE, REPOSITORY, SERIALIZATION
+    }
+
+    private static final ThreadLocal<ServerTimings> CURRENT = new ThreadLocal<>();
+    private static final int MAX_DEPTH = 32;
+
+    private final long startedAt = System.nanoTime();
+    private final long[] selfNanos = new long[Layer.values().length];
+    private final int[] calls = new int[Layer.values().length];
+    private final long[] childNanos = new long[MAX_DEPTH];
+    private int depth;
+    private long handledAt;
+
+    public static ServerTimings start() {
+        final ServerTimings timings = new ServerTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    // null unless the request on this thread is sampled
+    public static ServerTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the start time to hand back to {@link #exit(Layer, long)}
+     */
+    public long enter() {
+        if (depth < MAX_DEPTH) {
+            childNanos[depth] = 0;
+        }
+        depth++;
+        return System.nanoTime();
+    }
+
+    public void exit(final Layer layer, final long enteredAt) {
+        final long now = System.nanoTime();
+        final long elapsed = now - enteredAt;
+        depth--;
+
+        final long children = depth < MAX_DEPTH ? childNanos[depth] : 0;
+        selfNanos[layer.ordinal()] += elapsed - children;
+        calls[layer.ordinal()]++;
+        if (depth > 0 && depth <= MAX_DEPTH) {
+            childNanos[depth - 1] += elapsed;
+        }
+        if (depth == 0) {
+            handledAt = now;
+        }
+    }
+
+    /**
+     * Charges everything since the handler returned to serialization and renders the {@code Server-Timing} header.
+     */
+    public String toHeader() {
+        final long now = System.nanoTime();
+        if (handledAt > 0) {
+            selfNanos[Layer.SERIALIZATION.ordinal()] += now - handledAt;
+            calls[Layer.SERIALIZATION.ordinal()]++;
+            handledAt = 0;
+        }
+
+        final StringBuilder header = new StringBuilder(160);
+        for (final Layer layer : Layer.values()) {
+            if (calls[layer.ordinal()] == 0) {
+                continue;
+            }
+            append(header, layer.name().toLowerCase(Locale.ROOT), selfNanos[layer.ordinal()]);
+            if (layer == Layer.REPOSITORY) {
+                header.append(";desc=\"").append(calls[layer.ordinal()]).append(" calls\"");
+            }
+            header.append(", ");
+        }
+        append(header, "total", now - startedAt);
+        return header.toString();
+    }
+
+    private static void append(final StringBuilder header, final String name, final long nanos) {
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0));
+    }
+}
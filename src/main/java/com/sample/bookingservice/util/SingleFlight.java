@@ -0,0 +1,61 @@
+package com.sample.bookingservice.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls with the same key onto a single execution.
+ * The first caller runs the supplier, callers arriving while it is in flight wait for
+ * and share its result (or its exception). Nothing is kept once the call completes.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder sharedCalls = new LongAdder();
+
+    public V execute(final K key, final Supplier<V> supplier) {
+        final CompletableFuture<V> call = new CompletableFuture<>();
+        final CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+
+        if (inFlight != null) {
+            sharedCalls.increment();
+            return await(inFlight);
+        }
+
+        try {
+            final V value = supplier.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * @return number of calls that were served by another caller's execution
+     */
+    public long getSharedCalls() {
+        return sharedCalls.sum();
+    }
+
+    private V await(final CompletableFuture<V> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
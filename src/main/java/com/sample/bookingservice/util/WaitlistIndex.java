@@ -0,0 +1,82 @@
+package com.sample.bookingservice.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Waiting entries per room, ordered by start day. An entry overlapping [fromDay, toDay) starts before toDay and at
+ * most the longest stay held before fromDay, so finding the entries a freed range can serve costs O(log n) plus the
+ * entries in that start window, and adding or removing one costs O(log n). Thread-safe.
+ */
+public class WaitlistIndex {
+
+    private static final Comparator<Entry> BY_START_DAY =
+            Comparator.comparingLong(Entry::startDay).thenComparingLong(Entry::entryId);
+
+    private final Map<Integer, TreeSet<Entry>> rooms = new HashMap<>();
+    private long longestStay;
+    private int size;
+
+    public record Entry(long entryId, int roomId, long startDay, long endDay) {
+    }
+
+    public synchronized void add(final Entry entry) {
+        if (rooms.computeIfAbsent(entry.roomId(), roomId -> new TreeSet<>(BY_START_DAY)).add(entry)) {
+            longestStay = Math.max(longestStay, entry.endDay() - entry.startDay());
+            size++;
+        }
+    }
+
+    public synchronized boolean remove(final Entry entry) {
+        final TreeSet<Entry> entries = rooms.get(entry.roomId());
+        if (entries == null || !entries.remove(entry)) {
+            return false;
+        }
+
+        if (entries.isEmpty()) {
+            rooms.remove(entry.roomId());
+        }
+        size--;
+        return true;
+    }
+
+    // entries of the room sharing at least one day with [fromDay, toDay), oldest first
+    public synchronized List<Entry> find(final int roomId, final long fromDay, final long toDay) {
+        final TreeSet<Entry> entries = rooms.get(roomId);
+        if (entries == null) {
+            return List.of();
+        }
+
+        final List<Entry> found = new ArrayList<>();
+        for (final Entry entry : entries.subSet(new Entry(Long.MIN_VALUE, roomId, fromDay - longestStay, 0), true,
+                new Entry(Long.MIN_VALUE, roomId, toDay, 0), false)) {
+            if (entry.endDay() > fromDay) {
+                found.add(entry);
+            }
+        }
+        found.sort(Comparator.comparingLong(Entry::entryId));
+        return found;
+    }
+
+    // removes and returns the entries starting before the day, they can't be booked anymore
+    public synchronized List<Entry> removeStartingBefore(final long day) {
+        final List<Entry> removed = new ArrayList<>();
+        for (final TreeSet<Entry> entries : rooms.values()) {
+            final NavigableSet<Entry> past = entries.headSet(new Entry(Long.MIN_VALUE, 0, day, 0), false);
+            removed.addAll(past);
+            past.clear();
+        }
+        rooms.values().removeIf(TreeSet::isEmpty);
+        size -= removed.size();
+        return removed;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
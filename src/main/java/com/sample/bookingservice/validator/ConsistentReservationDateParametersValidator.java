@@ -1,5 +1,7 @@
 package com.sample.bookingservice.validator;
 
+import com.sample.bookingservice.jfr.BookingEvent;
+import com.sample.bookingservice.jfr.BookingStageEvent;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import jakarta.validation.constraintvalidation.SupportedValidationTarget;
@@ -42,6 +44,17 @@ public class ConsistentReservationDateParametersValidator implements
 
         final LocalDate startDate = (LocalDate) value[0];
         final LocalDate endDate = (LocalDate) value[1];
+
+        // the validated method isn't known here, the room id is when it follows the dates
+        final BookingStageEvent validation = BookingStageEvent.start(null, BookingStageEvent.VALIDATION);
+        final boolean valid = isValid(startDate, endDate, context);
+        validation.end(value.length > 2 && value[2] instanceof Integer roomId ? roomId : null, startDate, endDate,
+                valid ? BookingEvent.VALID : BookingEvent.INVALID);
+
+        return valid;
+    }
+
+    private boolean isValid(final LocalDate startDate, final LocalDate endDate, final ConstraintValidatorContext context) {
         final LocalDate now = LocalDate.now();
 
         // startDate after endDate
@@ -14,3 +14,78 @@ CREATE TABLE reservations
     created_at     DATE,
     FOREIGN KEY (room_id) REFERENCES rooms (room_id) ON DELETE SET NULL
 );
+
+-- searchable attributes, all optional. Searches filter them in memory through bitmaps of room ids per value, so
+-- they are not indexed here
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS room_type VARCHAR(40);
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS capacity INTEGER;
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS floor INTEGER;
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS amenities VARCHAR(40)[];
+
+-- conflict checks only look at confirmed reservations of one room, end_date is carried for index-only scans
+CREATE INDEX reservations_confirmed_room_dates_idx ON reservations (room_id, start_date) INCLUDE (end_date)
+    WHERE status = 1;
+
+CREATE TABLE idempotency_keys
+(
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    reservation_id  BIGINT    NOT NULL,
+    created_at      TIMESTAMP NOT NULL,
+    FOREIGN KEY (reservation_id) REFERENCES reservations (reservation_id) ON DELETE CASCADE
+);
+
+CREATE TABLE outbox_events
+(
+    event_id       BIGINT PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY,
+    reservation_id BIGINT      NOT NULL,
+    room_id        INTEGER     NOT NULL,
+    event_type     VARCHAR(20) NOT NULL,
+    start_date     DATE        NOT NULL,
+    end_date       DATE        NOT NULL,
+    created_at     TIMESTAMP   NOT NULL
+);
+
+-- exports scan reservations by start date, which follows insertion order closely enough for a block range index
+CREATE INDEX reservations_start_date_brin_idx ON reservations USING brin (start_date);
+
+-- committed bookings and cancellations in commit order, copied from the outbox by the relay, which one node runs at a
+-- time. Delta sync clients read it by sequence through the primary key
+CREATE TABLE availability_changes
+(
+    change_seq     BIGINT PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY,
+    reservation_id BIGINT      NOT NULL,
+    room_id        INTEGER     NOT NULL,
+    change_type    VARCHAR(20) NOT NULL,
+    start_date     DATE        NOT NULL,
+    end_date       DATE        NOT NULL,
+    created_at     TIMESTAMP   NOT NULL
+);
+
+-- reservation reads by room walk this index in keyset order, (start_date, reservation_id) after the last page
+CREATE INDEX reservations_room_start_idx ON reservations (room_id, start_date, reservation_id);
+
+-- requests for booked dates waiting for a cancellation. The waiting ones are held in memory per room and only read
+-- from here on start, promoted entries keep the id of the reservation they became
+CREATE TABLE waitlist_entries
+(
+    entry_id       BIGINT PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY,
+    room_id        INTEGER     NOT NULL,
+    status         VARCHAR(20) NOT NULL,
+    start_date     DATE        NOT NULL,
+    end_date       DATE        NOT NULL,
+    reservation_id BIGINT,
+    created_at     TIMESTAMP   NOT NULL,
+    FOREIGN KEY (room_id) REFERENCES rooms (room_id) ON DELETE CASCADE
+);
+
+CREATE INDEX waitlist_entries_waiting_idx ON waitlist_entries (start_date) WHERE status = 'WAITING';
+
+-- nightly rates per room type, ignoring case. They are held in memory as prefix sums over the booking horizon and only
+-- read from here on start and on an interval, a night without a rate leaves the stays holding it without a price
+CREATE TABLE room_type_rates
+(
+    room_type VARCHAR(40)    NOT NULL,
+    stay_date DATE           NOT NULL,
+    rate      NUMERIC(10, 2) NOT NULL,
+    PRIMARY KEY (room_type, stay_date)
+);
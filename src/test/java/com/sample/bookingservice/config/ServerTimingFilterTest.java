@@ -0,0 +1,83 @@
+package com.sample.bookingservice.config;
+
+import com.sample.bookingservice.controller.RoomController;
+import com.sample.bookingservice.dto.RoomDto;
+import com.sample.bookingservice.facade.RoomFacade;
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.service.AvailabilityVersionService;
+import com.sample.bookingservice.util.ServerTimings;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = RoomController.class, properties = "server-timing.sample.rate=1")
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import(ServerTimingAspect.class)
+class ServerTimingFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RoomFacade roomFacade;
+
+    @MockBean
+    private AvailabilityVersionService availabilityVersionService;
+
+    @Test
+    void shouldBreakDownSampledRequestByLayer() throws Exception {
+        final RoomDto room = new RoomDto();
+        room.setRoomId(1);
+        room.setRoomNumber("101");
+        when(roomFacade.getAvailableRooms(any(), any(), any(), any())).thenReturn(List.of(room));
+
+        mockMvc.perform(get("/rooms")
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().plusDays(2).toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING, allOf(
+                        containsString("controller;dur="),
+                        containsString("serialization;dur="),
+                        containsString("total;dur="))));
+    }
+
+    @Test
+    void shouldTimeInheritedRepositoryMethods() {
+        final RoomRepository roomRepository = mock(RoomRepository.class);
+        when(roomRepository.findById(1)).thenReturn(Optional.of(new Room()));
+        final AspectJProxyFactory factory = new AspectJProxyFactory(roomRepository);
+        factory.addAspect(new ServerTimingAspect());
+        final RoomRepository proxy = factory.getProxy();
+
+        final ServerTimings timings = ServerTimings.start();
+        try {
+            proxy.findById(1);
+        } finally {
+            ServerTimings.clear();
+        }
+
+        final String header = timings.toHeader();
+        assertTrue(header.contains("repository;dur=") && header.contains("\"1 calls\""), header);
+    }
+}
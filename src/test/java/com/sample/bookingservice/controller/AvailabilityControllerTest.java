@@ -0,0 +1,73 @@
+package com.sample.bookingservice.controller;
+
+import com.sample.bookingservice.dto.AvailabilityChangeDto;
+import com.sample.bookingservice.dto.AvailabilityChangesDto;
+import com.sample.bookingservice.facade.AvailabilityFacade;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AvailabilityController.class)
+class AvailabilityControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AvailabilityFacade availabilityFacade;
+
+    @Test
+    void shouldReturnChangesSinceSequence() throws Exception {
+        final LocalDate startDate = LocalDate.now().plusDays(3);
+        final AvailabilityChangeDto change = new AvailabilityChangeDto();
+        change.setSequence(43L);
+        change.setRoomId(7);
+        change.setStartDate(startDate);
+        change.setEndDate(startDate.plusDays(2));
+        change.setChange(AvailabilityChangeDto.Change.FREED);
+        final AvailabilityChangesDto changes = new AvailabilityChangesDto();
+        changes.setChanges(List.of(change));
+        changes.setNext(43);
+
+        when(availabilityFacade.getChanges(42, 1000)).thenReturn(changes);
+
+        this.mockMvc.perform(get("/availability/changes").param("since", "42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].sequence", is(43)))
+                .andExpect(jsonPath("$.changes[0].roomId", is(7)))
+                .andExpect(jsonPath("$.changes[0].startDate", is(startDate.toString())))
+                .andExpect(jsonPath("$.changes[0].endDate", is(startDate.plusDays(2).toString())))
+                .andExpect(jsonPath("$.changes[0].change", is("FREED")))
+                .andExpect(jsonPath("$.next", is(43)))
+                .andExpect(jsonPath("$.more", is(false)))
+                .andExpect(jsonPath("$.resync", is(false)));
+    }
+
+    @Test
+    void shouldRejectNegativeSequence() throws Exception {
+        this.mockMvc.perform(get("/availability/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(availabilityFacade);
+    }
+
+    @Test
+    void shouldRejectTooLargeLimit() throws Exception {
+        this.mockMvc.perform(get("/availability/changes").param("since", "0").param("limit", "10001"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(availabilityFacade);
+    }
+}
@@ -1,26 +1,59 @@
 package com.sample.bookingservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.bookingservice.config.ConcurrencyLimitInterceptor;
+import com.sample.bookingservice.dto.CancelReservationsDto;
+import com.sample.bookingservice.dto.DateRangeDto;
 import com.sample.bookingservice.dto.MakeReservationDto;
+import com.sample.bookingservice.dto.ModifyReservationDto;
+import com.sample.bookingservice.dto.ReservationConflictDto;
 import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.dto.ReservationImportReportDto;
+import com.sample.bookingservice.dto.RoomDto;
+import com.sample.bookingservice.exception.ReservationNotFoundException;
+import com.sample.bookingservice.exception.RoomAlreadyBookedException;
 import com.sample.bookingservice.facade.ReservationFacade;
+import com.sample.bookingservice.facade.ReservationImportFacade;
 import com.sample.bookingservice.model.ReservationStatus;
 import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.service.ReservationImportRejection;
+import com.sample.bookingservice.service.ReservationService;
+import com.sample.bookingservice.util.AdaptiveConcurrencyLimiter;
+import com.sample.bookingservice.util.ReservationImportReader;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ReservationController.class)
@@ -32,9 +65,15 @@ class ReservationControllerTest {
     @MockBean
     private ReservationFacade reservationFacade;
 
+    @MockBean
+    private ReservationImportFacade reservationImportFacade;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
     @Test
     public void shouldReturnNoContentWhenReservationIsCancelled() throws Exception {
         final int reservationId = 1;
@@ -65,7 +104,8 @@ class ReservationControllerTest {
         reservationDto.setRoom(room);
 
 
-        when(reservationFacade.makeReservation(startDate, endDate, room.getRoomId())).thenReturn(reservationDto);
+        when(reservationFacade.makeReservation(eq(startDate), eq(endDate), eq(room.getRoomId()), isNull()))
+                .thenReturn(reservationDto);
 
         this.mockMvc.perform(post("/reservations")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -79,6 +119,333 @@ class ReservationControllerTest {
                 .andExpect(jsonPath("$.room.roomId", is(room.getRoomId())));
     }
 
+    @Test
+    public void shouldPassIdempotencyKeyToFacade() throws Exception {
+        final Room room = new Room();
+        room.setRoomId(1);
+        room.setRoomNumber("room");
+
+        final MakeReservationDto dto = new MakeReservationDto();
+        final LocalDate startDate = LocalDate.now();
+        final LocalDate endDate = LocalDate.now().plusDays(5);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setRoomId(room.getRoomId());
+
+        final ReservationDto reservationDto = new ReservationDto();
+        reservationDto.setStartDate(startDate);
+        reservationDto.setEndDate(endDate);
+        reservationDto.setReservationId(7L);
+        reservationDto.setStatus(ReservationStatus.CONFIRMED);
+        reservationDto.setRoom(room);
+
+        when(reservationFacade.makeReservation(startDate, endDate, room.getRoomId(), "retry-key"))
+                .thenReturn(reservationDto);
+
+        this.mockMvc.perform(post("/reservations")
+                        .header(ReservationController.IDEMPOTENCY_KEY_HEADER, "retry-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/reservations/7"))
+                .andExpect(jsonPath("$.reservationId", is(7)));
+    }
+
+    @Test
+    public void shouldOfferAlternativesWhenRoomIsAlreadyBooked() throws Exception {
+        final MakeReservationDto dto = new MakeReservationDto();
+        final LocalDate startDate = LocalDate.now().plusDays(10);
+        final LocalDate endDate = LocalDate.now().plusDays(12);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setRoomId(1);
+
+        final DateRangeDto dates = new DateRangeDto();
+        dates.setStartDate(startDate.plusDays(2));
+        dates.setEndDate(endDate.plusDays(2));
+        final RoomDto room = new RoomDto();
+        room.setRoomId(2);
+        room.setRoomNumber("2");
+        final ReservationConflictDto conflict = new ReservationConflictDto();
+        conflict.setMessage("The room is already booked for the provided dates");
+        conflict.setAlternativeDates(List.of(dates));
+        conflict.setAlternativeRooms(List.of(room));
+
+        when(reservationFacade.makeReservation(eq(startDate), eq(endDate), eq(1), isNull()))
+                .thenThrow(new RoomAlreadyBookedException(conflict.getMessage(), conflict));
+
+        this.mockMvc.perform(post("/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is(conflict.getMessage())))
+                .andExpect(jsonPath("$.alternativeDates[0].startDate", is(startDate.plusDays(2).toString())))
+                .andExpect(jsonPath("$.alternativeDates[0].endDate", is(endDate.plusDays(2).toString())))
+                .andExpect(jsonPath("$.alternativeRooms[0].roomId", is(2)))
+                .andExpect(jsonPath("$.alternativeRooms[0].roomNumber", is("2")));
+    }
+
+    @Test
+    public void shouldThrowErrorWhenIdempotencyKeyIsTooLong() throws Exception {
+        final MakeReservationDto dto = new MakeReservationDto();
+        dto.setStartDate(LocalDate.now());
+        dto.setEndDate(LocalDate.now().plusDays(5));
+        dto.setRoomId(1);
+
+        this.mockMvc.perform(post("/reservations")
+                        .header(ReservationController.IDEMPOTENCY_KEY_HEADER, "k".repeat(256))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldModifyReservation() throws Exception {
+        final ModifyReservationDto dto = new ModifyReservationDto();
+        dto.setStartDate(LocalDate.now().plusDays(4));
+        dto.setEndDate(LocalDate.now().plusDays(6));
+        final ReservationDto reservationDto = new ReservationDto();
+        reservationDto.setReservationId(3L);
+        reservationDto.setStartDate(dto.getStartDate());
+        reservationDto.setEndDate(dto.getEndDate());
+        when(reservationFacade.modifyReservation(dto.getStartDate(), dto.getEndDate(), null, 3))
+                .thenReturn(reservationDto);
+
+        this.mockMvc.perform(patch("/reservations/{id}", 3)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservationId", is(3)))
+                .andExpect(jsonPath("$.startDate", is(dto.getStartDate().toString())));
+    }
+
+    @Test
+    public void shouldReturnConflictWhenModifiedDatesAreBooked() throws Exception {
+        final ModifyReservationDto dto = new ModifyReservationDto();
+        dto.setRoomId(2);
+        dto.setStartDate(LocalDate.now().plusDays(4));
+        dto.setEndDate(LocalDate.now().plusDays(6));
+        when(reservationFacade.modifyReservation(dto.getStartDate(), dto.getEndDate(), 2, 3))
+                .thenThrow(new RoomAlreadyBookedException("The room is already booked for the provided dates"));
+
+        this.mockMvc.perform(patch("/reservations/{id}", 3)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void shouldStreamIdsOfCancelledReservations() throws Exception {
+        final CancelReservationsDto dto = new CancelReservationsDto();
+        dto.setRoomIds(Set.of(3, 4));
+        dto.setStartDate(LocalDate.now());
+        dto.setEndDate(LocalDate.now().plusDays(60));
+        when(reservationFacade.cancelReservations(dto.getRoomIds(), dto.getStartDate(), dto.getEndDate()))
+                .thenReturn(List.of(11L, 12L, 15L));
+
+        final MvcResult result = this.mockMvc.perform(post("/reservations/cancellations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("11\n12\n15\n"));
+    }
+
+    @Test
+    public void shouldReleaseConcurrencyPermitOfStreamedCancellations() throws Exception {
+        final CancelReservationsDto dto = new CancelReservationsDto();
+        dto.setRoomIds(Set.of(3));
+        dto.setStartDate(LocalDate.now());
+        dto.setEndDate(LocalDate.now().plusDays(2));
+        when(reservationFacade.cancelReservations(dto.getRoomIds(), dto.getStartDate(), dto.getEndDate()))
+                .thenReturn(List.of(11L));
+        final AdaptiveConcurrencyLimiter limiter = concurrencyLimitInterceptor.getLimiter("cancel");
+
+        // one more than the limit, each would keep a permit if the async dispatch did not give it back
+        final int requests = limiter.getLimit() + 1;
+        for (int i = 0; i < requests; i++) {
+            final MvcResult result = this.mockMvc.perform(post("/reservations/cancellations")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            this.mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk());
+        }
+
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void shouldThrowErrorWhenCancellationRangeIsEmpty() throws Exception {
+        final CancelReservationsDto dto = new CancelReservationsDto();
+        dto.setRoomIds(Set.of(3));
+        dto.setStartDate(LocalDate.now().plusDays(2));
+        dto.setEndDate(LocalDate.now().plusDays(2));
+
+        this.mockMvc.perform(post("/reservations/cancellations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reservationFacade);
+    }
+
+    @Test
+    public void shouldThrowErrorWhenNoRoomIsGivenForCancellation() throws Exception {
+        final CancelReservationsDto dto = new CancelReservationsDto();
+        dto.setRoomIds(Set.of());
+        dto.setStartDate(LocalDate.now());
+        dto.setEndDate(LocalDate.now().plusDays(2));
+
+        this.mockMvc.perform(post("/reservations/cancellations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reservationFacade);
+    }
+
+    @Test
+    public void shouldReturnReservationById() throws Exception {
+        final ReservationDto reservationDto = new ReservationDto();
+        reservationDto.setReservationId(7L);
+        reservationDto.setStatus(ReservationStatus.CONFIRMED);
+        when(reservationFacade.getReservation(7)).thenReturn(reservationDto);
+
+        this.mockMvc.perform(get("/reservations/{id}", 7))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservationId", is(7)))
+                .andExpect(jsonPath("$.status", is("CONFIRMED")));
+    }
+
+    @Test
+    public void shouldReturnNotFoundForUnknownReservation() throws Exception {
+        when(reservationFacade.getReservation(7))
+                .thenThrow(new ReservationNotFoundException("Unable to find reservation with id 7"));
+
+        this.mockMvc.perform(get("/reservations/{id}", 7))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldReturnReservationsByIds() throws Exception {
+        final ReservationDto first = new ReservationDto();
+        first.setReservationId(1L);
+        final ReservationDto third = new ReservationDto();
+        third.setReservationId(3L);
+        when(reservationFacade.getReservations(List.of(1L, 2L, 3L))).thenReturn(List.of(first, third));
+
+        this.mockMvc.perform(get("/reservations").param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[1].reservationId", is(3)));
+    }
+
+    @Test
+    public void shouldThrowErrorWhenTooManyIdsAreRequested() throws Exception {
+        final String ids = LongStream.rangeClosed(1, ReservationService.MAX_LOOKUP_IDS + 1)
+                .mapToObj(Long::toString).collect(Collectors.joining(","));
+
+        this.mockMvc.perform(get("/reservations").param("ids", ids))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reservationFacade);
+    }
+
+    @Test
+    public void shouldStreamExportedReservations() throws Exception {
+        final LocalDate from = LocalDate.of(2024, 1, 1);
+        final LocalDate to = LocalDate.of(2024, 2, 1);
+        final String lines = "{\"reservationId\":1}\n{\"reservationId\":2}\n";
+        when(reservationFacade.exportReservations(eq(from), eq(to), eq(ReservationStatus.CONFIRMED), any()))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(3, OutputStream.class).write(lines.getBytes(StandardCharsets.UTF_8));
+                    return 2L;
+                });
+
+        final MvcResult result = this.mockMvc.perform(get("/reservations/export")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("status", ReservationStatus.CONFIRMED.name()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // the export's own timeout, not the default of every async request
+        assertEquals(3600000, result.getRequest().getAsyncContext().getTimeout());
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reservations-2024-01-01-2024-02-01.ndjson\""))
+                .andExpect(content().string(lines));
+    }
+
+    @Test
+    public void shouldThrowErrorWhenExportRangeIsEmpty() throws Exception {
+        this.mockMvc.perform(get("/reservations/export")
+                        .param("from", "2024-02-01")
+                        .param("to", "2024-02-01"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reservationFacade);
+    }
+
+    @Test
+    public void shouldThrowErrorWhenExportStatusIsUnknown() throws Exception {
+        this.mockMvc.perform(get("/reservations/export")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-02-01")
+                        .param("status", "BOOKED"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldImportCsvAndReturnReport() throws Exception {
+        final ReservationImportReportDto report = new ReservationImportReportDto();
+        report.setRows(2);
+        report.setAccepted(1);
+        report.setRejected(1);
+        report.setRejections(List.of(new ReservationImportRejection(3, "Unable to find room with id: 99")));
+        when(reservationImportFacade.importReservations(any(), eq(ReservationImportReader.Format.CSV)))
+                .thenReturn(report);
+
+        this.mockMvc.perform(post("/reservations/import")
+                        .contentType(ReservationController.TEXT_CSV_VALUE)
+                        .content("roomId,startDate,endDate\n1,2025-06-01,2025-06-04\n99,2025-06-01,2025-06-04\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(1)))
+                .andExpect(jsonPath("$.rejections[0].line", is(3)))
+                .andExpect(jsonPath("$.rejections[0].reason", is("Unable to find room with id: 99")));
+    }
+
+    @Test
+    public void shouldImportJsonLines() throws Exception {
+        when(reservationImportFacade.importReservations(any(), eq(ReservationImportReader.Format.NDJSON)))
+                .thenReturn(new ReservationImportReportDto());
+
+        this.mockMvc.perform(post("/reservations/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"roomId\":1,\"startDate\":\"2025-06-01\",\"endDate\":\"2025-06-04\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rejected", is(0)));
+    }
+
+    @Test
+    public void shouldRefuseImportInOtherFormats() throws Exception {
+        this.mockMvc.perform(post("/reservations/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(reservationImportFacade);
+    }
+
     @Test
     public void shouldThrowErrorWhenMakeReservationDtoIsNull() throws Exception {
         this.mockMvc.perform(post("/reservations")
@@ -1,23 +1,50 @@
 package com.sample.bookingservice.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.sample.bookingservice.config.ConcurrencyLimitInterceptor;
+import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.dto.ReservationPageDto;
 import com.sample.bookingservice.dto.RoomDto;
+import com.sample.bookingservice.dto.RoomQuoteDto;
+import com.sample.bookingservice.exception.RoomRateNotFoundException;
 import com.sample.bookingservice.facade.RoomFacade;
+import com.sample.bookingservice.service.AvailabilityVersionService;
+import com.sample.bookingservice.service.RoomFilter;
+import com.sample.bookingservice.util.AdaptiveConcurrencyLimiter;
+import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(RoomController.class)
@@ -32,6 +59,12 @@ public class RoomControllerTest {
     @MockBean
     private RoomFacade roomFacade;
 
+    @MockBean
+    private AvailabilityVersionService availabilityVersionService;
+
+    @Autowired
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
     @Test
     void shouldReturnAvailableRooms() throws Exception {
         final LocalDate from = LocalDate.now();
@@ -46,7 +79,7 @@ public class RoomControllerTest {
         final List<RoomDto> roomsAvailable = new ArrayList<>(List.of(room1, room2));
         final Pageable pageable = Pageable.ofSize(10);
 
-        when(roomFacade.getAvailableRooms(from, to, pageable)).thenReturn(roomsAvailable);
+        when(roomFacade.getAvailableRooms(from, to, RoomFilter.NONE, pageable)).thenReturn(roomsAvailable);
 
         this.mockMvc.perform(get("/rooms")
                         .param("from", from.toString())
@@ -59,8 +92,196 @@ public class RoomControllerTest {
                 .andExpect(jsonPath("$.content.[0].roomId", is(room1.getRoomId())))
                 .andExpect(jsonPath("$.content.[1].roomId", is(room2.getRoomId())))
                 .andExpect(jsonPath("$.content.[0].roomNumber", is(room1.getRoomNumber())))
-                .andExpect(jsonPath("$.content.[1].roomNumber", is(room2.getRoomNumber())));
+                .andExpect(jsonPath("$.content.[1].roomNumber", is(room2.getRoomNumber())))
+                .andExpect(jsonPath("$.number", is(0)))
+                .andExpect(jsonPath("$.size", is(10)))
+                .andExpect(jsonPath("$.numberOfElements", is(2)));
+
+    }
+
+    @Test
+    void shouldFilterAvailableRoomsByAttributes() throws Exception {
+        final LocalDate from = LocalDate.now();
+        final LocalDate to = LocalDate.now().plusDays(2);
+        final RoomDto room = new RoomDto();
+        room.setRoomId(1);
+        room.setRoomNumber("room1");
+        room.setRoomType("Suite");
+        room.setAmenities(List.of("wifi", "balcony"));
+
+        when(roomFacade.getAvailableRooms(from, to, new RoomFilter("suite", 2, 3, Set.of("wifi", "balcony")),
+                Pageable.ofSize(10))).thenReturn(List.of(room));
+
+        this.mockMvc.perform(get("/rooms")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("type", "suite")
+                        .param("minCapacity", "2")
+                        .param("floor", "3")
+                        .param("amenities", "wifi,balcony"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].roomType", is("Suite")))
+                .andExpect(jsonPath("$.content[0].amenities[1]", is("balcony")));
+    }
+
+    @Test
+    void shouldRejectInvalidCapacityFilter() throws Exception {
+        this.mockMvc.perform(get("/rooms")
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().plusDays(2).toString())
+                        .param("minCapacity", "0"))
+                .andExpect(status().isBadRequest());
 
+        verifyNoInteractions(roomFacade);
+    }
+
+    @Test
+    void shouldSortAvailableRoomsByPrice() throws Exception {
+        final LocalDate from = LocalDate.now();
+        final LocalDate to = LocalDate.now().plusDays(2);
+        final RoomDto room = new RoomDto();
+        room.setRoomId(1);
+        room.setRoomNumber("room1");
+        room.setStayPrice(new BigDecimal("180.00"));
+
+        when(roomFacade.getAvailableRooms(from, to, RoomFilter.NONE,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price")))).thenReturn(List.of(room));
+
+        this.mockMvc.perform(get("/rooms")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("sort", "price,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].stayPrice", is(180.0)));
+    }
+
+    // the service refuses the sorts it can't honour
+    @Test
+    void shouldRejectPriceSortCombinedWithOtherProperties() throws Exception {
+        when(roomFacade.getAvailableRooms(any(), any(), any(), any()))
+                .thenThrow(new ValidationException("'price' can't be combined with other sort properties"));
+
+        this.mockMvc.perform(get("/rooms")
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().plusDays(2).toString())
+                        .param("sort", "price")
+                        .param("sort", "roomNumber"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnQuote() throws Exception {
+        final LocalDate from = LocalDate.now().plusDays(1);
+        final LocalDate to = LocalDate.now().plusDays(4);
+        final RoomQuoteDto quote = new RoomQuoteDto();
+        quote.setRoomId(7);
+        quote.setRoomType("suite");
+        quote.setStartDate(from);
+        quote.setEndDate(to);
+        quote.setNights(3);
+        quote.setTotal(new BigDecimal("600.00"));
+
+        when(roomFacade.getQuote(from, to, 7)).thenReturn(quote);
+
+        this.mockMvc.perform(get("/rooms/7/quote")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomId", is(7)))
+                .andExpect(jsonPath("$.nights", is(3)))
+                .andExpect(jsonPath("$.total", is(600.0)));
+    }
+
+    @Test
+    void shouldReturnNotFoundForQuoteWithoutRate() throws Exception {
+        final LocalDate from = LocalDate.now().plusDays(1);
+        final LocalDate to = LocalDate.now().plusDays(4);
+
+        when(roomFacade.getQuote(from, to, 7)).thenThrow(new RoomRateNotFoundException("No rate"));
+
+        this.mockMvc.perform(get("/rooms/7/quote")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldRejectQuoteLongerThanAllowedDuration() throws Exception {
+        this.mockMvc.perform(get("/rooms/7/quote")
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().plusDays(ALLOWED_RESERVATION_DURATION + 1).toString()))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(roomFacade);
+    }
+
+    @Test
+    void shouldReturnAvailableRoomsAsCbor() throws Exception {
+        final LocalDate from = LocalDate.now();
+        final LocalDate to = LocalDate.now().plusDays(2);
+        final RoomDto room = new RoomDto();
+        room.setRoomId(1);
+        room.setRoomNumber("room1");
+
+        when(roomFacade.getAvailableRooms(from, to, RoomFilter.NONE, Pageable.ofSize(10))).thenReturn(List.of(room));
+
+        final byte[] body = this.mockMvc.perform(get("/rooms")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        final JsonNode page = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals(room.getRoomId(), page.get("content").get(0).get("roomId").asInt());
+        assertEquals(room.getRoomNumber(), page.get("content").get(0).get("roomNumber").asText());
+        assertEquals(1, page.get("numberOfElements").asInt());
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenAvailabilityVersionIsUnchanged() throws Exception {
+        final LocalDate from = LocalDate.now().plusDays(1);
+        final LocalDate to = LocalDate.now().plusDays(3);
+        when(availabilityVersionService.getVersion(from, to)).thenReturn(42L);
+        when(roomFacade.getAvailableRooms(any(), any(), any(), any())).thenReturn(List.of());
+
+        final String etag = this.mockMvc.perform(get("/rooms")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc.perform(get("/rooms")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(roomFacade).getAvailableRooms(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldReturnRoomsWhenAvailabilityVersionChanged() throws Exception {
+        final LocalDate from = LocalDate.now().plusDays(1);
+        final LocalDate to = LocalDate.now().plusDays(3);
+        when(availabilityVersionService.getVersion(from, to)).thenReturn(42L, 43L);
+        when(roomFacade.getAvailableRooms(any(), any(), any(), any())).thenReturn(List.of());
+
+        final String etag = this.mockMvc.perform(get("/rooms")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc.perform(get("/rooms")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
     }
 
     @Test
@@ -166,4 +387,87 @@ public class RoomControllerTest {
                 .andDo(print())
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void shouldShedSearchesOverTheConcurrencyLimit() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = concurrencyLimitInterceptor.getLimiter("search");
+        final int limit = limiter.getLimit();
+        for (int i = 0; i < limit; i++) {
+            limiter.tryAcquire();
+        }
+
+        try {
+            this.mockMvc.perform(get("/rooms")
+                            .param("from", LocalDate.now().toString())
+                            .param("to", LocalDate.now().plusDays(2).toString()))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        } finally {
+            for (int i = 0; i < limit; i++) {
+                limiter.release(0, 0);
+            }
+        }
+    }
+
+    @Test
+    void shouldOpenAvailabilityStream() throws Exception {
+        final LocalDate from = LocalDate.now().plusDays(1);
+        final LocalDate to = LocalDate.now().plusDays(3);
+        when(roomFacade.streamAvailability(from, to)).thenReturn(new SseEmitter());
+
+        this.mockMvc.perform(get("/rooms/stream")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(roomFacade).streamAvailability(from, to);
+    }
+
+    @Test
+    void shouldRejectAvailabilityStreamLongerThanAllowedDuration() throws Exception {
+        this.mockMvc.perform(get("/rooms/stream")
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().plusDays(ALLOWED_RESERVATION_DURATION + 1).toString())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(roomFacade);
+    }
+
+    @Test
+    void shouldReturnRoomReservationsPageWithNextKey() throws Exception {
+        final LocalDate from = LocalDate.of(2024, 1, 1);
+        final LocalDate to = LocalDate.of(2024, 2, 1);
+        final ReservationDto reservation = new ReservationDto();
+        reservation.setReservationId(9L);
+        reservation.setStartDate(from.plusDays(4));
+        final ReservationPageDto page = new ReservationPageDto();
+        page.setContent(List.of(reservation));
+        page.setNextStartDate(reservation.getStartDate());
+        page.setNextReservationId(reservation.getReservationId());
+        when(roomFacade.getRoomReservations(1, from, to, from.plusDays(2), 5L, 1)).thenReturn(page);
+
+        this.mockMvc.perform(get("/rooms/{id}/reservations", 1)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("afterStartDate", from.plusDays(2).toString())
+                        .param("afterId", "5")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].reservationId", is(9)))
+                .andExpect(jsonPath("$.nextStartDate", is("2024-01-05")))
+                .andExpect(jsonPath("$.nextReservationId", is(9)));
+    }
+
+    @Test
+    void shouldRejectRoomReservationsKeyWithoutId() throws Exception {
+        this.mockMvc.perform(get("/rooms/{id}/reservations", 1)
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-02-01")
+                        .param("afterStartDate", "2024-01-05"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(roomFacade);
+    }
 }
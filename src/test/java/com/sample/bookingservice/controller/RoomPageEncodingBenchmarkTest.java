@@ -0,0 +1,69 @@
+package com.sample.bookingservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.bookingservice.dto.PageDto;
+import com.sample.bookingservice.dto.RoomDto;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares bytes on the wire and serialization time of a size=1000 /rooms page:
+ * PageImpl as JSON (previous response), PageDto as JSON and PageDto as CBOR.
+ * Timings are logged only, they depend on the machine running the build.
+ */
+class RoomPageEncodingBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(RoomPageEncodingBenchmarkTest.class);
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 2_000;
+
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+    @Test
+    void shouldEncodeLeanCborPageInFewerBytesThanJson() throws Exception {
+        final List<RoomDto> rooms = new ArrayList<>(PAGE_SIZE);
+        for (int i = 1; i <= PAGE_SIZE; i++) {
+            final RoomDto room = new RoomDto();
+            room.setRoomId(i);
+            room.setRoomNumber("Room " + i);
+            rooms.add(room);
+        }
+        final PageImpl<RoomDto> pageImpl = new PageImpl<>(rooms, PageRequest.of(0, PAGE_SIZE, Sort.by("roomId")), rooms.size());
+        final PageDto<RoomDto> pageDto = PageDto.of(rooms, 0, PAGE_SIZE);
+
+        final int pageImplJsonBytes = measure("PageImpl JSON", jsonMapper, pageImpl);
+        final int pageDtoJsonBytes = measure("PageDto JSON", jsonMapper, pageDto);
+        final int pageDtoCborBytes = measure("PageDto CBOR", cborMapper, pageDto);
+
+        assertTrue(pageDtoJsonBytes < pageImplJsonBytes);
+        assertTrue(pageDtoCborBytes < pageDtoJsonBytes);
+    }
+
+    private int measure(final String name, final ObjectMapper mapper, final Object page) throws Exception {
+        int bytes = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            bytes = mapper.writeValueAsBytes(page).length;
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            bytes = mapper.writeValueAsBytes(page).length;
+        }
+        final long averageNanos = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+        log.info("{}: {} bytes, {} us per page", name, bytes, averageNanos / 1_000);
+        return bytes;
+    }
+}
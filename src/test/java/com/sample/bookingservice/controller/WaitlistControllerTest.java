@@ -0,0 +1,102 @@
+package com.sample.bookingservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.bookingservice.dto.MakeReservationDto;
+import com.sample.bookingservice.dto.WaitlistEntryDto;
+import com.sample.bookingservice.exception.WaitlistEntryNotFoundException;
+import com.sample.bookingservice.facade.WaitlistFacade;
+import com.sample.bookingservice.model.WaitlistStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(WaitlistController.class)
+class WaitlistControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private WaitlistFacade waitlistFacade;
+
+    @Test
+    void shouldEnqueueRequest() throws Exception {
+        final LocalDate startDate = LocalDate.now().plusDays(3);
+        final MakeReservationDto request = new MakeReservationDto();
+        request.setRoomId(7);
+        request.setStartDate(startDate);
+        request.setEndDate(startDate.plusDays(2));
+        final WaitlistEntryDto entry = entry(startDate, WaitlistStatus.WAITING, null);
+
+        when(waitlistFacade.enqueue(startDate, startDate.plusDays(2), 7)).thenReturn(entry);
+
+        this.mockMvc.perform(post("/waitlist").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/waitlist/5"))
+                .andExpect(jsonPath("$.entryId", is(5)))
+                .andExpect(jsonPath("$.status", is("WAITING")));
+    }
+
+    @Test
+    void shouldRejectRequestWithoutRoom() throws Exception {
+        final MakeReservationDto request = new MakeReservationDto();
+        request.setStartDate(LocalDate.now().plusDays(3));
+        request.setEndDate(LocalDate.now().plusDays(5));
+
+        this.mockMvc.perform(post("/waitlist").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(waitlistFacade);
+    }
+
+    @Test
+    void shouldReturnPromotedEntry() throws Exception {
+        final LocalDate startDate = LocalDate.now().plusDays(3);
+        when(waitlistFacade.getEntry(5)).thenReturn(entry(startDate, WaitlistStatus.PROMOTED, 42L));
+
+        this.mockMvc.perform(get("/waitlist/5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("PROMOTED")))
+                .andExpect(jsonPath("$.reservationId", is(42)))
+                .andExpect(jsonPath("$.startDate", is(startDate.toString())));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownEntry() throws Exception {
+        when(waitlistFacade.getEntry(5)).thenThrow(new WaitlistEntryNotFoundException("Unable to find waitlist entry with id 5"));
+
+        this.mockMvc.perform(get("/waitlist/5"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static WaitlistEntryDto entry(final LocalDate startDate, final WaitlistStatus status,
+                                          final Long reservationId) {
+        final WaitlistEntryDto entry = new WaitlistEntryDto();
+        entry.setEntryId(5L);
+        entry.setRoomId(7);
+        entry.setStatus(status);
+        entry.setStartDate(startDate);
+        entry.setEndDate(startDate.plusDays(2));
+        entry.setReservationId(reservationId);
+        return entry;
+    }
+}
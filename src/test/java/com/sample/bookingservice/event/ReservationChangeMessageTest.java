@@ -0,0 +1,44 @@
+package com.sample.bookingservice.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReservationChangeMessageTest {
+
+    @Test
+    void shouldRoundTripThroughCompactPayload() {
+        final ReservationChangeMessage message = new ReservationChangeMessage("3f2a9c1e", 42,
+                new ReservationChangedEvent(9808L, 8807, LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 12),
+                        ReservationChangeType.CANCELLED));
+
+        final String payload = message.encode();
+
+        assertEquals("3f2a9c1e:42:9808:8807:20423:20434:C", payload);
+        assertEquals(message, ReservationChangeMessage.decode(payload));
+    }
+
+    @Test
+    void shouldKeepMovesApartFromBookingsAndCancellations() {
+        for (final ReservationChangeType type : ReservationChangeType.values()) {
+            final ReservationChangeMessage message = new ReservationChangeMessage("3f2a9c1e", 43,
+                    new ReservationChangedEvent(9808L, 8807, LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 12),
+                            type));
+
+            assertEquals(message, ReservationChangeMessage.decode(message.encode()));
+        }
+        assertEquals("3f2a9c1e:44:9808:8807:20423:20434:F", new ReservationChangeMessage("3f2a9c1e", 44,
+                new ReservationChangedEvent(9808L, 8807, LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 12),
+                        ReservationChangeType.MOVED_FROM)).encode());
+    }
+
+    @Test
+    void shouldRejectMalformedPayload() {
+        assertThrows(IllegalArgumentException.class, () -> ReservationChangeMessage.decode("3f2a9c1e:42:9808"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReservationChangeMessage.decode("3f2a9c1e:42:9808:8807:20423:20434:X"));
+    }
+}
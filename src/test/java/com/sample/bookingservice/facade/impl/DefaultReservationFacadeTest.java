@@ -6,6 +6,7 @@ import com.sample.bookingservice.facade.ReservationFacade;
 import com.sample.bookingservice.model.Reservation;
 import com.sample.bookingservice.model.ReservationStatus;
 import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.projection.ReservationExportRow;
 import com.sample.bookingservice.service.ReservationService;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,11 +18,17 @@ import org.springframework.boot.testcontainers.service.connection.ServiceConnect
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Date;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -89,6 +96,30 @@ class DefaultReservationFacadeTest {
         assertEquals(reservation.getCreatedAt(), reservationDto.getCreatedAt());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldWriteOneJsonLinePerExportedReservation() throws Exception {
+        final LocalDate from = LocalDate.of(2024, 1, 1);
+        final LocalDate to = LocalDate.of(2024, 2, 1);
+        when(reservationService.exportReservations(eq(from), eq(to), isNull(), any())).thenAnswer(invocation -> {
+            final Consumer<ReservationExportRow> consumer = invocation.getArgument(3);
+            consumer.accept(new ReservationExportRow(1L, ROOM_ID, ReservationStatus.CONFIRMED,
+                    from, from.plusDays(2), from.minusDays(10)));
+            consumer.accept(new ReservationExportRow(2L, null, ReservationStatus.CANCELLED,
+                    from.plusDays(3), from.plusDays(4), from.minusDays(5)));
+            return 2L;
+        });
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final long exported = defaultReservationFacade.exportReservations(from, to, null, outputStream);
+
+        assertEquals(2, exported);
+        assertEquals("""
+                {"reservationId":1,"roomId":1,"status":"CONFIRMED","startDate":"2024-01-01","endDate":"2024-01-03","createdAt":"2023-12-22"}
+                {"reservationId":2,"roomId":null,"status":"CANCELLED","startDate":"2024-01-04","endDate":"2024-01-05","createdAt":"2023-12-27"}
+                """, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
     @Test
     public void shouldThrowErrorIfReservationIdIsNegativeOrZero() {
         assertThrows(ValidationException.class, () -> {
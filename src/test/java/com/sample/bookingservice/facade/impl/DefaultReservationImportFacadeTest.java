@@ -0,0 +1,153 @@
+package com.sample.bookingservice.facade.impl;
+
+import com.sample.bookingservice.dto.ReservationImportReportDto;
+import com.sample.bookingservice.facade.ReservationImportFacade;
+import com.sample.bookingservice.model.Reservation;
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.service.ReservationImportRejection;
+import com.sample.bookingservice.util.ReservationImportReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = "reservation.import.batch.size=3")
+class DefaultReservationImportFacadeTest {
+    private static final Logger log = LoggerFactory.getLogger(DefaultReservationImportFacadeTest.class);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            "postgres:17-alpine"
+    );
+
+    @Autowired
+    private ReservationImportFacade reservationImportFacade;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    private LocalDate day;
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        day = LocalDate.now().plusDays(100);
+        room = room();
+        reservation(day.plusDays(10), day.plusDays(13), ReservationStatus.CONFIRMED);
+        reservation(day.plusDays(20), day.plusDays(22), ReservationStatus.CANCELLED);
+    }
+
+    @Test
+    void shouldBookFreeRowsAndReportTheOthers() throws IOException {
+        final Integer roomId = room.getRoomId();
+        final ReservationImportReportDto report = importCsv(String.join("\n",
+                "roomId,startDate,endDate",
+                row(roomId, 11, 12),
+                row(roomId, 13, 15),
+                row(roomId, 14, 16),
+                row(roomId, 20, 21),
+                row(Integer.MAX_VALUE, 1, 2),
+                row(roomId, 5, 3),
+                row(roomId, 30, 70),
+                "not,a,reservation",
+                row(roomId, 0, 2)));
+
+        assertEquals(9, report.getRows());
+        assertEquals(3, report.getAccepted());
+        assertEquals(6, report.getRejected());
+        assertFalse(report.isRejectionsTruncated());
+        assertEquals(List.of(2L, 4L, 6L, 7L, 8L, 9L),
+                report.getRejections().stream().map(ReservationImportRejection::line).toList());
+        assertEquals("The room is already booked for the provided dates", report.getRejections().get(0).reason());
+        assertEquals("Unable to find room with id: " + Integer.MAX_VALUE, report.getRejections().get(2).reason());
+
+        final List<ReservationSpan> booked = new ArrayList<>(reservationRepository.findConfirmedSpans(
+                Set.of(roomId), day, day.plusDays(100)));
+        booked.sort(Comparator.comparing(ReservationSpan::startDate));
+        assertEquals(List.of(day, day.plusDays(10), day.plusDays(13), day.plusDays(20)),
+                booked.stream().map(ReservationSpan::startDate).toList());
+    }
+
+    @Test
+    void shouldImportJsonLinesAcrossRooms() throws IOException {
+        final int rooms = 50;
+        final int stays = 40;
+        final List<Integer> roomIds = new ArrayList<>();
+        for (int i = 0; i < rooms; i++) {
+            roomIds.add(room().getRoomId());
+        }
+
+        final StringBuilder lines = new StringBuilder();
+        for (int stay = 0; stay < stays; stay++) {
+            for (final Integer roomId : roomIds) {
+                lines.append("{\"roomId\":").append(roomId)
+                        .append(",\"startDate\":\"").append(day.plusDays(stay * 3L))
+                        .append("\",\"endDate\":\"").append(day.plusDays(stay * 3L + 2)).append("\"}\n");
+            }
+        }
+
+        final ReservationImportReportDto report = reservationImportFacade.importReservations(
+                new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8)),
+                ReservationImportReader.Format.NDJSON);
+
+        log.info("Imported {} rows in {} ms, {} rows/s", report.getRows(), report.getDurationMillis(),
+                Math.round(report.getRowsPerSecond()));
+        assertEquals(rooms * stays, report.getAccepted());
+        assertEquals(0, report.getRejected());
+        assertEquals(rooms * stays, reservationRepository.findConfirmedSpans(
+                roomIds, day, day.plusDays(stays * 3L)).size());
+    }
+
+    private ReservationImportReportDto importCsv(final String csv) throws IOException {
+        return reservationImportFacade.importReservations(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ReservationImportReader.Format.CSV);
+    }
+
+    private String row(final Integer roomId, final int startDay, final int endDay) {
+        return roomId + "," + day.plusDays(startDay) + "," + day.plusDays(endDay);
+    }
+
+    private Room room() {
+        final Room room = new Room();
+        room.setRoomNumber("import");
+        return roomRepository.save(room);
+    }
+
+    private void reservation(final LocalDate startDate, final LocalDate endDate, final ReservationStatus status) {
+        final Reservation reservation = new Reservation();
+        reservation.setRoom(room);
+        reservation.setStatus(status);
+        reservation.setStartDate(startDate);
+        reservation.setEndDate(endDate);
+        reservationRepository.save(reservation);
+    }
+}
@@ -4,6 +4,7 @@ package com.sample.bookingservice.facade.impl;
 import com.sample.bookingservice.dto.RoomDto;
 import com.sample.bookingservice.facade.RoomFacade;
 import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.service.RoomFilter;
 import com.sample.bookingservice.service.RoomService;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -70,7 +71,7 @@ class DefaultRoomFacadeTest {
         LocalDate from = LocalDate.now().plusDays(1);
         LocalDate to = LocalDate.now().plusDays(5);
 
-        when(roomService.getAvailableRooms(from, to, null)).thenReturn(List.of(room1, room2));
+        when(roomService.getAvailableRooms(from, to, RoomFilter.NONE, null)).thenReturn(List.of(room1, room2));
         List<RoomDto> availableRooms = defaultRoomFacade.getAvailableRooms(from, to, null);
 
         assertEquals(2, availableRooms.size());
@@ -82,7 +83,7 @@ class DefaultRoomFacadeTest {
         LocalDate from = LocalDate.now().plusDays(1);
         LocalDate to = LocalDate.now().plusDays(5);
 
-        when(roomService.getAvailableRooms(from, to, null)).thenReturn(List.of());
+        when(roomService.getAvailableRooms(from, to, RoomFilter.NONE, null)).thenReturn(List.of());
         List<RoomDto> availableRooms = defaultRoomFacade.getAvailableRooms(from, to, null);
 
         assertEquals(0, availableRooms.size());
@@ -0,0 +1,107 @@
+package com.sample.bookingservice.facade.impl;
+
+import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.exception.RoomAlreadyBookedException;
+import com.sample.bookingservice.facade.ReservationFacade;
+import com.sample.bookingservice.facade.RoomFacade;
+import com.sample.bookingservice.sql.SqlStatementRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Statements each facade call may send, an N+1 (e.g. lazy loading Reservation.room while mapping) breaks them.
+ */
+@SpringBootTest
+@Import(SqlStatementRecorder.class)
+@Testcontainers
+class QueryBudgetTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            "postgres:17-alpine"
+    );
+
+    @Autowired
+    private RoomFacade roomFacade;
+
+    @Autowired
+    private ReservationFacade reservationFacade;
+
+    @Test
+    void searchShouldTakeOneStatement() {
+        final List<String> statements = record(() -> roomFacade.getAvailableRooms(LocalDate.now().plusDays(1),
+                LocalDate.now().plusDays(3), PageRequest.of(0, 100)));
+
+        assertEquals(1, statements.size(), statements::toString);
+    }
+
+    // the availability check with the room, the insert, then the outbox row and the NOTIFY every change sends
+    @Test
+    void bookingShouldTakeFourStatements() {
+        final LocalDate from = LocalDate.now().plusDays(200);
+        final LocalDate to = LocalDate.now().plusDays(202);
+
+        final List<String> statements = record(() -> reservationFacade.makeReservation(from, to, 42));
+
+        assertEquals(4, statements.size(), statements::toString);
+        assertEquals(2, reservationStatements(statements).size(), statements::toString);
+    }
+
+    // the status check is part of the update, which returns the reservation
+    @Test
+    void cancellationShouldTakeThreeStatements() {
+        final LocalDate from = LocalDate.now().plusDays(250);
+        final LocalDate to = LocalDate.now().plusDays(252);
+        final ReservationDto booked = reservationFacade.makeReservation(from, to, 44);
+
+        final List<String> statements = record(() -> reservationFacade.cancelReservation(booked.getReservationId()));
+
+        assertEquals(3, statements.size(), statements::toString);
+        assertEquals(1, reservationStatements(statements).size(), statements::toString);
+    }
+
+    // the availability check, then the alternatives come from the index plus one lookup of the offered rooms
+    @Test
+    void rejectedBookingShouldTakeTwoStatements() {
+        final LocalDate from = LocalDate.now().plusDays(300);
+        final LocalDate to = LocalDate.now().plusDays(302);
+        final ReservationDto booked = reservationFacade.makeReservation(from, to, 43);
+
+        final List<String> statements = record(() -> assertThrows(RoomAlreadyBookedException.class,
+                () -> reservationFacade.makeReservation(from, to, booked.getRoom().getRoomId())));
+
+        assertEquals(2, statements.size(), statements::toString);
+    }
+
+    private static List<String> record(final Runnable call) {
+        SqlStatementRecorder.start();
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            SqlStatementRecorder.stop();
+            throw e;
+        }
+        return SqlStatementRecorder.stop();
+    }
+
+    // what the call itself sends, the outbox row and the NOTIFY come with every change
+    private static List<String> reservationStatements(final List<String> statements) {
+        return statements.stream()
+                .filter(sql -> !sql.contains("outbox_events") && !sql.contains("pg_notify"))
+                .toList();
+    }
+}
@@ -0,0 +1,108 @@
+package com.sample.bookingservice.jfr;
+
+import com.sample.bookingservice.exception.RoomAlreadyBookedException;
+import com.sample.bookingservice.model.Reservation;
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.IdempotencyKeyRepository;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.WaitlistEntryRepository;
+import com.sample.bookingservice.repository.projection.RoomAvailability;
+import com.sample.bookingservice.service.impl.DefaultReservationService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingEventTest {
+
+    @TempDir
+    Path dir;
+
+    private RoomRepository roomRepository;
+    private ReservationRepository reservationRepository;
+    private DefaultReservationService reservationService;
+    private LocalDate from;
+    private LocalDate to;
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        reservationRepository = mock(ReservationRepository.class);
+        reservationService = new DefaultReservationService(reservationRepository, roomRepository,
+                mock(IdempotencyKeyRepository.class), mock(WaitlistEntryRepository.class),
+                mock(ApplicationEventPublisher.class));
+
+        final Room room = new Room();
+        room.setRoomId(7);
+        room.setRoomNumber("107");
+
+        from = LocalDate.now().plusDays(1);
+        to = LocalDate.now().plusDays(3);
+        this.room = room;
+    }
+
+    @Test
+    void shouldRecordEveryStageOfBooking() throws Exception {
+        when(roomRepository.findRoomAvailability(from, to, 7)).thenReturn(Optional.of(new RoomAvailability(room, true)));
+        when(reservationRepository.save(any())).thenAnswer(invocation -> {
+            final Reservation reservation = invocation.getArgument(0);
+            reservation.setReservationId(1L);
+            return reservation;
+        });
+
+        final List<RecordedEvent> events = record(() -> reservationService.makeReservation(from, to, 7));
+
+        assertEquals(List.of("availabilityCheck", "insert"),
+                events.stream().map(event -> event.getString("stage")).toList());
+        assertEquals(List.of("AVAILABLE", "OK"),
+                events.stream().map(event -> event.getString("outcome")).toList());
+        for (final RecordedEvent event : events) {
+            assertEquals(BookingEvent.MAKE_RESERVATION, event.getString("operation"));
+            assertEquals(7, event.getInt("roomId"));
+            assertEquals(from.toString(), event.getString("startDate"));
+            assertEquals(to.toString(), event.getString("endDate"));
+        }
+    }
+
+    @Test
+    void shouldRecordUnavailableRoom() throws Exception {
+        when(roomRepository.findRoomAvailability(from, to, 7)).thenReturn(Optional.of(new RoomAvailability(room, false)));
+
+        final List<RecordedEvent> events = record(() -> assertThrows(RoomAlreadyBookedException.class,
+                () -> reservationService.makeReservation(from, to, 7)));
+
+        assertEquals(1, events.size());
+        assertEquals("availabilityCheck", events.get(0).getString("stage"));
+        assertEquals("UNAVAILABLE", events.get(0).getString("outcome"));
+    }
+
+    private List<RecordedEvent> record(final Runnable action) throws Exception {
+        final Path file = dir.resolve("booking.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(BookingStageEvent.class).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.sample.bookingservice.BookingStage"))
+                .toList();
+    }
+}
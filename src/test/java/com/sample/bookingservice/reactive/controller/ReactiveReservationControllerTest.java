@@ -0,0 +1,90 @@
+package com.sample.bookingservice.reactive.controller;
+
+import com.sample.bookingservice.dto.MakeReservationDto;
+import com.sample.bookingservice.dto.ReservationDto;
+import com.sample.bookingservice.exception.RoomAlreadyBookedException;
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.reactive.config.ReactiveWebConfig;
+import com.sample.bookingservice.reactive.facade.ReactiveReservationFacade;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveReservationController.class)
+@ContextConfiguration(classes = {ReactiveReservationController.class, ReactiveExceptionHandler.class, ReactiveWebConfig.class})
+class ReactiveReservationControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveReservationFacade reservationFacade;
+
+    @Test
+    void shouldMakeReservationSuccessfully() {
+        final LocalDate startDate = LocalDate.now();
+        final LocalDate endDate = LocalDate.now().plusDays(5);
+        final MakeReservationDto dto = new MakeReservationDto();
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setRoomId(1);
+
+        final ReservationDto reservationDto = new ReservationDto();
+        reservationDto.setReservationId(1L);
+        reservationDto.setStatus(ReservationStatus.CONFIRMED);
+        reservationDto.setStartDate(startDate);
+        reservationDto.setEndDate(endDate);
+
+        when(reservationFacade.makeReservation(startDate, endDate, 1)).thenReturn(Mono.just(reservationDto));
+
+        webTestClient.post()
+                .uri("/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals("Location", "/reservations/1")
+                .expectBody()
+                .jsonPath("$.reservationId").isEqualTo(1)
+                .jsonPath("$.status").isEqualTo(ReservationStatus.CONFIRMED.name());
+    }
+
+    @Test
+    void shouldReturnConflictWhenRoomIsAlreadyBooked() {
+        final LocalDate startDate = LocalDate.now();
+        final LocalDate endDate = LocalDate.now().plusDays(5);
+        final MakeReservationDto dto = new MakeReservationDto();
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setRoomId(1);
+
+        when(reservationFacade.makeReservation(startDate, endDate, 1))
+                .thenReturn(Mono.error(new RoomAlreadyBookedException("Room already booked")));
+
+        webTestClient.post()
+                .uri("/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void shouldReturnNoContentWhenReservationIsCancelled() {
+        when(reservationFacade.cancelReservation(1L)).thenReturn(Mono.just(new ReservationDto()));
+
+        webTestClient.delete()
+                .uri("/reservations/{id}", 1)
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+}
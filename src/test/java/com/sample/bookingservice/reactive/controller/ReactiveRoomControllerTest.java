@@ -0,0 +1,97 @@
+package com.sample.bookingservice.reactive.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.sample.bookingservice.dto.RoomDto;
+import com.sample.bookingservice.reactive.config.ReactiveWebConfig;
+import com.sample.bookingservice.reactive.facade.ReactiveRoomFacade;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveRoomController.class)
+@ContextConfiguration(classes = {ReactiveRoomController.class, ReactiveExceptionHandler.class, ReactiveWebConfig.class})
+class ReactiveRoomControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveRoomFacade roomFacade;
+
+    @Test
+    void shouldReturnAvailableRooms() {
+        final LocalDate from = LocalDate.now();
+        final LocalDate to = LocalDate.now().plusDays(2);
+        final RoomDto room1 = new RoomDto();
+        room1.setRoomId(1);
+        room1.setRoomNumber("room1");
+
+        final RoomDto room2 = new RoomDto();
+        room2.setRoomId(2);
+        room2.setRoomNumber("room2");
+
+        when(roomFacade.getAvailableRooms(from, to, Pageable.ofSize(10))).thenReturn(Flux.just(room1, room2));
+
+        webTestClient.get()
+                .uri("/rooms?from={from}&to={to}&page=0&size=10", from, to)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].roomId").isEqualTo(room1.getRoomId())
+                .jsonPath("$.content[1].roomNumber").isEqualTo(room2.getRoomNumber())
+                .jsonPath("$.number").isEqualTo(0)
+                .jsonPath("$.size").isEqualTo(10)
+                .jsonPath("$.numberOfElements").isEqualTo(2);
+    }
+
+    @Test
+    void shouldReturnAvailableRoomsAsCbor() throws Exception {
+        final LocalDate from = LocalDate.now();
+        final LocalDate to = LocalDate.now().plusDays(2);
+        final RoomDto room = new RoomDto();
+        room.setRoomId(1);
+        room.setRoomNumber("room1");
+
+        when(roomFacade.getAvailableRooms(from, to, Pageable.ofSize(10))).thenReturn(Flux.just(room));
+
+        final byte[] body = webTestClient.get()
+                .uri("/rooms?from={from}&to={to}&page=0&size=10", from, to)
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        final JsonNode page = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals(room.getRoomId(), page.get("content").get(0).get("roomId").asInt());
+        assertEquals(1, page.get("numberOfElements").asInt());
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenToIsBeforeFrom() {
+        final LocalDate from = LocalDate.now().plusDays(2);
+        final LocalDate to = LocalDate.now().plusDays(1);
+        when(roomFacade.getAvailableRooms(any(), any(), any())).thenReturn(Flux.empty());
+
+        webTestClient.get()
+                .uri("/rooms?from={from}&to={to}", from, to)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,145 @@
+package com.sample.bookingservice.reactive.service.impl;
+
+import com.sample.bookingservice.BookingserviceApplication;
+import com.sample.bookingservice.event.AvailabilityResyncEvent;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.reactive.ReactiveBookingserviceConfiguration;
+import com.sample.bookingservice.reactive.model.ReactiveReservation;
+import com.sample.bookingservice.reactive.service.ReactiveReservationService;
+import com.sample.bookingservice.repository.AvailabilityChangeRepository;
+import com.sample.bookingservice.repository.OutboxEventRepository;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.projection.ChangeSequenceRange;
+import com.sample.bookingservice.service.impl.DefaultAvailabilityIndexService;
+import com.sample.bookingservice.service.impl.ReservationChangeListener;
+import com.sample.bookingservice.service.impl.ReservationChangeNotifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// a reactive node next to a servlet one: the servlet node's index only learns about reactive writes through NOTIFY
+@SpringBootTest(classes = ReactiveBookingserviceConfiguration.class)
+@ActiveProfiles(BookingserviceApplication.REACTIVE_PROFILE)
+@Testcontainers
+@TestPropertySource(properties = "spring.sql.init.mode=always")
+class DefaultReactiveReservationServiceTest {
+
+    private static final String CHANNEL = "reservation_changes";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            "postgres:17-alpine"
+    );
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private ReactiveReservationService reservationService;
+
+    private final Semaphore applied = new Semaphore(0);
+    private JdbcTemplate jdbcTemplate;
+    private DefaultAvailabilityIndexService index;
+    private ReservationChangeListener listener;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        final RoomRepository roomRepository = mock(RoomRepository.class);
+        when(roomRepository.findMaxRoomId()).thenReturn(Optional.of(20));
+        when(reservationRepository.findMaxReservationId()).thenReturn(Optional.empty());
+        when(reservationRepository.findConfirmedSpans(anyLong(), any())).thenReturn(List.of());
+        final AvailabilityChangeRepository availabilityChangeRepository = mock(AvailabilityChangeRepository.class);
+        when(availabilityChangeRepository.findSequenceRange()).thenReturn(new ChangeSequenceRange(null, null));
+        index = new DefaultAvailabilityIndexService(reservationRepository, roomRepository, availabilityChangeRepository,
+                mock(OutboxEventRepository.class), directory.toString(), 500, 30, 5);
+        index.load();
+
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword()));
+        final CountDownLatch listening = new CountDownLatch(1);
+        listener = new ReservationChangeListener(connectionDetailsOf(), event -> {
+            if (event instanceof ReservationChangedEvent change) {
+                index.onReservationChanged(change);
+                applied.release();
+            } else if (event instanceof AvailabilityResyncEvent) {
+                listening.countDown();
+            }
+        }, new ReservationChangeNotifier(jdbcTemplate, CHANNEL), CHANNEL, 100, 100, 300, 100);
+        listener.start();
+        assertTrue(listening.await(10, TimeUnit.SECONDS));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listener.stop();
+        index.close();
+    }
+
+    @Test
+    void shouldUpdateIndexOfOtherNodesOnReactiveBookingAndCancellation() throws Exception {
+        final LocalDate start = LocalDate.now().plusDays(10);
+        final LocalDate end = LocalDate.now().plusDays(12);
+
+        final ReactiveReservation reservation = reservationService.makeReservation(start, end, 7).block();
+        assertTrue(applied.tryAcquire(5, TimeUnit.SECONDS));
+        assertFalse(index.isAvailable(7, start, end));
+
+        reservationService.cancelReservation(reservation.getReservationId()).block();
+        assertTrue(applied.tryAcquire(5, TimeUnit.SECONDS));
+        assertTrue(index.isAvailable(7, start, end));
+
+        assertEquals(List.of("BOOKED", "CANCELLED"), jdbcTemplate.queryForList(
+                "SELECT event_type FROM outbox_events WHERE reservation_id = ? ORDER BY event_id", String.class,
+                reservation.getReservationId()));
+    }
+
+    private JdbcConnectionDetails connectionDetailsOf() {
+        return new JdbcConnectionDetails() {
+            @Override
+            public String getUsername() {
+                return postgres.getUsername();
+            }
+
+            @Override
+            public String getPassword() {
+                return postgres.getPassword();
+            }
+
+            @Override
+            public String getJdbcUrl() {
+                return postgres.getJdbcUrl();
+            }
+        };
+    }
+}
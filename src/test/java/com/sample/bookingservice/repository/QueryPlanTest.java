@@ -0,0 +1,165 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.sql.SqlStatementRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Explains the SQL the repository queries actually send, as the generic plan a prepared statement ends up with,
+ * against a table big enough for the planner to prefer indexes. A lost index or a rewritten query that can't
+ * use it fails here instead of in production.
+ */
+@SpringBootTest
+@Import(SqlStatementRecorder.class)
+@Testcontainers
+class QueryPlanTest {
+
+    private static final int SEEDED_RESERVATIONS = 200_000;
+
+    // EXPLAIN (GENERIC_PLAN) needs Postgres 16 or later
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            "postgres:17-alpine"
+    );
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static boolean seeded;
+
+    @Test
+    void bookingConflictCheckShouldUseConfirmedReservationsIndex() throws SQLException {
+        seed();
+        final String sql = capture(() -> roomRepository.findRoomAvailability(LocalDate.now().plusDays(10),
+                LocalDate.now().plusDays(12), 1));
+
+        final String plan = explain(sql);
+
+        assertTrue(plan.contains("reservations_confirmed_room_dates_idx"), plan);
+        assertFalse(plan.contains("Seq Scan on reservations"), plan);
+        assertTrue(plan.contains("rooms_pkey"), plan);
+    }
+
+    @Test
+    void availabilityCountShouldUseConfirmedReservationsIndex() throws SQLException {
+        seed();
+        final String sql = capture(() -> roomRepository.isRoomAvailable(LocalDate.now().plusDays(10),
+                LocalDate.now().plusDays(12), 1));
+
+        final String plan = explain(sql);
+
+        assertTrue(plan.contains("reservations_confirmed_room_dates_idx"), plan);
+        assertFalse(plan.contains("Seq Scan on reservations"), plan);
+    }
+
+    @Test
+    void reservationLookupShouldUsePrimaryKeys() throws SQLException {
+        seed();
+        final String sql = capture(() -> reservationRepository.findViewById(100));
+
+        final String plan = explain(sql);
+
+        assertTrue(plan.contains("reservations_pkey"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void reservationMultiGetShouldUsePrimaryKeys() throws SQLException {
+        seed();
+        final String sql = capture(() -> reservationRepository.findViewsByIds(List.of(100L, 200L, 300L)));
+
+        final String plan = explain(sql);
+
+        assertTrue(plan.contains("reservations_pkey"), plan);
+        assertFalse(plan.contains("Seq Scan on reservations"), plan);
+    }
+
+    @Test
+    void roomReservationsPageShouldWalkRoomStartIndexWithoutSorting() throws SQLException {
+        seed();
+        final String sql = capture(() -> reservationRepository.findRoomViews(1, LocalDate.now().plusDays(400),
+                LocalDate.now(), 0, PageRequest.of(0, 100)));
+
+        final String plan = explain(sql);
+
+        assertTrue(plan.contains("reservations_room_start_idx"), plan);
+        assertFalse(plan.contains("Seq Scan on reservations"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    private void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO reservations (room_id, status, start_date, end_date, created_at) " +
+                "SELECT 1 + i % 10000, 1 + i % 3, current_date + i % 400, current_date + i % 400 + 1 + i % 7, " +
+                "current_date FROM generate_series(1, ?) i", SEEDED_RESERVATIONS);
+        jdbcTemplate.execute("ANALYZE");
+        seeded = true;
+    }
+
+    private static String capture(final Runnable query) {
+        SqlStatementRecorder.start();
+        try {
+            query.run();
+        } catch (RuntimeException e) {
+            SqlStatementRecorder.stop();
+            throw e;
+        }
+        final List<String> statements = SqlStatementRecorder.stop();
+        assertEquals(1, statements.size(), statements::toString);
+        return statements.get(0);
+    }
+
+    // parameters become $n placeholders, which only the simple query protocol passes through to EXPLAIN
+    private static String explain(final String sql) throws SQLException {
+        final StringBuilder numbered = new StringBuilder(sql.length());
+        int parameter = 0;
+        for (final char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        final String url = postgres.getJdbcUrl() + (postgres.getJdbcUrl().contains("?") ? "&" : "?") +
+                "preferQueryMode=simple";
+        try (Connection connection = DriverManager.getConnection(url, postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + numbered)) {
+            final StringBuilder lines = new StringBuilder();
+            while (plan.next()) {
+                lines.append(plan.getString(1)).append('\n');
+            }
+            return lines.toString();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.sample.bookingservice.repository;
+
+import com.sample.bookingservice.model.Reservation;
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.projection.ReservationExportRow;
+import com.sample.bookingservice.repository.projection.ReservationMove;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.repository.projection.ReservationView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {"spring.jpa.hibernate.ddl-auto=create-drop", "reservation.export.fetch.size=2"})
+public class ReservationRepositoryTest {
+
+    // far in the past so the seeded reservations stay out of the exported range
+    private static final LocalDate FROM = LocalDate.of(2001, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2001, 2, 1);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            "postgres:17-alpine"
+    );
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Room room;
+    private final List<Reservation> reservations = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        room = new Room();
+        room.setRoomNumber("201");
+        roomRepository.save(room);
+
+        // five rows in range with a fetch size of 2 take three round trips through the cursor
+        reservations.add(reservation(FROM, ReservationStatus.CONFIRMED));
+        reservations.add(reservation(FROM.plusDays(3), ReservationStatus.CANCELLED));
+        reservations.add(reservation(FROM.plusDays(10), ReservationStatus.CONFIRMED));
+        reservations.add(reservation(FROM.plusDays(20), ReservationStatus.CONFIRMED));
+        reservations.add(reservation(TO.minusDays(1), ReservationStatus.EXPIRED));
+        // starts on the exclusive end of the range
+        reservations.add(reservation(TO, ReservationStatus.CONFIRMED));
+        reservations.add(reservation(FROM.minusDays(1), ReservationStatus.CONFIRMED));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        reservationRepository.deleteAll(reservations);
+        roomRepository.delete(room);
+        reservations.clear();
+    }
+
+    @Test
+    public void shouldStreamReservationsStartingInRange() {
+        final List<ReservationExportRow> rows = export(null);
+
+        assertEquals(5, rows.size());
+        assertEquals(reservations.subList(0, 5).stream().map(Reservation::getReservationId).toList(),
+                rows.stream().map(ReservationExportRow::reservationId).toList());
+
+        final ReservationExportRow first = rows.get(0);
+        assertEquals(room.getRoomId(), first.roomId());
+        assertEquals(ReservationStatus.CONFIRMED, first.status());
+        assertEquals(FROM, first.startDate());
+        assertEquals(FROM.plusDays(2), first.endDate());
+        assertEquals(LocalDate.now(), first.createdAt());
+    }
+
+    @Test
+    public void shouldStreamOnlyReservationsInStatus() {
+        final List<ReservationExportRow> rows = export(ReservationStatus.CONFIRMED);
+
+        assertEquals(List.of(FROM, FROM.plusDays(10), FROM.plusDays(20)),
+                rows.stream().map(ReservationExportRow::startDate).toList());
+    }
+
+    @Test
+    public void shouldCancelConfirmedReservationOnce() {
+        final Reservation confirmed = reservations.get(0);
+
+        final Optional<ReservationView> cancelled = transactionTemplate.execute(transaction ->
+                reservationRepository.cancelConfirmedReservation(confirmed.getReservationId()));
+
+        assertTrue(cancelled.isPresent());
+        assertEquals(confirmed.getReservationId(), cancelled.get().reservationId());
+        assertEquals(room.getRoomId(), cancelled.get().roomId());
+        assertEquals("201", cancelled.get().roomNumber());
+        assertEquals(ReservationStatus.CANCELLED, cancelled.get().status());
+        assertEquals(FROM, cancelled.get().startDate());
+        assertEquals(Optional.of(ReservationStatus.CANCELLED),
+                reservationRepository.findStatusById(confirmed.getReservationId()));
+
+        assertTrue(transactionTemplate.execute(transaction ->
+                reservationRepository.cancelConfirmedReservation(confirmed.getReservationId())).isEmpty());
+    }
+
+    @Test
+    public void shouldFindRoomOnlyOfReservationStillHavingOne() {
+        // what deleting its room leaves behind (schema.sql sets it null), the entity and generated table require one
+        final Reservation roomless = reservations.get(1);
+        jdbcTemplate.execute("ALTER TABLE reservations ALTER COLUMN room_id DROP NOT NULL");
+        jdbcTemplate.update("UPDATE reservations SET room_id = NULL WHERE reservation_id = ?",
+                roomless.getReservationId());
+
+        assertEquals(Optional.of(room.getRoomId()),
+                reservationRepository.findRoomIdById(reservations.get(0).getReservationId()));
+        assertTrue(reservationRepository.findRoomIdById(roomless.getReservationId()).isEmpty());
+    }
+
+    @Test
+    public void shouldNotCancelReservationInOtherStatus() {
+        final Reservation expired = reservations.get(4);
+
+        assertTrue(transactionTemplate.execute(transaction ->
+                reservationRepository.cancelConfirmedReservation(expired.getReservationId())).isEmpty());
+        assertEquals(Optional.of(ReservationStatus.EXPIRED),
+                reservationRepository.findStatusById(expired.getReservationId()));
+    }
+
+    @Test
+    public void shouldCancelConfirmedReservationsOverlappingRange() {
+        final List<ReservationSpan> cancelled = transactionTemplate.execute(transaction ->
+                reservationRepository.cancelConfirmedReservations(List.of(room.getRoomId(), Integer.MAX_VALUE),
+                        FROM.plusDays(1), FROM.plusDays(11)));
+
+        assertEquals(List.of(reservations.get(0).getReservationId(), reservations.get(2).getReservationId()),
+                cancelled.stream().map(ReservationSpan::reservationId).sorted().toList());
+        assertEquals(Optional.of(ReservationStatus.CANCELLED),
+                reservationRepository.findStatusById(reservations.get(2).getReservationId()));
+        assertEquals(Optional.of(ReservationStatus.CONFIRMED),
+                reservationRepository.findStatusById(reservations.get(3).getReservationId()));
+    }
+
+    @Test
+    public void shouldMoveConfirmedReservationOverItsOwnDays() {
+        final Reservation confirmed = reservations.get(0);
+
+        final Optional<ReservationMove> move = transactionTemplate.execute(transaction ->
+                reservationRepository.moveConfirmedReservation(confirmed.getReservationId(), null,
+                        FROM.plusDays(1), FROM.plusDays(4)));
+
+        assertTrue(move.isPresent());
+        assertEquals(new ReservationSpan(confirmed.getReservationId(), room.getRoomId(), FROM, FROM.plusDays(2)),
+                move.get().previous());
+        assertEquals(room.getRoomId(), move.get().reservation().roomId());
+        assertEquals("201", move.get().reservation().roomNumber());
+        assertEquals(ReservationStatus.CONFIRMED, move.get().reservation().status());
+        assertEquals(FROM.plusDays(1), move.get().reservation().startDate());
+        assertEquals(FROM.plusDays(4), move.get().reservation().endDate());
+    }
+
+    @Test
+    public void shouldNotMoveReservationOntoAnotherOrIntoMissingRoom() {
+        final long id = reservations.get(0).getReservationId();
+
+        // overlaps the confirmed reservation starting FROM + 10
+        assertTrue(transactionTemplate.execute(transaction -> reservationRepository.moveConfirmedReservation(id, null,
+                FROM.plusDays(9), FROM.plusDays(11))).isEmpty());
+        assertTrue(transactionTemplate.execute(transaction -> reservationRepository.moveConfirmedReservation(id,
+                Integer.MAX_VALUE, FROM.plusDays(1), FROM.plusDays(4))).isEmpty());
+        // the expired reservation can't be moved even to free days
+        assertTrue(transactionTemplate.execute(transaction -> reservationRepository.moveConfirmedReservation(
+                reservations.get(4).getReservationId(), null, FROM.plusDays(5), FROM.plusDays(7))).isEmpty());
+    }
+
+    private List<ReservationExportRow> export(final ReservationStatus status) {
+        final List<ReservationExportRow> rows = new ArrayList<>();
+        final long exported = transactionTemplate.execute(transaction ->
+                reservationRepository.streamReservations(FROM, TO, status, rows::add));
+
+        assertEquals(rows.size(), exported);
+        rows.sort(Comparator.comparing(ReservationExportRow::reservationId));
+        return rows;
+    }
+
+    private Reservation reservation(final LocalDate startDate, final ReservationStatus status) {
+        final Reservation reservation = new Reservation();
+        reservation.setRoom(room);
+        reservation.setStatus(status);
+        reservation.setStartDate(startDate);
+        reservation.setEndDate(startDate.plusDays(2));
+        return reservationRepository.save(reservation);
+    }
+}
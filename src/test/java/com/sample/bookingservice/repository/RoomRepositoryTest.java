@@ -3,6 +3,8 @@ package com.sample.bookingservice.repository;
 import com.sample.bookingservice.model.Reservation;
 import com.sample.bookingservice.model.ReservationStatus;
 import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.projection.RoomTypeAssignment;
+import com.sample.bookingservice.repository.projection.RoomTypeRate;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,11 +13,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
@@ -40,6 +45,9 @@ public class RoomRepositoryTest {
     @Autowired
     private RoomRepository roomRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Value("#{new Integer('${reservation.days.ahead.allowed}')}")
     private Integer allowedDaysAhead;
 
@@ -122,6 +130,63 @@ public class RoomRepositoryTest {
         assertTrue(availableRooms.contains(room3));
     }
 
+    @Test
+    public void shouldFindFreeRoomsAmongIdsInIdOrder() {
+        LocalDate fromDate = LocalDate.now().plusDays(2);
+        LocalDate toDate = LocalDate.now().plusDays(4);
+
+        List<Room> freeRooms = roomRepository.findFreeRooms(fromDate, toDate,
+                new Integer[]{room3.getRoomId(), room1.getRoomId(), room2.getRoomId()}, PageRequest.of(0, 10));
+
+        // room1 has a confirmed reservation overlapping the dates
+        assertEquals(List.of(room2.getRoomId(), room3.getRoomId()), freeRooms.stream().map(Room::getRoomId).toList());
+        assertEquals(List.of(room3.getRoomId()), roomRepository.findFreeRooms(fromDate, toDate,
+                new Integer[]{room1.getRoomId(), room2.getRoomId(), room3.getRoomId()}, PageRequest.of(1, 1))
+                .stream().map(Room::getRoomId).toList());
+    }
+
+    @Test
+    public void shouldStoreRoomAttributes() {
+        Room suite = new Room();
+        suite.setRoomNumber("201");
+        suite.setRoomType("Suite");
+        suite.setCapacity(4);
+        suite.setFloor(2);
+        suite.setAmenities(List.of("wifi", "balcony"));
+        roomRepository.save(suite);
+
+        Room found = roomRepository.findById(suite.getRoomId()).orElseThrow();
+        assertEquals("Suite", found.getRoomType());
+        assertEquals(4, found.getCapacity());
+        assertEquals(2, found.getFloor());
+        assertEquals(List.of("wifi", "balcony"), found.getAmenities());
+    }
+
+    @Test
+    public void shouldFindRoomTypeRatesOfTheNightsAndRoomTypes() {
+        LocalDate from = LocalDate.now().plusDays(1);
+        room2.setRoomType("suite");
+        roomRepository.save(room2);
+        for (int night = 0; night < 4; night++) {
+            jdbcTemplate.update("INSERT INTO room_type_rates (room_type, stay_date, rate) VALUES ('suite', ?, ?)",
+                    java.sql.Date.valueOf(from.plusDays(night)), new BigDecimal("120.50").add(BigDecimal.valueOf(night)));
+        }
+
+        try {
+            List<RoomTypeRate> rates = roomRepository.findRoomTypeRates(from.plusDays(1), from.plusDays(3));
+
+            assertEquals(List.of(new RoomTypeRate("suite", from.plusDays(1), new BigDecimal("121.50")),
+                            new RoomTypeRate("suite", from.plusDays(2), new BigDecimal("122.50"))),
+                    rates.stream().sorted((a, b) -> a.stayDate().compareTo(b.stayDate())).toList());
+            assertEquals(List.of(new RoomTypeAssignment(room2.getRoomId(), "suite")), roomRepository.findRoomTypes());
+            assertEquals(List.of(new RoomTypeAssignment(room2.getRoomId(), "suite")),
+                    roomRepository.findRoomTypesAfter(room2.getRoomId() - 1));
+            assertEquals(List.of(), roomRepository.findRoomTypesAfter(room2.getRoomId()));
+        } finally {
+            jdbcTemplate.update("DELETE FROM room_type_rates");
+        }
+    }
+
     @Test
     public void shouldReturnTrueWhenRoomIsAvailableForGivenDates() {
         // Test date range
@@ -0,0 +1,95 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.model.AvailabilityChange;
+import com.sample.bookingservice.repository.AvailabilityChangeRepository;
+import com.sample.bookingservice.repository.projection.ChangeSequenceRange;
+import com.sample.bookingservice.service.AvailabilityChanges;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DefaultAvailabilityChangeServiceTest {
+
+    private AvailabilityChangeRepository availabilityChangeRepository;
+    private DefaultAvailabilityChangeService availabilityChangeService;
+
+    @BeforeEach
+    void setUp() {
+        availabilityChangeRepository = mock(AvailabilityChangeRepository.class);
+        availabilityChangeService = new DefaultAvailabilityChangeService(availabilityChangeRepository, 100);
+        when(availabilityChangeRepository.findSequenceRange()).thenReturn(new ChangeSequenceRange(11L, 20L));
+    }
+
+    @Test
+    void shouldReturnChangesAfterSequence() {
+        when(availabilityChangeRepository.findChangesAfter(10, PageRequest.of(0, 3)))
+                .thenReturn(List.of(change(11), change(12), change(13)));
+
+        final AvailabilityChanges changes = availabilityChangeService.findChanges(10, 3);
+
+        assertEquals(3, changes.changes().size());
+        assertEquals(13, changes.next());
+        assertTrue(changes.more());
+        assertFalse(changes.resync());
+    }
+
+    @Test
+    void shouldKeepSequenceWhenNothingChanged() {
+        when(availabilityChangeRepository.findChangesAfter(20, PageRequest.of(0, 3))).thenReturn(List.of());
+
+        final AvailabilityChanges changes = availabilityChangeService.findChanges(20, 3);
+
+        assertEquals(List.of(), changes.changes());
+        assertEquals(20, changes.next());
+        assertFalse(changes.more());
+        assertFalse(changes.resync());
+    }
+
+    @Test
+    void shouldAskForResyncWhenChangesWerePruned() {
+        final AvailabilityChanges changes = availabilityChangeService.findChanges(9, 3);
+
+        assertTrue(changes.resync());
+        assertEquals(20, changes.next());
+        verify(availabilityChangeRepository, never()).findChangesAfter(anyLong(), any());
+    }
+
+    @Test
+    void shouldAskForResyncWhenAheadOfChangelog() {
+        when(availabilityChangeRepository.findSequenceRange()).thenReturn(new ChangeSequenceRange(null, null));
+
+        final AvailabilityChanges changes = availabilityChangeService.findChanges(5, 3);
+
+        assertTrue(changes.resync());
+        assertEquals(0, changes.next());
+    }
+
+    @Test
+    void shouldStartFromEmptyChangelog() {
+        when(availabilityChangeRepository.findSequenceRange()).thenReturn(new ChangeSequenceRange(null, null));
+        when(availabilityChangeRepository.findChangesAfter(0, PageRequest.of(0, 3))).thenReturn(List.of());
+
+        final AvailabilityChanges changes = availabilityChangeService.findChanges(0, 3);
+
+        assertFalse(changes.resync());
+        assertEquals(0, changes.next());
+    }
+
+    private static AvailabilityChange change(final long sequence) {
+        final AvailabilityChange change = new AvailabilityChange();
+        change.setChangeSeq(sequence);
+        return change;
+    }
+}
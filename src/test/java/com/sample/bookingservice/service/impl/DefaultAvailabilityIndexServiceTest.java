@@ -0,0 +1,234 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.AvailabilityResyncEvent;
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.repository.AvailabilityChangeRepository;
+import com.sample.bookingservice.repository.OutboxEventRepository;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.projection.ChangeSequenceRange;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DefaultAvailabilityIndexServiceTest {
+
+    private static final long RECONCILE_MARGIN = 5;
+    private static final long TIMEOUT_MS = 5000;
+
+    @TempDir
+    Path directory;
+
+    private ReservationRepository reservationRepository;
+    private RoomRepository roomRepository;
+    private AvailabilityChangeRepository availabilityChangeRepository;
+    private OutboxEventRepository outboxEventRepository;
+    private LocalDate start;
+    private LocalDate end;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        roomRepository = mock(RoomRepository.class);
+        availabilityChangeRepository = mock(AvailabilityChangeRepository.class);
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        when(availabilityChangeRepository.findSequenceRange()).thenReturn(new ChangeSequenceRange(null, null));
+        when(roomRepository.findMaxRoomId()).thenReturn(Optional.of(20));
+        when(reservationRepository.findMaxReservationId()).thenReturn(Optional.empty());
+        when(reservationRepository.findConfirmedSpans(anyLong(), any())).thenReturn(List.of());
+        start = LocalDate.now().plusDays(10);
+        end = LocalDate.now().plusDays(12);
+    }
+
+    @Test
+    void shouldRebuildFromDatabaseOnFirstStart() throws Exception {
+        when(reservationRepository.findConfirmedSpans(0, LocalDate.now()))
+                .thenReturn(List.of(new ReservationSpan(1L, 7, start, end)));
+
+        final DefaultAvailabilityIndexService index = newIndex();
+        assertFalse(index.isReady());
+        index.load();
+
+        assertTrue(index.isReady());
+        assertFalse(index.isAvailable(7, start, end));
+        assertTrue(index.isAvailable(8, start, end));
+        index.close();
+    }
+
+    @Test
+    void shouldReplayJournalAndReconcileOnlyRecentReservationsOnRestart() throws Exception {
+        final DefaultAvailabilityIndexService first = newIndex();
+        first.load();
+        first.onReservationChanged(new ReservationChangedEvent(100L, 3, start, end, ReservationChangeType.BOOKED));
+        first.onReservationChanged(new ReservationChangedEvent(101L, 4, start, end, ReservationChangeType.BOOKED));
+        first.onReservationChanged(new ReservationChangedEvent(101L, 4, start, end, ReservationChangeType.CANCELLED));
+        // no close: the restart has to rely on the journal
+
+        final DefaultAvailabilityIndexService second = newIndex();
+        second.load();
+
+        assertFalse(second.isAvailable(3, start, end));
+        assertTrue(second.isAvailable(4, start, end));
+        verify(reservationRepository).findConfirmedSpans(101 - RECONCILE_MARGIN, LocalDate.now());
+        second.close();
+    }
+
+    @Test
+    void shouldApplyChangesCommittedBeforeLoad() throws Exception {
+        final DefaultAvailabilityIndexService index = newIndex();
+        index.onReservationChanged(new ReservationChangedEvent(1L, 5, start, end, ReservationChangeType.BOOKED));
+
+        index.load();
+
+        assertFalse(index.isAvailable(5, start, end));
+        index.close();
+    }
+
+    @Test
+    void shouldRebuildRoomsOfReservationsCancelledWhileDown() throws Exception {
+        when(availabilityChangeRepository.findSequenceRange()).thenReturn(new ChangeSequenceRange(1L, 20L));
+        final DefaultAvailabilityIndexService first = newIndex();
+        first.load();
+        first.onReservationChanged(new ReservationChangedEvent(100L, 3, start, end, ReservationChangeType.BOOKED));
+        first.onReservationChanged(new ReservationChangedEvent(101L, 4, start, end, ReservationChangeType.BOOKED));
+        first.close();
+
+        // reservation 100 cancelled by another node while this one was down
+        when(availabilityChangeRepository.findSequenceRange()).thenReturn(new ChangeSequenceRange(1L, 21L));
+        when(availabilityChangeRepository.findRoomIdsChangedAfter(20 - RECONCILE_MARGIN)).thenReturn(List.of(3));
+        final DefaultAvailabilityIndexService second = newIndex();
+        second.load();
+
+        assertTrue(second.isAvailable(3, start, end));
+        assertFalse(second.isAvailable(4, start, end));
+        verify(reservationRepository).findConfirmedSpans(argThat(roomIds -> roomIds.size() == 1 && roomIds.contains(3)),
+                eq(LocalDate.now()), any());
+        second.close();
+    }
+
+    @Test
+    void shouldRebuildRoomsOfChangesNotRelayedYet() throws Exception {
+        final DefaultAvailabilityIndexService first = newIndex();
+        first.load();
+        first.onReservationChanged(new ReservationChangedEvent(100L, 3, start, end, ReservationChangeType.BOOKED));
+        first.close();
+
+        when(outboxEventRepository.findRoomIds()).thenReturn(List.of(3));
+        final DefaultAvailabilityIndexService second = newIndex();
+        second.load();
+
+        assertTrue(second.isAvailable(3, start, end));
+        second.close();
+    }
+
+    @Test
+    void shouldRebuildEverythingWhenChangelogWasPrunedPastSnapshot() throws Exception {
+        when(availabilityChangeRepository.findSequenceRange()).thenReturn(new ChangeSequenceRange(1L, 20L));
+        final DefaultAvailabilityIndexService first = newIndex();
+        first.load();
+        first.onReservationChanged(new ReservationChangedEvent(100L, 3, start, end, ReservationChangeType.BOOKED));
+        first.close();
+
+        when(availabilityChangeRepository.findSequenceRange()).thenReturn(new ChangeSequenceRange(50L, 60L));
+        when(reservationRepository.findConfirmedSpans(0, LocalDate.now()))
+                .thenReturn(List.of(new ReservationSpan(102L, 5, start, end)));
+        final DefaultAvailabilityIndexService second = newIndex();
+        second.load();
+
+        assertTrue(second.isAvailable(3, start, end));
+        assertFalse(second.isAvailable(5, start, end));
+        second.close();
+    }
+
+    @Test
+    void shouldResyncOnLoadWhenRequestedBefore() throws Exception {
+        when(reservationRepository.findConfirmedSpans(0, LocalDate.now()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new ReservationSpan(1L, 6, start, end)));
+        final DefaultAvailabilityIndexService index = newIndex();
+        index.onResync(new AvailabilityResyncEvent("listener connected"));
+
+        index.load();
+
+        verify(reservationRepository, timeout(TIMEOUT_MS).times(2)).findConfirmedSpans(0, LocalDate.now());
+        awaitBooked(index, 6);
+        index.close();
+    }
+
+    @Test
+    void shouldKeepChangesAppliedWhileResyncReadsDatabase() throws Exception {
+        final DefaultAvailabilityIndexService index = newIndex();
+        index.load();
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch changed = new CountDownLatch(1);
+        when(reservationRepository.findConfirmedSpans(0, LocalDate.now())).thenAnswer(invocation -> {
+            reading.countDown();
+            assertTrue(changed.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            return List.of(new ReservationSpan(1L, 6, start, end));
+        });
+
+        index.onResync(new AvailabilityResyncEvent("gap"));
+        assertTrue(reading.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        // not blocked by the resync, and committed too late for its read
+        index.onReservationChanged(new ReservationChangedEvent(2L, 8, start, end, ReservationChangeType.BOOKED));
+        changed.countDown();
+
+        awaitBooked(index, 6);
+        assertFalse(index.isAvailable(8, start, end));
+        index.close();
+    }
+
+    @Test
+    void shouldOnlyRebuildRoomsChangedSinceSnapshotWhenCatchingUp() throws Exception {
+        when(availabilityChangeRepository.findSequenceRange()).thenReturn(new ChangeSequenceRange(1L, 20L));
+        final DefaultAvailabilityIndexService index = newIndex();
+        index.load();
+        index.onReservationChanged(new ReservationChangedEvent(100L, 3, start, end, ReservationChangeType.BOOKED));
+
+        // booked on another node before the listener connected
+        when(availabilityChangeRepository.findSequenceRange()).thenReturn(new ChangeSequenceRange(1L, 21L));
+        when(availabilityChangeRepository.findRoomIdsChangedAfter(20 - RECONCILE_MARGIN)).thenReturn(List.of(6));
+        when(reservationRepository.findConfirmedSpans(argThat(roomIds -> roomIds.contains(6)), eq(LocalDate.now()),
+                any())).thenReturn(List.of(new ReservationSpan(102L, 6, start, end)));
+        index.onResync(new AvailabilityResyncEvent("listener connected", true));
+
+        awaitBooked(index, 6);
+        assertFalse(index.isAvailable(3, start, end));
+        verify(reservationRepository).findConfirmedSpans(0, LocalDate.now());
+        index.close();
+    }
+
+    // resyncs run on their own thread
+    private void awaitBooked(final DefaultAvailabilityIndexService index, final int roomId) throws Exception {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (index.isAvailable(roomId, start, end) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(index.isAvailable(roomId, start, end));
+    }
+
+    private DefaultAvailabilityIndexService newIndex() {
+        return new DefaultAvailabilityIndexService(reservationRepository, roomRepository, availabilityChangeRepository,
+                outboxEventRepository, directory.toString(), 500, 30, RECONCILE_MARGIN);
+    }
+}
@@ -0,0 +1,171 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.AvailabilityResyncEvent;
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.exception.ServiceOverloadedException;
+import com.sample.bookingservice.service.AvailabilityListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class DefaultAvailabilityStreamServiceTest {
+
+    private static final long TIMEOUT_MS = 2000;
+    private static final long SEND_TIMEOUT_MS = 200;
+
+    private DefaultAvailabilityStreamService streamService;
+    private LocalDate today;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        streamService = new DefaultAvailabilityStreamService(2, 2, 2, SEND_TIMEOUT_MS, mock(ObjectProvider.class));
+        today = LocalDate.now();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.close();
+    }
+
+    @Test
+    void shouldNotifyOnlySubscribersOfChangedDays() throws Exception {
+        final AvailabilityListener affected = mock(AvailabilityListener.class);
+        final AvailabilityListener unaffected = mock(AvailabilityListener.class);
+        streamService.subscribe(today.plusDays(10), today.plusDays(15), affected);
+        streamService.subscribe(today.plusDays(20), today.plusDays(25), unaffected);
+
+        final ReservationChangedEvent booked = change(1L, 14, 16, ReservationChangeType.BOOKED);
+        final ReservationChangedEvent elsewhere = change(2L, 30, 32, ReservationChangeType.BOOKED);
+        streamService.onReservationChanges(new ReservationChangeBatchEvent(List.of(booked, elsewhere)));
+        streamService.onReservationChanged(change(3L, 5, 10, ReservationChangeType.CANCELLED));
+
+        verify(affected, timeout(TIMEOUT_MS)).onChanges(List.of(booked));
+        streamService.heartbeat();
+        verify(unaffected, timeout(TIMEOUT_MS)).onHeartbeat();
+        verify(unaffected, never()).onChanges(any());
+    }
+
+    @Test
+    void shouldUnsubscribeFailingListener() throws Exception {
+        final AvailabilityListener failing = mock(AvailabilityListener.class);
+        doThrow(new IOException("Broken pipe")).when(failing).onResync();
+        streamService.subscribe(today.plusDays(1), today.plusDays(3), failing);
+
+        streamService.onResync(new AvailabilityResyncEvent("test"));
+
+        verify(failing, timeout(TIMEOUT_MS)).onResync();
+        for (long waited = 0; streamService.getSubscriberCount() > 0 && waited < TIMEOUT_MS; waited += 10) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, streamService.getSubscriberCount());
+    }
+
+    @Test
+    void shouldDropSubscriberFallingBehindWithoutHoldingUpOthers() throws Exception {
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AvailabilityListener stalled = stalledListener(sending, release);
+        final AvailabilityListener reading = mock(AvailabilityListener.class);
+        streamService.subscribe(today.plusDays(1), today.plusDays(3), stalled);
+        streamService.subscribe(today.plusDays(1), today.plusDays(3), reading);
+
+        try {
+            streamService.onReservationChanged(change(1L, 1, 2, ReservationChangeType.BOOKED));
+            assertTrue(sending.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            // two more wait behind the stalled send, the third is one too many. The other subscriber gets each of them
+            for (int reservationId = 2; reservationId <= 4; reservationId++) {
+                streamService.onReservationChanged(change(reservationId, 1, 2, ReservationChangeType.BOOKED));
+                verify(reading, timeout(TIMEOUT_MS).times(reservationId)).onChanges(any());
+            }
+
+            assertEquals(1, streamService.getSubscriberCount());
+            // told once the call it is stuck in returns, not by the thread that dropped it
+            verify(stalled, never()).onDropped();
+        } finally {
+            release.countDown();
+        }
+        verify(stalled, timeout(TIMEOUT_MS)).onDropped();
+        // only the call it was stuck in, the queued ones were discarded
+        verify(stalled, timeout(TIMEOUT_MS).times(1)).onChanges(any());
+    }
+
+    @Test
+    void shouldDropSubscriberWhoseSendStalls() throws Exception {
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AvailabilityListener stalled = stalledListener(sending, release);
+        final AtomicReference<String> droppedOn = new AtomicReference<>();
+        doAnswer(invocation -> {
+            droppedOn.set(Thread.currentThread().getName());
+            return null;
+        }).when(stalled).onDropped();
+        streamService.subscribe(today.plusDays(1), today.plusDays(3), stalled);
+
+        try {
+            streamService.onReservationChanged(change(1L, 1, 2, ReservationChangeType.BOOKED));
+            assertTrue(sending.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            streamService.heartbeat();
+            verify(stalled, never()).onDropped();
+
+            Thread.sleep(SEND_TIMEOUT_MS * 2);
+            streamService.heartbeat();
+
+            assertEquals(0, streamService.getSubscriberCount());
+            verify(stalled, never()).onDropped();
+        } finally {
+            release.countDown();
+        }
+        verify(stalled, timeout(TIMEOUT_MS)).onDropped();
+        // never the heartbeat's scheduler thread
+        assertTrue(droppedOn.get().startsWith("availability-stream-"));
+    }
+
+    @Test
+    void shouldRefuseSubscribersOverLimit() {
+        streamService.subscribe(today.plusDays(1), today.plusDays(3), mock(AvailabilityListener.class));
+        streamService.subscribe(today.plusDays(1), today.plusDays(3), mock(AvailabilityListener.class));
+
+        assertThrows(ServiceOverloadedException.class, () ->
+                streamService.subscribe(today.plusDays(1), today.plusDays(3), mock(AvailabilityListener.class)));
+    }
+
+    // blocks in its first onChanges until released, like a client that stopped reading
+    private static AvailabilityListener stalledListener(final CountDownLatch sending, final CountDownLatch release)
+            throws IOException {
+        final AvailabilityListener listener = mock(AvailabilityListener.class);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).when(listener).onChanges(any());
+        return listener;
+    }
+
+    private ReservationChangedEvent change(final long reservationId, final int startDay, final int endDay,
+                                           final ReservationChangeType type) {
+        return new ReservationChangedEvent(reservationId, 7, today.plusDays(startDay), today.plusDays(endDay), type);
+    }
+}
@@ -0,0 +1,67 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultAvailabilityVersionServiceTest {
+
+    private static final Integer ALLOWED_DAYS_AHEAD = 500;
+    private static final Integer ALLOWED_RESERVATION_DURATION = 30;
+
+    private DefaultAvailabilityVersionService availabilityVersionService;
+    private LocalDate now;
+
+    @BeforeEach
+    void setUp() {
+        availabilityVersionService = new DefaultAvailabilityVersionService(ALLOWED_DAYS_AHEAD, ALLOWED_RESERVATION_DURATION);
+        now = LocalDate.now();
+    }
+
+    @Test
+    void shouldBumpVersionOfOverlappingRanges() {
+        final long before = availabilityVersionService.getVersion(now.plusDays(2), now.plusDays(6));
+
+        availabilityVersionService.onReservationChanged(new ReservationChangedEvent(1L, 1,
+                now.plusDays(5), now.plusDays(8), ReservationChangeType.BOOKED));
+
+        assertTrue(availabilityVersionService.getVersion(now.plusDays(2), now.plusDays(6)) > before);
+    }
+
+    @Test
+    void shouldKeepVersionOfNonOverlappingRanges() {
+        final long before = availabilityVersionService.getVersion(now.plusDays(2), now.plusDays(5));
+
+        // reservation may start on the day the searched range ends
+        availabilityVersionService.bump(now.plusDays(5), now.plusDays(8));
+        availabilityVersionService.bump(now.minusDays(3), now.plusDays(2));
+
+        assertEquals(before, availabilityVersionService.getVersion(now.plusDays(2), now.plusDays(5)));
+    }
+
+    @Test
+    void shouldNeverDecreaseVersion() {
+        availabilityVersionService.bump(now.plusDays(1), now.plusDays(3));
+        final long first = availabilityVersionService.getVersion(now.plusDays(1), now.plusDays(3));
+
+        availabilityVersionService.bump(now.plusDays(2), now.plusDays(4));
+        final long second = availabilityVersionService.getVersion(now.plusDays(1), now.plusDays(3));
+
+        assertTrue(second > first);
+    }
+
+    @Test
+    void shouldBumpAllRangesWhenBumpedRangeIsLongerThanWindow() {
+        final long before = availabilityVersionService.getVersion(now.plusDays(300), now.plusDays(301));
+
+        availabilityVersionService.bump(now.minusDays(10), now.plusDays(ALLOWED_DAYS_AHEAD * 2));
+
+        assertTrue(availabilityVersionService.getVersion(now.plusDays(300), now.plusDays(301)) > before);
+    }
+}
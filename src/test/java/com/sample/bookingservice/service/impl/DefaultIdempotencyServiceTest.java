@@ -0,0 +1,142 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.exception.RoomAlreadyBookedException;
+import com.sample.bookingservice.model.Reservation;
+import com.sample.bookingservice.model.ReservationStatus;
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DefaultIdempotencyServiceTest {
+
+    private static final String KEY = "key-1";
+
+    private ReservationRepository reservationRepository;
+    private DefaultIdempotencyService idempotencyService;
+    private Reservation reservation;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        idempotencyService = new DefaultIdempotencyService(reservationRepository, 2);
+        when(reservationRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+
+        final Room room = new Room();
+        room.setRoomId(1);
+        room.setRoomNumber("room");
+
+        reservation = new Reservation();
+        reservation.setReservationId(1L);
+        reservation.setRoom(room);
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        reservation.setStartDate(LocalDate.now().plusDays(1));
+        reservation.setEndDate(LocalDate.now().plusDays(2));
+    }
+
+    @Test
+    void shouldReplayCompletedReservationWithoutBookingAgain() {
+        final AtomicInteger bookings = new AtomicInteger();
+
+        idempotencyService.execute(KEY, () -> {
+            bookings.incrementAndGet();
+            return reservation;
+        });
+        final Reservation replayed = idempotencyService.execute(KEY, () -> {
+            bookings.incrementAndGet();
+            return reservation;
+        });
+
+        assertSame(reservation, replayed);
+        assertEquals(1, bookings.get());
+        verify(reservationRepository, times(1)).findByIdempotencyKey(KEY);
+    }
+
+    @Test
+    void shouldReplayStoredReservationWhenKeyIsNotInMemory() {
+        when(reservationRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.of(reservation));
+
+        final Reservation replayed = idempotencyService.execute(KEY, () -> {
+            throw new IllegalStateException("booking must not run for a stored key");
+        });
+
+        assertSame(reservation, replayed);
+    }
+
+    @Test
+    void shouldReplayStoredReservationWhenKeyWasStoredConcurrently() {
+        when(reservationRepository.findByIdempotencyKey(KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(reservation));
+
+        final Reservation replayed = idempotencyService.execute(KEY, () -> {
+            throw new DataIntegrityViolationException("duplicate key");
+        });
+
+        assertSame(reservation, replayed);
+    }
+
+    @Test
+    void shouldNotRememberFailedBooking() {
+        assertThrows(RoomAlreadyBookedException.class, () -> idempotencyService.execute(KEY, () -> {
+            throw new RoomAlreadyBookedException("booked");
+        }));
+
+        assertSame(reservation, idempotencyService.execute(KEY, () -> reservation));
+    }
+
+    @Test
+    void shouldCollapseConcurrentDuplicatesOntoOneBooking() throws Exception {
+        final int callers = 8;
+        final AtomicInteger bookings = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            final Future<?>[] results = new Future<?>[callers];
+            for (int i = 0; i < callers; i++) {
+                results[i] = executor.submit(() -> idempotencyService.execute(KEY, () -> {
+                    bookings.incrementAndGet();
+                    await(release);
+                    return reservation;
+                }));
+            }
+
+            Thread.sleep(200);
+            release.countDown();
+
+            for (final Future<?> result : results) {
+                assertSame(reservation, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, bookings.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
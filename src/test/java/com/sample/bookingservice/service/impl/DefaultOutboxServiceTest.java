@@ -0,0 +1,99 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.model.OutboxEvent;
+import com.sample.bookingservice.repository.OutboxEventRepository;
+import com.sample.bookingservice.service.OutboxEventSink;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DefaultOutboxServiceTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    private OutboxEventRepository outboxEventRepository;
+    private OutboxEventSink outboxEventSink;
+    private DefaultOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        outboxEventSink = mock(OutboxEventSink.class);
+        outboxService = new DefaultOutboxService(outboxEventRepository, outboxEventSink, BATCH_SIZE);
+        when(outboxEventRepository.tryLockRelay(DefaultOutboxService.RELAY_LOCK_KEY)).thenReturn(true);
+    }
+
+    @Test
+    void shouldRecordReservationChange() {
+        final LocalDate startDate = LocalDate.now().plusDays(1);
+        final LocalDate endDate = LocalDate.now().plusDays(3);
+
+        outboxService.onReservationChanged(
+                new ReservationChangedEvent(7L, 3, startDate, endDate, ReservationChangeType.CANCELLED));
+
+        verify(outboxEventRepository).insert(7L, 3, "CANCELLED", startDate, endDate);
+    }
+
+    @Test
+    void shouldPublishClaimedBatchInEventIdOrder() {
+        when(outboxEventRepository.claimBatch(BATCH_SIZE)).thenReturn(List.of(event(3L), event(1L), event(2L)));
+
+        assertEquals(3, outboxService.relayBatch());
+
+        verify(outboxEventSink).publish(List.of(event(1L), event(2L), event(3L)));
+    }
+
+    @Test
+    void shouldNotPublishEmptyBatch() {
+        when(outboxEventRepository.claimBatch(BATCH_SIZE)).thenReturn(List.of());
+
+        assertEquals(0, outboxService.relayBatch());
+
+        verify(outboxEventSink, never()).publish(any());
+    }
+
+    @Test
+    void shouldNotClaimWhileAnotherNodeRelays() {
+        when(outboxEventRepository.tryLockRelay(DefaultOutboxService.RELAY_LOCK_KEY)).thenReturn(false);
+
+        assertEquals(0, outboxService.relayBatch());
+
+        verify(outboxEventRepository, never()).claimBatch(anyInt());
+        verify(outboxEventSink, never()).publish(any());
+    }
+
+    @Test
+    void shouldPropagateSinkFailureSoTheBatchIsRolledBack() {
+        when(outboxEventRepository.claimBatch(BATCH_SIZE)).thenReturn(List.of(event(1L)));
+        doThrow(new IllegalStateException("sink down")).when(outboxEventSink).publish(any());
+
+        assertThrows(IllegalStateException.class, () -> outboxService.relayBatch());
+    }
+
+    static OutboxEvent event(final Long eventId) {
+        final OutboxEvent event = new OutboxEvent();
+        event.setEventId(eventId);
+        event.setReservationId(eventId * 10);
+        event.setRoomId(1);
+        event.setEventType(ReservationChangeType.BOOKED);
+        event.setStartDate(LocalDate.of(2030, 1, 1));
+        event.setEndDate(LocalDate.of(2030, 1, 2));
+        event.setCreatedAt(new Date(0));
+        return event;
+    }
+}
@@ -0,0 +1,71 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.service.ProfileType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultProfilingServiceTest {
+
+    private ThreadPoolTaskScheduler taskScheduler;
+    private DefaultProfilingService profilingService;
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.initialize();
+        profilingService = new DefaultProfilingService(taskScheduler, 60, 5, 1000, 10, "1000/s", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        profilingService.close();
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    void shouldCollectExecutionSamplesOfBusyMethod() throws Exception {
+        assertTrue(profilingService.start(Duration.ofSeconds(30)));
+        assertFalse(profilingService.start(Duration.ofSeconds(30)));
+        assertNotNull(profilingService.getRunningUntil());
+
+        final long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        String stacks = "";
+        while (!stacks.contains("DefaultProfilingServiceTest.spin") && System.nanoTime() < deadline) {
+            spin();
+            stacks = profilingService.getCollapsedStacks(ProfileType.CPU, 2);
+        }
+
+        assertTrue(stacks.contains("DefaultProfilingServiceTest.spin"), stacks);
+        profilingService.stop();
+        assertNull(profilingService.getRunningUntil());
+    }
+
+    @Test
+    void shouldStopByItselfAfterDuration() throws Exception {
+        profilingService.start(Duration.ofMillis(200));
+
+        final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (profilingService.getRunningUntil() != null && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertNull(profilingService.getRunningUntil());
+    }
+
+    private static double spin() {
+        double sum = 0;
+        for (int i = 1; i < 20_000_000; i++) {
+            sum += Math.sqrt(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,117 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.service.AvailabilityIndexService;
+import com.sample.bookingservice.service.ReservationAlternatives;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DefaultReservationAlternativesServiceTest {
+
+    private static final int ALLOWED_DAYS_AHEAD = 500;
+
+    private AvailabilityIndexService availabilityIndexService;
+    private ReservationRepository reservationRepository;
+    private RoomRepository roomRepository;
+    private DefaultReservationAlternativesService alternativesService;
+    private LocalDate start;
+    private LocalDate end;
+
+    @BeforeEach
+    void setUp() {
+        availabilityIndexService = mock(AvailabilityIndexService.class);
+        reservationRepository = mock(ReservationRepository.class);
+        roomRepository = mock(RoomRepository.class);
+        alternativesService = new DefaultReservationAlternativesService(availabilityIndexService,
+                reservationRepository, roomRepository, ALLOWED_DAYS_AHEAD, 3, 2);
+        start = LocalDate.now().plusDays(10);
+        end = LocalDate.now().plusDays(12);
+    }
+
+    @Test
+    void shouldOfferNearestStaysAndFreeRoomsFromIndex() {
+        when(availabilityIndexService.isReady()).thenReturn(true);
+        // days 9 to 13 are booked
+        when(availabilityIndexService.isAvailable(eq(7), any(), any())).thenAnswer(invocation -> {
+            final LocalDate from = invocation.getArgument(1);
+            final LocalDate to = invocation.getArgument(2);
+            return !from.isBefore(LocalDate.now().plusDays(14)) || !to.isAfter(LocalDate.now().plusDays(9));
+        });
+        // id 0 has no room and the requested room is reported free by a stale index
+        when(availabilityIndexService.findFreeRoomIds(start, end, 0, 3)).thenReturn(List.of(0, 3, 7));
+        when(availabilityIndexService.findFreeRoomIds(start, end, 7, 2)).thenReturn(List.of(8, 9));
+        when(roomRepository.findAllById(List.of(0, 3))).thenReturn(List.of(room(3)));
+        when(roomRepository.findAllById(List.of(8, 9))).thenReturn(List.of(room(9), room(8)));
+
+        final ReservationAlternatives alternatives = alternativesService.findAlternatives(start, end, 7);
+
+        assertEquals(List.of(
+                range(7, 9),
+                range(14, 16),
+                range(5, 7)), alternatives.dates());
+        assertEquals(List.of(3, 8), alternatives.rooms().stream().map(Room::getRoomId).toList());
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    void shouldStayWithinBookableDays() {
+        when(availabilityIndexService.isReady()).thenReturn(true);
+        when(availabilityIndexService.isAvailable(eq(7), any(), any())).thenReturn(true);
+
+        final ReservationAlternatives alternatives = new DefaultReservationAlternativesService(
+                availabilityIndexService, reservationRepository, roomRepository, ALLOWED_DAYS_AHEAD, 3, 0)
+                .findAlternatives(LocalDate.now(), LocalDate.now().plusDays(ALLOWED_DAYS_AHEAD - 1), 7);
+
+        assertEquals(List.of(range(1, ALLOWED_DAYS_AHEAD)), alternatives.dates());
+        assertEquals(List.of(), alternatives.rooms());
+        verifyNoInteractions(roomRepository);
+    }
+
+    @Test
+    void shouldFallBackToDatabaseBeforeIndexIsLoaded() {
+        when(availabilityIndexService.isReady()).thenReturn(false);
+        when(reservationRepository.findConfirmedSpans(eq(List.of(7)), any(), any())).thenReturn(List.of(
+                new ReservationSpan(1L, 7, start.minusDays(1), end.plusDays(1)),
+                new ReservationSpan(2L, 7, end.plusDays(1), end.plusDays(3))));
+        when(roomRepository.findOtherFreeRooms(start, end, 7, PageRequest.of(0, 2)))
+                .thenReturn(List.of(room(1), room(2)));
+
+        final ReservationAlternatives alternatives = alternativesService.findAlternatives(start, end, 7);
+
+        assertEquals(List.of(
+                range(7, 9),
+                range(5, 7),
+                range(15, 17)), alternatives.dates());
+        assertEquals(List.of(1, 2), alternatives.rooms().stream().map(Room::getRoomId).toList());
+        verify(availabilityIndexService).isReady();
+        verify(roomRepository).findOtherFreeRooms(any(), any(), anyInt(), any());
+    }
+
+    private static ReservationAlternatives.DateRange range(final int startDay, final int endDay) {
+        return new ReservationAlternatives.DateRange(LocalDate.now().plusDays(startDay),
+                LocalDate.now().plusDays(endDay));
+    }
+
+    private static Room room(final int roomId) {
+        final Room room = new Room();
+        room.setRoomId(roomId);
+        room.setRoomNumber(Integer.toString(roomId));
+        return room;
+    }
+}
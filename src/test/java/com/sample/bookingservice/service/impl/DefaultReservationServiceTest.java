@@ -1,13 +1,23 @@
 package com.sample.bookingservice.service.impl;
 
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
 import com.sample.bookingservice.exception.CancelReservationException;
+import com.sample.bookingservice.exception.ModifyReservationException;
 import com.sample.bookingservice.exception.ReservationNotFoundException;
 import com.sample.bookingservice.exception.RoomAlreadyBookedException;
+import com.sample.bookingservice.exception.RoomNotFoundException;
 import com.sample.bookingservice.model.Reservation;
 import com.sample.bookingservice.model.ReservationStatus;
 import com.sample.bookingservice.model.Room;
 import com.sample.bookingservice.repository.ReservationRepository;
 import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.WaitlistEntryRepository;
+import com.sample.bookingservice.repository.projection.ReservationMove;
+import com.sample.bookingservice.repository.projection.ReservationSpan;
+import com.sample.bookingservice.repository.projection.ReservationView;
+import com.sample.bookingservice.repository.projection.RoomAvailability;
 import com.sample.bookingservice.service.ReservationService;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,18 +26,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
+@RecordApplicationEvents
 class DefaultReservationServiceTest {
 
     private static final Integer ALLOWED_DAYS_AHEAD = 500;
@@ -45,19 +67,26 @@ class DefaultReservationServiceTest {
     @MockBean
     private ReservationRepository reservationRepository;
 
+    @MockBean
+    private WaitlistEntryRepository waitlistEntryRepository;
+
     @Autowired
     private ReservationService defaultReservationService;
     private Reservation reservation;
     private Room room;
     @Autowired
     private ReservationService reservationService;
+    @Autowired
+    private ApplicationEvents applicationEvents;
 
     @BeforeEach
     public void setUp() {
         room = new Room();
         room.setRoomId(1);
         room.setRoomNumber("room1");
+        // saved reservations always have an id, the outbox row written with every change requires it
         reservation = new Reservation();
+        reservation.setReservationId(1L);
         reservation.setStartDate(LocalDate.now());
         reservation.setEndDate(LocalDate.now().plusDays(1));
         reservation.setRoom(room);
@@ -66,7 +95,8 @@ class DefaultReservationServiceTest {
     @Test
     public void shouldThrowErrorIfUnableToFindReservationToCancel() {
         final long id = 1;
-        when(reservationRepository.findById(id)).thenReturn(Optional.empty());
+        when(reservationRepository.cancelConfirmedReservation(id)).thenReturn(Optional.empty());
+        when(reservationRepository.findStatusById(id)).thenReturn(Optional.empty());
         assertThrows(ReservationNotFoundException.class, () -> {
             defaultReservationService.cancelReservation(id);
         });
@@ -75,9 +105,8 @@ class DefaultReservationServiceTest {
     @Test
     public void shouldThrowErrorIfReservationToCancelIsCancelled() {
         final long id = 1;
-        reservation.setStatus(ReservationStatus.CANCELLED);
-
-        when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.cancelConfirmedReservation(id)).thenReturn(Optional.empty());
+        when(reservationRepository.findStatusById(id)).thenReturn(Optional.of(ReservationStatus.CANCELLED));
         assertThrows(CancelReservationException.class, () -> {
             defaultReservationService.cancelReservation(id);
         });
@@ -86,9 +115,8 @@ class DefaultReservationServiceTest {
     @Test
     public void shouldThrowErrorIfReservationToCancelIsExpired() {
         final long id = 1;
-        reservation.setStatus(ReservationStatus.EXPIRED);
-
-        when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.cancelConfirmedReservation(id)).thenReturn(Optional.empty());
+        when(reservationRepository.findStatusById(id)).thenReturn(Optional.of(ReservationStatus.EXPIRED));
         assertThrows(CancelReservationException.class, () -> {
             defaultReservationService.cancelReservation(id);
         });
@@ -108,21 +136,34 @@ class DefaultReservationServiceTest {
     @Test
     public void shouldCancelReservation() {
         final long id = 1;
-        reservation.setStatus(ReservationStatus.CONFIRMED);
-
-        when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
-        when(reservationRepository.save(reservation)).thenReturn(reservation);
+        when(reservationRepository.cancelConfirmedReservation(id)).thenReturn(Optional.of(new ReservationView(id,
+                room.getRoomId(), room.getRoomNumber(), ReservationStatus.CANCELLED, reservation.getStartDate(),
+                reservation.getEndDate(), reservation.getCreatedAt())));
         final Reservation cancelledReservation = defaultReservationService.cancelReservation(id);
 
         assertEquals(ReservationStatus.CANCELLED, cancelledReservation.getStatus());
         assertEquals(reservation.getReservationId(), cancelledReservation.getReservationId());
+        assertEquals(room, cancelledReservation.getRoom());
+        verify(reservationRepository, never()).findStatusById(id);
+    }
+
+    @Test
+    public void shouldCancelReservationOfDeletedRoom() {
+        final long id = 1;
+        when(reservationRepository.cancelConfirmedReservation(id)).thenReturn(Optional.of(new ReservationView(id,
+                null, null, ReservationStatus.CANCELLED, reservation.getStartDate(), reservation.getEndDate(),
+                reservation.getCreatedAt())));
+
+        final Reservation cancelledReservation = defaultReservationService.cancelReservation(id);
+
+        assertEquals(ReservationStatus.CANCELLED, cancelledReservation.getStatus());
+        assertNull(cancelledReservation.getRoom().getRoomId());
     }
 
     @Test
     public void shouldThrowErrorIfRoomIsNotAvailable() {
-        when(roomRepository.findById(reservation.getRoom().getRoomId())).thenReturn(Optional.of(room));
-        when(roomRepository.isRoomAvailable(reservation.getStartDate(), reservation.getEndDate(), room.getRoomId()))
-                .thenReturn(false);
+        when(roomRepository.findRoomAvailability(reservation.getStartDate(), reservation.getEndDate(), room.getRoomId()))
+                .thenReturn(Optional.of(new RoomAvailability(room, false)));
         assertThrows(RoomAlreadyBookedException.class, () -> {
             defaultReservationService.makeReservation(reservation.getStartDate(), reservation.getEndDate(), room.getRoomId());
         });
@@ -132,9 +173,8 @@ class DefaultReservationServiceTest {
     public void shouldMakeReservationIfRoomIsAvailable() {
         reservation.setStatus(ReservationStatus.CONFIRMED);
         reservation.setRoom(room);
-        when(roomRepository.findById(room.getRoomId())).thenReturn(Optional.of(room));
-        when(roomRepository.isRoomAvailable(reservation.getStartDate(), reservation.getEndDate(), room.getRoomId()))
-                .thenReturn(true);
+        when(roomRepository.findRoomAvailability(reservation.getStartDate(), reservation.getEndDate(), room.getRoomId()))
+                .thenReturn(Optional.of(new RoomAvailability(room, true)));
         when(reservationRepository.save(any())).thenReturn(reservation);
         final Reservation newReservation = defaultReservationService.makeReservation(reservation.getStartDate(), reservation.getEndDate(), room.getRoomId());
 
@@ -241,4 +281,160 @@ class DefaultReservationServiceTest {
         });
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void shouldThrowErrorIfUnableToFindReservation() {
+        when(reservationRepository.findViewById(1)).thenReturn(Optional.empty());
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.getReservation(1));
+    }
+
+    @Test
+    public void shouldReturnReservationView() {
+        final ReservationView view = new ReservationView(1L, 1, "room1", ReservationStatus.CONFIRMED,
+                LocalDate.now(), LocalDate.now().plusDays(1), new Date());
+        when(reservationRepository.findViewById(1)).thenReturn(Optional.of(view));
+
+        assertEquals(view, reservationService.getReservation(1));
+    }
+
+    @Test
+    public void shouldThrowValidationErrorWhenTooManyIdsAreRequested() {
+        final List<Long> ids = Collections.nCopies(ReservationService.MAX_LOOKUP_IDS + 1, 1L);
+        assertThrows(ValidationException.class, () -> reservationService.getReservations(ids));
+    }
+
+    @Test
+    public void shouldStartFirstRoomReservationsPageAtFrom() {
+        final LocalDate from = LocalDate.of(2024, 1, 1);
+        final LocalDate to = LocalDate.of(2024, 2, 1);
+
+        reservationService.getRoomReservations(1, from, to, null, null, 10);
+        reservationService.getRoomReservations(1, from, to, from.minusDays(1), 7L, 10);
+
+        verify(reservationRepository, times(2)).findRoomViews(1, to, from, 0, PageRequest.of(0, 10));
+    }
+
+    @Test
+    public void shouldContinueRoomReservationsAfterKey() {
+        final LocalDate from = LocalDate.of(2024, 1, 1);
+        final LocalDate to = LocalDate.of(2024, 2, 1);
+
+        reservationService.getRoomReservations(1, from, to, from.plusDays(3), 7L, 10);
+
+        verify(reservationRepository).findRoomViews(1, to, from.plusDays(3), 7L, PageRequest.of(0, 10));
+    }
+
+    @Test
+    public void shouldPromoteClaimedWaitlistEntry() {
+        when(waitlistEntryRepository.claim(3)).thenReturn(1);
+        when(roomRepository.findRoomAvailability(reservation.getStartDate(), reservation.getEndDate(), room.getRoomId()))
+                .thenReturn(Optional.of(new RoomAvailability(room, true)));
+        when(reservationRepository.save(any())).thenReturn(reservation);
+
+        final Optional<Reservation> promoted = reservationService.promoteWaitlistEntry(reservation.getStartDate(),
+                reservation.getEndDate(), room.getRoomId(), 3);
+
+        assertEquals(Optional.of(reservation), promoted);
+        verify(waitlistEntryRepository).setReservationId(3, reservation.getReservationId());
+    }
+
+    @Test
+    public void shouldNotBookWaitlistEntryNoLongerWaiting() {
+        when(waitlistEntryRepository.claim(3)).thenReturn(0);
+
+        assertEquals(Optional.empty(), reservationService.promoteWaitlistEntry(reservation.getStartDate(),
+                reservation.getEndDate(), room.getRoomId(), 3));
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    public void shouldCancelReservationsOfRoomsInOneStatement() {
+        final LocalDate from = LocalDate.now().plusDays(1);
+        final LocalDate to = LocalDate.now().plusDays(90);
+        final List<ReservationSpan> spans = List.of(new ReservationSpan(5L, 1, from, from.plusDays(2)),
+                new ReservationSpan(6L, 2, to.minusDays(1), to.plusDays(3)));
+        when(reservationRepository.cancelConfirmedReservations(Set.of(1, 2), from, to)).thenReturn(spans);
+
+        assertEquals(spans, reservationService.cancelReservations(Set.of(1, 2), from, to));
+    }
+
+    @Test
+    public void shouldThrowValidationErrorWhenCancellationRangeIsEmpty() {
+        final LocalDate from = LocalDate.now().plusDays(1);
+        assertThrows(ValidationException.class, () -> reservationService.cancelReservations(Set.of(1), from, from));
+    }
+
+    @Test
+    public void shouldModifyReservationWithoutReadingIt() {
+        final LocalDate from = LocalDate.now().plusDays(3);
+        final LocalDate to = LocalDate.now().plusDays(5);
+        when(reservationRepository.moveConfirmedReservation(1, 2, from, to)).thenReturn(Optional.of(new ReservationMove(
+                new ReservationView(1L, 2, "room2", ReservationStatus.CONFIRMED, from, to, new Date()),
+                new ReservationSpan(1L, 1, LocalDate.now(), LocalDate.now().plusDays(1)))));
+
+        final Reservation modified = reservationService.modifyReservation(from, to, 2, 1);
+
+        assertEquals(2, modified.getRoom().getRoomId());
+        assertEquals(from, modified.getStartDate());
+        assertEquals(to, modified.getEndDate());
+        verify(reservationRepository, never()).findStatusById(1);
+        // a move, never reported as a cancellation of the reservation
+        assertEquals(List.of(
+                new ReservationChangedEvent(1L, 1, LocalDate.now(), LocalDate.now().plusDays(1),
+                        ReservationChangeType.MOVED_FROM),
+                new ReservationChangedEvent(1L, 2, from, to, ReservationChangeType.MOVED_TO)), publishedChanges());
+    }
+
+    @Test
+    public void shouldMoveReservationOfDeletedRoom() {
+        final LocalDate from = LocalDate.now().plusDays(3);
+        final LocalDate to = LocalDate.now().plusDays(5);
+        when(reservationRepository.moveConfirmedReservation(1, 2, from, to)).thenReturn(Optional.of(new ReservationMove(
+                new ReservationView(1L, 2, "room2", ReservationStatus.CONFIRMED, from, to, new Date()),
+                new ReservationSpan(1L, null, LocalDate.now(), LocalDate.now().plusDays(1)))));
+
+        reservationService.modifyReservation(from, to, 2, 1);
+
+        // it held no days, the outbox row of the days it left would have no room
+        assertEquals(List.of(new ReservationChangedEvent(1L, 2, from, to, ReservationChangeType.MOVED_TO)),
+                publishedChanges());
+    }
+
+    @Test
+    public void shouldExplainRefusedModification() {
+        final LocalDate from = LocalDate.now().plusDays(3);
+        final LocalDate to = LocalDate.now().plusDays(5);
+        when(reservationRepository.moveConfirmedReservation(any(Long.class), any(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        when(reservationRepository.findStatusById(1)).thenReturn(Optional.empty());
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.modifyReservation(from, to, null, 1));
+
+        when(reservationRepository.findStatusById(1)).thenReturn(Optional.of(ReservationStatus.CANCELLED));
+        assertThrows(ModifyReservationException.class, () -> reservationService.modifyReservation(from, to, null, 1));
+
+        when(reservationRepository.findStatusById(1)).thenReturn(Optional.of(ReservationStatus.CONFIRMED));
+        when(roomRepository.existsById(7)).thenReturn(false);
+        assertThrows(RoomNotFoundException.class, () -> reservationService.modifyReservation(from, to, 7, 1));
+
+        when(reservationRepository.findRoomIdById(1)).thenReturn(Optional.of(1));
+        assertThrows(RoomAlreadyBookedException.class, () -> reservationService.modifyReservation(from, to, null, 1));
+
+        // its room was deleted, the move needs a new one
+        when(reservationRepository.findRoomIdById(1)).thenReturn(Optional.empty());
+        assertThrows(ValidationException.class, () -> reservationService.modifyReservation(from, to, null, 1));
+    }
+
+    @Test
+    public void shouldThrowValidationErrorWhenModifiedDurationIsMoreThanMax() {
+        final LocalDate from = LocalDate.now().plusDays(1);
+        assertThrows(ValidationException.class, () -> reservationService.modifyReservation(from,
+                from.plusDays(ALLOWED_RESERVATION_DURATION + 1), null, 1));
+    }
+
+    private List<ReservationChangedEvent> publishedChanges() {
+        return applicationEvents.stream(ReservationChangeBatchEvent.class)
+                .flatMap(event -> event.changes().stream())
+                .toList();
+    }
+}
@@ -0,0 +1,98 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.service.AvailabilityIndexService;
+import com.sample.bookingservice.service.AvailabilityVersionService;
+import com.sample.bookingservice.service.RoomAttributeService;
+import com.sample.bookingservice.service.RoomRateService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DefaultRoomServiceCoalescingTest {
+
+    private RoomRepository roomRepository;
+    private AvailabilityVersionService availabilityVersionService;
+    private DefaultRoomService roomService;
+    private LocalDate from;
+    private LocalDate to;
+    private List<Room> rooms;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        availabilityVersionService = mock(AvailabilityVersionService.class);
+        roomService = new DefaultRoomService(mock(ReservationRepository.class), roomRepository,
+                availabilityVersionService, mock(AvailabilityIndexService.class), mock(RoomAttributeService.class),
+                mock(RoomRateService.class), mock(ObjectProvider.class));
+
+        from = LocalDate.now().plusDays(1);
+        to = LocalDate.now().plusDays(3);
+        final Room room = new Room();
+        room.setRoomId(1);
+        room.setRoomNumber("101");
+        rooms = List.of(room);
+        when(availabilityVersionService.getVersion(from, to)).thenReturn(1L);
+    }
+
+    @Test
+    void shouldShareOneQueryBetweenConcurrentIdenticalSearches() throws Exception {
+        final int callers = 8;
+        final AtomicInteger queries = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        when(roomRepository.findFreeRooms(any(), any(), any(Pageable.class))).thenAnswer(invocation -> {
+            queries.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return rooms;
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            final Future<?>[] results = new Future<?>[callers];
+            for (int i = 0; i < callers; i++) {
+                results[i] = executor.submit(() -> roomService.getAvailableRooms(from, to, Pageable.ofSize(10)));
+            }
+
+            Thread.sleep(200);
+            release.countDown();
+
+            for (final Future<?> result : results) {
+                assertEquals(rooms, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, queries.get());
+            assertEquals(callers - 1, roomService.getCoalescedSearches());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldNotShareQueryStartedBeforeAvailabilityChanged() {
+        when(roomRepository.findFreeRooms(from, to, Pageable.ofSize(10))).thenReturn(rooms);
+
+        roomService.getAvailableRooms(from, to, Pageable.ofSize(10));
+        when(availabilityVersionService.getVersion(from, to)).thenReturn(2L);
+        roomService.getAvailableRooms(from, to, Pageable.ofSize(10));
+
+        assertEquals(0, roomService.getCoalescedSearches());
+    }
+}
@@ -0,0 +1,152 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.service.AvailabilityIndexService;
+import com.sample.bookingservice.service.AvailabilityVersionService;
+import com.sample.bookingservice.service.RoomAttributeService;
+import com.sample.bookingservice.service.RoomRateService;
+import com.sample.bookingservice.service.RoomFilter;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DefaultRoomServiceFilterTest {
+
+    private static final RoomFilter SUITES = new RoomFilter("suite", 2, null, Set.of("wifi"));
+
+    private RoomRepository roomRepository;
+    private AvailabilityIndexService availabilityIndexService;
+    private RoomAttributeService roomAttributeService;
+    private DefaultRoomService roomService;
+    private LocalDate from;
+    private LocalDate to;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        availabilityIndexService = mock(AvailabilityIndexService.class);
+        roomAttributeService = mock(RoomAttributeService.class);
+        roomService = new DefaultRoomService(mock(ReservationRepository.class), roomRepository,
+                mock(AvailabilityVersionService.class), availabilityIndexService, roomAttributeService,
+                mock(RoomRateService.class), mock(ObjectProvider.class));
+
+        from = LocalDate.now().plusDays(1);
+        to = LocalDate.now().plusDays(3);
+        final BitSet suites = new BitSet();
+        suites.set(2);
+        suites.set(5);
+        suites.set(7);
+        suites.set(9);
+        when(roomAttributeService.findRoomIds(SUITES)).thenReturn(suites);
+        when(availabilityIndexService.isReady()).thenReturn(true);
+    }
+
+    @Test
+    void shouldOnlyCheckAvailabilityOfMatchingRooms() {
+        when(availabilityIndexService.isAvailable(anyInt(), eq(from), eq(to))).thenReturn(true);
+        when(availabilityIndexService.isAvailable(5, from, to)).thenReturn(false);
+        when(roomRepository.findAllById(List.of(2, 7))).thenReturn(List.of(room(7), room(2)));
+
+        final List<Room> rooms = roomService.getAvailableRooms(from, to, SUITES, PageRequest.of(0, 2));
+
+        assertEquals(List.of(2, 7), rooms.stream().map(Room::getRoomId).toList());
+        verify(availabilityIndexService, never()).isAvailable(eq(1), any(), any());
+        verify(availabilityIndexService, never()).isAvailable(eq(9), any(), any());
+    }
+
+    @Test
+    void shouldSkipAvailableRoomsOfEarlierPages() {
+        when(availabilityIndexService.isAvailable(anyInt(), eq(from), eq(to))).thenReturn(true);
+        when(availabilityIndexService.isAvailable(5, from, to)).thenReturn(false);
+        when(roomRepository.findAllById(List.of(9))).thenReturn(List.of(room(9)));
+
+        final List<Room> rooms = roomService.getAvailableRooms(from, to, SUITES, PageRequest.of(1, 2));
+
+        assertEquals(List.of(9), rooms.stream().map(Room::getRoomId).toList());
+        verify(roomRepository, never()).getAvailableRooms(any(), any(), any());
+    }
+
+    @Test
+    void shouldNotQueryWhenNoRoomMatches() {
+        final RoomFilter pools = new RoomFilter(null, null, null, Set.of("pool"));
+        when(roomAttributeService.findRoomIds(pools)).thenReturn(new BitSet());
+
+        assertEquals(List.of(), roomService.getAvailableRooms(from, to, pools, PageRequest.of(0, 10)));
+        verify(roomRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void shouldCheckMatchingRoomsInDatabaseBeforeIndexIsReady() {
+        when(availabilityIndexService.isReady()).thenReturn(false);
+        when(roomRepository.findFreeRooms(from, to, new Integer[]{2, 5, 7, 9}, PageRequest.of(0, 10)))
+                .thenReturn(List.of(room(2)));
+
+        assertEquals(List.of(room(2)), roomService.getAvailableRooms(from, to, SUITES, PageRequest.of(0, 10)));
+        verify(availabilityIndexService, never()).isAvailable(any(), any(), any());
+    }
+
+    // a filter only narrows: without one every room is checked the same way
+    @Test
+    void shouldSearchWithoutFilterThroughIndex() {
+        final BitSet all = new BitSet();
+        all.set(1, 10);
+        when(roomAttributeService.findRoomIds(RoomFilter.NONE)).thenReturn(all);
+        when(availabilityIndexService.isAvailable(anyInt(), eq(from), eq(to))).thenReturn(false);
+        when(availabilityIndexService.isAvailable(2, from, to)).thenReturn(true);
+        when(availabilityIndexService.isAvailable(7, from, to)).thenReturn(true);
+        when(roomRepository.findAllById(List.of(2, 7))).thenReturn(List.of(room(2), room(7)));
+
+        final List<Room> rooms = roomService.getAvailableRooms(from, to, RoomFilter.NONE, PageRequest.of(0, 10));
+
+        assertEquals(List.of(2, 7), rooms.stream().map(Room::getRoomId).toList());
+        verify(roomRepository, never()).getAvailableRooms(any(), any(), any());
+    }
+
+    @Test
+    void shouldSearchWithoutFilterInDatabaseBeforeIndexIsReady() {
+        when(availabilityIndexService.isReady()).thenReturn(false);
+        when(roomRepository.findFreeRooms(from, to, PageRequest.of(0, 10))).thenReturn(List.of(room(1)));
+
+        assertEquals(List.of(room(1)), roomService.getAvailableRooms(from, to, RoomFilter.NONE, PageRequest.of(0, 10)));
+        verify(roomAttributeService, never()).findRoomIds(any());
+    }
+
+    @Test
+    void shouldRefuseSortOtherThanRoomId() {
+        // the order they come in anyway
+        assertEquals(List.of(), roomService.getAvailableRooms(from, to, SUITES, PageRequest.of(0, 10, Sort.by("roomId"))));
+
+        assertThrows(ValidationException.class, () -> roomService.getAvailableRooms(from, to, SUITES,
+                PageRequest.of(0, 10, Sort.by("roomNumber"))));
+        assertThrows(ValidationException.class, () -> roomService.getAvailableRooms(from, to, RoomFilter.NONE,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "roomId"))));
+    }
+
+    private static Room room(final int roomId) {
+        final Room room = new Room();
+        room.setRoomId(roomId);
+        room.setRoomNumber(String.valueOf(100 + roomId));
+        return room;
+    }
+}
@@ -0,0 +1,166 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.exception.ServiceOverloadedException;
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.repository.ReservationRepository;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.projection.RoomTypeAssignment;
+import com.sample.bookingservice.service.AvailabilityIndexService;
+import com.sample.bookingservice.service.AvailabilityVersionService;
+import com.sample.bookingservice.service.RoomAttributeService;
+import com.sample.bookingservice.service.RoomFilter;
+import com.sample.bookingservice.service.RoomRateService;
+import com.sample.bookingservice.service.RoomService;
+import com.sample.bookingservice.util.DailyRateTable;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DefaultRoomServicePriceTest {
+
+    private static final Sort CHEAPEST = Sort.by(RoomService.PRICE_SORT);
+
+    private RoomRepository roomRepository;
+    private AvailabilityIndexService availabilityIndexService;
+    private RoomAttributeService roomAttributeService;
+    private DefaultRoomService roomService;
+    private LocalDate from;
+    private LocalDate to;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        availabilityIndexService = mock(AvailabilityIndexService.class);
+        roomAttributeService = mock(RoomAttributeService.class);
+        final RoomRateService roomRateService = mock(RoomRateService.class);
+        roomService = new DefaultRoomService(mock(ReservationRepository.class), roomRepository,
+                mock(AvailabilityVersionService.class), availabilityIndexService, roomAttributeService,
+                roomRateService, mock(ObjectProvider.class));
+
+        from = LocalDate.now().plusDays(1);
+        to = LocalDate.now().plusDays(3);
+        // two nights: singles 100, doubles 160, suites 400; room 6 has no type
+        final DailyRateTable rates = new DailyRateTable(LocalDate.now().toEpochDay(), 10);
+        for (long day = from.toEpochDay(); day < to.toEpochDay(); day++) {
+            rates.setRate("single", day, 5_000);
+            rates.setRate("double", day, 8_000);
+            rates.setRate("suite", day, 20_000);
+        }
+        rates.setRoomType(1, "suite");
+        rates.setRoomType(2, "double");
+        rates.setRoomType(3, "single");
+        rates.setRoomType(4, "double");
+        rates.setRoomType(5, "single");
+        rates.complete();
+        when(roomRateService.getRates()).thenReturn(rates);
+        when(availabilityIndexService.isReady()).thenReturn(true);
+        when(availabilityIndexService.isAvailable(anyInt(), eq(from), eq(to))).thenReturn(true);
+    }
+
+    @Test
+    void shouldRankAvailableRoomsByStayPrice() {
+        when(availabilityIndexService.isAvailable(3, from, to)).thenReturn(false);
+        when(roomRepository.findAllById(List.of(5, 2, 4))).thenReturn(List.of(room(2), room(4), room(5)));
+
+        final List<Room> rooms = roomService.getAvailableRooms(from, to, RoomFilter.NONE, PageRequest.of(0, 3, CHEAPEST));
+
+        assertEquals(List.of(5, 2, 4), rooms.stream().map(Room::getRoomId).toList());
+        verify(availabilityIndexService, never()).isAvailable(eq(6), any(), any());
+        verify(roomRepository, never()).getAvailableRooms(any(), any(), any());
+    }
+
+    @Test
+    void shouldRankMostExpensiveFirstAndSkipEarlierPages() {
+        final Sort mostExpensive = Sort.by(Sort.Direction.DESC, RoomService.PRICE_SORT);
+        when(roomRepository.findAllById(List.of(4, 3))).thenReturn(List.of(room(3), room(4)));
+
+        final List<Room> rooms = roomService.getAvailableRooms(from, to, RoomFilter.NONE,
+                PageRequest.of(1, 2, mostExpensive));
+
+        // rooms of the same price in room id order
+        assertEquals(List.of(4, 3), rooms.stream().map(Room::getRoomId).toList());
+    }
+
+    @Test
+    void shouldNotCheckAvailabilityOfRoomsRankedAfterThePage() {
+        when(roomRepository.findAllById(List.of(1))).thenReturn(List.of(room(1)));
+
+        final List<Room> rooms = roomService.getAvailableRooms(from, to, RoomFilter.NONE,
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, RoomService.PRICE_SORT)));
+
+        assertEquals(List.of(1), rooms.stream().map(Room::getRoomId).toList());
+        verify(availabilityIndexService, never()).isAvailable(eq(2), any(), any());
+        verify(availabilityIndexService, never()).isAvailable(eq(5), any(), any());
+    }
+
+    @Test
+    void shouldOnlyRankRoomsMatchingTheFilter() {
+        final RoomFilter doubles = new RoomFilter("double", null, null, Set.of());
+        final BitSet matching = new BitSet();
+        matching.set(2);
+        matching.set(4);
+        matching.set(6);
+        when(roomAttributeService.findRoomIds(doubles)).thenReturn(matching);
+        when(roomRepository.findAllById(List.of(2, 4))).thenReturn(List.of(room(4), room(2)));
+
+        final List<Room> rooms = roomService.getAvailableRooms(from, to, doubles, PageRequest.of(0, 10, CHEAPEST));
+
+        assertEquals(List.of(2, 4), rooms.stream().map(Room::getRoomId).toList());
+        verify(availabilityIndexService, never()).isAvailable(eq(1), any(), any());
+    }
+
+    @Test
+    void shouldRankRoomsTypedSinceRatesWereRefreshed() {
+        when(roomRepository.findRoomTypesAfter(5)).thenReturn(List.of(new RoomTypeAssignment(6, "single"),
+                new RoomTypeAssignment(40, "single"), new RoomTypeAssignment(41, "penthouse")));
+        when(roomRepository.findAllById(List.of(3, 5, 6, 40))).thenReturn(List.of(room(3), room(5), room(6), room(40)));
+
+        final List<Room> rooms = roomService.getAvailableRooms(from, to, RoomFilter.NONE, PageRequest.of(0, 4, CHEAPEST));
+
+        // a type without rates has no price
+        assertEquals(List.of(3, 5, 6, 40), rooms.stream().map(Room::getRoomId).toList());
+    }
+
+    @Test
+    void shouldRefuseSortingByPriceAndAnotherProperty() {
+        final Sort priceThenNumber = Sort.by(RoomService.PRICE_SORT, "roomNumber");
+
+        assertThrows(ValidationException.class, () ->
+                roomService.getAvailableRooms(from, to, RoomFilter.NONE, PageRequest.of(0, 10, priceThenNumber)));
+        verify(roomRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void shouldNotRankBeforeAvailabilityIsLoaded() {
+        when(availabilityIndexService.isReady()).thenReturn(false);
+
+        assertThrows(ServiceOverloadedException.class, () ->
+                roomService.getAvailableRooms(from, to, RoomFilter.NONE, PageRequest.of(0, 10, CHEAPEST)));
+    }
+
+    private static Room room(final int roomId) {
+        final Room room = new Room();
+        room.setRoomId(roomId);
+        room.setRoomNumber(String.valueOf(100 + roomId));
+        return room;
+    }
+}
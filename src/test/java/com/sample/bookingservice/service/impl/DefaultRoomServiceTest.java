@@ -3,6 +3,8 @@ package com.sample.bookingservice.service.impl;
 import com.sample.bookingservice.model.Room;
 import com.sample.bookingservice.repository.ReservationRepository;
 import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.service.RoomAttributeService;
+import com.sample.bookingservice.service.RoomFilter;
 import com.sample.bookingservice.service.RoomService;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,7 +17,7 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 
 import java.time.LocalDate;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -40,6 +42,9 @@ class DefaultRoomServiceTest {
     @MockBean
     private ReservationRepository reservationRepository;
 
+    @MockBean
+    private RoomAttributeService roomAttributeService;
+
     @Autowired
     private RoomService defaultRoomService;
 
@@ -67,7 +72,10 @@ class DefaultRoomServiceTest {
     public void shouldReturnRoomsFromRepository() {
         final LocalDate startDate = LocalDate.now();
         final LocalDate endDate = LocalDate.now().plusDays(5);
-        when(roomRepository.getAvailableRooms(startDate, endDate, null)).thenReturn(List.of(room1, room2, room3));
+        final BitSet roomIds = new BitSet();
+        roomIds.set(1, 4);
+        when(roomAttributeService.findRoomIds(RoomFilter.NONE)).thenReturn(roomIds);
+        when(roomRepository.findAllById(List.of(1, 2, 3))).thenReturn(List.of(room1, room2, room3));
 
         final List<Room> roomsAvailable = defaultRoomService.getAvailableRooms(startDate, endDate, null);
 
@@ -80,7 +88,7 @@ class DefaultRoomServiceTest {
     public void shouldReturnEmptySetWhenNoAvailableRooms() {
         final LocalDate startDate = LocalDate.now();
         final LocalDate endDate = LocalDate.now().plusDays(5);
-        when(roomRepository.getAvailableRooms(startDate, endDate, null)).thenReturn(Collections.emptyList());
+        when(roomAttributeService.findRoomIds(RoomFilter.NONE)).thenReturn(new BitSet());
 
         final List<Room> roomsAvailable = defaultRoomService.getAvailableRooms(startDate, endDate, null);
 
@@ -0,0 +1,179 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import com.sample.bookingservice.exception.RoomAlreadyBookedException;
+import com.sample.bookingservice.exception.RoomNotFoundException;
+import com.sample.bookingservice.exception.ServiceOverloadedException;
+import com.sample.bookingservice.model.Reservation;
+import com.sample.bookingservice.model.WaitlistEntry;
+import com.sample.bookingservice.model.WaitlistStatus;
+import com.sample.bookingservice.repository.RoomRepository;
+import com.sample.bookingservice.repository.WaitlistEntryRepository;
+import com.sample.bookingservice.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DefaultWaitlistServiceTest {
+
+    private static final long TIMEOUT_MS = 2000;
+
+    private WaitlistEntryRepository waitlistEntryRepository;
+    private RoomRepository roomRepository;
+    private ReservationService reservationService;
+    private DefaultWaitlistService waitlistService;
+    private LocalDate from;
+    private LocalDate to;
+    private long nextEntryId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        waitlistEntryRepository = mock(WaitlistEntryRepository.class);
+        roomRepository = mock(RoomRepository.class);
+        reservationService = mock(ReservationService.class);
+        waitlistService = new DefaultWaitlistService(waitlistEntryRepository, roomRepository, reservationService, 2,
+                mock(ObjectProvider.class));
+
+        from = LocalDate.now().plusDays(3);
+        to = from.plusDays(2);
+        nextEntryId = 1;
+        when(roomRepository.existsById(any())).thenReturn(true);
+        when(waitlistEntryRepository.save(any())).thenAnswer(invocation -> {
+            final WaitlistEntry entry = invocation.getArgument(0);
+            entry.setEntryId(nextEntryId++);
+            return entry;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        waitlistService.close();
+    }
+
+    @Test
+    void shouldKeepEntryWaitingWhileRoomIsBooked() {
+        when(reservationService.promoteWaitlistEntry(from, to, 1, 1L))
+                .thenThrow(new RoomAlreadyBookedException("The room is already booked for the provided dates"));
+
+        final WaitlistEntry entry = waitlistService.enqueue(from, to, 1);
+
+        assertEquals(WaitlistStatus.WAITING, entry.getStatus());
+        assertEquals(1, waitlistService.getWaitingCount());
+    }
+
+    @Test
+    void shouldPromoteRightAwayWhenDaysAreFree() {
+        when(reservationService.promoteWaitlistEntry(from, to, 1, 1L)).thenReturn(Optional.of(reservation(42L)));
+
+        final WaitlistEntry entry = waitlistService.enqueue(from, to, 1);
+
+        assertEquals(WaitlistStatus.PROMOTED, entry.getStatus());
+        assertEquals(42L, entry.getReservationId());
+        assertEquals(0, waitlistService.getWaitingCount());
+    }
+
+    @Test
+    void shouldPromoteOldestOverlappingEntryOnCancellation() {
+        when(reservationService.promoteWaitlistEntry(any(), any(), any(), anyLong()))
+                .thenThrow(new RoomAlreadyBookedException("The room is already booked for the provided dates"));
+        waitlistService.enqueue(from, to, 1);
+        waitlistService.enqueue(from.plusDays(1), to.plusDays(1), 1);
+        doReturn(Optional.of(reservation(42L))).when(reservationService).promoteWaitlistEntry(from, to, 1, 1L);
+
+        waitlistService.onReservationChanges(new ReservationChangeBatchEvent(List.of(
+                new ReservationChangedEvent(7L, 1, from, to, ReservationChangeType.CANCELLED))));
+
+        verify(reservationService, timeout(TIMEOUT_MS).times(2)).promoteWaitlistEntry(from.plusDays(1), to.plusDays(1), 1, 2L);
+        verify(reservationService, timeout(TIMEOUT_MS).times(2)).promoteWaitlistEntry(from, to, 1, 1L);
+        assertEquals(1, waitlistService.getWaitingCount());
+    }
+
+    @Test
+    void shouldIgnoreBookingsAndOtherRooms() {
+        when(reservationService.promoteWaitlistEntry(any(), any(), any(), anyLong()))
+                .thenThrow(new RoomAlreadyBookedException("The room is already booked for the provided dates"));
+        waitlistService.enqueue(from, to, 1);
+
+        waitlistService.onReservationChanged(new ReservationChangedEvent(7L, 1, from, to, ReservationChangeType.BOOKED));
+        waitlistService.onReservationChanged(new ReservationChangedEvent(8L, 2, from, to, ReservationChangeType.CANCELLED));
+        waitlistService.onReservationChanged(new ReservationChangedEvent(9L, 1, to, to.plusDays(1),
+                ReservationChangeType.CANCELLED));
+        // runs after the ones above on the single promoter thread
+        waitlistService.onReservationChanged(new ReservationChangedEvent(10L, 1, from, to, ReservationChangeType.CANCELLED));
+
+        verify(reservationService, timeout(TIMEOUT_MS).times(2)).promoteWaitlistEntry(from, to, 1, 1L);
+    }
+
+    @Test
+    void shouldDropEntryPromotedElsewhere() {
+        when(reservationService.promoteWaitlistEntry(from, to, 1, 1L))
+                .thenThrow(new RoomAlreadyBookedException("The room is already booked for the provided dates"))
+                .thenReturn(Optional.empty());
+        waitlistService.enqueue(from, to, 1);
+
+        waitlistService.onReservationChanged(new ReservationChangedEvent(7L, 1, from, to, ReservationChangeType.CANCELLED));
+
+        verify(reservationService, timeout(TIMEOUT_MS).times(2)).promoteWaitlistEntry(from, to, 1, 1L);
+        assertEquals(0, waitlistService.getWaitingCount());
+    }
+
+    @Test
+    void shouldRejectUnknownRoom() {
+        when(roomRepository.existsById(1)).thenReturn(false);
+
+        assertThrows(RoomNotFoundException.class, () -> waitlistService.enqueue(from, to, 1));
+        verify(waitlistEntryRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRefuseEntriesOverLimit() {
+        when(reservationService.promoteWaitlistEntry(any(), any(), any(), anyLong()))
+                .thenThrow(new RoomAlreadyBookedException("The room is already booked for the provided dates"));
+        waitlistService.enqueue(from, to, 1);
+        waitlistService.enqueue(from, to, 2);
+
+        assertThrows(ServiceOverloadedException.class, () -> waitlistService.enqueue(from, to, 3));
+    }
+
+    @Test
+    void shouldExpirePastEntries() {
+        final WaitlistEntry past = new WaitlistEntry();
+        past.setEntryId(5L);
+        past.setRoomId(1);
+        past.setStartDate(LocalDate.now().minusDays(1));
+        past.setEndDate(LocalDate.now().plusDays(1));
+        when(waitlistEntryRepository.findWaiting(any())).thenReturn(List.of(past));
+        waitlistService.load();
+
+        waitlistService.expire();
+
+        assertEquals(0, waitlistService.getWaitingCount());
+        verify(waitlistEntryRepository).expireWaiting(eq(LocalDate.now()));
+    }
+
+    private static Reservation reservation(final long id) {
+        final Reservation reservation = new Reservation();
+        reservation.setReservationId(id);
+        return reservation;
+    }
+}
@@ -0,0 +1,39 @@
+package com.sample.bookingservice.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.sample.bookingservice.service.impl.DefaultOutboxServiceTest.event;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileOutboxEventSinkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldAppendOneLinePerEventAcrossBatches() throws Exception {
+        final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        final Path file = directory.resolve("outbox.ndjson");
+        final FileOutboxEventSink sink = new FileOutboxEventSink(objectMapper, file.toString());
+
+        sink.publish(List.of(event(1L), event(2L)));
+        sink.publish(List.of(event(3L)));
+
+        final List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        final JsonNode last = objectMapper.readTree(lines.get(2));
+        assertEquals(3L, last.get("eventId").asLong());
+        assertEquals("BOOKED", last.get("eventType").asText());
+        assertEquals("2030-01-01", last.get("startDate").asText());
+    }
+}
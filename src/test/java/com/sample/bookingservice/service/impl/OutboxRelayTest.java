@@ -0,0 +1,22 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.service.OutboxService;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    @Test
+    void shouldKeepRelayingWhileBatchesComeBackFull() {
+        final OutboxService outboxService = mock(OutboxService.class);
+        when(outboxService.relayBatch()).thenReturn(100, 100, 42);
+
+        new OutboxRelay(outboxService, 100).relay();
+
+        verify(outboxService, times(3)).relayBatch();
+    }
+}
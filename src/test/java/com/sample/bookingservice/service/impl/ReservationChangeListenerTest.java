@@ -0,0 +1,154 @@
+package com.sample.bookingservice.service.impl;
+
+import com.sample.bookingservice.event.AvailabilityResyncEvent;
+import com.sample.bookingservice.event.ReservationChangeBatchEvent;
+import com.sample.bookingservice.event.ReservationChangeMessage;
+import com.sample.bookingservice.event.ReservationChangeType;
+import com.sample.bookingservice.event.ReservationChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers
+class ReservationChangeListenerTest {
+
+    private static final String CHANNEL = "reservation_changes";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            "postgres:17-alpine"
+    );
+
+    private final BlockingQueue<Object> published = new LinkedBlockingQueue<>();
+    private JdbcTemplate jdbcTemplate;
+    private ReservationChangeListener listener;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword()));
+        listener = new ReservationChangeListener(connectionDetailsOf(), published::add,
+                new ReservationChangeNotifier(jdbcTemplate, CHANNEL), CHANNEL, 100, 100, 300, 100);
+        listener.start();
+        assertTrue(assertInstanceOf(AvailabilityResyncEvent.class, published.poll(10, TimeUnit.SECONDS)).catchUp());
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    void shouldApplyChangesNotifiedByOtherNodes() throws Exception {
+        final ReservationChangedEvent change = new ReservationChangedEvent(1L, 7, LocalDate.now().plusDays(1),
+                LocalDate.now().plusDays(3), ReservationChangeType.BOOKED);
+
+        notify(new ReservationChangeMessage("other", 1, change));
+
+        assertEquals(change, published.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldIgnoreOwnChanges() throws Exception {
+        final ReservationChangeNotifier ownNotifier = new ReservationChangeNotifier(jdbcTemplate, CHANNEL);
+        final ReservationChangedEvent change = new ReservationChangedEvent(1L, 7, LocalDate.now().plusDays(1),
+                LocalDate.now().plusDays(3), ReservationChangeType.BOOKED);
+        final ReservationChangedEvent otherChange = new ReservationChangedEvent(2L, 8, LocalDate.now().plusDays(1),
+                LocalDate.now().plusDays(3), ReservationChangeType.BOOKED);
+
+        listener.stop();
+        listener = new ReservationChangeListener(connectionDetailsOf(), published::add, ownNotifier, CHANNEL,
+                100, 100, 300, 100);
+        listener.start();
+        assertInstanceOf(AvailabilityResyncEvent.class, published.poll(10, TimeUnit.SECONDS));
+
+        ownNotifier.onReservationChanged(change);
+        notify(new ReservationChangeMessage("other", 1, otherChange));
+
+        assertEquals(otherChange, published.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldApplyEveryChangeOfBatchNotifiedByOtherNode() throws Exception {
+        final ReservationChangeNotifier otherNotifier = new ReservationChangeNotifier(jdbcTemplate, CHANNEL);
+        final List<ReservationChangedEvent> changes = List.of(
+                new ReservationChangedEvent(1L, 7, LocalDate.now().plusDays(1), LocalDate.now().plusDays(3),
+                        ReservationChangeType.BOOKED),
+                new ReservationChangedEvent(2L, 8, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4),
+                        ReservationChangeType.BOOKED),
+                new ReservationChangedEvent(3L, 9, LocalDate.now().plusDays(3), LocalDate.now().plusDays(5),
+                        ReservationChangeType.BOOKED));
+
+        otherNotifier.onReservationChanges(new ReservationChangeBatchEvent(changes));
+
+        assertEquals(changes.get(0), published.poll(5, TimeUnit.SECONDS));
+        assertEquals(changes.get(1), published.poll(5, TimeUnit.SECONDS));
+        assertEquals(changes.get(2), published.poll(5, TimeUnit.SECONDS));
+        // consecutive sequence numbers, no gap to resync for
+        assertNull(published.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldResyncWhenMessageIsMissing() throws Exception {
+        final ReservationChangedEvent change = new ReservationChangedEvent(1L, 7, LocalDate.now().plusDays(1),
+                LocalDate.now().plusDays(3), ReservationChangeType.CANCELLED);
+
+        notify(new ReservationChangeMessage("other", 1, change));
+        notify(new ReservationChangeMessage("other", 3, change));
+
+        assertEquals(change, published.poll(5, TimeUnit.SECONDS));
+        assertEquals(change, published.poll(5, TimeUnit.SECONDS));
+        assertInstanceOf(AvailabilityResyncEvent.class, published.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldResyncEverythingOnReconnect() throws Exception {
+        jdbcTemplate.query("SELECT pg_terminate_backend(pid) FROM pg_stat_activity"
+                + " WHERE query LIKE 'LISTEN%' AND pid <> pg_backend_pid()", resultSet -> {
+        });
+
+        assertFalse(assertInstanceOf(AvailabilityResyncEvent.class, published.poll(10, TimeUnit.SECONDS)).catchUp());
+    }
+
+    private void notify(final ReservationChangeMessage message) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> {
+        }, CHANNEL, message.encode());
+    }
+
+    private JdbcConnectionDetails connectionDetailsOf() {
+        return new JdbcConnectionDetails() {
+            @Override
+            public String getUsername() {
+                return postgres.getUsername();
+            }
+
+            @Override
+            public String getPassword() {
+                return postgres.getPassword();
+            }
+
+            @Override
+            public String getJdbcUrl() {
+                return postgres.getJdbcUrl();
+            }
+        };
+    }
+}
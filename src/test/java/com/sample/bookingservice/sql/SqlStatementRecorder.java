@@ -0,0 +1,95 @@
+package com.sample.bookingservice.sql;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the statements executed on the calling thread between {@link #start()} and {@link #stop()}, so
+ * background work (the outbox relay, the change listener) doesn't count against a budget. Wraps the
+ * {@link DataSource}, so SQL sent through JdbcTemplate counts as well as Hibernate's, one entry per round trip
+ * (a JDBC batch is one). Registered with {@code @Import(SqlStatementRecorder.class)}.
+ */
+public class SqlStatementRecorder implements BeanPostProcessor {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    public static void start() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    public static List<String> stop() {
+        final List<String> statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements == null ? List.of() : statements;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                final Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? recording(connection) : result;
+            });
+        }
+        return bean;
+    }
+
+    private static Connection recording(final Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            final Object result = invoke(target, method, args);
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+
+            // prepared and callable statements get their SQL here, plain ones with each execute
+            final String preparedSql = args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+            return proxy(statementTypeOf(method.getReturnType()), statement, (statementTarget, statementMethod, statementArgs) -> {
+                if (statementMethod.getName().startsWith("execute")) {
+                    record(statementArgs != null && statementArgs.length > 0 && statementArgs[0] instanceof String sql
+                            ? sql : preparedSql);
+                }
+                return invoke(statementTarget, statementMethod, statementArgs);
+            });
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Statement> statementTypeOf(final Class<?> returnType) {
+        return (Class<Statement>) returnType;
+    }
+
+    private static void record(final String sql) {
+        final List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+
+    private static <T> T proxy(final Class<T> type, final T target, final Handler<T> handler) {
+        final InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return type.cast(Proxy.newProxyInstance(SqlStatementRecorder.class.getClassLoader(), new Class<?>[]{type},
+                invocationHandler));
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+}
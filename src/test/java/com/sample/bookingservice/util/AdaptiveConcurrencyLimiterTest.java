@@ -0,0 +1,70 @@
+package com.sample.bookingservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void shouldRejectRequestsOverTheLimit() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(FAST, 2);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void shouldGrowWhileLatencyHoldsUnderLoad() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, limiter.getLimit());
+        }
+
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    @Test
+    void shouldShrinkWhenLatencyRises() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 4, 100);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, limiter.getLimit());
+        }
+        final int limitBeforeSlowdown = limiter.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, limiter.getLimit());
+        }
+
+        assertTrue(limiter.getLimit() < limitBeforeSlowdown / 2);
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void shouldNotGrowWhenFarBelowTheLimit() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, 1);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+}
@@ -0,0 +1,41 @@
+package com.sample.bookingservice.util;
+
+import com.sample.bookingservice.event.ReservationChangeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AvailabilityJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReplayAppendedEntriesAndDropTornTail() throws Exception {
+        final Path path = directory.resolve("journal");
+        final AvailabilityJournal.Entry booked = new AvailabilityJournal.Entry(1L, 2, 100, 103, ReservationChangeType.BOOKED);
+        final AvailabilityJournal.Entry cancelled = new AvailabilityJournal.Entry(1L, 2, 100, 103, ReservationChangeType.CANCELLED);
+
+        try (AvailabilityJournal journal = AvailabilityJournal.open(path)) {
+            journal.append(booked);
+            journal.append(cancelled);
+        }
+        Files.write(path, new byte[]{0x4C, 0x4E, 0x52, 0x4A, 1, 0, 0}, StandardOpenOption.APPEND);
+
+        final List<AvailabilityJournal.Entry> replayed = new ArrayList<>();
+        try (AvailabilityJournal journal = AvailabilityJournal.open(path)) {
+            assertEquals(2, journal.replay(replayed::add));
+            journal.append(booked);
+        }
+
+        assertEquals(List.of(booked, cancelled), replayed);
+        assertEquals(3 * 32, Files.size(path));
+    }
+}
@@ -0,0 +1,112 @@
+package com.sample.bookingservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilitySnapshotTest {
+
+    private static final int RING_DAYS = 100;
+    private static final long TODAY = 20_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldTrackBookedDaysPerRoom() throws Exception {
+        try (AvailabilitySnapshot snapshot = AvailabilitySnapshot.open(directory.resolve("s"), RING_DAYS, 10, TODAY)) {
+            snapshot.book(3, TODAY + 60, TODAY + 70);
+
+            assertFalse(snapshot.isFree(3, TODAY + 65, TODAY + 66));
+            assertFalse(snapshot.isFree(3, TODAY + 50, TODAY + 61));
+            assertTrue(snapshot.isFree(3, TODAY + 70, TODAY + 75));
+            assertTrue(snapshot.isFree(3, TODAY + 55, TODAY + 60));
+            assertTrue(snapshot.isFree(4, TODAY + 60, TODAY + 70));
+
+            snapshot.release(3, TODAY + 60, TODAY + 70);
+            assertTrue(snapshot.isFree(3, TODAY + 60, TODAY + 70));
+        }
+    }
+
+    @Test
+    void shouldKeepStateAcrossReopen() throws Exception {
+        final Path path = directory.resolve("s");
+        try (AvailabilitySnapshot snapshot = AvailabilitySnapshot.open(path, RING_DAYS, 10, TODAY)) {
+            assertFalse(snapshot.isComplete());
+            snapshot.book(2, TODAY + 1, TODAY + 3);
+            snapshot.raiseHighWaterMark(42);
+            snapshot.markComplete();
+        }
+
+        try (AvailabilitySnapshot snapshot = AvailabilitySnapshot.open(path, RING_DAYS, 10, TODAY)) {
+            assertTrue(snapshot.isComplete());
+            assertEquals(42, snapshot.getHighWaterMark());
+            assertFalse(snapshot.isFree(2, TODAY + 2, TODAY + 3));
+        }
+    }
+
+    @Test
+    void shouldStartOverWhenRingLengthChanged() throws Exception {
+        final Path path = directory.resolve("s");
+        try (AvailabilitySnapshot snapshot = AvailabilitySnapshot.open(path, RING_DAYS, 10, TODAY)) {
+            snapshot.book(2, TODAY + 1, TODAY + 3);
+            snapshot.markComplete();
+        }
+
+        try (AvailabilitySnapshot snapshot = AvailabilitySnapshot.open(path, RING_DAYS + 1, 10, TODAY)) {
+            assertFalse(snapshot.isComplete());
+            assertTrue(snapshot.isFree(2, TODAY + 1, TODAY + 3));
+        }
+    }
+
+    @Test
+    void shouldClearPastDaysBeforeTheirSlotsAreReused() throws Exception {
+        try (AvailabilitySnapshot snapshot = AvailabilitySnapshot.open(directory.resolve("s"), RING_DAYS, 10, TODAY)) {
+            snapshot.book(1, TODAY, TODAY + 5);
+            snapshot.rollTo(TODAY + 3);
+
+            // TODAY + 100 shares the slot of TODAY
+            assertTrue(snapshot.isFree(1, TODAY + RING_DAYS, TODAY + RING_DAYS + 3));
+            assertFalse(snapshot.isFree(1, TODAY + 3, TODAY + 4));
+        }
+    }
+
+    @Test
+    void shouldGrowForRoomsBeyondCapacity() throws Exception {
+        try (AvailabilitySnapshot snapshot = AvailabilitySnapshot.open(directory.resolve("s"), RING_DAYS, 10, TODAY)) {
+            final int roomId = snapshot.getRoomCapacity() + 5;
+            assertTrue(snapshot.isFree(roomId, TODAY + 1, TODAY + 2));
+
+            snapshot.ensureCapacity(roomId);
+            snapshot.book(roomId, TODAY + 1, TODAY + 2);
+
+            assertFalse(snapshot.isFree(roomId, TODAY + 1, TODAY + 2));
+        }
+    }
+
+    @Test
+    void shouldSwapInRebuiltDaysOfARoom() throws Exception {
+        try (AvailabilitySnapshot snapshot = AvailabilitySnapshot.open(directory.resolve("s"), RING_DAYS, 10, TODAY)) {
+            snapshot.book(1, TODAY + 1, TODAY + 5);
+            snapshot.book(1, TODAY + 80, TODAY + 90);
+
+            final long[] days = snapshot.newRoomDays();
+            snapshot.markDays(days, TODAY + 1, TODAY + 10, true);
+            snapshot.markDays(days, TODAY + 5, TODAY + 10, false);
+            // not in the ring yet
+            snapshot.markDays(days, TODAY + RING_DAYS, TODAY + RING_DAYS + 5, true);
+            assertTrue(snapshot.isFree(1, TODAY + 5, TODAY + 10));
+
+            snapshot.replaceDays(1, days);
+
+            assertFalse(snapshot.isFree(1, TODAY + 1, TODAY + 5));
+            assertTrue(snapshot.isFree(1, TODAY + 5, TODAY + RING_DAYS));
+            assertTrue(snapshot.isFree(2, TODAY + 1, TODAY + 5));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.sample.bookingservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookedDateRangesTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 1);
+
+    private final BookedDateRanges ranges = new BookedDateRanges();
+
+    @Test
+    void shouldTreatEndDateAsExclusive() {
+        ranges.book(DAY, DAY.plusDays(3));
+
+        assertTrue(ranges.isFree(DAY.plusDays(3), DAY.plusDays(5)));
+        assertTrue(ranges.isFree(DAY.minusDays(2), DAY));
+        assertFalse(ranges.isFree(DAY.plusDays(2), DAY.plusDays(4)));
+        assertFalse(ranges.isFree(DAY.minusDays(1), DAY.plusDays(1)));
+        assertFalse(ranges.isFree(DAY.minusDays(1), DAY.plusDays(5)));
+    }
+
+    @Test
+    void shouldRefuseOverlappingBooking() {
+        assertTrue(ranges.tryBook(DAY, DAY.plusDays(2)));
+        assertTrue(ranges.tryBook(DAY.plusDays(4), DAY.plusDays(6)));
+
+        assertFalse(ranges.tryBook(DAY.plusDays(1), DAY.plusDays(3)));
+        assertFalse(ranges.tryBook(DAY.plusDays(3), DAY.plusDays(5)));
+        assertTrue(ranges.tryBook(DAY.plusDays(2), DAY.plusDays(4)));
+        assertEquals(1, ranges.size());
+    }
+
+    @Test
+    void shouldMergeOverlappingBookings() {
+        ranges.book(DAY.plusDays(2), DAY.plusDays(4));
+        ranges.book(DAY.plusDays(6), DAY.plusDays(8));
+        ranges.book(DAY.plusDays(10), DAY.plusDays(12));
+        ranges.book(DAY.plusDays(3), DAY.plusDays(7));
+
+        assertEquals(2, ranges.size());
+        assertFalse(ranges.isFree(DAY.plusDays(4), DAY.plusDays(5)));
+        assertTrue(ranges.isFree(DAY.plusDays(8), DAY.plusDays(10)));
+
+        ranges.book(DAY, DAY.plusDays(20));
+
+        assertEquals(1, ranges.size());
+        assertFalse(ranges.isFree(DAY.plusDays(9), DAY.plusDays(10)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.sample.bookingservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollapsedStackRingTest {
+
+    @Test
+    void shouldMergeMinutesHeaviestFirst() {
+        final CollapsedStackRing ring = new CollapsedStackRing(5, 100);
+        ring.add(10, "a;b", 1);
+        ring.add(11, "a;c", 3);
+        ring.add(11, "a;b", 1);
+
+        assertEquals(List.of(Map.entry("a;c", 3L), Map.entry("a;b", 2L)), ring.collapse(10, 11));
+        assertEquals(List.of(Map.entry("a;c", 3L), Map.entry("a;b", 1L)), ring.collapse(11, 11));
+    }
+
+    @Test
+    void shouldReuseSlotOfMinuteThatLeftTheRing() {
+        final CollapsedStackRing ring = new CollapsedStackRing(2, 100);
+        ring.add(10, "old", 1);
+        ring.add(12, "new", 1);
+        // minute 10 is no longer held, a late event for it is dropped
+        ring.add(10, "late", 1);
+
+        assertEquals(List.of(Map.entry("new", 1L)), ring.collapse(0, 20));
+    }
+
+    @Test
+    void shouldFoldStacksOverTheLimitIntoTruncated() {
+        final CollapsedStackRing ring = new CollapsedStackRing(1, 2);
+        ring.add(1, "a", 1);
+        ring.add(1, "b", 1);
+        ring.add(1, "c", 5);
+        ring.add(1, "a", 1);
+
+        final List<Map.Entry<String, Long>> stacks = ring.collapse(1, 1);
+        assertEquals(Map.entry(CollapsedStackRing.TRUNCATED, 5L), stacks.get(0));
+        assertTrue(stacks.contains(Map.entry("a", 2L)));
+    }
+}
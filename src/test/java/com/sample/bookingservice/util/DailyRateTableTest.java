@@ -0,0 +1,73 @@
+package com.sample.bookingservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DailyRateTableTest {
+
+    private static final long BASE_DAY = 20_000;
+
+    @Test
+    void shouldSumNightlyRatesOfTheStay() {
+        final DailyRateTable rates = new DailyRateTable(BASE_DAY, 10);
+        for (int day = 0; day < 10; day++) {
+            rates.setRate("Suite", BASE_DAY + day, 10_000 + day * 100L);
+        }
+        rates.setRoomType(7, "suite");
+        rates.complete();
+
+        assertEquals(10_000, rates.total(7, BASE_DAY, BASE_DAY + 1));
+        assertEquals(10_200 + 10_300 + 10_400, rates.total(7, BASE_DAY + 2, BASE_DAY + 5));
+        assertEquals(100_000 + 4_500, rates.total(7, BASE_DAY, BASE_DAY + 10));
+        assertEquals(10_200 + 10_300 + 10_400, rates.total("SUITE", BASE_DAY + 2, BASE_DAY + 5));
+    }
+
+    @Test
+    void shouldNotPriceStaysHoldingANightWithoutRate() {
+        final DailyRateTable rates = new DailyRateTable(BASE_DAY, 10);
+        rates.setRate("double", BASE_DAY, 5_000);
+        rates.setRate("double", BASE_DAY + 1, 5_000);
+        rates.setRate("double", BASE_DAY + 3, 6_000);
+        rates.setRoomType(1, "double");
+        rates.setRoomType(2, "suite");
+        rates.complete();
+
+        assertEquals(10_000, rates.total(1, BASE_DAY, BASE_DAY + 2));
+        assertEquals(6_000, rates.total(1, BASE_DAY + 3, BASE_DAY + 4));
+        assertEquals(DailyRateTable.UNPRICED, rates.total(1, BASE_DAY + 1, BASE_DAY + 4));
+        // a type without rates, a room without a type and an unknown type
+        assertEquals(DailyRateTable.UNPRICED, rates.total(2, BASE_DAY, BASE_DAY + 1));
+        assertEquals(DailyRateTable.UNPRICED, rates.total(0, BASE_DAY, BASE_DAY + 1));
+        assertEquals(DailyRateTable.UNPRICED, rates.total(100, BASE_DAY, BASE_DAY + 1));
+        assertEquals(DailyRateTable.UNPRICED, rates.total("single", BASE_DAY, BASE_DAY + 1));
+        assertEquals(DailyRateTable.UNPRICED, rates.total((String) null, BASE_DAY, BASE_DAY + 1));
+    }
+
+    @Test
+    void shouldNotPriceStaysOutsideTheHorizon() {
+        final DailyRateTable rates = new DailyRateTable(BASE_DAY, 3);
+        for (long day = BASE_DAY - 1; day <= BASE_DAY + 3; day++) {
+            rates.setRate("double", day, 5_000);
+        }
+        rates.setRoomType(1, "double");
+        rates.complete();
+
+        assertEquals(15_000, rates.total(1, BASE_DAY, BASE_DAY + 3));
+        assertEquals(DailyRateTable.UNPRICED, rates.total(1, BASE_DAY - 1, BASE_DAY + 1));
+        assertEquals(DailyRateTable.UNPRICED, rates.total(1, BASE_DAY + 2, BASE_DAY + 4));
+        assertEquals(DailyRateTable.UNPRICED, rates.total(1, BASE_DAY + 1, BASE_DAY + 1));
+    }
+
+    @Test
+    void shouldOnlyBeReadOnceComplete() {
+        final DailyRateTable rates = new DailyRateTable(BASE_DAY, 3);
+        rates.setRoomType(1, "double");
+
+        assertThrows(IllegalStateException.class, () -> rates.total(1, BASE_DAY, BASE_DAY + 1));
+        rates.complete();
+        assertThrows(IllegalStateException.class, () -> rates.setRate("double", BASE_DAY, 5_000));
+        assertThrows(IllegalArgumentException.class, () -> new DailyRateTable(BASE_DAY, 3).setRate("double", BASE_DAY, -1));
+    }
+}
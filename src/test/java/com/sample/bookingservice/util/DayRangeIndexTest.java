@@ -0,0 +1,37 @@
+package com.sample.bookingservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DayRangeIndexTest {
+
+    @Test
+    void shouldFindSubscribersSharingADay() {
+        final DayRangeIndex<String> index = new DayRangeIndex<>();
+        index.add(10, 13, "first");
+        index.add(12, 15, "second");
+        index.add(20, 21, "third");
+
+        assertEquals(Set.of("first"), index.find(8, 11));
+        assertEquals(Set.of("first", "second"), index.find(12, 13));
+        assertEquals(Set.of("second"), index.find(13, 20));
+        assertEquals(Set.of(), index.find(15, 20));
+        // windows end exclusively, like reservations
+        assertEquals(Set.of(), index.find(5, 10));
+    }
+
+    @Test
+    void shouldDropEmptyDaysOnRemove() {
+        final DayRangeIndex<String> index = new DayRangeIndex<>();
+        index.add(10, 13, "first");
+        index.add(12, 15, "second");
+
+        index.remove(10, 13, "first");
+
+        assertEquals(Set.of("second"), index.find(0, 100));
+        assertEquals(3, index.dayCount());
+    }
+}
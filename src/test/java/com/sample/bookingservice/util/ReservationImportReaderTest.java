@@ -0,0 +1,91 @@
+package com.sample.bookingservice.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sample.bookingservice.dto.MakeReservationDto;
+import com.sample.bookingservice.service.ReservationImportRejection;
+import com.sample.bookingservice.service.ReservationImportRow;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservationImportReaderTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 6, 1);
+    private static final LocalDate END = LocalDate.of(2025, 6, 4);
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final List<ReservationImportRejection> rejections = new ArrayList<>();
+
+    @Test
+    void shouldReadCsvColumnsByHeaderName() throws IOException {
+        final List<ReservationImportRow> rows = read(ReservationImportReader.Format.CSV, """
+                channelRef,endDate,"startDate",roomId
+                A-1,2025-06-04,2025-06-01,7
+
+                "A-2", "2025-06-05" ,"2025-06-04",8
+                """);
+
+        assertEquals(List.of(new ReservationImportRow(2, 7, START, END),
+                new ReservationImportRow(4, 8, END, END.plusDays(1))), rows);
+        assertTrue(rejections.isEmpty());
+    }
+
+    @Test
+    void shouldRejectCsvLinesThatCantBeParsed() throws IOException {
+        final List<ReservationImportRow> rows = read(ReservationImportReader.Format.CSV, """
+                roomId,startDate,endDate
+                7,2025-06-01
+                seven,2025-06-01,2025-06-04
+                7,2025-06-01,tomorrow
+                7,2025-06-01,2025-06-04
+                """);
+
+        assertEquals(List.of(new ReservationImportRow(5, 7, START, END)), rows);
+        assertEquals(List.of(2L, 3L, 4L), rejections.stream().map(ReservationImportRejection::line).toList());
+    }
+
+    @Test
+    void shouldRefuseCsvWithoutRequiredColumns() {
+        assertThrows(ValidationException.class, () -> read(ReservationImportReader.Format.CSV, """
+                room,startDate,endDate
+                7,2025-06-01,2025-06-04
+                """));
+    }
+
+    @Test
+    void shouldReadJsonLines() throws IOException {
+        final List<ReservationImportRow> rows = read(ReservationImportReader.Format.NDJSON, """
+                {"roomId":7,"startDate":"2025-06-01","endDate":"2025-06-04","channel":"ota"}
+                {"roomId":7,"startDate":"2025-06-01",
+                {"startDate":"2025-06-04","endDate":"2025-06-05"}
+                """);
+
+        assertEquals(List.of(new ReservationImportRow(1, 7, START, END),
+                new ReservationImportRow(3, null, END, END.plusDays(1))), rows);
+        assertEquals(List.of(2L), rejections.stream().map(ReservationImportRejection::line).toList());
+    }
+
+    private List<ReservationImportRow> read(final ReservationImportReader.Format format, final String text)
+            throws IOException {
+        final ReservationImportReader reader = new ReservationImportReader(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), format,
+                objectMapper.readerFor(MakeReservationDto.class), rejections::add);
+        final List<ReservationImportRow> rows = new ArrayList<>();
+        ReservationImportRow row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,63 @@
+package com.sample.bookingservice.util;
+
+import com.sample.bookingservice.model.Room;
+import com.sample.bookingservice.service.RoomFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoomAttributeIndexTest {
+
+    @Test
+    void shouldIntersectAttributeBitmaps() {
+        final RoomAttributeIndex index = new RoomAttributeIndex();
+        index.add(room(1, "Double", 2, 1, List.of("wifi")));
+        index.add(room(2, "Suite", 4, 2, List.of("wifi", "Balcony")));
+        index.add(room(3, "suite", 3, 2, List.of("balcony")));
+        index.add(room(4, null, null, null, null));
+
+        assertEquals(bits(1, 2, 3, 4), index.match(RoomFilter.NONE));
+        assertEquals(bits(2, 3), index.match(new RoomFilter("SUITE", null, null, null)));
+        assertEquals(bits(2, 3), index.match(new RoomFilter(null, 3, null, null)));
+        assertEquals(bits(2), index.match(new RoomFilter("suite", null, 2, Set.of("WiFi", "balcony"))));
+        assertEquals(bits(1, 2), index.match(new RoomFilter(null, null, null, Set.of("wifi"))));
+        // a value no room has matches nothing
+        assertEquals(bits(), index.match(new RoomFilter(null, 5, null, null)));
+        assertEquals(bits(), index.match(new RoomFilter(null, null, null, Set.of("pool"))));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void shouldHandOutBitmapsTheCallerMayChange() {
+        final RoomAttributeIndex index = new RoomAttributeIndex();
+        index.add(room(1, "Double", 2, 1, List.of()));
+
+        index.match(RoomFilter.NONE).clear();
+
+        assertEquals(bits(1), index.match(new RoomFilter("double", null, null, null)));
+    }
+
+    private static Room room(final int roomId, final String roomType, final Integer capacity, final Integer floor,
+                             final List<String> amenities) {
+        final Room room = new Room();
+        room.setRoomId(roomId);
+        room.setRoomNumber(String.valueOf(100 + roomId));
+        room.setRoomType(roomType);
+        room.setCapacity(capacity);
+        room.setFloor(floor);
+        room.setAmenities(amenities);
+        return room;
+    }
+
+    private static BitSet bits(final int... roomIds) {
+        final BitSet bits = new BitSet();
+        for (final int roomId : roomIds) {
+            bits.set(roomId);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,49 @@
+package com.sample.bookingservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SequenceGapDetectorTest {
+
+    private final SequenceGapDetector detector = new SequenceGapDetector(1000, 10);
+
+    @Test
+    void shouldAcceptMessagesDeliveredOutOfOrder() {
+        assertTrue(detector.received("a", 5, 0));
+        assertTrue(detector.received("a", 7, 0));
+        assertTrue(detector.received("a", 6, 500));
+
+        assertFalse(detector.hasExpiredGaps(5000));
+    }
+
+    @Test
+    void shouldReportMessageMissingForLongerThanTimeout() {
+        detector.received("a", 1, 0);
+        detector.received("a", 3, 0);
+
+        assertFalse(detector.hasExpiredGaps(999));
+        assertTrue(detector.hasExpiredGaps(1000));
+        assertFalse(detector.hasExpiredGaps(2000));
+    }
+
+    @Test
+    void shouldTrackSendersSeparately() {
+        detector.received("a", 1, 0);
+        detector.received("b", 40, 0);
+        detector.received("a", 2, 0);
+        detector.received("b", 41, 0);
+
+        assertFalse(detector.hasExpiredGaps(5000));
+    }
+
+    @Test
+    void shouldGiveUpWhenTooManyMessagesAreMissing() {
+        detector.received("a", 1, 0);
+
+        assertFalse(detector.received("a", 100, 0));
+        assertTrue(detector.received("a", 101, 0));
+        assertFalse(detector.hasExpiredGaps(5000));
+    }
+}
@@ -0,0 +1,58 @@
+package com.sample.bookingservice.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerTimingsTest {
+
+    @AfterEach
+    void tearDown() {
+        ServerTimings.clear();
+    }
+
+    @Test
+    void shouldChargeEachLayerOnlyItsOwnTime() throws Exception {
+        final ServerTimings timings = ServerTimings.start();
+        assertSame(timings, ServerTimings.current());
+
+        final long controller = timings.enter();
+        final long service = timings.enter();
+        final long repository = timings.enter();
+        Thread.sleep(50);
+        timings.exit(ServerTimings.Layer.REPOSITORY, repository);
+        timings.exit(ServerTimings.Layer.SERVICE, service);
+        timings.exit(ServerTimings.Layer.CONTROLLER, controller);
+
+        final String header = timings.toHeader();
+        assertTrue(duration(header, "repository") >= 50, header);
+        assertTrue(duration(header, "service") < 50, header);
+        assertTrue(duration(header, "controller") < 50, header);
+        assertTrue(header.contains("repository;dur=") && header.contains(";desc=\"1 calls\""), header);
+        assertTrue(header.contains("serialization;dur="), header);
+        assertTrue(duration(header, "total") >= 50, header);
+        assertFalse(header.contains("facade"), header);
+
+        ServerTimings.clear();
+        assertNull(ServerTimings.current());
+    }
+
+    private static double duration(final String header, final String name) {
+        final Matcher matcher = Pattern.compile(name + ";dur=([0-9.]+)").matcher(header);
+        assertTrue(matcher.find(), header);
+        return Double.parseDouble(matcher.group(1));
+    }
+
+    @Test
+    void shouldRenderOnlyTotalWithoutLayers() {
+        assertEquals("total", ServerTimings.start().toHeader().split(";")[0]);
+    }
+}
@@ -0,0 +1,61 @@
+package com.sample.bookingservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaitlistIndexTest {
+
+    @Test
+    void shouldFindEntriesSharingADayOldestFirst() {
+        final WaitlistIndex index = new WaitlistIndex();
+        final WaitlistIndex.Entry longStay = new WaitlistIndex.Entry(3, 1, 0, 20);
+        final WaitlistIndex.Entry first = new WaitlistIndex.Entry(1, 1, 12, 14);
+        final WaitlistIndex.Entry second = new WaitlistIndex.Entry(2, 1, 10, 13);
+        final WaitlistIndex.Entry otherRoom = new WaitlistIndex.Entry(4, 2, 10, 13);
+        index.add(longStay);
+        index.add(first);
+        index.add(second);
+        index.add(otherRoom);
+
+        assertEquals(List.of(first, second, longStay), index.find(1, 12, 13));
+        assertEquals(List.of(longStay), index.find(1, 14, 30));
+        // stays end exclusively, like reservations
+        assertEquals(List.of(), index.find(1, 20, 30));
+        assertEquals(List.of(), index.find(3, 0, 30));
+    }
+
+    @Test
+    void shouldRemoveEntries() {
+        final WaitlistIndex index = new WaitlistIndex();
+        final WaitlistIndex.Entry entry = new WaitlistIndex.Entry(1, 1, 10, 13);
+        index.add(entry);
+        index.add(entry);
+
+        assertEquals(1, index.size());
+        assertTrue(index.remove(entry));
+        assertFalse(index.remove(entry));
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.find(1, 0, 30));
+    }
+
+    @Test
+    void shouldRemoveEntriesStartingBeforeDay() {
+        final WaitlistIndex index = new WaitlistIndex();
+        final WaitlistIndex.Entry past = new WaitlistIndex.Entry(1, 1, 8, 12);
+        final WaitlistIndex.Entry today = new WaitlistIndex.Entry(2, 1, 10, 12);
+        final WaitlistIndex.Entry otherRoomPast = new WaitlistIndex.Entry(3, 2, 9, 11);
+        index.add(past);
+        index.add(today);
+        index.add(otherRoomPast);
+
+        assertEquals(List.of(past, otherRoomPast), index.removeStartingBefore(10).stream()
+                .sorted((a, b) -> Long.compare(a.entryId(), b.entryId())).toList());
+        assertEquals(1, index.size());
+        assertEquals(List.of(today), index.find(1, 0, 30));
+    }
+}